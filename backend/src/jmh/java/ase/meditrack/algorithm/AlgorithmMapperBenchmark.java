@@ -0,0 +1,29 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of the entities of a team to the input of the scheduling engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlgorithmMapperBenchmark {
+
+    @Benchmark
+    public AlgorithmInput mapToAlgorithmInput(TeamState state) {
+        return state.team.toAlgorithmInput(new AlgorithmMapper());
+    }
+}
@@ -0,0 +1,30 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.ModelStatistics;
+import ase.meditrack.service.algorithm.SchedulingSolver;
+import ase.meditrack.service.algorithm.SolverOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the CP-SAT model of a month, without solving it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ModelBuildBenchmark {
+
+    @Benchmark
+    public ModelStatistics buildModel(TeamState state) {
+        return SchedulingSolver.buildModel(state.input, SolverOptions.defaults());
+    }
+}
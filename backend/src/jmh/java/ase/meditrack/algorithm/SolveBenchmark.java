@@ -0,0 +1,108 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.GreedyScheduler;
+import ase.meditrack.service.algorithm.SchedulingSolver;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+import ase.meditrack.service.algorithm.SolverStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Solves the month with a fixed deadline and prints the time to the first feasible solution and the quality of the
+ * solution at the deadline after the wall time of the trial. Every iteration is a single solve with a fixed seed, so a worse
+ * objective at the same deadline points to a regression in the model or the search.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SolveBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Deadline {
+        @Param({"30"})
+        public double seconds;
+
+        @Param({"8"})
+        public int workers;
+
+        @Param({"true"})
+        public boolean symmetryBreaking;
+
+        public SolverOptions options;
+
+        @Setup(Level.Trial)
+        public void createOptions() {
+            options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(seconds).numWorkers(workers)
+                    .symmetryBreaking(symmetryBreaking).build();
+        }
+    }
+
+    /**
+     * Secondary results of the measured solves. They are not JMH counters, since JMH would sum them up over the
+     * iterations of a single shot benchmark, so their averages are printed at the end of the trial instead.
+     */
+    @State(Scope.Thread)
+    public static class Result {
+        private final List<SolverStatistics> solves = new ArrayList<>();
+        private boolean measuring;
+
+        @Setup(Level.Iteration)
+        public void startIteration(IterationParams params) {
+            measuring = params.getType() == IterationType.MEASUREMENT;
+        }
+
+        void record(SolverStatistics statistics) {
+            if (measuring) solves.add(statistics);
+        }
+
+        @TearDown(Level.Trial)
+        public void print() {
+            List<SolverStatistics> solverSolves = solves.stream()
+                    .filter(statistics -> !GreedyScheduler.STATUS.equals(statistics.status()))
+                    .toList();
+            // the share of the solves that found no solution before the deadline and returned the plan of the
+            // heuristic
+            System.out.printf("%nsolves: %d, heuristic: %d, time to first solution: %.3fs, objective: %.1f,"
+                            + " gap: %.4f%n", solves.size(), solves.size() - solverSolves.size(),
+                    average(solverSolves, SolverStatistics::timeToFirstSolutionSeconds),
+                    average(solverSolves, SolverStatistics::objective),
+                    average(solverSolves, SolverStatistics::gap));
+        }
+
+        private static double average(List<SolverStatistics> solves, Function<SolverStatistics, Double> value) {
+            return solves.stream().map(value).filter(Objects::nonNull).mapToDouble(Double::doubleValue).average()
+                    .orElse(Double.NaN);
+        }
+    }
+
+    @Benchmark
+    public AlgorithmOutput solveUntilDeadline(TeamState state, Deadline deadline, Result result) {
+        AlgorithmOutput output = SchedulingSolver.solve(state.input, deadline.options, SolverProgressListener.NONE)
+                .orElseThrow(() -> new IllegalStateException("The synthetic team can not be planned"));
+        result.record(output.statistics());
+        return output;
+    }
+}
@@ -0,0 +1,39 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The synthetic team every benchmark runs with. All parameters can be overridden on the command line, e.g.
+ * {@code -p employees=400 -p holidayDensity=0.2}.
+ */
+@State(Scope.Benchmark)
+public class TeamState {
+    @Param({"10", "50", "150", "400"})
+    public int employees;
+
+    @Param({"3"})
+    public int shiftTypes;
+
+    @Param({"2"})
+    public int roles;
+
+    @Param({"0.1"})
+    public double holidayDensity;
+
+    @Param({"true"})
+    public boolean carryOver;
+
+    public SyntheticTeam team;
+    public AlgorithmInput input;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        team = SyntheticTeam.generate(employees, shiftTypes, roles, holidayDensity, carryOver, 1);
+        input = team.toAlgorithmInput();
+    }
+}
@@ -0,0 +1,63 @@
+package ase.meditrack.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableScheduling
+public class SolverConfig {
+
+    /**
+     * Executor that runs the plan generation jobs. Its size is bounded, so month end planning can not exhaust the
+     * request threads or the database connections.
+     *
+     * @param properties the solver properties
+     * @return the executor for the solver jobs
+     */
+    @Bean
+    public ThreadPoolTaskExecutor solverExecutor(SolverProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("solver-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Executor that stores the drafts of anytime plan generation jobs, so the solver threads never wait for the
+     * database.
+     *
+     * @param properties the solver properties
+     * @return the executor for the draft updates
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService draftWriterExecutor(SolverProperties properties) {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newScheduledThreadPool(Math.max(properties.getPoolSize(), 1), runnable -> {
+            Thread thread = new Thread(runnable, "draft-writer-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pool that plans the teams of a batch and the role models of large teams. The role models are forked from the
+     * task of their team, so the pool can work on them while the team task waits.
+     *
+     * @param properties the solver properties
+     * @return the pool for the batch planner
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool batchPlanningPool(SolverProperties properties) {
+        return new ForkJoinPool(Math.max(properties.getBatchParallelism(), 1));
+    }
+}
@@ -0,0 +1,206 @@
+package ase.meditrack.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties("meditrack.solver")
+@Data
+public class SolverProperties {
+    /**
+     * Number of monthly plans that are solved at the same time.
+     */
+    private int poolSize = 2;
+    /**
+     * Number of plan generation jobs that can wait for a free solver thread.
+     */
+    private int queueCapacity = 10;
+    /**
+     * How long finished jobs are kept, so clients can still fetch their result.
+     */
+    private Duration jobRetention = Duration.ofHours(1);
+    /**
+     * How long a client can listen to the progress events of a job.
+     */
+    private Duration eventTimeout = Duration.ofMinutes(5);
+    /**
+     * Number of cores that are shared by all solves; 0 uses all cores of the machine.
+     */
+    private int totalWorkers = 0;
+    /**
+     * Upper limit of search workers a single solve gets.
+     */
+    private int maxWorkersPerSolve = 8;
+    /**
+     * Seed of the solver, so that solves with the same input and the same number of workers are reproducible.
+     */
+    private int randomSeed = 1;
+    /**
+     * Portfolio of subsolvers; empty uses the default portfolio of the solver.
+     */
+    private List<String> subsolvers = new ArrayList<>();
+    /**
+     * Whether the solver only searches one order of employees that are interchangeable.
+     */
+    private boolean symmetryBreaking = true;
+    /**
+     * Named sets of solver settings that a monthly plan can be created with, e.g. a quick preview or a thorough
+     * overnight run.
+     */
+    private Map<String, SolveProfile> profiles = defaultProfiles();
+    /**
+     * Profile of solves that do not select one.
+     */
+    private String defaultProfile = "standard";
+    /**
+     * Time limit when repairing a part of an existing plan.
+     */
+    private double repairMaxTimeInSeconds = 1;
+    /**
+     * Number of days before and after an affected day that may change when repairing a plan.
+     */
+    private int repairRadiusDays = 2;
+    /**
+     * Penalty of every day of an employee that changes when an existing plan is regenerated. Higher values keep more
+     * of the existing plan at the cost of the other goals.
+     */
+    private int stabilityWeight = 20;
+    /**
+     * Number of teams that are planned at the same time by the batch planner.
+     */
+    private int batchParallelism = 2;
+    /**
+     * Teams with at least this many employees are split into one model per role by the batch planner.
+     */
+    private int decompositionMinEmployees = 30;
+    /**
+     * Number of solver outputs that are kept to answer requests with an unchanged input; 0 disables the cache.
+     */
+    private int resultCacheSize = 100;
+    /**
+     * Whether cached solver outputs are also stored in the database.
+     */
+    private boolean persistentResultCache = false;
+    /**
+     * Time an anytime request waits for the first solution of the solver before it stores the plan of the heuristic.
+     */
+    private Duration anytimeLatency = Duration.ofSeconds(2);
+    /**
+     * Time between two updates of the stored draft plan while the solver keeps improving it.
+     */
+    private Duration anytimeUpdateInterval = Duration.ofSeconds(5);
+    /**
+     * Time limit to find the conflicting rules if no plan exists; 0 disables the diagnosis.
+     */
+    private double diagnosisMaxTimeInSeconds = 10;
+    /**
+     * Directory every solve is exported to, so it can be replayed outside the application; empty disables the export.
+     */
+    private String exportDirectory = "";
+    /**
+     * Whether the solver logs its search, so the presolve time of every solve is recorded. Always on if solves are
+     * exported.
+     */
+    private boolean logSearch = false;
+    /**
+     * Time limit of every scenario when comparing variants of the rules of a team.
+     */
+    private double scenarioMaxTimeInSeconds = 5;
+    /**
+     * Maximum number of scenarios that can be compared at once.
+     */
+    private int scenarioMaxCount = 5;
+    /**
+     * Number of separate processes the solves run in, so a heavy or crashing solve does not affect the requests of
+     * the application; 0 solves inside the application.
+     */
+    private int workerProcesses = 0;
+    /**
+     * Options of the JVMs of the worker processes, e.g. their heap size.
+     */
+    private List<String> workerJvmOptions = new ArrayList<>();
+    /**
+     * Time between two health checks of the idle worker processes.
+     */
+    private Duration workerHealthCheckInterval = Duration.ofSeconds(30);
+    /**
+     * How long a worker process may take to answer a health check, or longer than the time limit to finish a solve,
+     * before it is restarted.
+     */
+    private Duration workerTimeout = Duration.ofSeconds(10);
+    /**
+     * Time limit of all solves of a rolling-horizon plan together, so planning several months takes about as long
+     * as planning one.
+     */
+    private double horizonMaxTimeInSeconds = 30;
+    /**
+     * Maximum number of months that can be planned at once.
+     */
+    private int horizonMaxMonths = 12;
+    /**
+     * Whether the native libraries of the solver are loaded and a small synthetic team is solved when the
+     * application has started, so the first plan does not pay for a cold solver.
+     */
+    private boolean warmUp = true;
+    /**
+     * Time limit of the solve of the warm-up.
+     */
+    private double warmUpMaxTimeInSeconds = 5;
+
+    private static Map<String, SolveProfile> defaultProfiles() {
+        Map<String, SolveProfile> profiles = new LinkedHashMap<>();
+        profiles.put("preview", new SolveProfile(5, 2, 0.05, false, true, false, 0));
+        profiles.put("standard", new SolveProfile(30, 0, 0, false, true, false, 0));
+        profiles.put("staged", new SolveProfile(60, 0, 0, false, true, true, 0.05));
+        profiles.put("thorough", new SolveProfile(300, 0, 0, false, true, false, 0));
+        return profiles;
+    }
+
+    /**
+     * Settings of the solver that can be selected by name.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SolveProfile {
+        /**
+         * Time limit of a single solve.
+         */
+        private double maxTimeInSeconds = 30;
+        /**
+         * Upper limit of search workers; 0 leaves it to the resource manager.
+         */
+        private int workers = 0;
+        /**
+         * The solver stops once the relative gap between the plan and the best bound is below this value;
+         * 0 searches until the plan is optimal or the time limit is reached.
+         */
+        private double relativeGapLimit = 0;
+        /**
+         * Whether all workers only improve the current plan by large neighbourhood search instead of also searching
+         * for better bounds.
+         */
+        private boolean lnsOnly = false;
+        /**
+         * Whether the solver starts from the existing plan or the rotation of the previous month.
+         */
+        private boolean warmStart = true;
+        /**
+         * Whether the goals of the objective are optimized one after the other instead of as weighted sum.
+         */
+        private boolean lexicographic = false;
+        /**
+         * The relative amount by which a goal of a lexicographic solve may get worse to improve the later goals.
+         */
+        private double objectiveTolerance = 0;
+    }
+}
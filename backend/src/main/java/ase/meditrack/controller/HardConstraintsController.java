@@ -2,12 +2,19 @@ package ase.meditrack.controller;
 
 import ase.meditrack.model.CreateValidator;
 import ase.meditrack.model.dto.HardConstraintsDto;
+import ase.meditrack.model.dto.MonthlyPlanDto;
 import ase.meditrack.model.dto.RoleHardConstraintsDto;
+import ase.meditrack.model.dto.ScenarioComparisonDto;
+import ase.meditrack.model.dto.ScenarioComparisonRequestDto;
 import ase.meditrack.model.entity.User;
 import ase.meditrack.model.mapper.HardConstraintsMapper;
+import ase.meditrack.model.mapper.MonthlyPlanMapper;
+import ase.meditrack.model.mapper.ScenarioComparisonMapper;
 import ase.meditrack.service.RoleService;
 import ase.meditrack.service.TeamService;
 import ase.meditrack.service.UserService;
+import ase.meditrack.service.algorithm.ConstraintScenarioService;
+import ase.meditrack.service.algorithm.MonthlyPlanCreator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -18,11 +25,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 
 import java.security.Principal;
+import java.time.Month;
+import java.time.Year;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,13 +45,24 @@ public class HardConstraintsController {
     private final RoleService roleService;
     private final HardConstraintsMapper mapper;
     private final UserService userService;
+    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final MonthlyPlanMapper monthlyPlanMapper;
+    private final ConstraintScenarioService scenarioService;
+    private final ScenarioComparisonMapper scenarioMapper;
 
     public HardConstraintsController(TeamService teamService, RoleService roleService,
-                                     HardConstraintsMapper mapper, UserService userService) {
+                                     HardConstraintsMapper mapper, UserService userService,
+                                     MonthlyPlanCreator monthlyPlanCreator, MonthlyPlanMapper monthlyPlanMapper,
+                                     ConstraintScenarioService scenarioService,
+                                     ScenarioComparisonMapper scenarioMapper) {
         this.teamService = teamService;
         this.roleService = roleService;
         this.mapper = mapper;
         this.userService = userService;
+        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.monthlyPlanMapper = monthlyPlanMapper;
+        this.scenarioService = scenarioService;
+        this.scenarioMapper = scenarioMapper;
     }
 
     @GetMapping("")
@@ -82,4 +103,22 @@ public class HardConstraintsController {
         log.info("Creating hardConstraints");
         return mapper.toRoleHardconstraintsDto(roleService.updateRoleConstraints(dto));
     }
+
+    @GetMapping("/preview")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin', 'SCOPE_dm')")
+    public MonthlyPlanDto preview(@RequestParam Year year, @RequestParam Month month, Principal principal) {
+        log.info("Previewing monthly-plan with current hardConstraints for {} {}", year, month);
+        return monthlyPlanMapper.toDto(monthlyPlanCreator.previewMonthlyPlan(month.getValue(), year.getValue(),
+                principal));
+    }
+
+    @PostMapping("/scenarios")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin', 'SCOPE_dm')")
+    public ScenarioComparisonDto compareScenarios(@RequestParam Year year, @RequestParam Month month,
+                                                  @Validated @RequestBody ScenarioComparisonRequestDto dto,
+                                                  Principal principal) {
+        log.info("Comparing {} hardConstraints scenarios for {} {}", dto.scenarios().size(), year, month);
+        return scenarioMapper.toDto(scenarioService.compare(month.getValue(), year.getValue(), principal,
+                dto.scenarios()));
+    }
 }
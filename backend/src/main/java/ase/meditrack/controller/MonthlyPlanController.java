@@ -2,11 +2,18 @@ package ase.meditrack.controller;
 
 import ase.meditrack.model.UpdateValidator;
 import ase.meditrack.model.dto.MonthlyPlanDto;
+import ase.meditrack.model.dto.MonthlyPlanJobDto;
+import ase.meditrack.model.dto.PlanRepairDto;
+import ase.meditrack.model.mapper.MonthlyPlanJobMapper;
 import ase.meditrack.model.mapper.MonthlyPlanMapper;
 import ase.meditrack.service.MonthlyPlanService;
-import ase.meditrack.service.algorithm.MonthlyPlanCreator;
+import ase.meditrack.service.algorithm.MonthlyPlanGenerationService;
+import ase.meditrack.service.algorithm.MonthlyPlanJobService;
+import ase.meditrack.service.algorithm.MonthlyPlanRepairService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -20,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.Principal;
 import java.time.Month;
@@ -32,15 +40,26 @@ import java.util.UUID;
 @Slf4j
 @CrossOrigin(origins = "http://localhost:4200", allowedHeaders = "*")
 public class MonthlyPlanController {
+    private static final String SOLVER_CACHE_HEADER = "X-Solver-Cache";
+
     private final MonthlyPlanService service;
-    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final MonthlyPlanGenerationService monthlyPlanGenerationService;
+    private final MonthlyPlanJobService monthlyPlanJobService;
+    private final MonthlyPlanRepairService monthlyPlanRepairService;
     private final MonthlyPlanMapper mapper;
+    private final MonthlyPlanJobMapper jobMapper;
 
-    public MonthlyPlanController(MonthlyPlanService service, MonthlyPlanCreator monthlyPlanCreator,
-                                 MonthlyPlanMapper mapper) {
+    public MonthlyPlanController(MonthlyPlanService service,
+                                 MonthlyPlanGenerationService monthlyPlanGenerationService,
+                                 MonthlyPlanJobService monthlyPlanJobService,
+                                 MonthlyPlanRepairService monthlyPlanRepairService, MonthlyPlanMapper mapper,
+                                 MonthlyPlanJobMapper jobMapper) {
         this.service = service;
-        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.monthlyPlanGenerationService = monthlyPlanGenerationService;
+        this.monthlyPlanJobService = monthlyPlanJobService;
+        this.monthlyPlanRepairService = monthlyPlanRepairService;
         this.mapper = mapper;
+        this.jobMapper = jobMapper;
     }
 
     @GetMapping
@@ -69,9 +88,69 @@ public class MonthlyPlanController {
     @PostMapping
     @PreAuthorize("hasAnyAuthority('SCOPE_admin', 'SCOPE_dm')")
     @ResponseStatus(HttpStatus.CREATED)
-    public MonthlyPlanDto create(@RequestParam Year year, @RequestParam Month month, Principal principal) {
-        log.info("Creating monthly-plan for user {}, {} {}", principal.getName(), year, month);
-        return mapper.toDto(monthlyPlanCreator.createMonthlyPlan(month.getValue(), year.getValue(), principal));
+    public MonthlyPlanDto create(@RequestParam Year year, @RequestParam Month month,
+                                 @RequestParam(required = false) String profile, Principal principal,
+                                 HttpServletResponse response) {
+        log.info("Creating monthly-plan for user {}, {} {} with profile {}", principal.getName(), year, month,
+                profile == null ? "default" : profile);
+        MonthlyPlanDto dto = mapper.toDto(monthlyPlanGenerationService.createMonthlyPlan(month.getValue(),
+                year.getValue(), principal, profile));
+        boolean cached = dto.solverStatistics() != null && Boolean.TRUE.equals(dto.solverStatistics().cached());
+        response.setHeader(SOLVER_CACHE_HEADER, cached ? "HIT" : "MISS");
+        return dto;
+    }
+
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin', 'SCOPE_dm')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public MonthlyPlanJobDto submitJob(@RequestParam Year year, @RequestParam Month month, Principal principal) {
+        log.info("Submitting monthly-plan job for user {}, {} {}", principal.getName(), year, month);
+        return jobMapper.toDto(monthlyPlanJobService.submit(month.getValue(), year.getValue(), principal));
+    }
+
+    @PostMapping("/jobs/anytime")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin', 'SCOPE_dm')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public MonthlyPlanJobDto submitAnytimeJob(@RequestParam Year year, @RequestParam Month month,
+                                              Principal principal) {
+        log.info("Submitting anytime monthly-plan job for user {}, {} {}", principal.getName(), year, month);
+        return jobMapper.toDto(monthlyPlanJobService.submitAnytime(month.getValue(), year.getValue(), principal));
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin') ||"
+            + "(hasAnyAuthority('SCOPE_dm') && @monthlyPlanJobService.isUserInTeam(authentication.name, #id))")
+    public MonthlyPlanJobDto findJobById(@PathVariable UUID id) {
+        log.info("Fetching monthly-plan job with id: {}", id);
+        return jobMapper.toDto(monthlyPlanJobService.findById(id));
+    }
+
+    @GetMapping(value = "/jobs/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin') ||"
+            + "(hasAnyAuthority('SCOPE_dm') && @monthlyPlanJobService.isUserInTeam(authentication.name, #id))")
+    public SseEmitter streamJobEvents(@PathVariable UUID id) {
+        log.info("Streaming events of monthly-plan job with id: {}", id);
+        return monthlyPlanJobService.subscribe(id);
+    }
+
+    @PostMapping("{id}/repair")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin') ||"
+            + "(hasAnyAuthority('SCOPE_dm') && @monthlyPlanService.isUserInTeam(authentication.name, #id))")
+    @ResponseStatus(HttpStatus.OK)
+    public MonthlyPlanDto repair(@PathVariable UUID id, @Validated @RequestBody PlanRepairDto dto,
+                                 Principal principal) {
+        log.info("Repairing monthly-plan {} around shifts {}", id, dto.shifts());
+        return mapper.toDto(monthlyPlanRepairService.repair(id, dto.shifts(), principal));
+    }
+
+    @PostMapping("{id}/regenerate")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin') ||"
+            + "(hasAnyAuthority('SCOPE_dm') && @monthlyPlanService.isUserInTeam(authentication.name, #id))")
+    @ResponseStatus(HttpStatus.OK)
+    public MonthlyPlanDto regenerate(@PathVariable UUID id, @RequestParam(required = false) String profile,
+                                     Principal principal) {
+        log.info("Regenerating monthly-plan {} with profile {}", id, profile == null ? "default" : profile);
+        return mapper.toDto(monthlyPlanRepairService.regenerate(id, principal, profile));
     }
 
     @PutMapping
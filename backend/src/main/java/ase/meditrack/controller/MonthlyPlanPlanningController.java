@@ -0,0 +1,85 @@
+package ase.meditrack.controller;
+
+import ase.meditrack.model.dto.BatchPlanReportDto;
+import ase.meditrack.model.dto.HorizonPlanReportDto;
+import ase.meditrack.model.dto.MonthlyPlanDto;
+import ase.meditrack.model.mapper.BatchPlanReportMapper;
+import ase.meditrack.model.mapper.HorizonPlanReportMapper;
+import ase.meditrack.model.mapper.MonthlyPlanMapper;
+import ase.meditrack.service.algorithm.BatchPlanningService;
+import ase.meditrack.service.algorithm.FloatPoolPlanningService;
+import ase.meditrack.service.algorithm.RollingHorizonPlanner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.Principal;
+import java.time.Month;
+import java.time.Year;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Creates several monthly plans in one request: of many teams, of teams that share a float pool, or of several
+ * months of a team.
+ */
+@RestController
+@RequestMapping("/api/monthly-plan")
+@Slf4j
+@CrossOrigin(origins = "http://localhost:4200", allowedHeaders = "*")
+public class MonthlyPlanPlanningController {
+    private final BatchPlanningService batchPlanningService;
+    private final FloatPoolPlanningService floatPoolPlanningService;
+    private final RollingHorizonPlanner rollingHorizonPlanner;
+    private final MonthlyPlanMapper mapper;
+    private final BatchPlanReportMapper batchMapper;
+    private final HorizonPlanReportMapper horizonMapper;
+
+    public MonthlyPlanPlanningController(BatchPlanningService batchPlanningService,
+                                         FloatPoolPlanningService floatPoolPlanningService,
+                                         RollingHorizonPlanner rollingHorizonPlanner, MonthlyPlanMapper mapper,
+                                         BatchPlanReportMapper batchMapper, HorizonPlanReportMapper horizonMapper) {
+        this.batchPlanningService = batchPlanningService;
+        this.floatPoolPlanningService = floatPoolPlanningService;
+        this.rollingHorizonPlanner = rollingHorizonPlanner;
+        this.mapper = mapper;
+        this.batchMapper = batchMapper;
+        this.horizonMapper = horizonMapper;
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin')")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchPlanReportDto createBatch(@RequestParam Year year, @RequestParam Month month,
+                                          @RequestParam(required = false) List<UUID> teams) {
+        log.info("Creating monthly-plans for teams {}, {} {}", teams == null ? "all" : teams, year, month);
+        return batchMapper.toDto(batchPlanningService.plan(month.getValue(), year.getValue(), teams));
+    }
+
+    @PostMapping("/pool")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin')")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<MonthlyPlanDto> createForPool(@RequestParam Year year, @RequestParam Month month,
+                                              @RequestParam List<UUID> teams, @RequestParam List<UUID> pool) {
+        log.info("Creating monthly-plans for teams {} with float pool {}, {} {}", teams, pool, year, month);
+        return floatPoolPlanningService.plan(month.getValue(), year.getValue(), teams, pool).stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    @PostMapping("/horizon")
+    @PreAuthorize("hasAnyAuthority('SCOPE_admin', 'SCOPE_dm')")
+    @ResponseStatus(HttpStatus.OK)
+    public HorizonPlanReportDto createHorizon(@RequestParam Year year, @RequestParam Month month,
+                                              @RequestParam(defaultValue = "3") int months, Principal principal) {
+        log.info("Creating {} monthly-plans for user {}, from {} {}", months, principal.getName(), year, month);
+        return horizonMapper.toDto(rollingHorizonPlanner.plan(month.getValue(), year.getValue(), months,
+                principal));
+    }
+}
@@ -1,5 +1,6 @@
 package ase.meditrack.exception;
 
+import ase.meditrack.model.dto.NoSolutionDto;
 import jakarta.validation.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -23,9 +24,10 @@ public class GlobalExceptionHandler {
     }
 
     @ExceptionHandler(NoSolutionException.class)
-    private ResponseEntity<String> handleNotFoundException(NoSolutionException ex) {
-        log.info("I_AM_A_TEAPOT: {}", ex.getMessage());
-        return ResponseEntity.status(HttpStatus.I_AM_A_TEAPOT).body(ex.getMessage());
+    private ResponseEntity<NoSolutionDto> handleNotFoundException(NoSolutionException ex) {
+        log.info("I_AM_A_TEAPOT: {} {}", ex.getMessage(), ex.getConflicts());
+        return ResponseEntity.status(HttpStatus.I_AM_A_TEAPOT).body(new NoSolutionDto(ex.getMessage(),
+                ex.getConflicts(), ex.isConflictsMinimal()));
     }
 
     @ExceptionHandler(ResourceConflictException.class)
@@ -1,19 +1,48 @@
 package ase.meditrack.exception;
 
+import ase.meditrack.model.dto.RuleConflictDto;
+import lombok.Getter;
+
+import java.util.List;
+
 /**
  * Exception that signals, that no solution for the schedule with the
  * specified constraints.
  */
+@Getter
 public class NoSolutionException extends RuntimeException {
+    /**
+     * The rules that can not be satisfied at the same time; empty if they are not known.
+     */
+    private final List<RuleConflictDto> conflicts;
+    /**
+     * False if the diagnosis ran out of time, so the conflicts may contain rules that are not part of the problem.
+     */
+    private final boolean conflictsMinimal;
+
     public NoSolutionException(String message) {
+        this(message, List.of());
+    }
+
+    public NoSolutionException(String message, List<RuleConflictDto> conflicts) {
+        this(message, conflicts, true);
+    }
+
+    public NoSolutionException(String message, List<RuleConflictDto> conflicts, boolean conflictsMinimal) {
         super(message);
+        this.conflicts = conflicts;
+        this.conflictsMinimal = conflictsMinimal;
     }
 
     public NoSolutionException(Throwable cause) {
         super(cause);
+        this.conflicts = List.of();
+        this.conflictsMinimal = true;
     }
 
     public NoSolutionException(String message, Throwable cause) {
         super(message, cause);
+        this.conflicts = List.of();
+        this.conflictsMinimal = true;
     }
 }
@@ -0,0 +1,13 @@
+package ase.meditrack.model.dto;
+
+import java.time.Month;
+import java.time.Year;
+import java.util.List;
+
+public record BatchPlanReportDto(
+        Month month,
+        Year year,
+        Double totalSeconds,
+        List<TeamPlanReportDto> teams
+) {
+}
@@ -0,0 +1,15 @@
+package ase.meditrack.model.dto;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.List;
+
+public record ConstraintScenarioDto(
+        @Nullable String name,
+        @Nullable @PositiveOrZero Integer daytimeRequiredPeople,
+        @Nullable @PositiveOrZero Integer nighttimeRequiredPeople,
+        @Nullable List<@Valid RoleConstraintScenarioDto> roles
+) {
+}
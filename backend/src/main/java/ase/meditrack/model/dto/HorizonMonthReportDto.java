@@ -0,0 +1,18 @@
+package ase.meditrack.model.dto;
+
+import ase.meditrack.service.algorithm.TeamPlanStatus;
+
+import java.time.Month;
+import java.time.Year;
+import java.util.UUID;
+
+public record HorizonMonthReportDto(
+        Month month,
+        Year year,
+        TeamPlanStatus status,
+        UUID monthlyPlan,
+        Double maxTimeInSeconds,
+        Double seconds,
+        String error
+) {
+}
@@ -0,0 +1,11 @@
+package ase.meditrack.model.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record HorizonPlanReportDto(
+        UUID team,
+        Double totalSeconds,
+        List<HorizonMonthReportDto> months
+) {
+}
@@ -18,7 +18,7 @@ public record MonthlyPlanDto(
         @NotNull(groups = CreateValidator.class) Boolean published,
         @NotNull(groups = CreateValidator.class) UUID team,
         List<ShiftDto> shifts,
-        List<MonthlyWorkDetailsDto> monthlyWorkDetails
-
+        List<MonthlyWorkDetailsDto> monthlyWorkDetails,
+        SolverStatisticsDto solverStatistics
 ) {
 }
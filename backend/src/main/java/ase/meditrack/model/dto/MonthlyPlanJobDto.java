@@ -0,0 +1,24 @@
+package ase.meditrack.model.dto;
+
+import ase.meditrack.service.algorithm.MonthlyPlanJobStatus;
+
+import java.time.Month;
+import java.time.Year;
+import java.util.List;
+import java.util.UUID;
+
+public record MonthlyPlanJobDto(
+        UUID id,
+        Month month,
+        Year year,
+        MonthlyPlanJobStatus status,
+        Integer solutions,
+        Double objective,
+        Double bestBound,
+        Double elapsedSeconds,
+        UUID monthlyPlan,
+        String error,
+        List<RuleConflictDto> conflicts,
+        boolean conflictsMinimal
+) {
+}
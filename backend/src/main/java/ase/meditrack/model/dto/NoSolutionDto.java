@@ -0,0 +1,10 @@
+package ase.meditrack.model.dto;
+
+import java.util.List;
+
+public record NoSolutionDto(
+        String message,
+        List<RuleConflictDto> conflicts,
+        boolean conflictsMinimal
+) {
+}
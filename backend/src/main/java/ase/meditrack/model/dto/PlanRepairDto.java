@@ -0,0 +1,14 @@
+package ase.meditrack.model.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @param shifts the shifts that were marked as sick or edited and that the plan is repaired around
+ */
+public record PlanRepairDto(
+        @NotEmpty List<UUID> shifts
+) {
+}
@@ -0,0 +1,17 @@
+package ase.meditrack.model.dto;
+
+import jakarta.annotation.Nullable;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.util.UUID;
+
+public record RoleConstraintScenarioDto(
+        @NotNull UUID roleId,
+        @Nullable @PositiveOrZero Integer daytimeRequiredPeople,
+        @Nullable @PositiveOrZero Integer nighttimeRequiredPeople,
+        @Nullable @PositiveOrZero Integer maxWeeklyHours,
+        @Nullable @PositiveOrZero @Max(31) Integer maxConsecutiveShifts
+) {
+}
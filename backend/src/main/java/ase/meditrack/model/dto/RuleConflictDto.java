@@ -0,0 +1,14 @@
+package ase.meditrack.model.dto;
+
+import ase.meditrack.service.algorithm.ScheduleRule;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record RuleConflictDto(
+        ScheduleRule rule,
+        UUID user,
+        String role,
+        LocalDate date
+) {
+}
@@ -0,0 +1,14 @@
+package ase.meditrack.model.dto;
+
+import java.time.Month;
+import java.time.Year;
+import java.util.List;
+
+public record ScenarioComparisonDto(
+        Month month,
+        Year year,
+        Double totalSeconds,
+        ScenarioResultDto current,
+        List<ScenarioResultDto> scenarios
+) {
+}
@@ -0,0 +1,11 @@
+package ase.meditrack.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record ScenarioComparisonRequestDto(
+        @NotEmpty List<@Valid ConstraintScenarioDto> scenarios
+) {
+}
@@ -0,0 +1,15 @@
+package ase.meditrack.model.dto;
+
+public record ScenarioResultDto(
+        String name,
+        Boolean feasible,
+        String status,
+        Double objective,
+        Double objectiveChange,
+        Integer hoursDeviation,
+        Integer offDayShifts,
+        Integer nonPreferredShifts,
+        Double seconds,
+        String error
+) {
+}
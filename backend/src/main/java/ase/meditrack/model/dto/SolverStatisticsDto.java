@@ -0,0 +1,21 @@
+package ase.meditrack.model.dto;
+
+import java.util.Map;
+
+public record SolverStatisticsDto(
+        String status,
+        Integer workers,
+        Double timeToFirstSolutionSeconds,
+        Double wallTimeSeconds,
+        Double objective,
+        Double bestBound,
+        Double gap,
+        Boolean cached,
+        Integer variables,
+        Integer constraints,
+        Map<String, Integer> constraintsPerRule,
+        Double buildSeconds,
+        Double presolveSeconds,
+        String profile
+) {
+}
@@ -0,0 +1,18 @@
+package ase.meditrack.model.dto;
+
+import ase.meditrack.service.algorithm.TeamPlanStatus;
+
+import java.util.UUID;
+
+public record TeamPlanReportDto(
+        UUID team,
+        String teamName,
+        TeamPlanStatus status,
+        UUID monthlyPlan,
+        Integer subModels,
+        Double prepareSeconds,
+        Double solveSeconds,
+        Double saveSeconds,
+        String error
+) {
+}
@@ -0,0 +1,53 @@
+package ase.meditrack.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.hibernate.Length;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Output of the solver that is stored under the fingerprint of its input, so it survives restarts.
+ */
+@Entity(name = "solver_result")
+@Getter
+@Setter
+@RequiredArgsConstructor
+@AllArgsConstructor
+public class SolverResult {
+
+    @Id
+    private String fingerprint;
+
+    @Column(nullable = false, length = Length.LONG32)
+    private String output;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Override
+    public final boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o)
+                .getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this)
+                .getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        SolverResult that = (SolverResult) o;
+        return getFingerprint() != null && Objects.equals(getFingerprint(), that.getFingerprint());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer()
+                .getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -0,0 +1,28 @@
+package ase.meditrack.model.mapper;
+
+import ase.meditrack.model.dto.BatchPlanReportDto;
+import ase.meditrack.model.dto.TeamPlanReportDto;
+import ase.meditrack.service.algorithm.BatchPlanReport;
+import ase.meditrack.service.algorithm.TeamPlanReport;
+import org.mapstruct.Mapper;
+
+import java.time.Month;
+import java.time.Year;
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface BatchPlanReportMapper {
+
+    default BatchPlanReportDto toDto(BatchPlanReport report) {
+        return new BatchPlanReportDto(
+                Month.of(report.month()),
+                Year.of(report.year()),
+                report.totalSeconds(),
+                toDtoList(report.teams())
+        );
+    }
+
+    TeamPlanReportDto toDto(TeamPlanReport report);
+
+    List<TeamPlanReportDto> toDtoList(List<TeamPlanReport> reports);
+}
@@ -0,0 +1,31 @@
+package ase.meditrack.model.mapper;
+
+import ase.meditrack.model.dto.HorizonMonthReportDto;
+import ase.meditrack.model.dto.HorizonPlanReportDto;
+import ase.meditrack.service.algorithm.HorizonMonthReport;
+import ase.meditrack.service.algorithm.HorizonPlanReport;
+import org.mapstruct.Mapper;
+
+import java.time.Month;
+import java.time.Year;
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface HorizonPlanReportMapper {
+
+    HorizonPlanReportDto toDto(HorizonPlanReport report);
+
+    default HorizonMonthReportDto toDto(HorizonMonthReport report) {
+        return new HorizonMonthReportDto(
+                Month.of(report.month()),
+                Year.of(report.year()),
+                report.status(),
+                report.monthlyPlan(),
+                report.maxTimeInSeconds(),
+                report.seconds(),
+                report.error()
+        );
+    }
+
+    List<HorizonMonthReportDto> toDtoList(List<HorizonMonthReport> reports);
+}
@@ -0,0 +1,31 @@
+package ase.meditrack.model.mapper;
+
+import ase.meditrack.model.dto.MonthlyPlanJobDto;
+import ase.meditrack.service.algorithm.MonthlyPlanJob;
+import ase.meditrack.service.algorithm.SolverProgress;
+import org.mapstruct.Mapper;
+
+import java.time.Month;
+import java.time.Year;
+
+@Mapper(componentModel = "spring")
+public interface MonthlyPlanJobMapper {
+
+    default MonthlyPlanJobDto toDto(MonthlyPlanJob job) {
+        SolverProgress progress = job.getProgress();
+        return new MonthlyPlanJobDto(
+                job.getId(),
+                Month.of(job.getMonth()),
+                Year.of(job.getYear()),
+                job.getStatus(),
+                progress == null ? null : progress.solutions(),
+                progress == null ? null : progress.objective(),
+                progress == null ? null : progress.bestBound(),
+                progress == null ? null : progress.elapsedSeconds(),
+                job.getMonthlyPlanId(),
+                job.getError(),
+                job.getConflicts(),
+                job.isConflictsMinimal()
+        );
+    }
+}
@@ -2,8 +2,12 @@ package ase.meditrack.model.mapper;
 
 import ase.meditrack.model.dto.MonthlyPlanDto;
 import ase.meditrack.model.dto.MonthlyWorkDetailsDto;
+import ase.meditrack.model.dto.SolverStatisticsDto;
 import ase.meditrack.model.entity.MonthlyPlan;
 import ase.meditrack.model.entity.MonthlyWorkDetails;
+import ase.meditrack.service.algorithm.GeneratedPlan;
+import ase.meditrack.service.algorithm.ModelStatistics;
+import ase.meditrack.service.algorithm.SolverStatistics;
 import org.mapstruct.InjectionStrategy;
 import org.mapstruct.IterableMapping;
 import org.mapstruct.Mapper;
@@ -17,10 +21,24 @@ import java.util.List;
 public interface MonthlyPlanMapper {
 
     @Named("toDto")
+    default MonthlyPlanDto toDto(MonthlyPlan monthlyPlan) {
+        return toDto(monthlyPlan, null);
+    }
+
+    default MonthlyPlanDto toDto(GeneratedPlan generatedPlan) {
+        return toDto(generatedPlan.monthlyPlan(), generatedPlan.statistics());
+    }
+
+    @Mapping(target = "id", source = "monthlyPlan.id")
     @Mapping(target = "month", expression = "java(Month.of(monthlyPlan.getMonth()))")
     @Mapping(target = "year", expression = "java(Year.of(monthlyPlan.getYear()))")
-    @Mapping(target = "monthlyWorkDetails", source = "monthlyWorkDetails", qualifiedByName = "toMonthlyWorkDetailDto")
-    MonthlyPlanDto toDto(MonthlyPlan monthlyPlan);
+    @Mapping(target = "published", source = "monthlyPlan.published")
+    @Mapping(target = "team", source = "monthlyPlan.team")
+    @Mapping(target = "shifts", source = "monthlyPlan.shifts")
+    @Mapping(target = "monthlyWorkDetails", source = "monthlyPlan.monthlyWorkDetails",
+            qualifiedByName = "toMonthlyWorkDetailDto")
+    @Mapping(target = "solverStatistics", source = "statistics")
+    MonthlyPlanDto toDto(MonthlyPlan monthlyPlan, SolverStatistics statistics);
 
     @Named("toMonthlyWorkDetailDto")
     default MonthlyWorkDetailsDto toMonthlyWorkDetailDto(MonthlyWorkDetails monthlyWorkDetail) {
@@ -32,6 +50,27 @@ public interface MonthlyPlanMapper {
         );
     }
 
+    default SolverStatisticsDto toSolverStatisticsDto(SolverStatistics statistics) {
+        if (statistics == null) return null;
+        ModelStatistics model = statistics.model();
+        return new SolverStatisticsDto(
+                statistics.status(),
+                statistics.workers(),
+                statistics.timeToFirstSolutionSeconds(),
+                statistics.wallTimeSeconds(),
+                statistics.objective(),
+                statistics.bestBound(),
+                statistics.gap(),
+                statistics.cached(),
+                model == null ? null : model.variables(),
+                model == null ? null : model.constraints(),
+                model == null ? null : model.constraintsPerRule(),
+                model == null ? null : model.buildSeconds(),
+                model == null ? null : model.presolveSeconds(),
+                statistics.profile()
+        );
+    }
+
     @Mapping(target = "month", expression = "java(dto.month().getValue())")
     @Mapping(target = "year", expression = "java(dto.year().getValue())")
     MonthlyPlan fromDto(MonthlyPlanDto dto);
@@ -0,0 +1,29 @@
+package ase.meditrack.model.mapper;
+
+import ase.meditrack.model.dto.ScenarioComparisonDto;
+import ase.meditrack.model.dto.ScenarioResultDto;
+import ase.meditrack.service.algorithm.ScenarioComparison;
+import ase.meditrack.service.algorithm.ScenarioResult;
+import org.mapstruct.Mapper;
+
+import java.time.Month;
+import java.time.Year;
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ScenarioComparisonMapper {
+
+    default ScenarioComparisonDto toDto(ScenarioComparison comparison) {
+        return new ScenarioComparisonDto(
+                Month.of(comparison.month()),
+                Year.of(comparison.year()),
+                comparison.totalSeconds(),
+                toDto(comparison.current()),
+                toDtoList(comparison.scenarios())
+        );
+    }
+
+    ScenarioResultDto toDto(ScenarioResult result);
+
+    List<ScenarioResultDto> toDtoList(List<ScenarioResult> results);
+}
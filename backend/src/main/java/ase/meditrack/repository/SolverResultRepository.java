@@ -0,0 +1,24 @@
+package ase.meditrack.repository;
+
+import ase.meditrack.model.entity.SolverResult;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SolverResultRepository extends JpaRepository<SolverResult, String> {
+
+    /**
+     * Deletes all results except the newest ones, so the table shrinks back to the limit even if it grew beyond it.
+     *
+     * @param keep the number of newest results that are kept
+     * @return the number of deleted results
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM solver_result r WHERE r.fingerprint NOT IN "
+            + "(SELECT n.fingerprint FROM solver_result n ORDER BY n.createdAt DESC LIMIT :keep)")
+    int deleteAllButNewest(int keep);
+}
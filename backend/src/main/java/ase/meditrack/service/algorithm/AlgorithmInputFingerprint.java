@@ -0,0 +1,92 @@
+package ase.meditrack.service.algorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Content based key of a solve. Two solves with the same fingerprint have the same model, so the result of one of
+ * them can be reused for the other.
+ * Collections without a meaning of order (holidays, off days, shift types an employee works, ...) are sorted before
+ * they are hashed. The order of the employees is kept, since the output refers to employees by index.
+ */
+public final class AlgorithmInputFingerprint {
+
+    private AlgorithmInputFingerprint() {
+    }
+
+    /**
+     * Computes the fingerprint of a solve. The hint is not part of the fingerprint, since it does not change the
+     * model but only where the search starts.
+     *
+     * @param input   the input of the solver
+     * @param options the options of the solve
+     * @return the hex encoded SHA-256 hash of the normalized input and the options that influence the result
+     */
+    public static String of(AlgorithmInput input, SolverOptions options) {
+        StringBuilder normalized = new StringBuilder();
+        normalized.append("days=").append(input.numberOfDays())
+                .append(";daytime=").append(input.daytimeRequiredPeople())
+                .append(";nighttime=").append(input.nighttimeRequiredPeople())
+                .append('\n');
+        for (ShiftTypeInfo shiftType : input.shiftTypes()) {
+            normalized.append("shiftType=").append(shiftType.startTime())
+                    .append(',').append(shiftType.endTime())
+                    .append(',').append(shiftType.duration())
+                    .append('\n');
+        }
+        for (RoleInfo role : input.roles()) {
+            // the name of a role does not change the model
+            normalized.append("role=").append(role.daytimeRequiredPeople())
+                    .append(',').append(role.nighttimeRequiredPeople())
+                    .append(',').append(role.maxHoursPerWeek())
+                    .append(',').append(role.maxConsecutiveShifts())
+                    .append('\n');
+        }
+        for (EmployeeInfo employee : input.employees()) {
+            normalized.append("employee=").append(employee.role())
+                    .append(',').append(employee.minWorkingHoursPerMonth())
+                    .append(',').append(employee.maxWorkingHoursPerMonth())
+                    .append(',').append(employee.optimalWorkingHoursPerMonth())
+                    .append(";works=").append(sorted(employee.worksShiftTypes()))
+                    .append(";prefers=").append(sorted(employee.preferredShiftTypes()))
+                    .append(";holidays=").append(sorted(employee.holidays()))
+                    .append(";offDays=").append(sorted(employee.offDays()))
+                    .append('\n');
+        }
+        if (input.dayToEmployeeToShiftTypeMapping() != null) {
+            for (Map.Entry<Integer, TreeMap<Integer, Integer>> day
+                    : input.dayToEmployeeToShiftTypeMapping().entrySet()) {
+                normalized.append("carryOver=").append(day.getKey()).append(':').append(day.getValue())
+                        .append('\n');
+            }
+        }
+        normalized.append("maxTime=").append(options.maxTimeInSeconds())
+                .append(";seed=").append(options.randomSeed())
+                .append(";subsolvers=").append(options.subsolvers())
+                .append(";symmetryBreaking=").append(options.symmetryBreaking())
+                .append(";relativeGapLimit=").append(options.relativeGapLimit())
+                .append(";lnsOnly=").append(options.lnsOnly())
+                .append(";lexicographic=").append(options.lexicographic())
+                .append(";objectiveTolerance=").append(options.objectiveTolerance())
+                .append(";profile=").append(options.profile())
+                .append('\n');
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sorted(Collection<Integer> values) {
+        if (values == null) return "[]";
+        return values.stream().sorted().distinct().toList().toString();
+    }
+}
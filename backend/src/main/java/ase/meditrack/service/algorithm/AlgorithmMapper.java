@@ -8,6 +8,7 @@ import ase.meditrack.model.entity.ShiftType;
 import ase.meditrack.model.entity.Team;
 import ase.meditrack.model.entity.User;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
@@ -27,6 +28,7 @@ public class AlgorithmMapper {
     private final Map<UUID, Integer> employeeUuidToIndex = new HashMap<>();
     private final Map<Integer, UUID> indexToShiftTypeUuid = new HashMap<>();
     private final Map<Integer, UUID> indexToEmployeeUuid = new HashMap<>();
+    private Duration mappingDuration = Duration.ZERO;
 
     /**
      * Converts the input to a format that can be used by the solver.
@@ -51,6 +53,7 @@ public class AlgorithmMapper {
             Team team,
             List<Shift> prevMonthShifts
     ) {
+        long start = System.nanoTime();
         YearMonth yearMonth = YearMonth.of(year, month);
         LocalDate date = yearMonth.atDay(1);
         LocalDate endDate = yearMonth.atEndOfMonth();
@@ -165,7 +168,7 @@ public class AlgorithmMapper {
             }
         }
 
-        return new AlgorithmInput(
+        AlgorithmInput input = new AlgorithmInput(
                 numberOfDays,
                 employeeInfos,
                 shiftTypeInfos,
@@ -174,6 +177,58 @@ public class AlgorithmMapper {
                 team.getNighttimeRequiredPeople(),
                 dayToEmployeeToShiftTypeMapping
         );
+        mappingDuration = Duration.ofNanos(System.nanoTime() - start);
+        return input;
+    }
+
+    /**
+     * @return the time the last call of {@link #mapToAlgorithmInput} took
+     */
+    public Duration getMappingDuration() {
+        return mappingDuration;
+    }
+
+    /**
+     * Must be called after {@link #mapToAlgorithmInput}.
+     *
+     * @param userId the id of the user
+     * @return the index of the user in the input of the solver; null if the user is not part of the input
+     */
+    public Integer getEmployeeIndex(UUID userId) {
+        return employeeUuidToIndex.get(userId);
+    }
+
+    /**
+     * Must be called after {@link #mapToAlgorithmInput}.
+     *
+     * @param roleId the id of the role
+     * @return the index of the role in the input of the solver; null if the role is not part of the input
+     */
+    public Integer getRoleIndex(UUID roleId) {
+        return roleUuidToIndex.get(roleId);
+    }
+
+    /**
+     * Converts existing shifts to the format of the solvers output, e.g. to use them as a hint for the solver.
+     * Must be called after {@link #mapToAlgorithmInput}. Shifts of unknown employees or shift types are skipped.
+     *
+     * @param shifts the shifts to convert
+     * @return key is the employee index, value are the shifts of the employee with the day being the day of month - 1
+     */
+    public HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> mapToAssignment(List<Shift> shifts) {
+        HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> assignment = new HashMap<>();
+        for (Shift shift : shifts) {
+            if (shift.getShiftType() == null || shift.getUsers() == null) continue;
+            Integer shiftType = shiftTypeUuidToIndex.get(shift.getShiftType().getId());
+            if (shiftType == null) continue;
+            for (User user : shift.getUsers()) {
+                Integer employee = employeeUuidToIndex.get(user.getId());
+                if (employee == null) continue;
+                assignment.computeIfAbsent(employee, key -> new ArrayList<>())
+                        .add(new AlgorithmOutput.ShiftTypeDayPair(shiftType, shift.getDate().getDayOfMonth() - 1));
+            }
+        }
+        return assignment;
     }
 
     /**
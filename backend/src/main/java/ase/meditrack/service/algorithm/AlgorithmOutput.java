@@ -6,8 +6,14 @@ import java.util.List;
 public record AlgorithmOutput(
         // key is employee, value is all shifts assigned to the employee
         HashMap<Integer, List<ShiftTypeDayPair>> assignmentOfEmployeesToShifts,
-        boolean isOptimal
+        boolean isOptimal,
+        // how the solver got to the result; null if the output was not created by the solver
+        SolverStatistics statistics
 ) {
+    public AlgorithmOutput(HashMap<Integer, List<ShiftTypeDayPair>> assignmentOfEmployeesToShifts, boolean isOptimal) {
+        this(assignmentOfEmployeesToShifts, isOptimal, null);
+    }
+
     public record ShiftTypeDayPair(
             Integer shiftType,
             Integer day
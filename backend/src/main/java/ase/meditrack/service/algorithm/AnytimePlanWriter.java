@@ -0,0 +1,175 @@
+package ase.meditrack.service.algorithm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Stores the solutions of a running solve as a draft monthly plan. The solver threads only swap the latest solution
+ * into a reference, the database is written by the threads of the writer executor. The first solution is stored
+ * right away, later ones once per update interval, so solutions that arrive in between are skipped. The final output
+ * is stored by the thread of the job once the solver is done.
+ * The methods that write the draft are synchronized, since the writer, the job and the request thread of the fallback
+ * may store at the same time.
+ */
+@Slf4j
+final class AnytimePlanWriter implements IncumbentListener {
+    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final PlanningContext context;
+    private final ScheduledExecutorService writerExecutor;
+    private final Duration updateInterval;
+    private final SolverProgressListener progressListener;
+    private final Consumer<UUID> draftListener;
+    private final CompletableFuture<UUID> firstDraft = new CompletableFuture<>();
+    private final AtomicReference<AlgorithmOutput> latest = new AtomicReference<>();
+
+    // set once a solution of the solver is stored, until then every solution is stored right away
+    private volatile boolean solverDraftStored;
+    private ScheduledFuture<?> updates;
+    private UUID monthlyPlanId;
+    private AlgorithmOutput stored;
+    private boolean closed;
+
+    /**
+     * @param monthlyPlanCreator stores and updates the draft
+     * @param context            the prepared plan
+     * @param writerExecutor     runs the updates of the draft
+     * @param updateInterval     time between two updates of the draft
+     * @param progressListener   gets notified about the progress of the solver
+     * @param draftListener      gets the id of the draft as soon as it is stored
+     */
+    AnytimePlanWriter(MonthlyPlanCreator monthlyPlanCreator, PlanningContext context,
+                      ScheduledExecutorService writerExecutor, Duration updateInterval,
+                      SolverProgressListener progressListener, Consumer<UUID> draftListener) {
+        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.context = context;
+        this.writerExecutor = writerExecutor;
+        this.updateInterval = updateInterval;
+        this.progressListener = progressListener;
+        this.draftListener = draftListener;
+    }
+
+    /**
+     * Starts the periodic updates of the draft.
+     */
+    synchronized void start() {
+        long interval = updateInterval.toMillis();
+        updates = writerExecutor.scheduleWithFixedDelay(this::update, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return completes with the id of the draft once the first solution is stored
+     */
+    CompletableFuture<UUID> firstDraft() {
+        return firstDraft;
+    }
+
+    /**
+     * @return the id of the draft; null if no solution was stored yet
+     */
+    synchronized UUID getMonthlyPlanId() {
+        return monthlyPlanId;
+    }
+
+    @Override
+    public void onProgress(SolverProgress progress) {
+        progressListener.onProgress(progress);
+    }
+
+    @Override
+    public void onIncumbent(AlgorithmOutput incumbent) {
+        AlgorithmOutput previous = latest.getAndSet(incumbent);
+        // the first solution of the solver replaces the draft right away, an update that is already queued stores
+        // this solution as well
+        if (!solverDraftStored && previous == null) writerExecutor.execute(this::update);
+    }
+
+    /**
+     * Stores a solution of another scheduler if the solver did not find one yet.
+     *
+     * @param output the output of the other scheduler
+     * @return true if the output was stored as draft
+     */
+    synchronized boolean offerFallback(AlgorithmOutput output) {
+        if (closed || stored != null || !latest.compareAndSet(null, output)) return false;
+        flush();
+        return true;
+    }
+
+    /**
+     * Stores the final output of the solver. Afterwards no more solutions are accepted.
+     *
+     * @param output the final output, null if the solver failed; then the latest solution is kept
+     * @return the id of the stored plan; null if not even a draft was stored
+     */
+    synchronized UUID complete(AlgorithmOutput output) {
+        close();
+        if (output != null) latest.set(output);
+        flush();
+        return monthlyPlanId;
+    }
+
+    /**
+     * Marks the solve as failed, so requests that wait for the first draft return right away.
+     *
+     * @param e the reason of the failure
+     */
+    synchronized void fail(Throwable e) {
+        close();
+        firstDraft.completeExceptionally(e);
+    }
+
+    private void close() {
+        closed = true;
+        if (updates != null) updates.cancel(false);
+    }
+
+    /**
+     * Stores the latest solution in a thread of the writer.
+     */
+    private synchronized void update() {
+        if (closed) return;
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // the solution is kept and stored with the next update or at the end
+            log.warn("Could not store draft of monthly plan for team {}", context.team().getId(), e);
+        }
+    }
+
+    private void flush() {
+        AlgorithmOutput pending = latest.getAndSet(null);
+        if (pending == null) return;
+        if (stored != null
+                && stored.assignmentOfEmployeesToShifts().equals(pending.assignmentOfEmployeesToShifts())) {
+            return;
+        }
+        try {
+            if (monthlyPlanId == null) {
+                monthlyPlanId = monthlyPlanCreator.saveMonthlyPlan(context, pending).getId();
+                draftListener.accept(monthlyPlanId);
+                firstDraft.complete(monthlyPlanId);
+            } else {
+                monthlyPlanCreator.updateMonthlyPlan(monthlyPlanId, context, pending);
+            }
+        } catch (RuntimeException e) {
+            latest.compareAndSet(null, pending);
+            throw e;
+        }
+        log.debug("Stored draft {} with objective {}", monthlyPlanId,
+                pending.statistics() == null ? null : pending.statistics().objective());
+        stored = pending;
+        if (!isHeuristic(pending)) solverDraftStored = true;
+    }
+
+    private static boolean isHeuristic(AlgorithmOutput output) {
+        return output.statistics() != null && GreedyScheduler.STATUS.equals(output.statistics().status());
+    }
+}
@@ -0,0 +1,17 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.List;
+
+/**
+ * @param month        the month the plans were created for
+ * @param year         the year the plans were created for
+ * @param totalSeconds wall time of the whole batch
+ * @param teams        the outcome for every team
+ */
+public record BatchPlanReport(
+        int month,
+        int year,
+        double totalSeconds,
+        List<TeamPlanReport> teams
+) {
+}
@@ -0,0 +1,161 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.exception.NoSolutionException;
+import ase.meditrack.exception.NotFoundException;
+import ase.meditrack.model.entity.MonthlyPlan;
+import ase.meditrack.model.entity.Team;
+import ase.meditrack.repository.MonthlyPlanRepository;
+import ase.meditrack.repository.TeamRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Generates the monthly plans of many teams at once. The teams are planned in parallel on a fork-join pool.
+ * Large teams are split into one model per role, the role models are solved in parallel and merged afterwards.
+ */
+@Service
+@Slf4j
+public class BatchPlanningService {
+    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final MonthlyPlanRepository monthlyPlanRepository;
+    private final TeamRepository teamRepository;
+    private final SolverService solverService;
+    private final SolverProperties properties;
+    private final ForkJoinPool batchPlanningPool;
+
+    public BatchPlanningService(MonthlyPlanCreator monthlyPlanCreator, MonthlyPlanRepository monthlyPlanRepository,
+                                TeamRepository teamRepository, SolverService solverService,
+                                SolverProperties properties, ForkJoinPool batchPlanningPool) {
+        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.monthlyPlanRepository = monthlyPlanRepository;
+        this.teamRepository = teamRepository;
+        this.solverService = solverService;
+        this.properties = properties;
+        this.batchPlanningPool = batchPlanningPool;
+    }
+
+    /**
+     * Creates the monthly plans for the given teams. Teams that already have a plan for the month are skipped.
+     * A team that can not be planned does not stop the other teams.
+     *
+     * @param month   the month for which to create the plans
+     * @param year    the year for which to create the plans
+     * @param teamIds the teams to plan; all teams if null or empty
+     * @return the outcome for every team
+     */
+    public BatchPlanReport plan(int month, int year, List<UUID> teamIds) {
+        long start = System.nanoTime();
+        List<UUID> teams = teamIds == null || teamIds.isEmpty()
+                ? teamRepository.findAll().stream().map(Team::getId).toList()
+                : teamIds.stream().distinct().toList();
+        log.info("Planning {} teams for {}/{}", teams.size(), month, year);
+
+        List<TeamPlanReport> reports = batchPlanningPool.invoke(ForkJoinTask.adapt(() -> {
+            List<ForkJoinTask<TeamPlanReport>> tasks = teams.stream()
+                    .map(teamId -> ForkJoinTask.adapt(() -> planTeam(month, year, teamId)))
+                    .toList();
+            return ForkJoinTask.invokeAll(tasks).stream().map(ForkJoinTask::join).toList();
+        }));
+
+        BatchPlanReport report = new BatchPlanReport(month, year, seconds(start), reports);
+        log.info("Planned {} teams for {}/{} in {}s", teams.size(), month, year, report.totalSeconds());
+        return report;
+    }
+
+    private TeamPlanReport planTeam(int month, int year, UUID teamId) {
+        String teamName = null;
+        int subModels = 0;
+        double prepareSeconds = 0;
+        double solveSeconds = 0;
+        long start = System.nanoTime();
+        try {
+            Team team = teamRepository.findById(teamId)
+                    .orElseThrow(() -> new NotFoundException("Could not find team with id: " + teamId + "!"));
+            teamName = team.getName();
+            if (monthlyPlanRepository.findMonthlyPlanByTeamAndMonthAndYear(team, month, year) != null) {
+                return new TeamPlanReport(teamId, teamName, TeamPlanStatus.SKIPPED, null, 0, 0, 0, 0,
+                        "Monthly plan already exists.");
+            }
+
+            PlanningContext context = monthlyPlanCreator.prepareMonthlyPlan(month, year, teamId);
+            prepareSeconds = seconds(start);
+
+            start = System.nanoTime();
+            List<RoleDecomposition.SubProblem> subProblems = shouldDecompose(context.input())
+                    ? RoleDecomposition.split(context.input())
+                    : List.of();
+            subModels = Math.max(subProblems.size(), 1);
+            AlgorithmOutput output = subProblems.size() > 1
+                    ? solveDecomposed(context, subProblems)
+                    : monthlyPlanCreator.solve(context, SolverProgressListener.NONE);
+            solveSeconds = seconds(start);
+
+            start = System.nanoTime();
+            MonthlyPlan monthlyPlan = monthlyPlanCreator.saveMonthlyPlan(context, output);
+            return new TeamPlanReport(teamId, teamName, TeamPlanStatus.CREATED, monthlyPlan.getId(), subModels,
+                    prepareSeconds, solveSeconds, seconds(start), null);
+        } catch (NoSolutionException e) {
+            return new TeamPlanReport(teamId, teamName, TeamPlanStatus.NO_SOLUTION, null, subModels, prepareSeconds,
+                    seconds(start), 0, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Planning of team {} failed", teamId, e);
+            return new TeamPlanReport(teamId, teamName, TeamPlanStatus.FAILED, null, subModels, prepareSeconds,
+                    solveSeconds, 0, e.getMessage());
+        }
+    }
+
+    private boolean shouldDecompose(AlgorithmInput input) {
+        return input.employees().size() >= properties.getDecompositionMinEmployees()
+                && input.roles().size() > 1;
+    }
+
+    /**
+     * Solves the role models in parallel. If the staffing level of the team is not implied by the staffing levels of
+     * the roles, the merged plan is only used as starting point for a solve of the whole team.
+     *
+     * @param context     the prepared plan of the team
+     * @param subProblems the models of the roles
+     * @return the plan of the team
+     */
+    private AlgorithmOutput solveDecomposed(PlanningContext context, List<RoleDecomposition.SubProblem> subProblems) {
+        List<ForkJoinTask<Optional<AlgorithmOutput>>> tasks = new ArrayList<>();
+        for (RoleDecomposition.SubProblem subProblem : subProblems) {
+            SolverOptions options = solverService.defaultOptions().toBuilder()
+                    .hint(RoleDecomposition.splitHint(context.hint(), subProblem))
+                    .build();
+            tasks.add(ForkJoinTask.adapt(() -> solverService.solve(subProblem.input(), options,
+                    SolverProgressListener.NONE)));
+        }
+        List<AlgorithmOutput> outputs = new ArrayList<>();
+        for (ForkJoinTask<Optional<AlgorithmOutput>> task : ForkJoinTask.invokeAll(tasks)) {
+            Optional<AlgorithmOutput> output = task.join();
+            if (output.isEmpty()) {
+                log.info("A role of team {} could not be solved on its own, solving the whole team",
+                        context.team().getId());
+                return monthlyPlanCreator.solve(context, SolverProgressListener.NONE);
+            }
+            outputs.add(output.get());
+        }
+
+        AlgorithmOutput merged = RoleDecomposition.merge(subProblems, outputs);
+        if (RoleDecomposition.isTeamCoverageImplied(context.input())) {
+            return merged;
+        }
+        PlanningContext hinted = new PlanningContext(context.month(), context.year(), context.team(),
+                context.users(), context.shiftTypes(), context.mapper(), context.input(),
+                merged.assignmentOfEmployeesToShifts());
+        return monthlyPlanCreator.solve(hinted, SolverProgressListener.NONE);
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
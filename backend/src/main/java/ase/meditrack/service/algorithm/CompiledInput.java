@@ -0,0 +1,292 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The input of the solver in the form the model is built from. The lists, sets and maps of {@link AlgorithmInput}
+ * are compiled once into bitsets and dense arrays, so building the model only does index lookups and does not
+ * box, search or copy anything per day. Instances are immutable; the arrays are shared and must not be modified.
+ */
+final class CompiledInput {
+    /**
+     * The shift type of a day of the previous month on which the employee did not work.
+     */
+    static final int FREE = -1;
+
+    private final AlgorithmInput input;
+    private final int numberOfDays;
+    private final int numberOfEmployees;
+    private final int numberOfShiftTypes;
+
+    private final int[] durations;
+    private final int[] firstSlot;
+    private final int[] lastSlot;
+    private final BitSet coversNextDay;
+
+    private final BitSet[] workableShiftTypes;
+    private final int[][] workableShiftTypeArrays;
+    private final BitSet[] preferredShiftTypes;
+    private final BitSet[] holidays;
+    private final BitSet[] offDays;
+    private final int[] role;
+    private final int[] maxHoursPerWeek;
+    private final int[] maxConsecutiveShifts;
+    private final int[] allEmployees;
+    private final int[][] employeesOfRole;
+    private final BitSet pooled;
+
+    // carryOver[n][k] is the shift type of employee n k days before the first day of the month, k = 0 is the last day
+    private final int[][] carryOver;
+    private final int[] carryOverLastSlots;
+
+    private CompiledInput(AlgorithmInput input, BitSet pooled) {
+        this.input = input;
+        this.pooled = pooled;
+        this.numberOfDays = input.numberOfDays();
+        this.numberOfEmployees = input.employees().size();
+        this.numberOfShiftTypes = input.shiftTypes().size();
+
+        // a shift covers the slots from its start up to and including start + 2 * duration.
+        // Slots after midnight belong to the next day, of which only the first slot is covered.
+        durations = new int[numberOfShiftTypes];
+        firstSlot = new int[numberOfShiftTypes];
+        lastSlot = new int[numberOfShiftTypes];
+        coversNextDay = new BitSet(numberOfShiftTypes);
+        for (int s = 0; s < numberOfShiftTypes; s++) {
+            ShiftTypeInfo shiftType = input.shiftTypes().get(s);
+            durations[s] = shiftType.duration();
+            firstSlot[s] = ShiftRules.timeToSlotIndex(shiftType.startTime());
+            int end = firstSlot[s] + durations[s] * 2;
+            lastSlot[s] = Math.min(end, ShiftRules.SLOTS_PER_DAY - 1);
+            if (end >= ShiftRules.SLOTS_PER_DAY) coversNextDay.set(s);
+        }
+
+        workableShiftTypes = new BitSet[numberOfEmployees];
+        workableShiftTypeArrays = new int[numberOfEmployees][];
+        preferredShiftTypes = new BitSet[numberOfEmployees];
+        holidays = new BitSet[numberOfEmployees];
+        offDays = new BitSet[numberOfEmployees];
+        role = new int[numberOfEmployees];
+        maxHoursPerWeek = new int[numberOfEmployees];
+        maxConsecutiveShifts = new int[numberOfEmployees];
+        allEmployees = new int[numberOfEmployees];
+        int[] employeesPerRole = new int[input.roles().size()];
+        for (int n = 0; n < numberOfEmployees; n++) {
+            EmployeeInfo employee = input.employees().get(n);
+            workableShiftTypes[n] = toBitSet(employee.worksShiftTypes(), numberOfShiftTypes);
+            workableShiftTypeArrays[n] = workableShiftTypes[n].stream().toArray();
+            preferredShiftTypes[n] = toBitSet(employee.preferredShiftTypes(), numberOfShiftTypes);
+            holidays[n] = toBitSet(employee.holidays(), numberOfDays);
+            offDays[n] = toBitSet(employee.offDays(), numberOfDays);
+            role[n] = employee.role();
+            RoleInfo roleInfo = input.roles().get(role[n]);
+            maxHoursPerWeek[n] = roleInfo.maxHoursPerWeek();
+            maxConsecutiveShifts[n] = roleInfo.maxConsecutiveShifts();
+            allEmployees[n] = n;
+            employeesPerRole[role[n]]++;
+        }
+        employeesOfRole = new int[employeesPerRole.length][];
+        for (int r = 0; r < employeesPerRole.length; r++) {
+            employeesOfRole[r] = new int[employeesPerRole[r]];
+        }
+        int[] filled = new int[employeesPerRole.length];
+        for (int n = 0; n < numberOfEmployees; n++) {
+            employeesOfRole[role[n]][filled[role[n]]++] = n;
+        }
+
+        TreeMap<Integer, TreeMap<Integer, Integer>> mapping = input.dayToEmployeeToShiftTypeMapping();
+        int carryOverDays = mapping.isEmpty() ? 0 : mapping.lastKey() - mapping.firstKey() + 1;
+        carryOver = new int[numberOfEmployees][carryOverDays];
+        for (int[] days : carryOver) {
+            Arrays.fill(days, FREE);
+        }
+        for (Map.Entry<Integer, TreeMap<Integer, Integer>> day : mapping.entrySet()) {
+            int daysBefore = mapping.lastKey() - day.getKey();
+            day.getValue().forEach((n, shiftType) -> {
+                if (n >= 0 && n < numberOfEmployees) carryOver[n][daysBefore] = shiftType;
+            });
+        }
+
+        // the last slot of every night shift of the previous month that ends on the first day
+        int[] lastSlots = new int[numberOfEmployees];
+        int count = 0;
+        if (!mapping.isEmpty()) {
+            for (int shiftType : mapping.lastEntry().getValue().values()) {
+                ShiftTypeInfo shiftTypeInfo = input.shiftTypes().get(shiftType);
+                int startSlot = ShiftRules.timeToSlotIndex(shiftTypeInfo.startTime());
+                int endSlot = ShiftRules.timeToSlotIndex(shiftTypeInfo.endTime());
+                boolean isNightShift = startSlot >= 24;
+                boolean hasCarryOverToDayShift = endSlot < 24;
+                if (isNightShift && hasCarryOverToDayShift) lastSlots[count++] = endSlot;
+            }
+        }
+        carryOverLastSlots = Arrays.copyOf(lastSlots, count);
+    }
+
+    /**
+     * @param input the validated input of the solver
+     * @return the compiled form of the input
+     */
+    static CompiledInput compile(AlgorithmInput input) {
+        return new CompiledInput(input, new BitSet());
+    }
+
+    /**
+     * @param input  the validated input of a team
+     * @param pooled the employees of the team that are part of a float pool, see {@link #isPooled}
+     * @return the compiled form of the input
+     */
+    static CompiledInput compile(AlgorithmInput input, BitSet pooled) {
+        return new CompiledInput(input, (BitSet) pooled.clone());
+    }
+
+    private static BitSet toBitSet(Iterable<Integer> values, int size) {
+        BitSet bits = new BitSet(size);
+        for (Integer value : values) {
+            if (value != null && value >= 0 && value < size) bits.set(value);
+        }
+        return bits;
+    }
+
+    /**
+     * @return the input this form was compiled from
+     */
+    AlgorithmInput input() {
+        return input;
+    }
+
+    int numberOfDays() {
+        return numberOfDays;
+    }
+
+    int numberOfEmployees() {
+        return numberOfEmployees;
+    }
+
+    int numberOfShiftTypes() {
+        return numberOfShiftTypes;
+    }
+
+    int duration(int shiftType) {
+        return durations[shiftType];
+    }
+
+    /**
+     * @param shiftType the index of the shift type
+     * @return the first slot of the day the shift type covers, see {@link ShiftRules#timeToSlotIndex}
+     */
+    int firstSlot(int shiftType) {
+        return firstSlot[shiftType];
+    }
+
+    /**
+     * @param shiftType the index of the shift type
+     * @return the last slot of its first day the shift type covers
+     */
+    int lastSlot(int shiftType) {
+        return lastSlot[shiftType];
+    }
+
+    /**
+     * @param shiftType the index of the shift type
+     * @return true if the shift type covers the first slot of the next day
+     */
+    boolean coversNextDay(int shiftType) {
+        return coversNextDay.get(shiftType);
+    }
+
+    /**
+     * @param employee the index of the employee
+     * @return the shift types the employee can work, sorted
+     */
+    int[] workableShiftTypes(int employee) {
+        return workableShiftTypeArrays[employee];
+    }
+
+    boolean isWorkable(int employee, int shiftType) {
+        return workableShiftTypes[employee].get(shiftType);
+    }
+
+    boolean isPreferred(int employee, int shiftType) {
+        return preferredShiftTypes[employee].get(shiftType);
+    }
+
+    boolean isHoliday(int employee, int day) {
+        return holidays[employee].get(day);
+    }
+
+    /**
+     * @param employee the index of the employee
+     * @return the off days of the employee within the month
+     */
+    BitSet offDays(int employee) {
+        return offDays[employee];
+    }
+
+    /**
+     * @param employee the index of the employee
+     * @return true if the employee also works in other teams. Their monthly and weekly hours and their sequence of
+     *     shifts are constrained by the pool over all teams, not by the team alone.
+     */
+    boolean isPooled(int employee) {
+        return pooled.get(employee);
+    }
+
+    int role(int employee) {
+        return role[employee];
+    }
+
+    int maxHoursPerWeek(int employee) {
+        return maxHoursPerWeek[employee];
+    }
+
+    int maxConsecutiveShifts(int employee) {
+        return maxConsecutiveShifts[employee];
+    }
+
+    /**
+     * @return the indices of all employees, sorted
+     */
+    int[] employees() {
+        return allEmployees;
+    }
+
+    /**
+     * @param roleIndex the index of the role
+     * @return the indices of the employees with the role, sorted
+     */
+    int[] employeesOfRole(int roleIndex) {
+        return employeesOfRole[roleIndex];
+    }
+
+    /**
+     * @param employee   the index of the employee
+     * @param daysBefore the number of days before the last day of the previous month, 0 is the last day
+     * @return the shift type the employee worked on that day; {@link #FREE} if they did not work
+     */
+    int carryOver(int employee, int daysBefore) {
+        int[] days = carryOver[employee];
+        return daysBefore < days.length ? days[daysBefore] : FREE;
+    }
+
+    /**
+     * @param employee the index of the employee
+     * @return true if the employee worked on any day of the previous month that is part of the input
+     */
+    boolean hasCarryOver(int employee) {
+        for (int shiftType : carryOver[employee]) {
+            if (shiftType != FREE) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the last slot of the first day of every night shift of the previous month that ends on that day
+     */
+    int[] carryOverLastSlots() {
+        return carryOverLastSlots;
+    }
+}
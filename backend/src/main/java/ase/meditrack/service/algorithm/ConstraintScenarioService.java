@@ -0,0 +1,178 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.exception.NotFoundException;
+import ase.meditrack.model.dto.ConstraintScenarioDto;
+import ase.meditrack.model.dto.RoleConstraintScenarioDto;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Evaluates variants of the staffing rules of a team before they are changed. Every variant is applied to the same
+ * snapshot of the month, all variants are solved in parallel with a short time limit and compared with the current
+ * rules. Nothing is stored, neither the rules nor the plans.
+ */
+@Service
+@Slf4j
+public class ConstraintScenarioService {
+    public static final String CURRENT = "Current rules";
+    public static final String NO_SOLUTION = "NO_SOLUTION";
+    public static final String FAILED = "FAILED";
+
+    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final SolverService solverService;
+    private final SolverProperties properties;
+    private final ForkJoinPool batchPlanningPool;
+
+    public ConstraintScenarioService(MonthlyPlanCreator monthlyPlanCreator, SolverService solverService,
+                                     SolverProperties properties, ForkJoinPool batchPlanningPool) {
+        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.solverService = solverService;
+        this.properties = properties;
+        this.batchPlanningPool = batchPlanningPool;
+    }
+
+    /**
+     * Compares variants of the rules of the team of the principal for a month.
+     *
+     * @param month     the month to evaluate the variants for
+     * @param year      the year to evaluate the variants for
+     * @param principal principal that calls the rest endpoint
+     * @param scenarios the variants of the rules; rules that are null keep their current value
+     * @return the result with the current rules and the result of every variant
+     * @throws ValidationException if more scenarios than configured are requested
+     * @throws NotFoundException   if a scenario changes a role that is not part of the team
+     */
+    public ScenarioComparison compare(int month, int year, Principal principal,
+                                      List<ConstraintScenarioDto> scenarios) {
+        if (scenarios.size() > properties.getScenarioMaxCount()) {
+            throw new ValidationException("At most " + properties.getScenarioMaxCount()
+                    + " scenarios can be compared at once");
+        }
+        long start = System.nanoTime();
+        PlanningContext context = monthlyPlanCreator.prepareMonthlyPlan(month, year, principal);
+
+        List<String> names = new ArrayList<>(List.of(CURRENT));
+        List<AlgorithmInput> inputs = new ArrayList<>(List.of(context.input()));
+        for (int i = 0; i < scenarios.size(); i++) {
+            ConstraintScenarioDto scenario = scenarios.get(i);
+            names.add(scenario.name() == null || scenario.name().isBlank() ? "Scenario " + (i + 1) : scenario.name());
+            inputs.add(apply(context, scenario));
+        }
+        // the employees and shift types are the same in every variant, so the hint of the month fits all of them
+        SolverOptions options = solverService.defaultOptions().toBuilder()
+                .maxTimeInSeconds(properties.getScenarioMaxTimeInSeconds())
+                .hint(context.hint())
+                .build();
+        log.info("Comparing {} scenarios of team {} for {}/{}", scenarios.size(), context.team().getId(), month,
+                year);
+
+        List<ScenarioResult> results = batchPlanningPool.invoke(ForkJoinTask.adapt(() -> {
+            List<ForkJoinTask<ScenarioResult>> tasks = new ArrayList<>();
+            for (int i = 0; i < inputs.size(); i++) {
+                String name = names.get(i);
+                AlgorithmInput input = inputs.get(i);
+                tasks.add(ForkJoinTask.adapt(() -> evaluate(name, input, options)));
+            }
+            return ForkJoinTask.invokeAll(tasks).stream().map(ForkJoinTask::join).toList();
+        }));
+
+        ScenarioResult current = results.get(0);
+        List<ScenarioResult> compared = results.subList(1, results.size()).stream()
+                .map(result -> result.comparedTo(current))
+                .toList();
+        return new ScenarioComparison(month, year, seconds(start), current, compared);
+    }
+
+    /**
+     * @param context  the prepared plan of the month
+     * @param scenario the rules that differ from the current ones
+     * @return the input of the month with the rules of the scenario
+     */
+    private static AlgorithmInput apply(PlanningContext context, ConstraintScenarioDto scenario) {
+        AlgorithmInput input = context.input();
+        List<RoleInfo> roles = new ArrayList<>(input.roles());
+        if (scenario.roles() != null) {
+            for (RoleConstraintScenarioDto change : scenario.roles()) {
+                Integer index = context.mapper().getRoleIndex(change.roleId());
+                if (index == null) {
+                    throw new NotFoundException("Could not find role with id: " + change.roleId() + "!");
+                }
+                RoleInfo role = roles.get(index);
+                roles.set(index, new RoleInfo(
+                        role.name(),
+                        valueOr(change.daytimeRequiredPeople(), role.daytimeRequiredPeople()),
+                        valueOr(change.nighttimeRequiredPeople(), role.nighttimeRequiredPeople()),
+                        valueOr(change.maxWeeklyHours(), role.maxHoursPerWeek()),
+                        valueOr(change.maxConsecutiveShifts(), role.maxConsecutiveShifts())
+                ));
+            }
+        }
+        return new AlgorithmInput(
+                input.numberOfDays(),
+                input.employees(),
+                input.shiftTypes(),
+                roles,
+                valueOr(scenario.daytimeRequiredPeople(), input.daytimeRequiredPeople()),
+                valueOr(scenario.nighttimeRequiredPeople(), input.nighttimeRequiredPeople()),
+                input.dayToEmployeeToShiftTypeMapping()
+        );
+    }
+
+    private ScenarioResult evaluate(String name, AlgorithmInput input, SolverOptions options) {
+        long start = System.nanoTime();
+        try {
+            Optional<AlgorithmOutput> output = solverService.solve(input, options, SolverProgressListener.NONE);
+            if (output.isEmpty()) {
+                return new ScenarioResult(name, false, NO_SOLUTION, null, null, null, null, null, seconds(start),
+                        null);
+            }
+            SolverStatistics statistics = output.get().statistics();
+            String status = statistics == null
+                    ? (output.get().isOptimal() ? "OPTIMAL" : "FEASIBLE")
+                    : statistics.status();
+            // the heuristic does not compute the objective of the solver
+            Double objective = statistics == null ? null : statistics.objective();
+
+            int hoursDeviation = 0;
+            int offDayShifts = 0;
+            int nonPreferredShifts = 0;
+            for (int n = 0; n < input.employees().size(); n++) {
+                EmployeeInfo employee = input.employees().get(n);
+                int hours = 0;
+                for (AlgorithmOutput.ShiftTypeDayPair shift
+                        : output.get().assignmentOfEmployeesToShifts().getOrDefault(n, List.of())) {
+                    hours += input.shiftTypes().get(shift.shiftType()).duration();
+                    if (employee.offDays().contains(shift.day())) offDayShifts++;
+                    if (!employee.preferredShiftTypes().isEmpty()
+                            && !employee.preferredShiftTypes().contains(shift.shiftType())) {
+                        nonPreferredShifts++;
+                    }
+                }
+                hoursDeviation += Math.abs(hours - employee.optimalWorkingHoursPerMonth());
+            }
+            return new ScenarioResult(name, true, status, objective, null, hoursDeviation, offDayShifts,
+                    nonPreferredShifts, seconds(start), null);
+        } catch (RuntimeException e) {
+            log.error("Evaluation of scenario {} failed", name, e);
+            return new ScenarioResult(name, false, FAILED, null, null, null, null, null, seconds(start),
+                    e.getMessage());
+        }
+    }
+
+    private static Integer valueOr(Integer value, Integer current) {
+        return value == null ? current : value;
+    }
+
+    private static double seconds(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
@@ -0,0 +1,20 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.List;
+
+/**
+ * The result of {@link SchedulingSolver#diagnose}.
+ *
+ * @param conflicts the rules that can not be satisfied at the same time; empty if no conflict was found
+ * @param minimal   true if every rule is needed for the conflict; false if the time limit was reached before the
+ *                  conflict could be reduced, so it may contain rules that are not part of the problem
+ */
+public record Diagnosis(
+        List<RuleConflict> conflicts,
+        boolean minimal
+) {
+    /**
+     * No conflict was found.
+     */
+    public static final Diagnosis NONE = new Diagnosis(List.of(), true);
+}
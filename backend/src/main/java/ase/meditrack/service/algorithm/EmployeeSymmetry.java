@@ -0,0 +1,162 @@
+package ase.meditrack.service.algorithm;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.Literal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Breaks the symmetry between interchangeable employees. Employees are interchangeable if they have the same role,
+ * shift types, hours, holidays and preferences, and did not work at the end of the previous month. Every solution
+ * stays a solution with the same objective if their shifts are swapped, so the solver would search all permutations
+ * of them. Requiring their shifts to be in lexicographic order keeps exactly one of the permutations.
+ */
+final class EmployeeSymmetry {
+
+    private EmployeeSymmetry() {
+    }
+
+    /**
+     * @param input the compiled input of the solver
+     * @return the groups of interchangeable employees with at least two employees, every group is sorted
+     */
+    static List<int[]> findClasses(CompiledInput input) {
+        Map<List<Object>, List<Integer>> classes = new LinkedHashMap<>();
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            if (input.hasCarryOver(n)) continue;
+            EmployeeInfo employee = input.input().employees().get(n);
+            List<Object> key = Arrays.asList(
+                    new TreeSet<>(employee.worksShiftTypes()),
+                    new TreeSet<>(employee.preferredShiftTypes()),
+                    employee.minWorkingHoursPerMonth(),
+                    employee.maxWorkingHoursPerMonth(),
+                    employee.optimalWorkingHoursPerMonth(),
+                    new TreeSet<>(employee.holidays()),
+                    new TreeSet<>(employee.offDays()),
+                    employee.role()
+            );
+            classes.computeIfAbsent(key, k -> new ArrayList<>()).add(n);
+        }
+        return classes.values().stream()
+                .filter(employees -> employees.size() > 1)
+                .map(employees -> employees.stream().mapToInt(Integer::intValue).toArray())
+                .toList();
+    }
+
+    /**
+     * Requires the shifts of every employee of a class to be lexicographically greater or equal than the shifts of
+     * the next employee of the class. The shifts are compared day by day and, within a day, by shift type.
+     *
+     * @param model   the model the constraints are added to
+     * @param input   the compiled input of the solver
+     * @param shifts  the shift variables
+     * @param classes the classes of interchangeable employees, see {@link #findClasses}
+     */
+    static void addConstraints(CpModel model, CompiledInput input, ShiftVariables shifts, List<int[]> classes) {
+        for (int[] employees : classes) {
+            for (int i = 0; i + 1 < employees.length; i++) {
+                addLexGreaterOrEqual(model, vector(input, shifts, employees[i]),
+                        vector(input, shifts, employees[i + 1]), "symmetry_" + employees[i] + "_");
+            }
+        }
+    }
+
+    /**
+     * Reorders a hint within every class, so the hint satisfies the constraints of {@link #addConstraints}.
+     * Since the employees of a class are interchangeable, the reordered hint is as good as the original one.
+     *
+     * @param input   the compiled input of the solver
+     * @param shifts  the shift variables
+     * @param classes the classes of interchangeable employees, see {@link #findClasses}
+     * @param hint    the hint of the solve; key is employee, value is their shifts
+     * @return the reordered hint
+     */
+    static Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> reorderHint(
+            CompiledInput input, ShiftVariables shifts, List<int[]> classes,
+            Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint) {
+        if (hint == null || hint.isEmpty() || classes.isEmpty()) return hint;
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> reordered = new HashMap<>(hint);
+        for (int[] employees : classes) {
+            List<Integer> sources = new ArrayList<>();
+            for (int employee : employees) {
+                sources.add(employee);
+            }
+            // employees of a class have the same variables, so the positions of the first one apply to all
+            Comparator<Integer> byPosition = Comparator.comparing(
+                    source -> positions(input, shifts, employees[0], hint.getOrDefault(source, List.of())),
+                    Arrays::compare);
+            sources.sort(byPosition);
+            for (int i = 0; i < employees.length; i++) {
+                List<AlgorithmOutput.ShiftTypeDayPair> shiftsOfSource = hint.get(sources.get(i));
+                if (shiftsOfSource == null) {
+                    reordered.remove(employees[i]);
+                } else {
+                    reordered.put(employees[i], shiftsOfSource);
+                }
+            }
+        }
+        return reordered;
+    }
+
+    /**
+     * @param input    the compiled input of the team
+     * @param shifts   the shift variables of the team
+     * @param employee the employee
+     * @param hinted   the hinted shifts of the employee
+     * @return per day the position of the hinted shift type among the variables of the day; a day off is after all
+     * positions, so a smaller array is lexicographically greater in the order of the shift variables
+     */
+    private static int[] positions(CompiledInput input, ShiftVariables shifts, int employee,
+                                   List<AlgorithmOutput.ShiftTypeDayPair> hinted) {
+        int[] positions = new int[input.numberOfDays()];
+        Arrays.fill(positions, Integer.MAX_VALUE);
+        for (AlgorithmOutput.ShiftTypeDayPair pair : hinted) {
+            if (pair.day() < 0 || pair.day() >= input.numberOfDays()) continue;
+            int position = Arrays.binarySearch(shifts.shiftTypesOnDay(employee, pair.day()), pair.shiftType());
+            if (position >= 0) positions[pair.day()] = position;
+        }
+        return positions;
+    }
+
+    private static BoolVar[] vector(CompiledInput input, ShiftVariables shifts, int employee) {
+        List<BoolVar> vars = new ArrayList<>();
+        for (int d = 0; d < input.numberOfDays(); d++) {
+            vars.addAll(Arrays.asList(shifts.onDay(employee, d)));
+        }
+        return vars.toArray(BoolVar[]::new);
+    }
+
+    /**
+     * Encodes x >= y lexicographically. equal[i] is true if the first i positions are equal; then x[i] >= y[i] must
+     * hold, and equal[i + 1] must be true if x[i] = y[i] as well.
+     *
+     * @param model the model the constraints are added to
+     * @param x     the variables that have to be lexicographically greater or equal
+     * @param y     the variables that have to be lexicographically smaller or equal
+     * @param name  the prefix of the names of the created variables
+     */
+    private static void addLexGreaterOrEqual(CpModel model, BoolVar[] x, BoolVar[] y, String name) {
+        Literal equal = null;
+        for (int i = 0; i < x.length; i++) {
+            Literal notEqual = equal == null ? null : equal.not();
+            model.addBoolOr(clause(notEqual, x[i], y[i].not()));
+            if (i + 1 == x.length) break;
+            BoolVar next = model.newBoolVar(name + i);
+            model.addBoolOr(clause(notEqual, x[i], next));
+            model.addBoolOr(clause(notEqual, y[i].not(), next));
+            equal = next;
+        }
+    }
+
+    private static Literal[] clause(Literal optional, Literal a, Literal b) {
+        return optional == null ? new Literal[] {a, b} : new Literal[] {optional, a, b};
+    }
+}
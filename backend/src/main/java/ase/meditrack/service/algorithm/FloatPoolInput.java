@@ -0,0 +1,64 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The input of a solve of several teams that share a float pool of employees. Every team keeps its own input with
+ * its shift types, roles and staffing levels. A member of the pool is an employee in the input of every team they
+ * can work in, see {@link PoolMember}.
+ *
+ * @param teams the inputs of the teams
+ * @param pool  the employees that can work in several teams
+ */
+public record FloatPoolInput(
+        List<AlgorithmInput> teams,
+        List<PoolMember> pool
+) {
+    /**
+     * Describes a member of the pool as a guest in another team. The guest works the shift types of the team that
+     * start and end at the same time as a shift type they can work in their home team, and has the role of the team
+     * with the same name as their home role. The hours of a guest are limited by the pool, not by the team.
+     *
+     * @param employee the employee in the input of the home team
+     * @param home     the input of the home team
+     * @param team     the input of the team the employee floats to
+     * @return the employee in the input of the team; empty if the team has no matching role or shift type
+     */
+    public static Optional<EmployeeInfo> guest(EmployeeInfo employee, AlgorithmInput home, AlgorithmInput team) {
+        String roleName = home.roles().get(employee.role()).name();
+        Integer role = null;
+        for (int r = 0; r < team.roles().size(); r++) {
+            if (team.roles().get(r).name().equalsIgnoreCase(roleName)) {
+                role = r;
+                break;
+            }
+        }
+        List<Integer> worksShiftTypes = matchingShiftTypes(employee.worksShiftTypes(), home, team);
+        if (role == null || worksShiftTypes.isEmpty()) return Optional.empty();
+        return Optional.of(new EmployeeInfo(
+                worksShiftTypes,
+                matchingShiftTypes(employee.preferredShiftTypes(), home, team),
+                0,
+                employee.maxWorkingHoursPerMonth(),
+                0,
+                employee.holidays(),
+                employee.offDays(),
+                role
+        ));
+    }
+
+    private static List<Integer> matchingShiftTypes(List<Integer> shiftTypes, AlgorithmInput home,
+                                                    AlgorithmInput team) {
+        Set<ShiftTypeInfo> homeShiftTypes = new HashSet<>();
+        shiftTypes.forEach(s -> homeShiftTypes.add(home.shiftTypes().get(s)));
+        List<Integer> matching = new ArrayList<>();
+        for (int s = 0; s < team.shiftTypes().size(); s++) {
+            if (homeShiftTypes.contains(team.shiftTypes().get(s))) matching.add(s);
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,179 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.exception.NoSolutionException;
+import ase.meditrack.exception.NotFoundException;
+import ase.meditrack.exception.ResourceConflictException;
+import ase.meditrack.model.entity.MonthlyPlan;
+import ase.meditrack.model.entity.Shift;
+import ase.meditrack.model.entity.Team;
+import ase.meditrack.model.entity.User;
+import ase.meditrack.repository.MonthlyPlanRepository;
+import ase.meditrack.repository.ShiftRepository;
+import ase.meditrack.repository.TeamRepository;
+import ase.meditrack.service.MonthlyWorkDetailsService;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Creates the monthly plans of several teams that share a float pool of employees. A member of the pool stays in
+ * their own team, but can also work the matching shifts of the other teams, see {@link FloatPoolInput#guest}.
+ * All teams are solved in one model, so the staffing of every team and the personal limits of the members of the
+ * pool hold together.
+ */
+@Service
+@Slf4j
+public class FloatPoolPlanningService {
+    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final MonthlyPlanRepository monthlyPlanRepository;
+    private final TeamRepository teamRepository;
+    private final ShiftRepository shiftRepository;
+    private final MonthlyWorkDetailsService monthlyWorkDetailsService;
+    private final SolverService solverService;
+
+    public FloatPoolPlanningService(MonthlyPlanCreator monthlyPlanCreator,
+                                    MonthlyPlanRepository monthlyPlanRepository, TeamRepository teamRepository,
+                                    ShiftRepository shiftRepository,
+                                    MonthlyWorkDetailsService monthlyWorkDetailsService,
+                                    SolverService solverService) {
+        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.monthlyPlanRepository = monthlyPlanRepository;
+        this.teamRepository = teamRepository;
+        this.shiftRepository = shiftRepository;
+        this.monthlyWorkDetailsService = monthlyWorkDetailsService;
+        this.solverService = solverService;
+    }
+
+    /**
+     * Creates the monthly plans of the teams. The shifts a member of the pool works in another team are part of the
+     * plan of that team, their working hours are counted in their own team.
+     *
+     * @param month       the month for which to create the plans
+     * @param year        the year for which to create the plans
+     * @param teamIds     the teams that share the pool
+     * @param poolUserIds the members of the pool; every member has to be in one of the teams
+     * @return the created plans and the statistics of the shared solve, in the order of the teams
+     * @throws ValidationException       if less than two teams are given
+     * @throws ResourceConflictException if one of the teams already has a plan for the month
+     * @throws NotFoundException         if a team or a member of the pool does not exist
+     * @throws NoSolutionException       if the teams can not be planned together
+     */
+    @Transactional
+    public List<GeneratedPlan> plan(int month, int year, List<UUID> teamIds, List<UUID> poolUserIds) {
+        List<UUID> teams = teamIds == null ? List.of() : teamIds.stream().distinct().toList();
+        if (teams.size() < 2) {
+            throw new ValidationException("A float pool needs at least two teams.");
+        }
+        List<PlanningContext> contexts = new ArrayList<>();
+        for (UUID teamId : teams) {
+            Team team = teamRepository.findById(teamId)
+                    .orElseThrow(() -> new NotFoundException("Could not find team with id: " + teamId + "!"));
+            if (monthlyPlanRepository.findMonthlyPlanByTeamAndMonthAndYear(team, month, year) != null) {
+                throw new ResourceConflictException("Monthly plan of team " + team.getName() + " already exists.");
+            }
+            contexts.add(monthlyPlanCreator.prepareMonthlyPlan(month, year, teamId));
+        }
+
+        // the members of the pool are added to the input of every other team as guests
+        List<List<EmployeeInfo>> employees = new ArrayList<>();
+        List<List<User>> guests = new ArrayList<>();
+        for (PlanningContext context : contexts) {
+            employees.add(new ArrayList<>(context.input().employees()));
+            guests.add(new ArrayList<>());
+        }
+        List<PoolMember> pool = new ArrayList<>();
+        for (UUID userId : poolUserIds == null ? List.<UUID>of() : poolUserIds.stream().distinct().toList()) {
+            int home = homeTeam(contexts, userId);
+            PlanningContext homeContext = contexts.get(home);
+            int employee = homeContext.mapper().getEmployeeIndex(userId);
+            EmployeeInfo employeeInfo = homeContext.input().employees().get(employee);
+            List<Integer> indices = new ArrayList<>();
+            for (int t = 0; t < contexts.size(); t++) {
+                if (t == home) {
+                    indices.add(employee);
+                    continue;
+                }
+                Optional<EmployeeInfo> guest =
+                        FloatPoolInput.guest(employeeInfo, homeContext.input(), contexts.get(t).input());
+                if (guest.isEmpty()) {
+                    indices.add(-1);
+                    continue;
+                }
+                indices.add(employees.get(t).size());
+                employees.get(t).add(guest.get());
+                guests.get(t).add(homeContext.users().get(employee));
+            }
+            RoleInfo role = homeContext.input().roles().get(employeeInfo.role());
+            pool.add(new PoolMember(indices, employeeInfo.minWorkingHoursPerMonth(),
+                    employeeInfo.maxWorkingHoursPerMonth(), employeeInfo.optimalWorkingHoursPerMonth(),
+                    role.maxHoursPerWeek(), role.maxConsecutiveShifts()));
+        }
+
+        List<AlgorithmInput> inputs = new ArrayList<>();
+        for (int t = 0; t < contexts.size(); t++) {
+            AlgorithmInput input = contexts.get(t).input();
+            inputs.add(new AlgorithmInput(input.numberOfDays(), employees.get(t), input.shiftTypes(), input.roles(),
+                    input.daytimeRequiredPeople(), input.nighttimeRequiredPeople(),
+                    input.dayToEmployeeToShiftTypeMapping()));
+        }
+        log.info("Planning {} teams with a pool of {} employees for {}/{}", teams.size(), pool.size(), month, year);
+        List<AlgorithmOutput> outputs = solverService.solvePool(new FloatPoolInput(inputs, pool),
+                        solverService.defaultOptions(), SolverProgressListener.NONE)
+                .orElseThrow(() -> new NoSolutionException(
+                        "Could not generate schedule of the float pool with given requirements."));
+
+        // the plans are saved first, so the monthly work details of all members of the pool exist
+        List<MonthlyPlan> monthlyPlans = new ArrayList<>();
+        for (int t = 0; t < contexts.size(); t++) {
+            PlanningContext context = contexts.get(t);
+            AlgorithmOutput output = outputs.get(t);
+            HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> teamShifts = new HashMap<>();
+            output.assignmentOfEmployeesToShifts().forEach((n, shifts) -> {
+                if (n < context.users().size()) teamShifts.put(n, shifts);
+            });
+            monthlyPlans.add(monthlyPlanCreator.saveMonthlyPlan(context,
+                    new AlgorithmOutput(teamShifts, output.isOptimal(), output.statistics())));
+        }
+        List<GeneratedPlan> generatedPlans = new ArrayList<>();
+        for (int t = 0; t < contexts.size(); t++) {
+            saveGuestShifts(contexts.get(t), monthlyPlans.get(t), outputs.get(t), guests.get(t));
+            generatedPlans.add(new GeneratedPlan(monthlyPlans.get(t), outputs.get(t).statistics()));
+        }
+        return generatedPlans;
+    }
+
+    private static int homeTeam(List<PlanningContext> contexts, UUID userId) {
+        for (int t = 0; t < contexts.size(); t++) {
+            if (contexts.get(t).mapper().getEmployeeIndex(userId) != null) return t;
+        }
+        throw new NotFoundException("Could not find pool member with id: " + userId + " in the teams!");
+    }
+
+    private void saveGuestShifts(PlanningContext context, MonthlyPlan monthlyPlan, AlgorithmOutput output,
+                                 List<User> guests) {
+        for (Map.Entry<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> entry
+                : output.assignmentOfEmployeesToShifts().entrySet()) {
+            int guest = entry.getKey() - context.users().size();
+            if (guest < 0) continue;
+            for (AlgorithmOutput.ShiftTypeDayPair pair : entry.getValue()) {
+                Shift shift = new Shift();
+                shift.setShiftType(context.shiftTypes().get(pair.shiftType()));
+                shift.setUsers(List.of(guests.get(guest)));
+                shift.setMonthlyPlan(monthlyPlan);
+                shift.setDate(LocalDate.of(context.year(), context.month(), pair.day() + 1));
+                shift = shiftRepository.save(shift);
+                monthlyWorkDetailsService.updateMonthlyWorkDetailsForShift(shift, null);
+                monthlyPlan.getShifts().add(shift);
+            }
+        }
+    }
+}
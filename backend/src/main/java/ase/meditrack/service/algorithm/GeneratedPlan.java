@@ -0,0 +1,16 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.model.entity.MonthlyPlan;
+
+/**
+ * A monthly plan that was just generated, together with the statistics of the solve. The statistics are not stored,
+ * so only the request that generated the plan returns them.
+ *
+ * @param monthlyPlan the generated plan
+ * @param statistics  the statistics of the solve; null if the scheduler does not report any
+ */
+public record GeneratedPlan(
+        MonthlyPlan monthlyPlan,
+        SolverStatistics statistics
+) {
+}
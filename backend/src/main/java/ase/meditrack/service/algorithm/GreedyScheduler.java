@@ -0,0 +1,474 @@
+package ase.meditrack.service.algorithm;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Constructive heuristic that builds a plan day by day without a solver. It first staffs every day with the
+ * employees that cover the most missing slots and then fills up the working hours of every employee.
+ * The result satisfies all hard constraints of {@link SchedulingSolver}, but does not optimize the preferences.
+ * Runs in milliseconds and does not need the native libraries of the solver.
+ */
+@Slf4j
+public final class GreedyScheduler {
+    /**
+     * Status of the statistics of a plan that was created by the heuristic.
+     */
+    public static final String STATUS = "HEURISTIC";
+
+    private GreedyScheduler() {
+    }
+
+    /**
+     * @param input    the information the algorithm uses
+     * @param options  only the name of the profile is used, the heuristic has no parameters
+     * @param listener gets notified when the plan was created
+     * @return AlgorithmOutput if a valid assignment was found; empty otherwise
+     */
+    public static Optional<AlgorithmOutput> solve(final AlgorithmInput input, final SolverOptions options,
+                                                  final SolverProgressListener listener) {
+        long start = System.nanoTime();
+        Plan plan = new Plan(input);
+        plan.staffAllDays();
+        for (int n = 0; n < input.employees().size(); n++) {
+            plan.fillHours(n, input.employees().get(n).minWorkingHoursPerMonth(), true);
+        }
+        for (int n = 0; n < input.employees().size(); n++) {
+            plan.fillHours(n, input.employees().get(n).optimalWorkingHoursPerMonth(), false);
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (!plan.isValid()) {
+            log.debug("Heuristic could not find a valid plan after {}s", seconds);
+            return Optional.empty();
+        }
+        log.debug("Heuristic found a valid plan after {}s", seconds);
+        listener.onProgress(new SolverProgress(1, 0, 0, seconds));
+        // the heuristic neither computes the objective of the solver nor proves a bound
+        SolverStatistics statistics = new SolverStatistics(STATUS, 1, seconds, seconds, null, null, false, null,
+                options == null ? null : options.profile());
+        return Optional.of(new AlgorithmOutput(plan.toAssignment(), false, statistics));
+    }
+
+    /**
+     * The plan that is built. All checks are incremental, so every assignment keeps the plan valid except for the
+     * staffing levels, the minimum hours and the rule that a shift is never worked alone.
+     */
+    private static final class Plan {
+        private static final int NONE = -1;
+        private static final int DAYTIME_SLOTS = 24;
+
+        private final AlgorithmInput input;
+        private final int numberOfDays;
+        private final int[][] shifts;
+        private final int[] hours;
+        private final int[][] weeklyHours;
+        private final int[] peopleWorking;
+        private final boolean[][] works;
+        private final boolean[][] prefers;
+        private final boolean[][] isHoliday;
+        private final boolean[][] isOffDay;
+        private final boolean[][] forbidden;
+        private final int[] maxConsecutive;
+        private final int[] carryOverShift;
+        private final int[] carryOverConsecutive;
+        private final int[] carryOverCoverage;
+        private final int[] firstSlot;
+        private final int[] lastSlot;
+        private final boolean[] coversNextDay;
+
+        private Plan(AlgorithmInput input) {
+            this.input = input;
+            this.numberOfDays = input.numberOfDays();
+            int employees = input.employees().size();
+            int shiftTypes = input.shiftTypes().size();
+            this.shifts = new int[employees][numberOfDays];
+            for (int[] days : shifts) {
+                Arrays.fill(days, NONE);
+            }
+            this.hours = new int[employees];
+            this.weeklyHours = new int[employees][(numberOfDays + 6) / 7];
+            this.peopleWorking = new int[numberOfDays];
+            this.works = new boolean[employees][shiftTypes];
+            this.prefers = new boolean[employees][shiftTypes];
+            this.isHoliday = new boolean[employees][numberOfDays];
+            this.isOffDay = new boolean[employees][numberOfDays];
+            this.maxConsecutive = new int[employees];
+            for (int n = 0; n < employees; n++) {
+                EmployeeInfo employee = input.employees().get(n);
+                for (Integer s : employee.worksShiftTypes()) {
+                    if (s != null && s >= 0 && s < shiftTypes) works[n][s] = true;
+                }
+                for (Integer s : employee.preferredShiftTypes()) {
+                    if (s != null && s >= 0 && s < shiftTypes) prefers[n][s] = true;
+                }
+                for (int d = 0; d < numberOfDays; d++) {
+                    isHoliday[n][d] = employee.holidays().contains(d);
+                    isOffDay[n][d] = employee.offDays().contains(d);
+                }
+                maxConsecutive[n] = Math.max(input.roles().get(employee.role()).maxConsecutiveShifts(), 0);
+            }
+            this.forbidden = ShiftRules.forbiddenTransitions(input.shiftTypes());
+
+            this.firstSlot = new int[shiftTypes];
+            this.lastSlot = new int[shiftTypes];
+            this.coversNextDay = new boolean[shiftTypes];
+            for (int s = 0; s < shiftTypes; s++) {
+                firstSlot[s] = ShiftRules.timeToSlotIndex(input.shiftTypes().get(s).startTime());
+                int end = firstSlot[s] + input.shiftTypes().get(s).duration() * 2;
+                lastSlot[s] = Math.min(end, ShiftRules.SLOTS_PER_DAY - 1);
+                coversNextDay[s] = end >= ShiftRules.SLOTS_PER_DAY;
+            }
+
+            // same carry over as the solver: the last day of the previous month continues into this month
+            this.carryOverShift = new int[employees];
+            this.carryOverConsecutive = new int[employees];
+            this.carryOverCoverage = new int[ShiftRules.SLOTS_PER_DAY];
+            Arrays.fill(carryOverShift, NONE);
+            var carryOver = input.dayToEmployeeToShiftTypeMapping();
+            if (carryOver != null && !carryOver.isEmpty()) {
+                int lastDay = carryOver.lastKey();
+                for (int n = 0; n < employees; n++) {
+                    if (!input.workedAtDayPrevMonth(lastDay, n)) continue;
+                    carryOverShift[n] = carryOver.get(lastDay).get(n);
+                    while (carryOverConsecutive[n] < maxConsecutive[n]
+                            && input.workedAtDayPrevMonth(lastDay - carryOverConsecutive[n], n)) {
+                        carryOverConsecutive[n]++;
+                    }
+                }
+                for (int shiftType : carryOver.lastEntry().getValue().values()) {
+                    ShiftTypeInfo shiftTypeInfo = input.shiftTypes().get(shiftType);
+                    int startSlot = ShiftRules.timeToSlotIndex(shiftTypeInfo.startTime());
+                    int endSlot = ShiftRules.timeToSlotIndex(shiftTypeInfo.endTime());
+                    if (startSlot < DAYTIME_SLOTS || endSlot >= DAYTIME_SLOTS) continue;
+                    for (int slot = 0; slot <= endSlot; slot++) {
+                        carryOverCoverage[slot]++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds shifts on every day until the staffing levels of the team and the roles are reached.
+         * A new block of shifts always spans two days, since a single shift between free days is not allowed.
+         */
+        void staffAllDays() {
+            List<Integer> roles = IntStream.range(0, input.roles().size()).boxed().toList();
+            for (int d = 0; d < numberOfDays; d++) {
+                while (true) {
+                    int[] teamMissing = missingPeople(d, null);
+                    int[][] roleMissing = new int[roles.size()][];
+                    boolean isStaffed = Arrays.stream(teamMissing).allMatch(missing -> missing <= 0);
+                    for (int r : roles) {
+                        roleMissing[r] = missingPeople(d, r);
+                        isStaffed &= Arrays.stream(roleMissing[r]).allMatch(missing -> missing <= 0);
+                    }
+                    if (isStaffed || !staffBestCandidate(d, teamMissing, roleMissing)) break;
+                }
+            }
+        }
+
+        private boolean staffBestCandidate(int d, int[] teamMissing, int[][] roleMissing) {
+            int shiftTypes = input.shiftTypes().size();
+            int[] teamGain = new int[shiftTypes];
+            int[][] roleGain = new int[roleMissing.length][shiftTypes];
+            for (int s = 0; s < shiftTypes; s++) {
+                for (int slot = firstSlot[s]; slot <= lastSlot[s]; slot++) {
+                    if (teamMissing[slot] > 0) teamGain[s]++;
+                    for (int r = 0; r < roleMissing.length; r++) {
+                        if (roleMissing[r][slot] > 0) roleGain[r][s]++;
+                    }
+                }
+            }
+
+            long bestScore = Long.MIN_VALUE;
+            int bestEmployee = NONE;
+            int bestShiftType = NONE;
+            int bestPairDay = NONE;
+            int bestPairShiftType = NONE;
+            for (int n = 0; n < input.employees().size(); n++) {
+                if (shifts[n][d] != NONE) continue;
+                EmployeeInfo employee = input.employees().get(n);
+                boolean continuesBlock = worksOn(n, d - 1) || worksOn(n, d + 1);
+                for (int s = 0; s < shiftTypes; s++) {
+                    int gain = teamGain[s] + roleGain[employee.role()][s];
+                    if (gain == 0) continue;
+                    long score = gain * 1000L
+                            + (continuesBlock ? 200 : 0)
+                            + (prefers[n][s] ? 20 : 0)
+                            - (isOffDay[n][d] ? 500 : 0)
+                            + employee.optimalWorkingHoursPerMonth() - hours[n];
+                    if (score <= bestScore || !canWork(n, d, s)) continue;
+                    // a new block also needs a shift on the next day, or on the previous day at the end of the month
+                    int pairDay = NONE;
+                    int pairShiftType = NONE;
+                    if (!continuesBlock) {
+                        pairDay = d + 1;
+                        pairShiftType = pairShiftType(n, d, s, pairDay);
+                        if (pairShiftType == NONE) {
+                            pairDay = d - 1;
+                            pairShiftType = pairShiftType(n, d, s, pairDay);
+                            score -= 100;
+                        }
+                        if (pairShiftType == NONE || score <= bestScore) continue;
+                    }
+                    bestScore = score;
+                    bestEmployee = n;
+                    bestShiftType = s;
+                    bestPairDay = pairDay;
+                    bestPairShiftType = pairShiftType;
+                }
+            }
+            if (bestEmployee == NONE) return false;
+            assign(bestEmployee, d, bestShiftType);
+            if (bestPairShiftType != NONE) assign(bestEmployee, bestPairDay, bestPairShiftType);
+            return true;
+        }
+
+        /**
+         * @param n       the employee
+         * @param d       the day the block starts
+         * @param s       the shift type the block starts with
+         * @param pairDay the day before or after the block
+         * @return the shift type the employee can work on the pair day after starting a block with shift type s on
+         *         day d; NONE if there is none
+         */
+        private int pairShiftType(int n, int d, int s, int pairDay) {
+            if (pairDay < 0 || pairDay >= numberOfDays || shifts[n][pairDay] != NONE) return NONE;
+            assign(n, d, s);
+            int pairShiftType = shiftTypesByPreference(n, s).stream()
+                    .filter(other -> canWork(n, pairDay, other))
+                    .findFirst()
+                    .orElse(NONE);
+            unassign(n, d);
+            return pairShiftType;
+        }
+
+        /**
+         * Adds shifts until the employee works at least the target hours or no more shifts can be added.
+         *
+         * @param n           the employee
+         * @param targetHours the hours the employee should work
+         * @param overshoot   true if the target has to be reached, even if the employee works more than the target
+         */
+        void fillHours(int n, int targetHours, boolean overshoot) {
+            while (hours[n] < targetHours) {
+                Integer[] days = daysByPeopleWorking();
+                if (!extendBlock(n, days, targetHours, overshoot) && !addBlock(n, days, targetHours, overshoot)) {
+                    return;
+                }
+            }
+        }
+
+        private boolean extendBlock(int n, Integer[] days, int targetHours, boolean overshoot) {
+            for (int d : days) {
+                if (shifts[n][d] != NONE || !(worksOn(n, d - 1) || worksOn(n, d + 1))) continue;
+                if (!overshoot && isOffDay[n][d]) continue;
+                int neighbour = worksOn(n, d - 1) && d > 0 ? shifts[n][d - 1] : shiftOn(n, d + 1);
+                for (int s : shiftTypesByPreference(n, neighbour)) {
+                    if (!canWork(n, d, s) || !isCloser(n, targetHours, duration(s), overshoot)) continue;
+                    assign(n, d, s);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean addBlock(int n, Integer[] days, int targetHours, boolean overshoot) {
+            for (int d : days) {
+                if (shifts[n][d] != NONE || d + 1 >= numberOfDays || shifts[n][d + 1] != NONE) continue;
+                if (!overshoot && (isOffDay[n][d] || isOffDay[n][d + 1])) continue;
+                for (int s : shiftTypesByPreference(n, NONE)) {
+                    if (!canWork(n, d, s)) continue;
+                    int nextShiftType = pairShiftType(n, d, s, d + 1);
+                    if (nextShiftType == NONE
+                            || !isCloser(n, targetHours, duration(s) + duration(nextShiftType), overshoot)) {
+                        continue;
+                    }
+                    assign(n, d, s);
+                    assign(n, d + 1, nextShiftType);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isCloser(int n, int targetHours, int additionalHours, boolean overshoot) {
+            if (overshoot) return true;
+            return Math.abs(hours[n] + additionalHours - targetHours) < Math.abs(hours[n] - targetHours);
+        }
+
+        /**
+         * @return the days of the month, days with the fewest working employees first
+         */
+        private Integer[] daysByPeopleWorking() {
+            Integer[] days = IntStream.range(0, numberOfDays).boxed().toArray(Integer[]::new);
+            Arrays.sort(days, Comparator.comparingInt(d -> peopleWorking[d]));
+            return days;
+        }
+
+        /**
+         * @param n      the employee
+         * @param sameAs the shift type that comes first if the employee can work it; NONE if there is none
+         * @return the shift types the employee can work; preferred shift types and the given shift type first
+         */
+        private List<Integer> shiftTypesByPreference(int n, int sameAs) {
+            EmployeeInfo employee = input.employees().get(n);
+            List<Integer> shiftTypes = new ArrayList<>();
+            if (sameAs != NONE && works[n][sameAs]) shiftTypes.add(sameAs);
+            for (int s = 0; s < input.shiftTypes().size(); s++) {
+                if (works[n][s] && prefers[n][s] && !shiftTypes.contains(s)) {
+                    shiftTypes.add(s);
+                }
+            }
+            for (int s = 0; s < input.shiftTypes().size(); s++) {
+                if (works[n][s] && !shiftTypes.contains(s)) shiftTypes.add(s);
+            }
+            return shiftTypes;
+        }
+
+        /**
+         * @param n the employee
+         * @param d the day
+         * @param s the shift type
+         * @return true if adding the shift keeps the shift types, holidays, hours and transitions of the plan valid
+         */
+        private boolean canWork(int n, int d, int s) {
+            if (d < 0 || d >= numberOfDays || shifts[n][d] != NONE || !works[n][s]) return false;
+            if (isHoliday[n][d]) return false;
+            EmployeeInfo employee = input.employees().get(n);
+
+            int previous = d > 0 ? shifts[n][d - 1] : carryOverShift[n];
+            if (previous != NONE && forbidden[previous][s]) return false;
+            int next = shiftOn(n, d + 1);
+            if (next != NONE && forbidden[s][next]) return false;
+            if (consecutiveBefore(n, d) + 1 + consecutiveAfter(n, d) > maxConsecutive[n]) return false;
+
+            int duration = duration(s);
+            if (hours[n] + duration > employee.maxWorkingHoursPerMonth()) return false;
+            int week = d / 7;
+            long daysOfWeek = Math.min(7, numberOfDays - week * 7);
+            long maxHoursPerWeek = input.roles().get(employee.role()).maxHoursPerWeek();
+            return (weeklyHours[n][week] + duration) * daysOfWeek <= maxHoursPerWeek * 7;
+        }
+
+        private int consecutiveBefore(int n, int d) {
+            int consecutive = 0;
+            int day = d - 1;
+            while (day >= 0 && shifts[n][day] != NONE) {
+                consecutive++;
+                day--;
+            }
+            return day < 0 ? consecutive + carryOverConsecutive[n] : consecutive;
+        }
+
+        private int consecutiveAfter(int n, int d) {
+            int consecutive = 0;
+            for (int day = d + 1; day < numberOfDays && shifts[n][day] != NONE; day++) {
+                consecutive++;
+            }
+            return consecutive;
+        }
+
+        private boolean worksOn(int n, int d) {
+            if (d < 0) return d == -1 && carryOverShift[n] != NONE;
+            return d < numberOfDays && shifts[n][d] != NONE;
+        }
+
+        private int shiftOn(int n, int d) {
+            return d >= 0 && d < numberOfDays ? shifts[n][d] : NONE;
+        }
+
+        private int duration(int s) {
+            return input.shiftTypes().get(s).duration();
+        }
+
+        private void assign(int n, int d, int s) {
+            shifts[n][d] = s;
+            peopleWorking[d]++;
+            hours[n] += duration(s);
+            weeklyHours[n][d / 7] += duration(s);
+        }
+
+        private void unassign(int n, int d) {
+            int s = shifts[n][d];
+            shifts[n][d] = NONE;
+            peopleWorking[d]--;
+            hours[n] -= duration(s);
+            weeklyHours[n][d / 7] -= duration(s);
+        }
+
+        /**
+         * @param d    the day
+         * @param role the role; null for the whole team
+         * @return how many people are missing in every slot of the day
+         */
+        private int[] missingPeople(int d, Integer role) {
+            int daytime = role == null
+                    ? input.daytimeRequiredPeople()
+                    : input.roles().get(role).daytimeRequiredPeople();
+            int nighttime = role == null
+                    ? input.nighttimeRequiredPeople()
+                    : input.roles().get(role).nighttimeRequiredPeople();
+            int[] missing = new int[ShiftRules.SLOTS_PER_DAY];
+            for (int slot = 0; slot < ShiftRules.SLOTS_PER_DAY; slot++) {
+                missing[slot] = slot < DAYTIME_SLOTS ? daytime : nighttime;
+                // the solver subtracts the carry over from the staffing level of the team and of every role
+                if (d == 0) missing[slot] -= carryOverCoverage[slot];
+            }
+            if (daytime <= 0 && nighttime <= 0) return missing;
+            for (int n = 0; n < input.employees().size(); n++) {
+                if (role != null && input.employees().get(n).role() != role) continue;
+                int s = shifts[n][d];
+                if (s != NONE) {
+                    for (int slot = firstSlot[s]; slot <= lastSlot[s]; slot++) {
+                        missing[slot]--;
+                    }
+                }
+                if (d > 0 && shifts[n][d - 1] != NONE && coversNextDay[shifts[n][d - 1]]) missing[0]--;
+            }
+            return missing;
+        }
+
+        /**
+         * Checks the rules that are not kept by every single assignment.
+         *
+         * @return true if the plan keeps all rules
+         */
+        boolean isValid() {
+            for (int n = 0; n < input.employees().size(); n++) {
+                if (hours[n] < input.employees().get(n).minWorkingHoursPerMonth()) return false;
+                for (int d = 0; d < numberOfDays; d++) {
+                    // a shift is never worked alone
+                    if (shifts[n][d] != NONE && !worksOn(n, d - 1) && !worksOn(n, d + 1)) return false;
+                }
+            }
+            for (int d = 0; d < numberOfDays; d++) {
+                if (Arrays.stream(missingPeople(d, null)).anyMatch(missing -> missing > 0)) return false;
+                for (int r = 0; r < input.roles().size(); r++) {
+                    if (Arrays.stream(missingPeople(d, r)).anyMatch(missing -> missing > 0)) return false;
+                }
+            }
+            return true;
+        }
+
+        HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> toAssignment() {
+            HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> assignment = new HashMap<>();
+            for (int n = 0; n < input.employees().size(); n++) {
+                List<AlgorithmOutput.ShiftTypeDayPair> pairs = new ArrayList<>();
+                for (int d = 0; d < numberOfDays; d++) {
+                    if (shifts[n][d] != NONE) pairs.add(new AlgorithmOutput.ShiftTypeDayPair(shifts[n][d], d));
+                }
+                if (!pairs.isEmpty()) assignment.put(n, pairs);
+            }
+            return assignment;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.UUID;
+
+/**
+ * @param month            the month of the window
+ * @param year             the year of the window
+ * @param status           the outcome of the month; SKIPPED if the month already had a plan or was not planned
+ *                         because an earlier month failed
+ * @param monthlyPlan      the id of the created or existing plan; null if there is none
+ * @param maxTimeInSeconds the time limit the solver got for the month
+ * @param seconds          time to load, solve and store the month
+ * @param error            the reason the planning failed or was skipped; null if a plan was created
+ */
+public record HorizonMonthReport(
+        int month,
+        int year,
+        TeamPlanStatus status,
+        UUID monthlyPlan,
+        double maxTimeInSeconds,
+        double seconds,
+        String error
+) {
+}
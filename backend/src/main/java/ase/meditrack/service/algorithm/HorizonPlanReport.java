@@ -0,0 +1,16 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @param team         the id of the planned team
+ * @param totalSeconds wall time of the whole horizon
+ * @param months       the outcome for every month, in order
+ */
+public record HorizonPlanReport(
+        UUID team,
+        double totalSeconds,
+        List<HorizonMonthReport> months
+) {
+}
@@ -0,0 +1,15 @@
+package ase.meditrack.service.algorithm;
+
+/**
+ * Progress listener that also receives the assignment of every improving solution, e.g. to store it before the
+ * solver finishes. Copying the assignment out of the solver costs time, so it is only done for these listeners.
+ */
+public interface IncumbentListener extends SolverProgressListener {
+
+    /**
+     * Called after {@link #onProgress(SolverProgress)} with the solution that was just found.
+     *
+     * @param incumbent the best solution found so far; it is not proven to be optimal
+     */
+    void onIncumbent(AlgorithmOutput incumbent);
+}
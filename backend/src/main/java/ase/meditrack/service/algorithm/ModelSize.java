@@ -0,0 +1,55 @@
+package ase.meditrack.service.algorithm;
+
+import com.google.ortools.sat.CpModel;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the variables and constraints that every rule family adds to a model. Each call to {@link #record} assigns
+ * everything that was added since the previous call to the given rule family.
+ */
+final class ModelSize {
+    static final String SHIFT_VARIABLES = "shift_variables";
+    static final String ONE_SHIFT_PER_DAY = "one_shift_per_day";
+    static final String MONTHLY_HOURS = "monthly_hours";
+    static final String WEEKLY_HOURS = "weekly_hours";
+    static final String STAFFING = "staffing";
+    static final String TRANSITIONS = "transitions";
+    static final String TWO_SHIFTS = "two_shifts";
+    static final String REPAIR = "repair";
+    static final String SYMMETRY = "symmetry";
+    static final String OBJECTIVE = "objective";
+    static final String POOL = "pool";
+
+    private final CpModel model;
+    private final long start = System.nanoTime();
+    private final Map<String, Integer> variablesPerRule = new LinkedHashMap<>();
+    private final Map<String, Integer> constraintsPerRule = new LinkedHashMap<>();
+    private int variables;
+    private int constraints;
+
+    ModelSize(CpModel model) {
+        this.model = model;
+    }
+
+    void record(String rule) {
+        int currentVariables = model.model().getVariablesCount();
+        int currentConstraints = model.model().getConstraintsCount();
+        variablesPerRule.merge(rule, currentVariables - variables, Integer::sum);
+        constraintsPerRule.merge(rule, currentConstraints - constraints, Integer::sum);
+        variables = currentVariables;
+        constraints = currentConstraints;
+    }
+
+    /**
+     * @return the statistics of the model up to now; the build time is measured from the creation of this object
+     */
+    ModelStatistics toStatistics() {
+        return new ModelStatistics(variables, constraints,
+                Collections.unmodifiableMap(new LinkedHashMap<>(variablesPerRule)),
+                Collections.unmodifiableMap(new LinkedHashMap<>(constraintsPerRule)),
+                (System.nanoTime() - start) / 1e9, null);
+    }
+}
@@ -0,0 +1,31 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.Map;
+
+/**
+ * Size of the model of a solve and the time it took to build and presolve it.
+ *
+ * @param variables          number of variables of the model
+ * @param constraints        number of constraints of the model
+ * @param variablesPerRule   number of variables that were created for each rule family
+ * @param constraintsPerRule number of constraints that were created for each rule family
+ * @param buildSeconds       time it took to build the model
+ * @param presolveSeconds    time the solver spent in the presolve; null if it is not known
+ */
+public record ModelStatistics(
+        int variables,
+        int constraints,
+        Map<String, Integer> variablesPerRule,
+        Map<String, Integer> constraintsPerRule,
+        double buildSeconds,
+        Double presolveSeconds
+) {
+    /**
+     * @param seconds the time the solver spent in the presolve
+     * @return the same statistics with the presolve time
+     */
+    public ModelStatistics withPresolveSeconds(Double seconds) {
+        return new ModelStatistics(variables, constraints, variablesPerRule, constraintsPerRule, buildSeconds,
+                seconds);
+    }
+}
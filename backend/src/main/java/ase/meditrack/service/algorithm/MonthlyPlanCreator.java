@@ -1,6 +1,8 @@
 package ase.meditrack.service.algorithm;
 
 import ase.meditrack.exception.NoSolutionException;
+import ase.meditrack.exception.NotFoundException;
+import ase.meditrack.model.dto.RuleConflictDto;
 import ase.meditrack.model.entity.Holiday;
 import ase.meditrack.model.entity.MonthlyPlan;
 import ase.meditrack.model.entity.MonthlyWorkDetails;
@@ -13,6 +15,7 @@ import ase.meditrack.repository.HolidayRepository;
 import ase.meditrack.repository.MonthlyPlanRepository;
 import ase.meditrack.repository.MonthlyWorkDetailsRepository;
 import ase.meditrack.repository.ShiftRepository;
+import ase.meditrack.repository.TeamRepository;
 import ase.meditrack.service.MonthlyWorkDetailsService;
 import ase.meditrack.service.UserService;
 import org.springframework.stereotype.Service;
@@ -22,10 +25,12 @@ import java.security.Principal;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 public class MonthlyPlanCreator {
@@ -36,36 +41,81 @@ public class MonthlyPlanCreator {
     private final MonthlyWorkDetailsRepository monthlyWorkDetailsRepository;
     private final MonthlyWorkDetailsService monthlyWorkDetailsService;
     private final HolidayRepository holidayRepository;
+    private final TeamRepository teamRepository;
+    private final SolverService solverService;
+    private final SolverMetrics solverMetrics;
+    private final MonthlyPlanDeltaWriter deltaWriter;
 
     public MonthlyPlanCreator(ShiftRepository shiftRepository, MonthlyPlanRepository monthlyPlanRepository,
                               UserService userService, MonthlyWorkDetailsRepository monthlyWorkDetailsRepository,
                               MonthlyWorkDetailsService monthlyWorkDetailsService,
-                              HolidayRepository holidayRepository) {
+                              HolidayRepository holidayRepository, TeamRepository teamRepository,
+                              SolverService solverService, SolverMetrics solverMetrics,
+                              MonthlyPlanDeltaWriter deltaWriter) {
         this.shiftRepository = shiftRepository;
         this.monthlyPlanRepository = monthlyPlanRepository;
         this.userService = userService;
         this.monthlyWorkDetailsRepository = monthlyWorkDetailsRepository;
         this.monthlyWorkDetailsService = monthlyWorkDetailsService;
         this.holidayRepository = holidayRepository;
+        this.teamRepository = teamRepository;
+        this.solverService = solverService;
+        this.solverMetrics = solverMetrics;
+        this.deltaWriter = deltaWriter;
     }
 
 
     /**
-     * Create a monthly plan for the given parameters.
-     * Stores the shifts and monthly plan in the database and returns the created plan.
+     * Loads everything that is needed to generate a monthly plan and maps it to the input of the solver.
      *
      * @param month     the month for which to create the plan
      * @param year      the year for which to create the plan
      * @param principal principal that calls the rest endpoint
-     * @return the created plan
+     * @return the context that is used to solve and store the plan
      */
-    @Transactional
-    public MonthlyPlan createMonthlyPlan(int month, int year, Principal principal) {
+    @Transactional(readOnly = true)
+    public PlanningContext prepareMonthlyPlan(int month, int year, Principal principal) {
+        return prepareMonthlyPlan(month, year, principal, solverService.profile(null).isWarmStart());
+    }
+
+    /**
+     * Loads everything that is needed to generate a monthly plan and maps it to the input of the solver.
+     *
+     * @param month     the month for which to create the plan
+     * @param year      the year for which to create the plan
+     * @param principal principal that calls the rest endpoint
+     * @param warmStart true if the solver should start from the existing and the previous plans
+     * @return the context that is used to solve and store the plan
+     */
+    @Transactional(readOnly = true)
+    public PlanningContext prepareMonthlyPlan(int month, int year, Principal principal, boolean warmStart) {
         User user = userService.getPrincipalWithTeam(principal);
-        Team team = user.getTeam();
-        List<ShiftType> shiftTypes = team.getShiftTypes();
         List<User> users = userService.findByTeam(principal);
         users = users.stream().filter(u -> u.getId() != user.getId()).toList();
+        return prepareMonthlyPlan(month, year, user.getTeam(), users, warmStart);
+    }
+
+    /**
+     * Loads everything that is needed to generate a monthly plan for a team without a calling user.
+     * Team members without a role are not planned.
+     *
+     * @param month  the month for which to create the plan
+     * @param year   the year for which to create the plan
+     * @param teamId the id of the team
+     * @return the context that is used to solve and store the plan
+     */
+    @Transactional(readOnly = true)
+    public PlanningContext prepareMonthlyPlan(int month, int year, UUID teamId) {
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new NotFoundException("Could not find team with id: " + teamId + "!"));
+        List<User> users = team.getUsers().stream().filter(u -> u.getRole() != null).toList();
+        return prepareMonthlyPlan(month, year, team, users, solverService.profile(null).isWarmStart());
+    }
+
+    private PlanningContext prepareMonthlyPlan(int month, int year, Team team, List<User> users,
+                                               boolean warmStart) {
+        List<ShiftType> shiftTypes = new ArrayList<>(team.getShiftTypes());
+        List<Role> roles = new ArrayList<>(team.getRoles());
         Map<UUID, List<Holiday>> holidaysPerUser = users.stream().collect(Collectors.toMap(
                 User::getId,
                 u -> holidayRepository.findHolidaysForUserInCurrentMonth(u.getId(), YearMonth.of(year, month).atDay(1),
@@ -78,7 +128,7 @@ public class MonthlyPlanCreator {
 
         YearMonth yearMonth = YearMonth.of(year, month);
         YearMonth yearMonthBefore = yearMonth.minusMonths(1);
-        int maxConsecShifts = team.getRoles().stream().mapToInt(Role::getMaxConsecutiveShifts).max()
+        int maxConsecShifts = roles.stream().mapToInt(Role::getMaxConsecutiveShifts).max()
                 .orElseThrow(() -> new RuntimeException("no roles for team"));
         LocalDate startDate = yearMonthBefore.atEndOfMonth().minusDays(Math.max(maxConsecShifts, 1));
         List<Shift> prevMonthShifts = shiftRepository.findAllByTeamAndDateAfterAndDateBefore(
@@ -92,20 +142,139 @@ public class MonthlyPlanCreator {
                 users,
                 holidaysPerUser,
                 shiftTypes,
-                team.getRoles(),
+                roles,
                 team,
                 prevMonthShifts
         );
+        solverMetrics.recordMapping(users.size(), algorithmMapper.getMappingDuration());
+
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint = Map.of();
+        if (warmStart) {
+            hint = createHint(team, yearMonth, input, algorithmMapper);
+        }
+
+        return new PlanningContext(month, year, team, users, shiftTypes, algorithmMapper, input, hint);
+    }
+
+    /**
+     * Creates the assignment the solver starts from. Employees keep their shifts of an existing plan for the month,
+     * otherwise they continue their rotation of the previous month. Everybody else gets the plan of the heuristic.
+     *
+     * @param team            the team of the plan
+     * @param yearMonth       the month of the plan
+     * @param input           the input of the solver
+     * @param algorithmMapper maps the shifts of the team to the indices of the input
+     * @return the shifts of the hint; key is employee
+     */
+    private Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> createHint(Team team, YearMonth yearMonth,
+                                                                        AlgorithmInput input,
+                                                                        AlgorithmMapper algorithmMapper) {
+        MonthlyPlan existingPlan = monthlyPlanRepository.findMonthlyPlanByTeamAndMonthAndYear(team,
+                yearMonth.getMonthValue(), yearMonth.getYear());
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> existing = existingPlan == null
+                || existingPlan.getShifts() == null
+                ? Map.of()
+                : algorithmMapper.mapToAssignment(existingPlan.getShifts());
+
+        YearMonth yearMonthBefore = yearMonth.minusMonths(1);
+        List<Shift> prevMonthShifts = shiftRepository.findAllByTeamAndDateAfterAndDateBefore(
+                team.getId(),
+                yearMonthBefore.atDay(1),
+                yearMonthBefore.atEndOfMonth()
+        );
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> rotation = WarmStartHints.fromPreviousMonth(
+                algorithmMapper.mapToAssignment(prevMonthShifts), yearMonthBefore.lengthOfMonth(),
+                input.numberOfDays());
+
+        // the heuristic satisfies the hard constraints, the draft is only a fallback if it finds no plan
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> heuristic = new HashMap<>();
+        Scheduler.GREEDY.solve(input, SolverOptions.defaults(), SolverProgressListener.NONE)
+                .ifPresent(output -> heuristic.putAll(output.assignmentOfEmployeesToShifts()));
+        return WarmStartHints.merge(input, existing, rotation, heuristic, WarmStartHints.greedyDraft(input));
+    }
 
-        AlgorithmOutput output = SchedulingSolver.solve(input)
+    /**
+     * Creates a plan with the heuristic scheduler without storing it. Used to preview the effect of changed
+     * constraints, so it returns in milliseconds.
+     *
+     * @param month     the month for which to create the plan
+     * @param year      the year for which to create the plan
+     * @param principal principal that calls the rest endpoint
+     * @return the plan and the statistics of the heuristic; the plan and its shifts have no ids
+     */
+    @Transactional(readOnly = true)
+    public GeneratedPlan previewMonthlyPlan(int month, int year, Principal principal) {
+        PlanningContext context = prepareMonthlyPlan(month, year, principal);
+        AlgorithmOutput output = Scheduler.GREEDY.solve(context.input(), SolverOptions.defaults(),
+                        SolverProgressListener.NONE)
                 .orElseThrow(() -> new NoSolutionException("Could not generate schedule with given requirements."));
+        MonthlyPlan monthlyPlan = new MonthlyPlan(null, month, year, false, context.team(), null, List.of());
+        monthlyPlan.setShifts(context.mapper().mapFromAlgorithmOutput(output, context.shiftTypes(), context.users(),
+                monthlyPlan, month, year));
+        return new GeneratedPlan(monthlyPlan, output.statistics());
+    }
+
+    /**
+     * Runs the solver for a prepared monthly plan. Does not access the database.
+     *
+     * @param context  the prepared plan
+     * @param listener gets notified about every improving solution
+     * @return the output of the solver
+     */
+    public AlgorithmOutput solve(PlanningContext context, SolverProgressListener listener) {
+        return solve(context, solverService.defaultOptions(), listener);
+    }
+
+    /**
+     * Runs the solver for a prepared monthly plan with other options than the configured ones. Does not access the
+     * database.
+     *
+     * @param context  the prepared plan
+     * @param options  the options of the solver; the hint is taken from the context
+     * @param listener gets notified about every improving solution
+     * @return the output of the solver
+     */
+    public AlgorithmOutput solve(PlanningContext context, SolverOptions options, SolverProgressListener listener) {
+        options = options.toBuilder().hint(context.hint()).build();
+        return solverService.solve(context.input(), options, listener)
+                .orElseThrow(() -> {
+                    Diagnosis diagnosis = solverService.diagnose(context.input());
+                    return new NoSolutionException("Could not generate schedule with given requirements.",
+                            toConflictDtos(context, diagnosis.conflicts()), diagnosis.minimal());
+                });
+    }
+
+    private List<RuleConflictDto> toConflictDtos(PlanningContext context, List<RuleConflict> conflicts) {
+        return conflicts.stream()
+                .map(conflict -> new RuleConflictDto(
+                        conflict.rule(),
+                        conflict.employee() == null ? null : context.users().get(conflict.employee()).getId(),
+                        conflict.role() == null ? null : context.input().roles().get(conflict.role()).name(),
+                        conflict.day() == null ? null : LocalDate.of(context.year(), context.month(),
+                                conflict.day() + 1)))
+                .toList();
+    }
+
+    /**
+     * Stores the monthly plan, its shifts and the monthly work details of the team members.
+     *
+     * @param context the prepared plan
+     * @param output  the output of the solver
+     * @return the created plan
+     */
+    @Transactional
+    public MonthlyPlan saveMonthlyPlan(PlanningContext context, AlgorithmOutput output) {
+        int month = context.month();
+        int year = context.year();
+        Team team = context.team();
+        List<User> users = context.users();
 
         MonthlyPlan monthlyPlan = monthlyPlanRepository.save(new MonthlyPlan(null, month, year, false,
                 team, null, null));
 
-        List<Shift> shifts = algorithmMapper.mapFromAlgorithmOutput(
+        List<Shift> shifts = context.mapper().mapFromAlgorithmOutput(
                 output,
-                shiftTypes,
+                context.shiftTypes(),
                 users,
                 monthlyPlan,
                 month,
@@ -139,4 +308,26 @@ public class MonthlyPlanCreator {
         return monthlyPlan;
     }
 
+    /**
+     * Replaces the shifts of a stored plan with a better output of the solver. Only the shifts that differ from the
+     * output are written, and only the actual working hours of their employees are updated.
+     *
+     * @param monthlyPlanId the id of the stored plan
+     * @param context       the prepared plan
+     * @param output        the output of the solver
+     * @return the updated plan
+     */
+    @Transactional
+    public MonthlyPlan updateMonthlyPlan(UUID monthlyPlanId, PlanningContext context, AlgorithmOutput output) {
+        MonthlyPlan monthlyPlan = monthlyPlanRepository.findById(monthlyPlanId)
+                .orElseThrow(() -> new NotFoundException("Could not find monthly plan with id: " + monthlyPlanId
+                        + "!"));
+        List<Integer> employees = IntStream.range(0, context.users().size()).boxed().toList();
+        List<Integer> days = IntStream.range(0, context.input().numberOfDays()).boxed().toList();
+        deltaWriter.write(monthlyPlan, context,
+                MonthlyPlanDeltaWriter.changeableShifts(monthlyPlan.getShifts(), context.mapper()), output, employees,
+                days);
+        return monthlyPlan;
+    }
+
 }
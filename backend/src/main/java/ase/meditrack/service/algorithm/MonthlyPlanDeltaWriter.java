@@ -0,0 +1,137 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.model.entity.MonthlyPlan;
+import ase.meditrack.model.entity.Shift;
+import ase.meditrack.model.entity.ShiftType;
+import ase.meditrack.model.entity.User;
+import ase.meditrack.repository.ShiftRepository;
+import ase.meditrack.repository.ShiftSwapRepository;
+import ase.meditrack.service.MonthlyWorkDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies a new output of the solver to a stored monthly plan by writing only the difference. Shifts that stay the
+ * same are not touched, so the number of writes, of updated monthly work details and of invalidated shift swaps
+ * grows with the change and not with the month.
+ */
+@Component
+public class MonthlyPlanDeltaWriter {
+    private final ShiftRepository shiftRepository;
+    private final ShiftSwapRepository shiftSwapRepository;
+    private final MonthlyWorkDetailsService monthlyWorkDetailsService;
+
+    public MonthlyPlanDeltaWriter(ShiftRepository shiftRepository, ShiftSwapRepository shiftSwapRepository,
+                                  MonthlyWorkDetailsService monthlyWorkDetailsService) {
+        this.shiftRepository = shiftRepository;
+        this.shiftSwapRepository = shiftSwapRepository;
+        this.monthlyWorkDetailsService = monthlyWorkDetailsService;
+    }
+
+    /**
+     * Collects the shifts of a plan that the solver may change. Shifts of several employees and sick shifts are
+     * kept as they are.
+     *
+     * @param planShifts the shifts of the stored plan; may be null
+     * @param mapper     the mapper of the planned month
+     * @return the shifts; key is employee, value are their shifts by day of the month, starting at 0
+     */
+    public static Map<Integer, Map<Integer, Shift>> changeableShifts(List<Shift> planShifts, AlgorithmMapper mapper) {
+        Map<Integer, Map<Integer, Shift>> shifts = new HashMap<>();
+        if (planShifts == null) return shifts;
+        for (Shift shift : planShifts) {
+            if (Boolean.TRUE.equals(shift.getIsSick()) || shift.getUsers() == null || shift.getUsers().size() != 1) {
+                continue;
+            }
+            Integer employee = mapper.getEmployeeIndex(shift.getUsers().get(0).getId());
+            if (employee == null) continue;
+            shifts.computeIfAbsent(employee, key -> new HashMap<>()).put(shift.getDate().getDayOfMonth() - 1, shift);
+        }
+        return shifts;
+    }
+
+    /**
+     * Writes the difference between the changeable shifts and the output for the given employees and days.
+     * Created shifts are added to the shifts of the plan and removed shifts are removed from them. The monthly work
+     * details of the employees are updated for every written shift.
+     *
+     * @param monthlyPlan   the stored plan
+     * @param context       the prepared plan the output was solved for
+     * @param currentShifts the changeable shifts of the plan, see {@link #changeableShifts}
+     * @param output        the output of the solver
+     * @param employees     the employees whose shifts may change
+     * @param days          the days on which their shifts may change, starting at 0
+     * @return the number of inserted, updated and deleted shifts
+     */
+    @Transactional
+    public PlanDelta write(MonthlyPlan monthlyPlan, PlanningContext context,
+                           Map<Integer, Map<Integer, Shift>> currentShifts, AlgorithmOutput output,
+                           Collection<Integer> employees, Collection<Integer> days) {
+        if (monthlyPlan.getShifts() == null) monthlyPlan.setShifts(new ArrayList<>());
+        int inserted = 0;
+        int updated = 0;
+        int deleted = 0;
+        int invalidatedSwaps = 0;
+        for (int n : employees) {
+            Map<Integer, Integer> planned = new HashMap<>();
+            for (AlgorithmOutput.ShiftTypeDayPair pair : output.assignmentOfEmployeesToShifts()
+                    .getOrDefault(n, List.of())) {
+                planned.put(pair.day(), pair.shiftType());
+            }
+            Map<Integer, Shift> existing = currentShifts.getOrDefault(n, Map.of());
+            for (int d : days) {
+                Shift shift = existing.get(d);
+                Integer shiftType = planned.get(d);
+                ShiftType newShiftType = shiftType == null ? null : context.shiftTypes().get(shiftType);
+                if (shift == null && newShiftType == null) continue;
+                if (shift != null && newShiftType != null
+                        && Objects.equals(shift.getShiftType().getId(), newShiftType.getId())) {
+                    continue;
+                }
+
+                if (shift == null) {
+                    User user = context.users().get(n);
+                    Shift created = new Shift();
+                    created.setShiftType(newShiftType);
+                    created.setUsers(List.of(user));
+                    created.setMonthlyPlan(monthlyPlan);
+                    created.setDate(LocalDate.of(context.year(), context.month(), d + 1));
+                    created = shiftRepository.save(created);
+                    monthlyWorkDetailsService.updateMonthlyWorkDetailsForShift(created, null);
+                    monthlyPlan.getShifts().add(created);
+                    inserted++;
+                    continue;
+                }
+
+                // a swap of the shift was agreed on for the old shift type or day
+                if (!shift.getRequestedShiftSwap().isEmpty() || !shift.getSuggestedShiftSwap().isEmpty()) {
+                    shiftSwapRepository.deleteAllByRequestedShiftId(shift.getId());
+                    shift.getRequestedShiftSwap().clear();
+                    shift.getSuggestedShiftSwap().clear();
+                    invalidatedSwaps++;
+                }
+                if (newShiftType == null) {
+                    monthlyWorkDetailsService.updateMonthlyWorkDetailsForDeletedShift(shift);
+                    monthlyPlan.getShifts().remove(shift);
+                    shiftRepository.delete(shift);
+                    deleted++;
+                } else {
+                    ShiftType oldShiftType = shift.getShiftType();
+                    shift.setShiftType(newShiftType);
+                    monthlyWorkDetailsService.updateMonthlyWorkDetailsForShift(shiftRepository.save(shift),
+                            oldShiftType);
+                    updated++;
+                }
+            }
+        }
+        return new PlanDelta(inserted, updated, deleted, invalidatedSwaps);
+    }
+}
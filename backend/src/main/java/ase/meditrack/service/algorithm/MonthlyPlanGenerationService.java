@@ -0,0 +1,53 @@
+package ase.meditrack.service.algorithm;
+
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+
+/**
+ * Generates a monthly plan while the request waits for it. The solve can take minutes, so it runs outside of any
+ * transaction: the input is loaded in a read-only transaction and the plan is stored in a transaction of its own,
+ * just like the jobs of {@link MonthlyPlanJobService} do.
+ */
+@Service
+public class MonthlyPlanGenerationService {
+    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final SolverService solverService;
+
+    public MonthlyPlanGenerationService(MonthlyPlanCreator monthlyPlanCreator, SolverService solverService) {
+        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.solverService = solverService;
+    }
+
+    /**
+     * Create a monthly plan for the given parameters.
+     * Stores the shifts and monthly plan in the database and returns the created plan.
+     *
+     * @param month     the month for which to create the plan
+     * @param year      the year for which to create the plan
+     * @param principal principal that calls the rest endpoint
+     * @return the created plan and the statistics of its solve
+     */
+    public GeneratedPlan createMonthlyPlan(int month, int year, Principal principal) {
+        return createMonthlyPlan(month, year, principal, null);
+    }
+
+    /**
+     * Create a monthly plan with the settings of a solve profile.
+     * Stores the shifts and monthly plan in the database and returns the created plan.
+     *
+     * @param month     the month for which to create the plan
+     * @param year      the year for which to create the plan
+     * @param principal principal that calls the rest endpoint
+     * @param profile   the name of the solve profile; null uses the default profile
+     * @return the created plan and the statistics of its solve
+     * @throws jakarta.validation.ValidationException if the profile does not exist
+     */
+    public GeneratedPlan createMonthlyPlan(int month, int year, Principal principal, String profile) {
+        SolverOptions options = solverService.options(profile);
+        PlanningContext context = monthlyPlanCreator.prepareMonthlyPlan(month, year, principal,
+                solverService.profile(profile).isWarmStart());
+        AlgorithmOutput output = monthlyPlanCreator.solve(context, options, SolverProgressListener.NONE);
+        return new GeneratedPlan(monthlyPlanCreator.saveMonthlyPlan(context, output), output.statistics());
+    }
+}
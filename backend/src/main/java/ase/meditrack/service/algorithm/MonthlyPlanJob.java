@@ -0,0 +1,75 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.model.dto.RuleConflictDto;
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A monthly plan that is generated in the background.
+ * The state is written by the solver thread and read by request threads, therefore all mutable fields are volatile.
+ */
+@Getter
+public class MonthlyPlanJob {
+    private final UUID id = UUID.randomUUID();
+    private final UUID teamId;
+    private final int month;
+    private final int year;
+    private final Instant createdAt = Instant.now();
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    private volatile MonthlyPlanJobStatus status = MonthlyPlanJobStatus.QUEUED;
+    private volatile SolverProgress progress;
+    private volatile UUID monthlyPlanId;
+    private volatile String error;
+    private volatile List<RuleConflictDto> conflicts = List.of();
+    private volatile boolean conflictsMinimal = true;
+    private volatile Instant finishedAt;
+
+    public MonthlyPlanJob(UUID teamId, int month, int year) {
+        this.teamId = teamId;
+        this.month = month;
+        this.year = year;
+    }
+
+    void start() {
+        status = MonthlyPlanJobStatus.RUNNING;
+    }
+
+    void progress(SolverProgress solverProgress) {
+        progress = solverProgress;
+    }
+
+    void draft(UUID planId) {
+        monthlyPlanId = planId;
+    }
+
+    void complete(UUID planId) {
+        monthlyPlanId = planId;
+        finishedAt = Instant.now();
+        status = MonthlyPlanJobStatus.COMPLETED;
+    }
+
+    void fail(String message) {
+        fail(message, List.of(), true);
+    }
+
+    void fail(String message, List<RuleConflictDto> ruleConflicts, boolean minimal) {
+        error = message;
+        conflicts = ruleConflicts;
+        conflictsMinimal = minimal;
+        finishedAt = Instant.now();
+        status = MonthlyPlanJobStatus.FAILED;
+    }
+
+    /**
+     * @return true if the job completed or failed
+     */
+    public boolean isFinished() {
+        return status == MonthlyPlanJobStatus.COMPLETED || status == MonthlyPlanJobStatus.FAILED;
+    }
+}
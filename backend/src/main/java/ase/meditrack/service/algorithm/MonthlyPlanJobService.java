@@ -0,0 +1,313 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.exception.NoSolutionException;
+import ase.meditrack.exception.NotFoundException;
+import ase.meditrack.exception.ResourceConflictException;
+import ase.meditrack.model.entity.MonthlyPlan;
+import ase.meditrack.model.entity.User;
+import ase.meditrack.model.mapper.MonthlyPlanJobMapper;
+import ase.meditrack.service.UserService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+@Slf4j
+public class MonthlyPlanJobService {
+    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final ThreadPoolTaskExecutor solverExecutor;
+    private final ScheduledExecutorService draftWriterExecutor;
+    private final UserService userService;
+    private final MonthlyPlanJobMapper mapper;
+    private final SolverProperties properties;
+    private final Map<UUID, MonthlyPlanJob> jobs = new ConcurrentHashMap<>();
+    // the unfinished job of every month of a team, so a second request does not solve the same plan again
+    private final Map<JobKey, MonthlyPlanJob> activeJobs = new ConcurrentHashMap<>();
+    // the progress events are sent by their own thread, so a slow client never blocks the solver callback
+    private final ExecutorService eventExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "monthly-plan-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<UUID> pendingEvents = ConcurrentHashMap.newKeySet();
+
+    private record JobKey(UUID teamId, int month, int year) {
+        static JobKey of(MonthlyPlanJob job) {
+            return new JobKey(job.getTeamId(), job.getMonth(), job.getYear());
+        }
+    }
+
+    public MonthlyPlanJobService(MonthlyPlanCreator monthlyPlanCreator, ThreadPoolTaskExecutor solverExecutor,
+                                 ScheduledExecutorService draftWriterExecutor, UserService userService,
+                                 MonthlyPlanJobMapper mapper, SolverProperties properties) {
+        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.solverExecutor = solverExecutor;
+        this.draftWriterExecutor = draftWriterExecutor;
+        this.userService = userService;
+        this.mapper = mapper;
+        this.properties = properties;
+    }
+
+    @PreDestroy
+    void stop() {
+        eventExecutor.shutdownNow();
+    }
+
+    /**
+     * Submits a job that generates the monthly plan in the background.
+     * The input is loaded right away, so invalid requests fail immediately.
+     * If a plan of the same month of the team is already being generated, that job is returned instead.
+     *
+     * @param month     the month for which to create the plan
+     * @param year      the year for which to create the plan
+     * @param principal principal that calls the rest endpoint
+     * @return the submitted job
+     */
+    public MonthlyPlanJob submit(int month, int year, Principal principal) {
+        PlanningContext context = monthlyPlanCreator.prepareMonthlyPlan(month, year, principal);
+        MonthlyPlanJob job = new MonthlyPlanJob(context.team().getId(), month, year);
+        MonthlyPlanJob activeJob = activeJobs.putIfAbsent(JobKey.of(job), job);
+        if (activeJob != null) return activeJob;
+        execute(job, () -> run(job, context));
+        return job;
+    }
+
+    /**
+     * Submits a job that stores the first solution as draft plan and keeps improving it in the background.
+     * Waits until the draft is stored, but at most for the configured latency. If the solver did not find a
+     * solution by then, the plan of the heuristic is stored as draft instead. Every better solution of the solver
+     * replaces the shifts of the draft, so a plan is never lost because the solver did not finish.
+     * If a plan of the same month of the team is already being generated, that job is returned instead.
+     *
+     * @param month     the month for which to create the plan
+     * @param year      the year for which to create the plan
+     * @param principal principal that calls the rest endpoint
+     * @return the submitted job; it refers to the draft if one was stored in time
+     */
+    public MonthlyPlanJob submitAnytime(int month, int year, Principal principal) {
+        PlanningContext context = monthlyPlanCreator.prepareMonthlyPlan(month, year, principal);
+        MonthlyPlanJob job = new MonthlyPlanJob(context.team().getId(), month, year);
+        MonthlyPlanJob activeJob = activeJobs.putIfAbsent(JobKey.of(job), job);
+        if (activeJob != null) return activeJob;
+        AnytimePlanWriter writer = new AnytimePlanWriter(monthlyPlanCreator, context, draftWriterExecutor,
+                properties.getAnytimeUpdateInterval(),
+                progress -> {
+                    job.progress(progress);
+                    publish(job);
+                },
+                planId -> {
+                    job.draft(planId);
+                    publish(job);
+                });
+        execute(job, () -> runAnytime(job, context, writer));
+        try {
+            writer.firstDraft().get(properties.getAnytimeLatency().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            Scheduler.GREEDY.solve(context.input(), SolverOptions.defaults(), SolverProgressListener.NONE)
+                    .ifPresent(writer::offerFallback);
+        } catch (ExecutionException e) {
+            // the job failed before a draft was stored, the error is part of the job
+            log.debug("Monthly plan job {} failed before storing a draft", job.getId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return job;
+    }
+
+    /**
+     * Fetches a job by its id.
+     *
+     * @param id the id of the job
+     * @return the job
+     */
+    public MonthlyPlanJob findById(UUID id) {
+        MonthlyPlanJob job = jobs.get(id);
+        if (job == null) {
+            throw new NotFoundException("Could not find monthly plan job with id: " + id + "!");
+        }
+        return job;
+    }
+
+    /**
+     * Subscribes to the progress events of a job. The current state is sent right away.
+     *
+     * @param id the id of the job
+     * @return the emitter that streams the events
+     */
+    public SseEmitter subscribe(UUID id) {
+        MonthlyPlanJob job = findById(id);
+        SseEmitter emitter = new SseEmitter(properties.getEventTimeout().toMillis());
+        emitter.onCompletion(() -> job.getEmitters().remove(emitter));
+        emitter.onTimeout(() -> job.getEmitters().remove(emitter));
+        emitter.onError(e -> job.getEmitters().remove(emitter));
+        job.getEmitters().add(emitter);
+        // the job might have finished in between, so the final event is sent here as well
+        send(job, emitter);
+        return emitter;
+    }
+
+    /**
+     * Checks if a job belongs to the team of a user.
+     *
+     * @param userId the id of the user
+     * @param jobId  the id of the job
+     * @return true if the job belongs to the team of the user, false otherwise
+     */
+    public boolean isUserInTeam(UUID userId, UUID jobId) {
+        if (userId == null || jobId == null) {
+            return false;
+        }
+        MonthlyPlanJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        User user = userService.findById(userId);
+        return user.getTeam() != null && user.getTeam().getId().equals(job.getTeamId());
+    }
+
+    private void run(MonthlyPlanJob job, PlanningContext context) {
+        job.start();
+        publish(job);
+        try {
+            AlgorithmOutput output = monthlyPlanCreator.solve(context, progress -> {
+                job.progress(progress);
+                publish(job);
+            });
+            MonthlyPlan plan = monthlyPlanCreator.saveMonthlyPlan(context, output);
+            job.complete(plan.getId());
+            log.info("Monthly plan job {} completed with plan {}", job.getId(), plan.getId());
+        } catch (NoSolutionException e) {
+            job.fail(e.getMessage(), e.getConflicts(), e.isConflictsMinimal());
+            log.info("Monthly plan job {} found no solution", job.getId());
+        } catch (RuntimeException e) {
+            job.fail("Could not generate monthly plan.");
+            log.error("Monthly plan job {} failed", job.getId(), e);
+        }
+        publish(job);
+    }
+
+    private void execute(MonthlyPlanJob job, Runnable task) {
+        jobs.put(job.getId(), job);
+        try {
+            solverExecutor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    activeJobs.remove(JobKey.of(job), job);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            activeJobs.remove(JobKey.of(job), job);
+            throw new ResourceConflictException("Too many monthly plans are being generated, try again later.");
+        }
+        log.info("Submitted monthly plan job {} for team {}", job.getId(), job.getTeamId());
+    }
+
+    private void runAnytime(MonthlyPlanJob job, PlanningContext context, AnytimePlanWriter writer) {
+        job.start();
+        publish(job);
+        writer.start();
+        try {
+            AlgorithmOutput output = monthlyPlanCreator.solve(context, writer);
+            job.complete(writer.complete(output));
+            log.info("Monthly plan job {} completed with plan {}", job.getId(), job.getMonthlyPlanId());
+        } catch (RuntimeException e) {
+            finishWithDraft(job, writer, e);
+        }
+        publish(job);
+    }
+
+    /**
+     * A stored draft satisfies all hard constraints, so it is kept as result even if the solver failed.
+     *
+     * @param job    the failed job
+     * @param writer the writer of the drafts of the job
+     * @param e      the reason of the failure
+     */
+    private void finishWithDraft(MonthlyPlanJob job, AnytimePlanWriter writer, RuntimeException e) {
+        UUID draft;
+        try {
+            draft = writer.complete(null);
+        } catch (RuntimeException storeError) {
+            log.warn("Could not store latest draft of monthly plan job {}", job.getId(), storeError);
+            draft = writer.getMonthlyPlanId();
+        }
+        if (draft != null) {
+            job.complete(draft);
+            log.warn("Monthly plan job {} kept draft {} after the solver failed", job.getId(), draft, e);
+            return;
+        }
+        writer.fail(e);
+        if (e instanceof NoSolutionException noSolution) {
+            job.fail(noSolution.getMessage(), noSolution.getConflicts(), noSolution.isConflictsMinimal());
+            log.info("Monthly plan job {} found no solution", job.getId());
+        } else {
+            job.fail("Could not generate monthly plan.");
+            log.error("Monthly plan job {} failed", job.getId(), e);
+        }
+    }
+
+    /**
+     * Sends the state of the job to its subscribers in the event thread. Events that are published while an event of
+     * the job is still waiting are merged into it, since the waiting event sends the latest state anyway.
+     *
+     * @param job the job whose state changed
+     */
+    private void publish(MonthlyPlanJob job) {
+        if (job.getEmitters().isEmpty() || !pendingEvents.add(job.getId())) return;
+        try {
+            eventExecutor.execute(() -> {
+                pendingEvents.remove(job.getId());
+                for (SseEmitter emitter : job.getEmitters()) {
+                    send(job, emitter);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the application is shutting down
+            pendingEvents.remove(job.getId());
+        }
+    }
+
+    private void send(MonthlyPlanJob job, SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(job.getStatus().name().toLowerCase())
+                    .data(mapper.toDto(job)));
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            job.getEmitters().remove(emitter);
+        }
+    }
+
+    /**
+     * Removes the finished jobs that are older than the retention.
+     */
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void removeExpiredJobs() {
+        Instant expiry = Instant.now().minus(properties.getJobRetention());
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(expiry));
+    }
+}
@@ -0,0 +1,8 @@
+package ase.meditrack.service.algorithm;
+
+public enum MonthlyPlanJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
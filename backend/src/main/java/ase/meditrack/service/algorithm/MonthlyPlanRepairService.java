@@ -0,0 +1,274 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.exception.NoSolutionException;
+import ase.meditrack.exception.NotFoundException;
+import ase.meditrack.exception.ResourceConflictException;
+import ase.meditrack.model.entity.MonthlyPlan;
+import ase.meditrack.model.entity.Shift;
+import ase.meditrack.model.entity.User;
+import ase.meditrack.repository.MonthlyPlanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Re-plans a small part of an existing monthly plan after shifts were marked as sick or edited by a manager.
+ * Only the affected days and the employees with the same role as the affected employees are solved again, everything
+ * else is kept as it is. A regeneration solves the whole month again but penalizes every change to the existing plan.
+ * Only the shifts that changed are written back.
+ */
+@Service
+@Slf4j
+public class MonthlyPlanRepairService {
+    private final MonthlyPlanRepository monthlyPlanRepository;
+    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final MonthlyPlanDeltaWriter deltaWriter;
+    private final SolverService solverService;
+    private final SolverProperties properties;
+
+    public MonthlyPlanRepairService(MonthlyPlanRepository monthlyPlanRepository,
+                                    MonthlyPlanCreator monthlyPlanCreator, MonthlyPlanDeltaWriter deltaWriter,
+                                    SolverService solverService, SolverProperties properties) {
+        this.monthlyPlanRepository = monthlyPlanRepository;
+        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.deltaWriter = deltaWriter;
+        this.solverService = solverService;
+        this.properties = properties;
+    }
+
+    /**
+     * Repairs the monthly plan around the given shifts. Sick employees are replaced on the days of their shifts,
+     * shifts that are not sick are kept as they are and the plan around them is adapted.
+     *
+     * @param monthlyPlanId the id of the monthly plan
+     * @param shiftIds      the shifts that were marked as sick or edited
+     * @param principal     principal that calls the rest endpoint
+     * @return the repaired plan and the statistics of its solve
+     */
+    @Transactional
+    public GeneratedPlan repair(UUID monthlyPlanId, List<UUID> shiftIds, Principal principal) {
+        MonthlyPlan monthlyPlan = findMonthlyPlan(monthlyPlanId);
+        PlanningContext context = prepare(monthlyPlan, principal);
+        AlgorithmMapper mapper = context.mapper();
+        AlgorithmInput input = context.input();
+        List<Shift> planShifts = monthlyPlan.getShifts() == null ? List.of() : monthlyPlan.getShifts();
+
+        List<Shift> affectedShifts = new ArrayList<>();
+        for (UUID shiftId : shiftIds) {
+            affectedShifts.add(planShifts.stream()
+                    .filter(shift -> shiftId.equals(shift.getId()))
+                    .findFirst()
+                    .orElseThrow(() -> new NotFoundException("Could not find shift with id: " + shiftId
+                            + " in monthly plan!")));
+        }
+
+        PlanShifts shifts = classify(planShifts, context);
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> locked = shifts.locked();
+        Set<Integer> affectedRoles = new HashSet<>();
+        Set<Integer> days = new HashSet<>();
+        for (Shift shift : affectedShifts) {
+            int day = shift.getDate().getDayOfMonth() - 1;
+            for (int d = day - properties.getRepairRadiusDays(); d <= day + properties.getRepairRadiusDays(); d++) {
+                if (d >= 0 && d < input.numberOfDays()) days.add(d);
+            }
+            for (User user : shift.getUsers()) {
+                Integer employee = mapper.getEmployeeIndex(user.getId());
+                if (employee == null) continue;
+                affectedRoles.add(input.employees().get(employee).role());
+                if (!Boolean.TRUE.equals(shift.getIsSick())) {
+                    locked.computeIfAbsent(employee, key -> new ArrayList<>()).addAll(
+                            mapper.mapToAssignment(List.of(shift)).getOrDefault(employee, List.of()));
+                }
+            }
+        }
+        Set<Integer> employees = new HashSet<>();
+        for (int n = 0; n < input.employees().size(); n++) {
+            if (affectedRoles.contains(input.employees().get(n).role())) employees.add(n);
+        }
+
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> current = shifts.current(mapper);
+        RepairScope scope = new RepairScope(current, employees, days, locked, shifts.unavailable());
+        SolverOptions options = solverService.defaultOptions().toBuilder()
+                .maxTimeInSeconds(properties.getRepairMaxTimeInSeconds())
+                .hint(current)
+                .repair(scope)
+                .build();
+        AlgorithmInput repairInput = relaxFixedEmployees(input, scope, shifts.sickHours());
+        AlgorithmOutput output = solverService.solve(repairInput, options, SolverProgressListener.NONE)
+                .orElseThrow(() -> new NoSolutionException("Could not repair schedule with given requirements."));
+
+        PlanDelta delta = deltaWriter.write(monthlyPlan, context, shifts.changeable(), output, scope.employees(),
+                scope.days());
+        log.info("Repaired monthly plan {} with {} changed shifts", monthlyPlan.getId(), delta.changes());
+        return new GeneratedPlan(monthlyPlan, output.statistics());
+    }
+
+    /**
+     * Generates the whole monthly plan again, e.g. after the rules of the team changed, but keeps as much of the
+     * existing plan as possible. Every changed day of an employee is penalized, sick shifts and shifts of several
+     * employees are kept as they are. Only the shifts that changed are written back.
+     *
+     * @param monthlyPlanId the id of the monthly plan
+     * @param principal     principal that calls the rest endpoint
+     * @param profile       the name of the solve profile; null uses the default profile
+     * @return the regenerated plan and the statistics of its solve
+     * @throws jakarta.validation.ValidationException if the profile does not exist
+     */
+    @Transactional
+    public GeneratedPlan regenerate(UUID monthlyPlanId, Principal principal, String profile) {
+        SolverOptions profileOptions = solverService.options(profile);
+        MonthlyPlan monthlyPlan = findMonthlyPlan(monthlyPlanId);
+        PlanningContext context = prepare(monthlyPlan, principal);
+        AlgorithmInput input = context.input();
+        List<Shift> planShifts = monthlyPlan.getShifts() == null ? List.of() : monthlyPlan.getShifts();
+
+        PlanShifts shifts = classify(planShifts, context);
+        Set<Integer> employees = new HashSet<>();
+        for (int n = 0; n < input.employees().size(); n++) {
+            employees.add(n);
+        }
+        Set<Integer> days = new HashSet<>();
+        for (int d = 0; d < input.numberOfDays(); d++) {
+            days.add(d);
+        }
+
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> current = shifts.current(context.mapper());
+        RepairScope scope = new RepairScope(current, employees, days, shifts.locked(), shifts.unavailable());
+        SolverOptions options = profileOptions.toBuilder()
+                .hint(current)
+                .repair(scope)
+                .stability(new StabilityTarget(current, properties.getStabilityWeight()))
+                .build();
+        AlgorithmOutput output = solverService.solve(relaxFixedEmployees(input, scope, shifts.sickHours()), options,
+                        SolverProgressListener.NONE)
+                .orElseThrow(() -> new NoSolutionException(
+                        "Could not regenerate schedule with given requirements."));
+
+        PlanDelta delta = deltaWriter.write(monthlyPlan, context, shifts.changeable(), output, employees, days);
+        log.info("Regenerated monthly plan {} with {} inserted, {} updated and {} deleted shifts, {} shifts lost "
+                        + "their swaps", monthlyPlan.getId(), delta.inserted(), delta.updated(), delta.deleted(),
+                delta.invalidatedSwaps());
+        return new GeneratedPlan(monthlyPlan, output.statistics());
+    }
+
+    private MonthlyPlan findMonthlyPlan(UUID monthlyPlanId) {
+        return monthlyPlanRepository.findById(monthlyPlanId)
+                .orElseThrow(() -> new NotFoundException("Could not find monthly plan with id: " + monthlyPlanId
+                        + "!"));
+    }
+
+    private PlanningContext prepare(MonthlyPlan monthlyPlan, Principal principal) {
+        PlanningContext context = monthlyPlanCreator.prepareMonthlyPlan(monthlyPlan.getMonth(), monthlyPlan.getYear(),
+                principal);
+        if (!context.team().getId().equals(monthlyPlan.getTeam().getId())) {
+            throw new ResourceConflictException("Monthly plan does not belong to the team of the user.");
+        }
+        return context;
+    }
+
+    /**
+     * Only shifts of a single employee can be changed, sick shifts and shared shifts are kept as they are.
+     *
+     * @param planShifts the shifts of the existing plan
+     * @param context    the prepared plan of the month
+     * @return the changeable and locked shifts, the sick days and the sick hours of the employees
+     */
+    private static PlanShifts classify(List<Shift> planShifts, PlanningContext context) {
+        AlgorithmMapper mapper = context.mapper();
+        AlgorithmInput input = context.input();
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> locked = new HashMap<>();
+        Map<Integer, Set<Integer>> unavailable = new HashMap<>();
+        Map<Integer, Integer> sickHours = new HashMap<>();
+        for (Shift shift : planShifts) {
+            int day = shift.getDate().getDayOfMonth() - 1;
+            for (User user : shift.getUsers()) {
+                Integer employee = mapper.getEmployeeIndex(user.getId());
+                if (employee == null) continue;
+                if (Boolean.TRUE.equals(shift.getIsSick())) {
+                    unavailable.computeIfAbsent(employee, key -> new HashSet<>()).add(day);
+                    mapper.mapToAssignment(List.of(shift)).getOrDefault(employee, List.of()).forEach(pair ->
+                            sickHours.merge(employee, input.shiftTypes().get(pair.shiftType()).duration(),
+                                    Integer::sum));
+                } else if (shift.getUsers().size() > 1) {
+                    locked.computeIfAbsent(employee, key -> new ArrayList<>()).addAll(
+                            mapper.mapToAssignment(List.of(shift)).getOrDefault(employee, List.of()));
+                }
+            }
+        }
+        return new PlanShifts(MonthlyPlanDeltaWriter.changeableShifts(planShifts, mapper), locked, unavailable,
+                sickHours);
+    }
+
+    /**
+     * Employees outside the neighbourhood can not change anymore and sick days reduce the hours an employee can
+     * work. Their monthly hours are relaxed accordingly, so the existing plan stays a valid solution.
+     *
+     * @param input     the input of the existing plan
+     * @param scope     the neighbourhood of the repair
+     * @param sickHours the hours of the shifts an employee misses because they are sick; key is employee
+     * @return the input with the relaxed hours
+     */
+    private AlgorithmInput relaxFixedEmployees(AlgorithmInput input, RepairScope scope,
+                                               Map<Integer, Integer> sickHours) {
+        int maxHours = input.numberOfDays() * 24;
+        List<EmployeeInfo> employees = new ArrayList<>();
+        for (int n = 0; n < input.employees().size(); n++) {
+            EmployeeInfo employee = input.employees().get(n);
+            int minHours = employee.minWorkingHoursPerMonth();
+            int optimalHours = employee.optimalWorkingHoursPerMonth();
+            if (!scope.employees().contains(n)) {
+                minHours = 0;
+            } else {
+                // sick shifts count as worked hours
+                minHours = Math.max(0, minHours - sickHours.getOrDefault(n, 0));
+                optimalHours = optimalHours - sickHours.getOrDefault(n, 0);
+            }
+            int finalMaxHours = scope.employees().contains(n) ? employee.maxWorkingHoursPerMonth() : maxHours;
+            employees.add(new EmployeeInfo(
+                    employee.worksShiftTypes(),
+                    employee.preferredShiftTypes(),
+                    minHours,
+                    finalMaxHours,
+                    Math.min(Math.max(optimalHours, minHours), finalMaxHours),
+                    employee.holidays(),
+                    employee.offDays(),
+                    employee.role()
+            ));
+        }
+        return new AlgorithmInput(input.numberOfDays(), employees, input.shiftTypes(), input.roles(),
+                input.daytimeRequiredPeople(), input.nighttimeRequiredPeople(),
+                input.dayToEmployeeToShiftTypeMapping());
+    }
+
+    /**
+     * The shifts of a stored plan from the view of the solver.
+     *
+     * @param changeable  shifts of a single employee that are not sick; key is employee, value are their shifts by day
+     * @param locked      shifts of several employees; key is employee
+     * @param unavailable days on which an employee is sick; key is employee
+     * @param sickHours   hours of the sick shifts; key is employee
+     */
+    private record PlanShifts(
+            Map<Integer, Map<Integer, Shift>> changeable,
+            Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> locked,
+            Map<Integer, Set<Integer>> unavailable,
+            Map<Integer, Integer> sickHours
+    ) {
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> current(AlgorithmMapper mapper) {
+            return mapper.mapToAssignment(changeable.values().stream()
+                    .flatMap(shifts -> shifts.values().stream())
+                    .distinct()
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ase.meditrack.service.algorithm;
+
+/**
+ * The goals of the objective of the solver, from the most to the least important. By default they are added up
+ * with their weights. A lexicographic solve optimizes them one after the other, see {@link SolverOptions}.
+ */
+public enum ObjectiveStage {
+    /**
+     * A regenerated plan changes as few shifts of the existing plan as possible.
+     */
+    STABILITY,
+    /**
+     * Employees do not work on their off days.
+     */
+    OFF_DAYS,
+    /**
+     * Employees work close to their optimal working time.
+     */
+    WORKING_HOURS,
+    /**
+     * Employees work their preferred shift types.
+     */
+    PREFERRED_SHIFTS,
+    /**
+     * Employees work about the same hours every week.
+     */
+    WEEKLY_BALANCE,
+    /**
+     * Employees work the same shift type as much as possible.
+     */
+    SAME_SHIFT_TYPE
+}
@@ -0,0 +1,23 @@
+package ase.meditrack.service.algorithm;
+
+/**
+ * The shifts that were written when a new output of the solver was applied to a stored monthly plan.
+ *
+ * @param inserted         number of created shifts
+ * @param updated          number of shifts that got another shift type
+ * @param deleted          number of removed shifts
+ * @param invalidatedSwaps number of changed or removed shifts whose shift swaps were deleted
+ */
+public record PlanDelta(
+        int inserted,
+        int updated,
+        int deleted,
+        int invalidatedSwaps
+) {
+    /**
+     * @return the number of written shifts
+     */
+    public int changes() {
+        return inserted + updated + deleted;
+    }
+}
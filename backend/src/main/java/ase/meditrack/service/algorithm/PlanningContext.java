@@ -0,0 +1,33 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.model.entity.ShiftType;
+import ase.meditrack.model.entity.Team;
+import ase.meditrack.model.entity.User;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything that is loaded from the database to generate a monthly plan.
+ * Allows to run the solver without holding a transaction open.
+ *
+ * @param month      the month of the plan
+ * @param year       the year of the plan
+ * @param team       the team the plan is generated for
+ * @param users      the team members that are scheduled
+ * @param shiftTypes the shift types of the team
+ * @param mapper     the mapper that created the input, used to map the output back to entities
+ * @param input      the input for the solver
+ * @param hint       the assignment the solver starts its search from
+ */
+public record PlanningContext(
+        int month,
+        int year,
+        Team team,
+        List<User> users,
+        List<ShiftType> shiftTypes,
+        AlgorithmMapper mapper,
+        AlgorithmInput input,
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint
+) {
+}
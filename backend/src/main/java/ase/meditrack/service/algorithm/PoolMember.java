@@ -0,0 +1,31 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.List;
+
+/**
+ * An employee of a float pool that can work in several teams. The employee is part of the input of every team they
+ * can work in, the personal limits hold for their shifts in all teams together.
+ *
+ * @param employees                   the index of the employee in the input of every team of the pool, in the order
+ *                                    of the teams; -1 if they can not work in the team
+ * @param minWorkingHoursPerMonth     the minimum working time in all teams together
+ * @param maxWorkingHoursPerMonth     the maximum working time in all teams together
+ * @param optimalWorkingHoursPerMonth the optimal working time in all teams together
+ * @param maxHoursPerWeek             the max number of hours the employee can work per week in all teams together
+ * @param maxConsecutiveShifts        the max number of consecutive shifts in any of the teams
+ */
+public record PoolMember(
+        List<Integer> employees,
+        int minWorkingHoursPerMonth,
+        int maxWorkingHoursPerMonth,
+        int optimalWorkingHoursPerMonth,
+        int maxHoursPerWeek,
+        int maxConsecutiveShifts
+) {
+    /**
+     * @return the index of the employee in the input of the team; -1 if they can not work in the team
+     */
+    public int employee(int team) {
+        return employees.get(team);
+    }
+}
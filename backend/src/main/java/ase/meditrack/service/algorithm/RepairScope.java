@@ -0,0 +1,27 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Restricts a solve to a small neighbourhood of an existing plan. Every shift outside the neighbourhood is fixed to
+ * the existing plan, so the solver only has to decide the few remaining variables.
+ *
+ * @param current     the existing plan; key is employee, value are the shifts of the employee
+ * @param employees   employees whose shifts may change
+ * @param days        days on which the shifts of these employees may change
+ * @param locked      shifts that have to be kept, e.g. because a manager edited them; key is employee
+ * @param unavailable days on which an employee can not work, e.g. because they are sick; key is employee
+ */
+public record RepairScope(
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> current,
+        Set<Integer> employees,
+        Set<Integer> days,
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> locked,
+        Map<Integer, Set<Integer>> unavailable
+) {
+    boolean isFree(int employee, int day) {
+        return employees.contains(employee) && days.contains(day);
+    }
+}
@@ -0,0 +1,188 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Splits the input of a team into one input per role. Apart from the staffing levels all rules only concern single
+ * employees, so the roles can be solved independently as long as the staffing levels of the team follow from the
+ * staffing levels of the roles.
+ */
+public final class RoleDecomposition {
+
+    private RoleDecomposition() {
+    }
+
+    /**
+     * The input of a single role.
+     *
+     * @param role      the index of the role
+     * @param input     the input that only contains the employees of the role
+     * @param employees maps the employee index of the sub problem to the employee index of the team
+     */
+    public record SubProblem(int role, AlgorithmInput input, int[] employees) {
+    }
+
+    /**
+     * The team needs at least as many people as the sum of its roles. If the roles together need at least as many
+     * people as the team, every solution that satisfies the staffing levels of all roles also satisfies the staffing
+     * level of the team.
+     *
+     * @param input the input of the team
+     * @return true if the staffing level of the team does not have to be checked
+     */
+    public static boolean isTeamCoverageImplied(AlgorithmInput input) {
+        int daytimeRequiredPeople = input.roles().stream().mapToInt(RoleInfo::daytimeRequiredPeople).sum();
+        int nighttimeRequiredPeople = input.roles().stream().mapToInt(RoleInfo::nighttimeRequiredPeople).sum();
+        return input.daytimeRequiredPeople() <= daytimeRequiredPeople
+                && input.nighttimeRequiredPeople() <= nighttimeRequiredPeople;
+    }
+
+    /**
+     * Splits the input into one sub problem per role that has employees. The staffing level of the team is not part
+     * of the sub problems.
+     *
+     * @param input the input of the team
+     * @return the sub problems
+     */
+    public static List<SubProblem> split(AlgorithmInput input) {
+        List<SubProblem> subProblems = new ArrayList<>();
+        for (int r = 0; r < input.roles().size(); r++) {
+            List<Integer> employeesWithRole = new ArrayList<>();
+            for (int n = 0; n < input.employees().size(); n++) {
+                if (input.employees().get(n).role() == r) employeesWithRole.add(n);
+            }
+            if (employeesWithRole.isEmpty()) continue;
+
+            int[] employees = employeesWithRole.stream().mapToInt(Integer::intValue).toArray();
+            Map<Integer, Integer> teamToSubIndex = new HashMap<>();
+            for (int i = 0; i < employees.length; i++) {
+                teamToSubIndex.put(employees[i], i);
+            }
+            // days without shifts of the role are kept, the solver relies on the last day of the previous month
+            TreeMap<Integer, TreeMap<Integer, Integer>> dayToEmployeeToShiftTypeMapping = new TreeMap<>();
+            input.dayToEmployeeToShiftTypeMapping().forEach((day, employeeToShiftType) -> {
+                TreeMap<Integer, Integer> subEmployeeToShiftType = new TreeMap<>();
+                employeeToShiftType.forEach((employee, shiftType) -> {
+                    Integer subIndex = teamToSubIndex.get(employee);
+                    if (subIndex != null) subEmployeeToShiftType.put(subIndex, shiftType);
+                });
+                dayToEmployeeToShiftTypeMapping.put(day, subEmployeeToShiftType);
+            });
+
+            // the role indices of the employees stay valid, only the staffing level of the own role is kept
+            List<RoleInfo> roles = new ArrayList<>();
+            for (int other = 0; other < input.roles().size(); other++) {
+                RoleInfo role = input.roles().get(other);
+                roles.add(other == r ? role : new RoleInfo(role.name(), 0, 0, role.maxHoursPerWeek(),
+                        role.maxConsecutiveShifts()));
+            }
+
+            AlgorithmInput subInput = new AlgorithmInput(
+                    input.numberOfDays(),
+                    employeesWithRole.stream().map(input.employees()::get).toList(),
+                    input.shiftTypes(),
+                    roles,
+                    0,
+                    0,
+                    dayToEmployeeToShiftTypeMapping
+            );
+            subProblems.add(new SubProblem(r, subInput, employees));
+        }
+        return subProblems;
+    }
+
+    /**
+     * Restricts a hint of the team to the employees of a sub problem.
+     *
+     * @param hint       the hint of the team; key is the employee index of the team
+     * @param subProblem the sub problem
+     * @return the hint of the sub problem
+     */
+    public static Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> splitHint(
+            Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint, SubProblem subProblem) {
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> subHint = new HashMap<>();
+        if (hint == null) return subHint;
+        for (int i = 0; i < subProblem.employees().length; i++) {
+            List<AlgorithmOutput.ShiftTypeDayPair> shifts = hint.get(subProblem.employees()[i]);
+            if (shifts != null) subHint.put(i, shifts);
+        }
+        return subHint;
+    }
+
+    /**
+     * Merges the outputs of the sub problems into the output of the team.
+     * The objective is a sum over the employees, so the merged output is optimal if all outputs are optimal.
+     *
+     * @param subProblems the sub problems
+     * @param outputs     the output of every sub problem, in the same order
+     * @return the output of the team
+     */
+    public static AlgorithmOutput merge(List<SubProblem> subProblems, List<AlgorithmOutput> outputs) {
+        HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> assignment = new HashMap<>();
+        boolean isOptimal = true;
+        boolean cached = true;
+        int workers = 0;
+        Double timeToFirstSolution = null;
+        double wallTime = 0;
+        Double objective = 0.0;
+        Double bestBound = 0.0;
+        ModelStatistics model = null;
+        String profile = null;
+        for (int i = 0; i < subProblems.size(); i++) {
+            SubProblem subProblem = subProblems.get(i);
+            AlgorithmOutput output = outputs.get(i);
+            output.assignmentOfEmployeesToShifts().forEach((employee, shifts) ->
+                    assignment.put(subProblem.employees()[employee], shifts));
+            isOptimal &= output.isOptimal();
+
+            SolverStatistics statistics = output.statistics();
+            if (statistics == null) {
+                cached = false;
+                continue;
+            }
+            cached &= statistics.cached();
+            workers += statistics.workers();
+            if (statistics.timeToFirstSolutionSeconds() != null) {
+                timeToFirstSolution = Math.max(timeToFirstSolution == null ? 0 : timeToFirstSolution,
+                        statistics.timeToFirstSolutionSeconds());
+            }
+            // the sub problems are solved in parallel
+            wallTime = Math.max(wallTime, statistics.wallTimeSeconds());
+            // a sub problem of the heuristic has no objective, so neither has the team
+            objective = objective == null || statistics.objective() == null ? null : objective + statistics.objective();
+            bestBound = bestBound == null || statistics.bestBound() == null ? null : bestBound + statistics.bestBound();
+            model = merge(model, statistics.model());
+            profile = statistics.profile();
+        }
+        SolverStatistics statistics = new SolverStatistics(isOptimal ? "OPTIMAL" : "FEASIBLE", workers,
+                timeToFirstSolution, wallTime, objective, bestBound, cached && !subProblems.isEmpty(), model,
+                profile);
+        return new AlgorithmOutput(assignment, isOptimal, statistics);
+    }
+
+    /**
+     * Adds up the sizes of the models. They are built and presolved in parallel, so the longest times are kept.
+     *
+     * @param a the statistics of one model; may be null
+     * @param b the statistics of another model; may be null
+     * @return the statistics of both models; null if both are null
+     */
+    private static ModelStatistics merge(ModelStatistics a, ModelStatistics b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        Map<String, Integer> variablesPerRule = new LinkedHashMap<>(a.variablesPerRule());
+        b.variablesPerRule().forEach((rule, count) -> variablesPerRule.merge(rule, count, Integer::sum));
+        Map<String, Integer> constraintsPerRule = new LinkedHashMap<>(a.constraintsPerRule());
+        b.constraintsPerRule().forEach((rule, count) -> constraintsPerRule.merge(rule, count, Integer::sum));
+        Double presolveSeconds = a.presolveSeconds() == null || b.presolveSeconds() == null
+                ? null
+                : Math.max(a.presolveSeconds(), b.presolveSeconds());
+        return new ModelStatistics(a.variables() + b.variables(), a.constraints() + b.constraints(),
+                variablesPerRule, constraintsPerRule, Math.max(a.buildSeconds(), b.buildSeconds()), presolveSeconds);
+    }
+}
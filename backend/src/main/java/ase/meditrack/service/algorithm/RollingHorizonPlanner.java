@@ -0,0 +1,150 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.exception.NoSolutionException;
+import ase.meditrack.exception.NotFoundException;
+import ase.meditrack.model.entity.MonthlyPlan;
+import ase.meditrack.model.entity.Team;
+import ase.meditrack.repository.MonthlyPlanRepository;
+import ase.meditrack.repository.TeamRepository;
+import ase.meditrack.service.UserService;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.Principal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Plans several consecutive months of a team in one go. The months are solved one after another, every month is
+ * stored before the next one is prepared, so it is frozen and its last days are carried over into the next month.
+ * The stored month is also the rotation the solver of the next month starts from. Months that already have a plan
+ * are kept as they are.
+ * All months share one time limit. A month gets an equal share of the time that is left, so time an earlier month
+ * did not need goes to the later ones.
+ */
+@Service
+@Slf4j
+public class RollingHorizonPlanner {
+    private static final double MIN_TIME_IN_SECONDS = 1;
+
+    private final MonthlyPlanCreator monthlyPlanCreator;
+    private final MonthlyPlanRepository monthlyPlanRepository;
+    private final TeamRepository teamRepository;
+    private final UserService userService;
+    private final SolverService solverService;
+    private final SolverProperties properties;
+
+    public RollingHorizonPlanner(MonthlyPlanCreator monthlyPlanCreator, MonthlyPlanRepository monthlyPlanRepository,
+                                 TeamRepository teamRepository, UserService userService, SolverService solverService,
+                                 SolverProperties properties) {
+        this.monthlyPlanCreator = monthlyPlanCreator;
+        this.monthlyPlanRepository = monthlyPlanRepository;
+        this.teamRepository = teamRepository;
+        this.userService = userService;
+        this.solverService = solverService;
+        this.properties = properties;
+    }
+
+    /**
+     * Plans the months for the team of the calling user.
+     *
+     * @param month     the first month to plan
+     * @param year      the year of the first month
+     * @param months    number of months to plan
+     * @param principal principal that calls the rest endpoint
+     * @return the outcome for every month
+     */
+    public HorizonPlanReport plan(int month, int year, int months, Principal principal) {
+        Team team = userService.getPrincipalWithTeam(principal).getTeam();
+        return plan(month, year, months, team, yearMonth -> monthlyPlanCreator.prepareMonthlyPlan(
+                yearMonth.getMonthValue(), yearMonth.getYear(), principal));
+    }
+
+    /**
+     * Plans the months for a team without a calling user.
+     *
+     * @param month  the first month to plan
+     * @param year   the year of the first month
+     * @param months number of months to plan
+     * @param teamId the id of the team
+     * @return the outcome for every month
+     */
+    public HorizonPlanReport plan(int month, int year, int months, UUID teamId) {
+        Team team = teamRepository.findById(teamId)
+                .orElseThrow(() -> new NotFoundException("Could not find team with id: " + teamId + "!"));
+        return plan(month, year, months, team, yearMonth -> monthlyPlanCreator.prepareMonthlyPlan(
+                yearMonth.getMonthValue(), yearMonth.getYear(), teamId));
+    }
+
+    private HorizonPlanReport plan(int month, int year, int months, Team team,
+                                   Function<YearMonth, PlanningContext> prepare) {
+        if (months < 1 || months > properties.getHorizonMaxMonths()) {
+            throw new ValidationException("Number of months must be between 1 and "
+                    + properties.getHorizonMaxMonths() + ".");
+        }
+        long start = System.nanoTime();
+        double remainingSeconds = properties.getHorizonMaxTimeInSeconds();
+        YearMonth first = YearMonth.of(year, month);
+        log.info("Planning {} months of team {} from {}", months, team.getId(), first);
+
+        List<HorizonMonthReport> reports = new ArrayList<>();
+        boolean failed = false;
+        for (int i = 0; i < months; i++) {
+            YearMonth yearMonth = first.plusMonths(i);
+            if (failed) {
+                // the month would be planned without knowing how the previous month ends
+                reports.add(new HorizonMonthReport(yearMonth.getMonthValue(), yearMonth.getYear(),
+                        TeamPlanStatus.SKIPPED, null, 0, 0, "An earlier month could not be planned."));
+                continue;
+            }
+            MonthlyPlan existing = monthlyPlanRepository.findMonthlyPlanByTeamAndMonthAndYear(team,
+                    yearMonth.getMonthValue(), yearMonth.getYear());
+            if (existing != null) {
+                reports.add(new HorizonMonthReport(yearMonth.getMonthValue(), yearMonth.getYear(),
+                        TeamPlanStatus.SKIPPED, existing.getId(), 0, 0, "Monthly plan already exists."));
+                continue;
+            }
+
+            double maxTime = Math.max(remainingSeconds / (months - i), MIN_TIME_IN_SECONDS);
+            long monthStart = System.nanoTime();
+            HorizonMonthReport report = planMonth(yearMonth, maxTime, prepare, monthStart);
+            remainingSeconds = Math.max(remainingSeconds - report.seconds(), 0);
+            failed = report.status() != TeamPlanStatus.CREATED;
+            reports.add(report);
+        }
+
+        HorizonPlanReport report = new HorizonPlanReport(team.getId(), seconds(start), reports);
+        log.info("Planned {} months of team {} in {}s", months, team.getId(), report.totalSeconds());
+        return report;
+    }
+
+    private HorizonMonthReport planMonth(YearMonth yearMonth, double maxTime,
+                                         Function<YearMonth, PlanningContext> prepare, long start) {
+        int month = yearMonth.getMonthValue();
+        int year = yearMonth.getYear();
+        try {
+            PlanningContext context = prepare.apply(yearMonth);
+            SolverOptions options = solverService.defaultOptions().toBuilder().maxTimeInSeconds(maxTime).build();
+            AlgorithmOutput output = monthlyPlanCreator.solve(context, options, SolverProgressListener.NONE);
+            MonthlyPlan monthlyPlan = monthlyPlanCreator.saveMonthlyPlan(context, output);
+            return new HorizonMonthReport(month, year, TeamPlanStatus.CREATED, monthlyPlan.getId(), maxTime,
+                    seconds(start), null);
+        } catch (NoSolutionException e) {
+            return new HorizonMonthReport(month, year, TeamPlanStatus.NO_SOLUTION, null, maxTime, seconds(start),
+                    e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Planning of {} failed", yearMonth, e);
+            return new HorizonMonthReport(month, year, TeamPlanStatus.FAILED, null, maxTime, seconds(start),
+                    e.getMessage());
+        }
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
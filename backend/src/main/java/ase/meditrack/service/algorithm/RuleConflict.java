@@ -0,0 +1,17 @@
+package ase.meditrack.service.algorithm;
+
+/**
+ * A rule that is part of the reason why no plan exists, together with the part of the plan it applies to.
+ *
+ * @param rule     the violated rule
+ * @param employee the index of the employee the rule applies to; null if it applies to the whole team or a role
+ * @param role     the index of the role for staffing rules; null for the whole team or for rules of an employee
+ * @param day      the first day the rule applies to; null if it applies to the whole month
+ */
+public record RuleConflict(
+        ScheduleRule rule,
+        Integer employee,
+        Integer role,
+        Integer day
+) {
+}
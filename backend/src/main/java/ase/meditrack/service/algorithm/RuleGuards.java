@@ -0,0 +1,54 @@
+package ase.meditrack.service.algorithm;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.Literal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Enforcement literals of the hard constraints, used to find out which rules make a model infeasible.
+ * Every group of constraints is only enforced if its literal is true, so the solver can report the literals that
+ * can not be true at the same time. Without a model no literals are created and all constraints are always enforced,
+ * since guarded constraints are weaker in the presolve.
+ */
+final class RuleGuards {
+    static final RuleGuards NONE = new RuleGuards(null);
+
+    private static final Literal[] ALWAYS = new Literal[0];
+
+    private final CpModel model;
+    private final Map<RuleConflict, BoolVar> literals = new LinkedHashMap<>();
+
+    /**
+     * @param model the model the literals are created in; null to enforce all constraints unconditionally
+     */
+    RuleGuards(CpModel model) {
+        this.model = model;
+    }
+
+    boolean isEnabled() {
+        return model != null;
+    }
+
+    /**
+     * @param rule     the rule of the constraint
+     * @param employee the employee the rule is about; null if it is about the whole team
+     * @param role     the role the rule is about; null if it is not about a role
+     * @param day      the day the rule is about; null if it is about the whole month
+     * @return the literals a constraint of the rule is enforced by; empty if the constraint is always enforced
+     */
+    Literal[] get(ScheduleRule rule, Integer employee, Integer role, Integer day) {
+        if (model == null) return ALWAYS;
+        RuleConflict key = new RuleConflict(rule, employee, role, day);
+        return new Literal[] {literals.computeIfAbsent(key, k -> model.newBoolVar(k.toString()))};
+    }
+
+    /**
+     * @return the literal of every guarded group of constraints
+     */
+    Map<RuleConflict, BoolVar> literals() {
+        return literals;
+    }
+}
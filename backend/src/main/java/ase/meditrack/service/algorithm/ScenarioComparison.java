@@ -0,0 +1,19 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.List;
+
+/**
+ * @param month        the month the scenarios were evaluated for
+ * @param year         the year the scenarios were evaluated for
+ * @param totalSeconds wall time of the whole comparison
+ * @param current      the result with the current rules of the team
+ * @param scenarios    the result of every scenario, in the order they were requested
+ */
+public record ScenarioComparison(
+        int month,
+        int year,
+        double totalSeconds,
+        ScenarioResult current,
+        List<ScenarioResult> scenarios
+) {
+}
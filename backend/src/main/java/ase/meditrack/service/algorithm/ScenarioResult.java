@@ -0,0 +1,38 @@
+package ase.meditrack.service.algorithm;
+
+/**
+ * @param name               the name of the scenario
+ * @param feasible           true if a plan was found within the time limit of the scenario
+ * @param status             the status of the solver; NO_SOLUTION if no plan was found
+ * @param objective          the objective of the plan; null if there is no plan or it was built by the heuristic
+ * @param objectiveChange    the objective minus the objective with the current rules; null if either is missing
+ * @param hoursDeviation     the sum over all employees of the hours they work more or less than their optimal
+ *                           hours; null if there is no plan
+ * @param offDayShifts       the number of shifts on days the employees asked to have off; null if there is no plan
+ * @param nonPreferredShifts the number of shifts of employees with preferred shift types that are not of these
+ *                           types; null if there is no plan
+ * @param seconds            time to solve the scenario
+ * @param error              the reason the scenario could not be evaluated; null if it was evaluated
+ */
+public record ScenarioResult(
+        String name,
+        boolean feasible,
+        String status,
+        Double objective,
+        Double objectiveChange,
+        Integer hoursDeviation,
+        Integer offDayShifts,
+        Integer nonPreferredShifts,
+        double seconds,
+        String error
+) {
+    /**
+     * @param current the result with the current rules
+     * @return the same result with the change of the objective compared to the current rules
+     */
+    public ScenarioResult comparedTo(ScenarioResult current) {
+        Double change = objective == null || current.objective() == null ? null : objective - current.objective();
+        return new ScenarioResult(name, feasible, status, objective, change, hoursDeviation, offDayShifts,
+                nonPreferredShifts, seconds, error);
+    }
+}
@@ -0,0 +1,14 @@
+package ase.meditrack.service.algorithm;
+
+/**
+ * The hard constraints of the solver that can be reported as the reason why no plan exists.
+ */
+public enum ScheduleRule {
+    MIN_MONTHLY_HOURS,
+    MAX_MONTHLY_HOURS,
+    WEEKLY_HOURS,
+    STAFFING,
+    REST,
+    CONSECUTIVE_SHIFTS,
+    TWO_SHIFTS
+}
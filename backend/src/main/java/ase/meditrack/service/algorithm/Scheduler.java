@@ -0,0 +1,26 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.Optional;
+
+/**
+ * Creates an assignment of employees to shifts that satisfies all hard constraints of the input.
+ */
+@FunctionalInterface
+public interface Scheduler {
+    /**
+     * Optimizes the plan with CP-SAT. Finds the best plans, but takes up to the configured time limit.
+     */
+    Scheduler CP_SAT = SchedulingSolver::solve;
+    /**
+     * Builds a plan with a constructive heuristic in milliseconds, without optimizing the preferences.
+     */
+    Scheduler GREEDY = GreedyScheduler::solve;
+
+    /**
+     * @param input    the information the algorithm uses
+     * @param options  the parameters of the scheduler
+     * @param listener gets notified about every improving solution
+     * @return AlgorithmOutput if a valid assignment was found; empty otherwise
+     */
+    Optional<AlgorithmOutput> solve(AlgorithmInput input, SolverOptions options, SolverProgressListener listener);
+}
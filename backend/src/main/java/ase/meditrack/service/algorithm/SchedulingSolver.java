@@ -3,7 +3,9 @@ package ase.meditrack.service.algorithm;
 import com.google.ortools.Loader;
 import com.google.ortools.sat.BoolVar;
 import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpModelProto;
 import com.google.ortools.sat.CpSolver;
+import com.google.ortools.sat.CpSolverSolutionCallback;
 import com.google.ortools.sat.CpSolverStatus;
 import com.google.ortools.sat.IntVar;
 import com.google.ortools.sat.LinearArgument;
@@ -12,22 +14,30 @@ import com.google.ortools.sat.LinearExprBuilder;
 import com.google.ortools.sat.Literal;
 import lombok.extern.slf4j.Slf4j;
 
-import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 
 @Slf4j
 public final class SchedulingSolver {
-    private static final int MAX_RUNTIME_IN_SECONDS = 30;
+    private static final Pattern PRESOLVE_START = Pattern.compile("Starting presolve at ([0-9.]+)s");
+    // a single worker loads the model, multiple workers start their search
+    private static final Pattern SEARCH_START =
+            Pattern.compile("Starting (?:to load the model|search) at ([0-9.]+)s");
+    // every probe of the diagnosis gets at least this long, so it can load and presolve the model
+    private static final double MIN_PROBE_SECONDS = 0.5;
 
     static {
         Loader.loadNativeLibraries();
@@ -41,6 +51,593 @@ public final class SchedulingSolver {
      * @return AlgorithmOutput if a valid assignment was found; empty otherwise
      */
     public static Optional<AlgorithmOutput> solve(final AlgorithmInput input) {
+        return solve(input, SolverProgressListener.NONE);
+    }
+
+    /**
+     * @param input    the information the algorithm uses
+     * @param listener gets notified about every improving solution the solver finds
+     * @return AlgorithmOutput if a valid assignment was found; empty otherwise
+     */
+    public static Optional<AlgorithmOutput> solve(final AlgorithmInput input, final SolverProgressListener listener) {
+        return solve(input, SolverOptions.defaults(), listener);
+    }
+
+    /**
+     * @param input    the information the algorithm uses
+     * @param options  the parameters of the solver
+     * @param listener gets notified about every improving solution the solver finds
+     * @return AlgorithmOutput if a valid assignment was found; empty otherwise
+     */
+    public static Optional<AlgorithmOutput> solve(final AlgorithmInput input, final SolverOptions options,
+                                                  final SolverProgressListener listener) {
+        validate(input);
+        CompiledInput compiled = CompiledInput.compile(input);
+
+        // Creates shift variables for every assignment that can happen.
+        // shifts.get(n, d, s): employee 'n' works shift type 's' on day 'd'.
+        CpModel model = new CpModel();
+        ModelSize size = new ModelSize(model);
+        ShiftVariables shifts = ShiftVariables.create(model, compiled, options.repair());
+        size.record(ModelSize.SHIFT_VARIABLES);
+        Map<ObjectiveStage, LinearExprBuilder> objective = newObjective();
+        ModelStatistics modelStatistics = addConstraints(model, compiled, shifts, options, objective, size);
+        log.debug("Built model with {} of {} shift variables and {} constraints in {}ms", shifts.size(),
+                (long) input.employees().size() * input.numberOfDays() * input.shiftTypes().size(),
+                modelStatistics.constraints(), Math.round(modelStatistics.buildSeconds() * 1000));
+
+        ProgressCallback callback = new ProgressCallback(input, options, shifts, modelStatistics, listener);
+        SolveResult result = minimize(model, objective, options, callback);
+        CpSolverStatus status = result.status();
+        modelStatistics = modelStatistics.withPresolveSeconds(result.presolveSeconds());
+        log.debug("Solver finished with status {} after {}s", status, result.wallTime());
+
+        if (status == CpSolverStatus.INFEASIBLE) {
+            log.warn("Infeasible solution.");
+            return Optional.empty();
+        }
+        if (status == CpSolverStatus.UNKNOWN) {
+            log.warn("To little time to solve problem.");
+            // a plan from the heuristic is better than no plan, but it can not keep the fixed part of a repair
+            if (options.repair() != null) return Optional.empty();
+            return GreedyScheduler.solve(input, options, listener);
+        }
+        if (status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE) {
+            HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> assignmentOfEmployeesToShifts =
+                    extractAssignment(input, shifts, result::value);
+
+            SolverStatistics statistics = new SolverStatistics(
+                    status.name(),
+                    workers(options),
+                    callback.timeToFirstSolution,
+                    result.wallTime(),
+                    result.objective(),
+                    result.bestBound(),
+                    false,
+                    modelStatistics,
+                    options.profile()
+            );
+            AlgorithmOutput output =
+                    new AlgorithmOutput(assignmentOfEmployeesToShifts, status == CpSolverStatus.OPTIMAL, statistics);
+            return Optional.of(output);
+        }
+
+        return Optional.empty();
+    }
+
+    private static CpSolver newSolver(SolverOptions options) {
+        CpSolver solver = new CpSolver();
+        solver.getParameters().setMaxTimeInSeconds(options.maxTimeInSeconds());
+        solver.getParameters().setRandomSeed(options.randomSeed());
+        if (options.numWorkers() > 0) {
+            solver.getParameters().setNumSearchWorkers(options.numWorkers());
+        }
+        if (options.subsolvers() != null) {
+            options.subsolvers().forEach(solver.getParameters()::addSubsolvers);
+        }
+        if (options.relativeGapLimit() > 0) {
+            solver.getParameters().setRelativeGapLimit(options.relativeGapLimit());
+        }
+        solver.getParameters().setUseLnsOnly(options.lnsOnly());
+        if (options.hint() != null && !options.hint().isEmpty()) {
+            // hints are usually close to a solution, so let the solver fix the few violated constraints
+            solver.getParameters().setRepairHint(true);
+        }
+        // the presolve time is only reported in the log of the solver
+        if (options.logSearch()) {
+            solver.getParameters().setLogSearchProgress(true);
+            solver.getParameters().setLogToStdout(false);
+            solver.getParameters().setLogToResponse(true);
+        }
+        return solver;
+    }
+
+    /**
+     * The outcome of one or more solves of the same model.
+     *
+     * @param status          the status of the solve; OPTIMAL only if every stage was solved to optimality
+     * @param solution        the values of all variables of the model; null if no solution was found
+     * @param objective       the objective value of the last solve with a solution
+     * @param bestBound       the best bound of the objective of the last solve with a solution
+     * @param wallTime        the time of all solves together
+     * @param presolveSeconds the presolve time of the first solve; null if it was not logged
+     */
+    private record SolveResult(CpSolverStatus status, long[] solution, double objective, double bestBound,
+                               double wallTime, Double presolveSeconds) {
+        boolean hasSolution() {
+            return solution != null;
+        }
+
+        boolean value(BoolVar var) {
+            return solution[var.getIndex()] != 0;
+        }
+    }
+
+    private static SolveResult solveOnce(CpModel model, SolverOptions options, ProgressCallback callback) {
+        CpSolver solver = newSolver(options);
+        CpSolverStatus status = solver.solve(model, callback);
+        long[] solution = status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE
+                ? solver.response().getSolutionList().stream().mapToLong(Long::longValue).toArray()
+                : null;
+        return new SolveResult(status, solution, solver.objectiveValue(), solver.bestObjectiveBound(),
+                solver.wallTime(), presolveSeconds(solver.response().getSolveLog()));
+    }
+
+    /**
+     * Minimizes the weighted sum of the goals, or the goals one after the other if the options ask for a
+     * lexicographic solve. Every stage of a lexicographic solve gets an equal share of the remaining time and starts
+     * from the solution of the previous stage. After a stage, its goal may only get worse by the tolerance of the
+     * options, so the later, less important goals can only be improved within this limit.
+     * If a later stage finds no solution in time, the solution of the previous stage is kept.
+     *
+     * @param model     the model with all constraints
+     * @param objective the goals of the objective per stage
+     * @param options   the parameters of the solver
+     * @param callback  gets notified about every solution of the solver
+     * @return the result of the last stage with a solution
+     */
+    private static SolveResult minimize(CpModel model, Map<ObjectiveStage, LinearExprBuilder> objective,
+                                        SolverOptions options, ProgressCallback callback) {
+        List<LinearExpr> stages = new ArrayList<>();
+        for (LinearExprBuilder stage : objective.values()) {
+            LinearExpr goal = stage.build();
+            if (goal.numElements() > 0) stages.add(goal);
+        }
+        if (!options.lexicographic() || stages.isEmpty()) return solveOnce(model, options, callback);
+
+        long deadline = System.nanoTime() + (long) (options.maxTimeInSeconds() * 1e9);
+        SolveResult result = null;
+        boolean optimal = true;
+        double wallTime = 0;
+        Double presolveSeconds = null;
+        for (int i = 0; i < stages.size(); i++) {
+            double remainingSeconds = (deadline - System.nanoTime()) / 1e9;
+            if (result != null && remainingSeconds <= 0) break;
+            model.clearObjective();
+            model.minimize(stages.get(i));
+            SolverOptions stageOptions = options.toBuilder()
+                    .maxTimeInSeconds(Math.max(remainingSeconds, 0) / (stages.size() - i))
+                    .build();
+            SolveResult stage = solveOnce(model, stageOptions, callback);
+            wallTime += stage.wallTime();
+            if (i == 0) presolveSeconds = stage.presolveSeconds();
+            log.debug("Objective stage {} of {} finished with status {} and objective {}", i + 1, stages.size(),
+                    stage.status(), stage.objective());
+            if (!stage.hasSolution()) {
+                // only the first stage can decide that there is no solution at all
+                if (result == null) return stage;
+                optimal = false;
+                break;
+            }
+            optimal &= stage.status() == CpSolverStatus.OPTIMAL;
+            result = stage;
+
+            long value = Math.round(stage.objective());
+            model.addLessOrEqual(stages.get(i),
+                    value + (long) Math.floor(Math.abs(value) * options.objectiveTolerance()));
+            // the solution of this stage is feasible for the next one
+            model.clearHints();
+            CpModelProto.Builder builder = model.getBuilder();
+            for (int v = 0; v < stage.solution().length; v++) {
+                builder.getSolutionHintBuilder().addVars(v).addValues(stage.solution()[v]);
+            }
+        }
+        return new SolveResult(optimal ? CpSolverStatus.OPTIMAL : CpSolverStatus.FEASIBLE, result.solution(),
+                result.objective(), result.bestBound(), wallTime, presolveSeconds);
+    }
+
+    /**
+     * Solves several teams that share a float pool of employees in one model. Every team gets its own shift
+     * variables and hard constraints, as in {@link #solve}. The teams are only linked by the members of the pool:
+     * they work at most one shift per day in all teams together, and their monthly and weekly hours, consecutive
+     * shifts and rest times are constrained over the shifts of all teams.
+     * The hint, the repair scope and the symmetry breaking of the options are not used.
+     *
+     * @param input    the teams and the members of the pool
+     * @param options  the parameters of the solver
+     * @param listener gets notified about every improving solution the solver finds
+     * @return an output per team, in the order of the teams, if a valid assignment was found; empty otherwise
+     */
+    public static Optional<List<AlgorithmOutput>> solvePool(final FloatPoolInput input, final SolverOptions options,
+                                                            final SolverProgressListener listener) {
+        List<AlgorithmInput> teams = input.teams();
+        if (teams.isEmpty()) throw new RuntimeException("invalid input");
+        for (AlgorithmInput team : teams) {
+            validate(team);
+            if (team.numberOfDays() != teams.get(0).numberOfDays()) throw new RuntimeException("invalid input");
+        }
+
+        CpModel model = new CpModel();
+        ModelSize size = new ModelSize(model);
+        CompiledInput[] compiled = new CompiledInput[teams.size()];
+        ShiftVariables[] shifts = new ShiftVariables[teams.size()];
+        for (int t = 0; t < teams.size(); t++) {
+            BitSet pooled = new BitSet();
+            for (PoolMember member : input.pool()) {
+                if (member.employee(t) >= 0) pooled.set(member.employee(t));
+            }
+            compiled[t] = CompiledInput.compile(teams.get(t), pooled);
+            shifts[t] = ShiftVariables.create(model, compiled[t]);
+        }
+        size.record(ModelSize.SHIFT_VARIABLES);
+
+        Map<ObjectiveStage, LinearExprBuilder> objective = newObjective();
+        for (int t = 0; t < teams.size(); t++) {
+            addHardConstraints(model, compiled[t], shifts[t], RuleGuards.NONE, size);
+            addObjective(model, compiled[t], shifts[t], null, objective);
+            size.record(ModelSize.OBJECTIVE);
+        }
+        addPoolConstraints(model, input, compiled, shifts, objective);
+        size.record(ModelSize.POOL);
+        model.minimize(weightedSum(objective));
+        ModelStatistics modelStatistics = size.toStatistics();
+        log.debug("Built model of {} teams and {} pool members with {} constraints in {}ms", teams.size(),
+                input.pool().size(), modelStatistics.constraints(),
+                Math.round(modelStatistics.buildSeconds() * 1000));
+
+        // the incumbents of a pool have an output per team, so only the progress is reported
+        SolverProgressListener progressListener = listener::onProgress;
+        ProgressCallback callback =
+                new ProgressCallback(teams.get(0), options, shifts[0], modelStatistics, progressListener);
+        SolveResult result = minimize(model, objective, options, callback);
+        CpSolverStatus status = result.status();
+        modelStatistics = modelStatistics.withPresolveSeconds(result.presolveSeconds());
+        log.debug("Solver finished pool with status {} after {}s", status, result.wallTime());
+        if (status != CpSolverStatus.OPTIMAL && status != CpSolverStatus.FEASIBLE) {
+            log.warn("No solution for pool, status {}.", status);
+            return Optional.empty();
+        }
+
+        SolverStatistics statistics = new SolverStatistics(
+                status.name(),
+                workers(options),
+                callback.timeToFirstSolution,
+                result.wallTime(),
+                result.objective(),
+                result.bestBound(),
+                false,
+                modelStatistics,
+                options.profile()
+        );
+        List<AlgorithmOutput> outputs = new ArrayList<>();
+        for (int t = 0; t < teams.size(); t++) {
+            outputs.add(new AlgorithmOutput(extractAssignment(teams.get(t), shifts[t], result::value),
+                    status == CpSolverStatus.OPTIMAL, statistics));
+        }
+        return Optional.of(outputs);
+    }
+
+    /**
+     * Adds the rules of the members of a pool over all teams, which are skipped by the constraints of the single
+     * teams, and the deviation from their optimal working time to the objective.
+     *
+     * @param model     the model the constraints are added to
+     * @param input     the teams and the members of the pool
+     * @param compiled  the compiled input of every team
+     * @param shifts    the shift variables of every team
+     * @param objective the goals of the objective per stage
+     */
+    private static void addPoolConstraints(CpModel model, FloatPoolInput input, CompiledInput[] compiled,
+                                           ShiftVariables[] shifts,
+                                           Map<ObjectiveStage, LinearExprBuilder> objective) {
+        int numberOfDays = compiled[0].numberOfDays();
+        // the shift types of all teams in one list, so transitions between teams can be checked
+        List<ShiftTypeInfo> allShiftTypes = new ArrayList<>();
+        int[] firstShiftType = new int[compiled.length];
+        for (int t = 0; t < compiled.length; t++) {
+            firstShiftType[t] = allShiftTypes.size();
+            allShiftTypes.addAll(compiled[t].input().shiftTypes());
+        }
+        boolean[][] forbiddenTransitions = ShiftRules.forbiddenTransitions(allShiftTypes);
+
+        for (int m = 0; m < input.pool().size(); m++) {
+            PoolMember member = input.pool().get(m);
+
+            // One Shift Per Day - the member works at most one shift per day in all teams
+            BoolVar[] works = new BoolVar[numberOfDays];
+            for (int d = 0; d < numberOfDays; d++) {
+                LinearExprBuilder shiftsOnDay = LinearExpr.newBuilder();
+                for (int t = 0; t < compiled.length; t++) {
+                    if (member.employee(t) >= 0) shiftsOnDay.addSum(shifts[t].onDay(member.employee(t), d));
+                }
+                works[d] = model.newBoolVar("pool_works_" + m + "_" + d);
+                model.addEquality(works[d], shiftsOnDay);
+            }
+
+            // Maximum and Minimum Monthly Hours and the deviation from the optimal working time
+            LinearExprBuilder totalMonthlyHours = LinearExpr.newBuilder();
+            for (int t = 0; t < compiled.length; t++) {
+                if (member.employee(t) < 0) continue;
+                totalMonthlyHours.add(sumOfHours(compiled[t], shifts[t], member.employee(t), 0, numberOfDays));
+            }
+            LinearExpr monthlyHours = totalMonthlyHours.build();
+            model.addLessOrEqual(monthlyHours, member.maxWorkingHoursPerMonth());
+            model.addGreaterOrEqual(monthlyHours, member.minWorkingHoursPerMonth());
+            IntVar deviation = model.newIntVar(0, Math.max(member.optimalWorkingHoursPerMonth(),
+                    member.maxWorkingHoursPerMonth() - member.optimalWorkingHoursPerMonth()),
+                    "pool_deviation_workingHours_" + m);
+            model.addAbsEquality(deviation, LinearExpr.sum(new LinearArgument[] {
+                    monthlyHours, LinearExpr.constant(-member.optimalWorkingHoursPerMonth())}));
+            objective.get(ObjectiveStage.WORKING_HOURS).add(deviation);
+
+            // Maximum Hours per Week
+            for (int d = 0; d < numberOfDays; d += 7) {
+                int numOfDays = d + 7 < numberOfDays ? 7 : numberOfDays - d;
+                LinearExprBuilder totalWeeklyHours = LinearExpr.newBuilder();
+                for (int t = 0; t < compiled.length; t++) {
+                    if (member.employee(t) < 0) continue;
+                    totalWeeklyHours.add(sumOfHours(compiled[t], shifts[t], member.employee(t), d, d + numOfDays));
+                }
+                model.addLessOrEqual(LinearExpr.term(totalWeeklyHours.build(), numOfDays),
+                        member.maxHoursPerWeek() * 7L);
+            }
+
+            // the days of the previous month the member worked in any of the teams, 0 is the last day
+            int maxConsecutiveShifts = member.maxConsecutiveShifts();
+            boolean[] workedBefore = new boolean[maxConsecutiveShifts + 1];
+            for (int t = 0; t < compiled.length; t++) {
+                if (member.employee(t) < 0) continue;
+                for (int k = 0; k < workedBefore.length; k++) {
+                    if (compiled[t].carryOver(member.employee(t), k) != CompiledInput.FREE) workedBefore[k] = true;
+                }
+            }
+
+            // Maximum Consecutive Shifts - every window of one more day has at least one free day
+            for (int start = -maxConsecutiveShifts; start + maxConsecutiveShifts < numberOfDays; start++) {
+                LinearExprBuilder shiftsInWindow = LinearExpr.newBuilder();
+                for (int d = start; d <= start + maxConsecutiveShifts; d++) {
+                    if (d >= 0) {
+                        shiftsInWindow.add(works[d]);
+                    } else if (workedBefore[-1 - d]) {
+                        shiftsInWindow.add(1);
+                    }
+                }
+                model.addLessOrEqual(shiftsInWindow, maxConsecutiveShifts);
+            }
+
+            // 2 shifts - the member never works only 1 shift with the day before and after free
+            for (int d = 0; d < numberOfDays; d++) {
+                LinearExprBuilder numOfShiftsInWindow = LinearExpr.newBuilder();
+                if (d > 0) {
+                    numOfShiftsInWindow.add(works[d - 1]);
+                } else if (workedBefore[0]) {
+                    numOfShiftsInWindow.add(1);
+                }
+                numOfShiftsInWindow.add(works[d]);
+                if (d < numberOfDays - 1) numOfShiftsInWindow.add(works[d + 1]);
+                model.addGreaterOrEqual(numOfShiftsInWindow, 2).onlyEnforceIf(works[d]);
+            }
+
+            // NightShift/DayShift change and 12h between shifts of different teams. The transitions within a team
+            // are part of the constraints of the team.
+            for (int t = 0; t < compiled.length; t++) {
+                int from = member.employee(t);
+                if (from < 0) continue;
+                for (int u = 0; u < compiled.length; u++) {
+                    int to = member.employee(u);
+                    if (u == t || to < 0) continue;
+                    int lastShiftType = compiled[t].carryOver(from, 0);
+                    if (lastShiftType != CompiledInput.FREE) {
+                        BoolVar[] varsOnFirstDay = shifts[u].onDay(to, 0);
+                        int[] shiftTypesOnFirstDay = shifts[u].shiftTypesOnDay(to, 0);
+                        for (int j = 0; j < varsOnFirstDay.length; j++) {
+                            if (forbiddenTransitions[firstShiftType[t] + lastShiftType]
+                                    [firstShiftType[u] + shiftTypesOnFirstDay[j]]) {
+                                model.addEquality(varsOnFirstDay[j], 0);
+                            }
+                        }
+                    }
+                    for (int d = 0; d < numberOfDays - 1; d++) {
+                        BoolVar[] varsOnDay = shifts[t].onDay(from, d);
+                        int[] shiftTypesOnDay = shifts[t].shiftTypesOnDay(from, d);
+                        BoolVar[] varsOnNextDay = shifts[u].onDay(to, d + 1);
+                        int[] shiftTypesOnNextDay = shifts[u].shiftTypesOnDay(to, d + 1);
+                        for (int i = 0; i < varsOnDay.length; i++) {
+                            for (int j = 0; j < varsOnNextDay.length; j++) {
+                                if (forbiddenTransitions[firstShiftType[t] + shiftTypesOnDay[i]]
+                                        [firstShiftType[u] + shiftTypesOnNextDay[j]]) {
+                                    model.addBoolOr(new Literal[] {varsOnDay[i].not(), varsOnNextDay[j].not()});
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the model of a solve without solving it.
+     *
+     * @param input   the information the algorithm uses
+     * @param options the parameters of the solver
+     * @return the size of the model and the time it took to build it
+     */
+    public static ModelStatistics buildModel(final AlgorithmInput input, final SolverOptions options) {
+        validate(input);
+        CompiledInput compiled = CompiledInput.compile(input);
+        CpModel model = new CpModel();
+        ModelSize size = new ModelSize(model);
+        ShiftVariables shifts = ShiftVariables.create(model, compiled, options.repair());
+        size.record(ModelSize.SHIFT_VARIABLES);
+        return addConstraints(model, compiled, shifts, options, newObjective(), size);
+    }
+
+    /**
+     * Builds the model of a solve, so it can be solved again outside the application.
+     *
+     * @param input   the information the algorithm uses
+     * @param options the parameters of the solver; only the hint and the repair scope are part of the model
+     * @return the model as protocol buffer
+     */
+    public static CpModelProto exportModel(final AlgorithmInput input, final SolverOptions options) {
+        validate(input);
+        CompiledInput compiled = CompiledInput.compile(input);
+        CpModel model = new CpModel();
+        ShiftVariables shifts = ShiftVariables.create(model, compiled, options.repair());
+        addConstraints(model, compiled, shifts, options, newObjective(), new ModelSize(model));
+        return model.model();
+    }
+
+    /**
+     * Adds the rules of a team and its weighted objective. The goals of the objective are also collected per stage,
+     * so they can be optimized one after the other.
+     *
+     * @param model     the model the constraints are added to
+     * @param input     the compiled input of the team
+     * @param shifts    the shift variables of the team
+     * @param options   the parameters of the solver
+     * @param objective the goals of the objective per stage
+     * @param size      records the size of the model per rule
+     * @return the size of the model
+     */
+    private static ModelStatistics addConstraints(CpModel model, CompiledInput input, ShiftVariables shifts,
+                                                  SolverOptions options,
+                                                  Map<ObjectiveStage, LinearExprBuilder> objective, ModelSize size) {
+        addHardConstraints(model, input, shifts, RuleGuards.NONE, size);
+        addRepairScope(model, input, shifts, options.repair());
+        size.record(ModelSize.REPAIR);
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint = options.hint();
+        // a repair or a stable regeneration ties employees to their existing shifts, so they are no longer
+        // interchangeable
+        if (options.symmetryBreaking() && options.repair() == null && options.stability() == null) {
+            List<int[]> classes = EmployeeSymmetry.findClasses(input);
+            EmployeeSymmetry.addConstraints(model, input, shifts, classes);
+            hint = EmployeeSymmetry.reorderHint(input, shifts, classes, hint);
+            size.record(ModelSize.SYMMETRY);
+        }
+        addObjective(model, input, shifts, options.stability(), objective);
+        model.minimize(weightedSum(objective));
+        size.record(ModelSize.OBJECTIVE);
+        addHint(model, input, shifts, hint);
+        return size.toStatistics();
+    }
+
+    /**
+     * Finds rules that can not be satisfied at the same time. Every group of hard constraints is guarded by a literal
+     * that is assumed to be true. The solver reports the assumptions it needed to prove infeasibility, which are
+     * then reduced by dropping one of them at a time as long as the model stays infeasible. Every of these probes
+     * gets an equal share of the time limit, so a single hard probe can not use up the time of the others.
+     * If a probe or the whole diagnosis runs out of time, the rule is kept and the conflict is reported as not
+     * minimal.
+     *
+     * @param input   the information the algorithm uses
+     * @param options the parameters of the solver; the time limit is for the whole diagnosis
+     * @return the conflicting rules; no rules if the model is feasible or no conflict was found in time
+     */
+    public static Diagnosis diagnose(final AlgorithmInput input, final SolverOptions options) {
+        validate(input);
+        CompiledInput compiled = CompiledInput.compile(input);
+        CpModel model = new CpModel();
+        ShiftVariables shifts = ShiftVariables.create(model, compiled);
+        RuleGuards guards = new RuleGuards(model);
+        addHardConstraints(model, compiled, shifts, guards, new ModelSize(model));
+
+        Map<Integer, RuleConflict> rulesByIndex = new HashMap<>();
+        guards.literals().forEach((rule, literal) -> rulesByIndex.put(literal.getIndex(), rule));
+        long deadline = System.nanoTime() + (long) (options.maxTimeInSeconds() * 1e9);
+
+        Probe initial = probe(model, new ArrayList<>(guards.literals().values()), options, deadline,
+                options.maxTimeInSeconds());
+        if (initial.status() != CpSolverStatus.INFEASIBLE) return Diagnosis.NONE;
+        List<BoolVar> conflict = initial.core();
+        double probeSeconds = Math.max(MIN_PROBE_SECONDS, options.maxTimeInSeconds() / (conflict.size() + 1.0));
+        boolean minimal = true;
+        for (int i = 0; i < conflict.size();) {
+            if (System.nanoTime() >= deadline) {
+                minimal = false;
+                break;
+            }
+            List<BoolVar> candidate = new ArrayList<>(conflict);
+            candidate.remove(i);
+            Probe probe = probe(model, candidate, options, deadline, probeSeconds);
+            if (probe.status() == CpSolverStatus.INFEASIBLE) {
+                conflict = probe.core();
+                i = Math.min(i, conflict.size());
+            } else {
+                // the rule is needed for the conflict, or the probe could not tell in time
+                minimal &= probe.status() == CpSolverStatus.FEASIBLE || probe.status() == CpSolverStatus.OPTIMAL;
+                i++;
+            }
+        }
+        log.debug("Found {} conflicting rules, minimal: {}", conflict.size(), minimal);
+        return new Diagnosis(conflict.stream().map(literal -> rulesByIndex.get(literal.getIndex())).toList(),
+                minimal);
+    }
+
+    /**
+     * The result of solving the model with some of the rules assumed to be true.
+     *
+     * @param status the status of the solve
+     * @param core   the assumptions the solver needed to prove infeasibility; empty if it is not infeasible
+     */
+    private record Probe(CpSolverStatus status, List<BoolVar> core) {
+    }
+
+    /**
+     * Solves the model with the given assumptions for at most the given time and not past the deadline.
+     *
+     * @param model       the model with the guarded rules
+     * @param assumptions the guards of the rules that have to hold
+     * @param options     the parameters of the solver
+     * @param deadline    the end of the diagnosis, see {@link System#nanoTime}
+     * @param maxSeconds  the time limit of the probe
+     * @return the status of the solve and the needed assumptions
+     */
+    private static Probe probe(CpModel model, List<BoolVar> assumptions, SolverOptions options, long deadline,
+                               double maxSeconds) {
+        double remainingSeconds = Math.min(maxSeconds, (deadline - System.nanoTime()) / 1e9);
+        if (remainingSeconds <= 0) return new Probe(CpSolverStatus.UNKNOWN, List.of());
+        model.clearAssumptions();
+        model.addAssumptions(assumptions.toArray(new Literal[0]));
+
+        CpSolver solver = new CpSolver();
+        solver.getParameters().setMaxTimeInSeconds(remainingSeconds);
+        solver.getParameters().setRandomSeed(options.randomSeed());
+        if (options.numWorkers() > 0) {
+            solver.getParameters().setNumSearchWorkers(options.numWorkers());
+        }
+        CpSolverStatus status = solver.solve(model);
+        if (status != CpSolverStatus.INFEASIBLE) return new Probe(status, List.of());
+
+        Set<Integer> needed = new HashSet<>(solver.sufficientAssumptionsForInfeasibility());
+        return new Probe(status, assumptions.stream().filter(literal -> needed.contains(literal.getIndex())).toList());
+    }
+
+    /**
+     * @param solveLog the search log of the solver
+     * @return the time between the start of the presolve and the start of the search; null if the log does not
+     *     contain both
+     */
+    static Double presolveSeconds(String solveLog) {
+        Matcher presolve = PRESOLVE_START.matcher(solveLog);
+        if (!presolve.find()) return null;
+        Matcher search = SEARCH_START.matcher(solveLog);
+        if (!search.find(presolve.end())) return null;
+        return Math.max(0, Double.parseDouble(search.group(1)) - Double.parseDouble(presolve.group(1)));
+    }
+
+    private static void validate(AlgorithmInput input) {
         final int minNumberOfDaysInMonth = 28;
         if (input.numberOfDays() < minNumberOfDaysInMonth || input.employees().isEmpty()
                 || input.shiftTypes().isEmpty()) {
@@ -60,451 +657,517 @@ public final class SchedulingSolver {
                 throw new RuntimeException("invalid employeeInfo role");
             }
         }
+    }
 
-        CpModel model = new CpModel();
-
-        // Creates shift variables.
-        // shifts[(n, d, s)]: employee 'n' works shift type 's' on day 'd'.
-        BoolVar[][][] shifts = new BoolVar[input.employees().size()][input.numberOfDays()][input.shiftTypes().size()];
-        for (int n = 0; n < input.employees().size(); n++) {
+    private static void addHint(CpModel model, CompiledInput input, ShiftVariables shifts,
+                                Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint) {
+        if (hint == null || hint.isEmpty()) return;
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            int[] hinted = toShiftTypePerDay(hint.getOrDefault(n, List.of()), input.numberOfDays());
             for (int d = 0; d < input.numberOfDays(); d++) {
-                for (int s = 0; s < input.shiftTypes().size(); s++) {
-                    shifts[n][d][s] = model.newBoolVar("shifts_n" + n + "d" + d + "s" + s);
+                BoolVar[] varsOnDay = shifts.onDay(n, d);
+                int[] shiftTypesOnDay = shifts.shiftTypesOnDay(n, d);
+                for (int i = 0; i < varsOnDay.length; i++) {
+                    model.addHint(varsOnDay[i], hinted[d] == shiftTypesOnDay[i] ? 1 : 0);
                 }
             }
         }
+    }
 
-        addHardConstraints(model, input, shifts);
-        addOptimization(model, input, shifts);
-
-        CpSolver solver = new CpSolver();
-        solver.getParameters().setMaxTimeInSeconds(MAX_RUNTIME_IN_SECONDS);
-
-        CpSolverStatus status = solver.solve(model);
-
-        if (status == CpSolverStatus.INFEASIBLE) {
-            log.warn("Infeasible solution.");
-            log.warn(solver.sufficientAssumptionsForInfeasibility().toString());
-            return Optional.empty();
-        }
-        if (status == CpSolverStatus.UNKNOWN) {
-            log.warn("To little time to solve problem.");
-            return Optional.empty();
-        }
-        if (status == CpSolverStatus.OPTIMAL || status == CpSolverStatus.FEASIBLE) {
-            HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> assignmentOfEmployeesToShifts = new HashMap<>();
-            for (int n = 0; n < input.employees().size(); n++) {
-                for (int d = 0; d < input.numberOfDays(); d++) {
-                    for (int s = 0; s < input.shiftTypes().size(); s++) {
-                        boolean isAssigned = solver.booleanValue(shifts[n][d][s]);
-                        if (isAssigned) {
-                            if (!assignmentOfEmployeesToShifts.containsKey(n)) {
-                                List<AlgorithmOutput.ShiftTypeDayPair> shiftTypeDayPairs = new ArrayList<>();
-                                assignmentOfEmployeesToShifts.put(n, shiftTypeDayPairs);
-                            }
-                            assignmentOfEmployeesToShifts.get(n).add(new AlgorithmOutput.ShiftTypeDayPair(s, d));
-                        }
+    private static void addRepairScope(CpModel model, CompiledInput input, ShiftVariables shifts,
+                                       RepairScope repair) {
+        if (repair == null) return;
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            int[] current = toShiftTypePerDay(repair.current().getOrDefault(n, List.of()), input.numberOfDays());
+            int[] locked = toShiftTypePerDay(repair.locked().getOrDefault(n, List.of()), input.numberOfDays());
+            Set<Integer> unavailable = repair.unavailable().getOrDefault(n, Set.of());
+            for (int d = 0; d < input.numberOfDays(); d++) {
+                BoolVar[] varsOnDay = shifts.onDay(n, d);
+                int[] shiftTypesOnDay = shifts.shiftTypesOnDay(n, d);
+                if (unavailable.contains(d)) {
+                    for (BoolVar var : varsOnDay) {
+                        model.addEquality(var, 0);
                     }
+                    continue;
+                }
+                // outside of the neighbourhood only the variables of kept shifts exist, see ShiftVariables
+                int fixedShiftType = locked[d] >= 0 ? locked[d] : current[d];
+                if (locked[d] < 0 && repair.isFree(n, d)) continue;
+                // the shift can not happen anymore, e.g. the employee is on holiday or no longer works the shift
+                // type; fixing the other variables would turn it into a day off, so the solver decides the day
+                if (fixedShiftType >= 0 && shifts.get(n, d, fixedShiftType) == null) {
+                    log.warn("Shift type {} of employee {} on day {} can not be kept, the day is not fixed",
+                            fixedShiftType, n, d);
+                    continue;
+                }
+                for (int i = 0; i < varsOnDay.length; i++) {
+                    model.addEquality(varsOnDay[i], fixedShiftType == shiftTypesOnDay[i] ? 1 : 0);
                 }
             }
-
-            AlgorithmOutput output =
-                    new AlgorithmOutput(assignmentOfEmployeesToShifts, status == CpSolverStatus.OPTIMAL);
-            return Optional.of(output);
         }
+    }
 
-        return Optional.empty();
+    private static int[] toShiftTypePerDay(List<AlgorithmOutput.ShiftTypeDayPair> shifts, int numberOfDays) {
+        int[] shiftTypePerDay = new int[numberOfDays];
+        Arrays.fill(shiftTypePerDay, -1);
+        for (AlgorithmOutput.ShiftTypeDayPair pair : shifts) {
+            if (pair.day() >= 0 && pair.day() < numberOfDays) shiftTypePerDay[pair.day()] = pair.shiftType();
+        }
+        return shiftTypePerDay;
     }
 
-    private static void addHardConstraints(CpModel model, AlgorithmInput input, BoolVar[][][] shifts) {
-        // One Shift Per Day - Each employee works at most one shift per day.
+    private static HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> extractAssignment(
+            AlgorithmInput input, ShiftVariables shifts, Predicate<BoolVar> isAssigned) {
+        HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> assignmentOfEmployeesToShifts = new HashMap<>();
         for (int n = 0; n < input.employees().size(); n++) {
             for (int d = 0; d < input.numberOfDays(); d++) {
-                List<Literal> possibleShiftsOnDay =
-                        new ArrayList<>(Arrays.asList(shifts[n][d]).subList(0, input.shiftTypes().size()));
-                model.addAtMostOne(possibleShiftsOnDay);
+                BoolVar[] varsOnDay = shifts.onDay(n, d);
+                int[] shiftTypesOnDay = shifts.shiftTypesOnDay(n, d);
+                for (int i = 0; i < varsOnDay.length; i++) {
+                    if (isAssigned.test(varsOnDay[i])) {
+                        assignmentOfEmployeesToShifts.computeIfAbsent(n, key -> new ArrayList<>())
+                                .add(new AlgorithmOutput.ShiftTypeDayPair(shiftTypesOnDay[i], d));
+                    }
+                }
             }
         }
+        return assignmentOfEmployeesToShifts;
+    }
 
-        // Shift Compatability - Employees work only shifts they agreed to.
-        for (int n = 0; n < input.employees().size(); n++) {
-            List<Integer> worksShift = input.employees().get(n).worksShiftTypes();
-            for (int s = 0; s < input.shiftTypes().size(); s++) {
-                boolean canWorkShift = worksShift.contains(s);
-                for (int d = 0; d < input.numberOfDays(); d++) {
-                    if (!canWorkShift) model.addEquality(shifts[n][d][s], 0);
-                }
+    private static int workers(SolverOptions options) {
+        // without a configured number of workers the solver uses all cores
+        return options.numWorkers() > 0 ? options.numWorkers() : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static final class ProgressCallback extends CpSolverSolutionCallback {
+        private final AlgorithmInput input;
+        private final SolverOptions options;
+        private final ShiftVariables shifts;
+        private final ModelStatistics modelStatistics;
+        private final SolverProgressListener listener;
+        private int solutions = 0;
+        private Double timeToFirstSolution;
+
+        private ProgressCallback(AlgorithmInput input, SolverOptions options, ShiftVariables shifts,
+                                 ModelStatistics modelStatistics, SolverProgressListener listener) {
+            this.input = input;
+            this.options = options;
+            this.shifts = shifts;
+            this.modelStatistics = modelStatistics;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSolutionCallback() {
+            solutions++;
+            if (timeToFirstSolution == null) {
+                timeToFirstSolution = wallTime();
+            }
+            listener.onProgress(new SolverProgress(solutions, objectiveValue(), bestObjectiveBound(), wallTime()));
+            if (listener instanceof IncumbentListener incumbentListener) {
+                SolverStatistics statistics = new SolverStatistics(CpSolverStatus.FEASIBLE.name(), workers(options),
+                        timeToFirstSolution, wallTime(), objectiveValue(), bestObjectiveBound(), false,
+                        modelStatistics, options.profile());
+                incumbentListener.onIncumbent(new AlgorithmOutput(
+                        extractAssignment(input, shifts, this::booleanValue), false, statistics));
             }
         }
+    }
 
-        // Maximum and Minimum Monthly Hours - Employees cannot work less/more than max/min working hours
-        for (int n = 0; n < input.employees().size(); n++) {
-            List<LinearExpr> monthlyHours = new ArrayList<>();
+    private static void addHardConstraints(CpModel model, CompiledInput input, ShiftVariables shifts,
+                                           RuleGuards guards, ModelSize size) {
+        // One Shift Per Day - Each employee works at most one shift per day.
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
             for (int d = 0; d < input.numberOfDays(); d++) {
-                for (int s = 0; s < input.shiftTypes().size(); s++) {
-                    // Multiplies the shift variable by its duration to get the hours worked
-                    LinearExpr shiftHours = LinearExpr.term(shifts[n][d][s], input.shiftTypes().get(s).duration());
-                    monthlyHours.add(shiftHours);
-                }
+                BoolVar[] possibleShiftsOnDay = shifts.onDay(n, d);
+                if (possibleShiftsOnDay.length > 1) model.addAtMostOne(possibleShiftsOnDay);
             }
-            // Sum up all the hours worked by the employee over the month
-            LinearExpr totalMonthlyHours = LinearExpr.sum(monthlyHours.toArray(new LinearExpr[0]));
+        }
+        size.record(ModelSize.ONE_SHIFT_PER_DAY);
+
+        // Shift Compatability and Holidays - Employees work only shifts they agreed to and do not work on holidays.
+        // No variables are created for these assignments.
+
+        // Maximum and Minimum Monthly Hours - Employees cannot work less/more than max/min working hours
+        // The hours and the sequence of shifts of members of a pool are constrained over all teams of the pool.
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            if (input.isPooled(n)) continue;
+            // Multiplies the shift variable by its duration to get the hours worked
+            // and sums up all the hours worked by the employee over the month
+            LinearExpr totalMonthlyHours = sumOfHours(input, shifts, n, 0, input.numberOfDays());
             // Constraint to ensure total monthly hours does not exceed the maximum allowed for each employee
-            model.addLessOrEqual(totalMonthlyHours, input.employees().get(n).maxWorkingHoursPerMonth());
-            model.addGreaterOrEqual(totalMonthlyHours, input.employees().get(n).minWorkingHoursPerMonth());
+            model.addLessOrEqual(totalMonthlyHours, input.input().employees().get(n).maxWorkingHoursPerMonth())
+                    .onlyEnforceIf(guards.get(ScheduleRule.MAX_MONTHLY_HOURS, n, null, null));
+            model.addGreaterOrEqual(totalMonthlyHours, input.input().employees().get(n).minWorkingHoursPerMonth())
+                    .onlyEnforceIf(guards.get(ScheduleRule.MIN_MONTHLY_HOURS, n, null, null));
         }
+        size.record(ModelSize.MONTHLY_HOURS);
 
         // Maximum Hours per Week - Employees cannot work more than maxHoursPerWeek per week
-        for (int n = 0; n < input.employees().size(); n++) {
-            Integer maxHoursPerWeek = input.roles().get(input.employees().get(n).role()).maxHoursPerWeek();
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            if (input.isPooled(n)) continue;
+            int maxHoursPerWeek = input.maxHoursPerWeek(n);
             for (int d = 0; d < input.numberOfDays(); d += 7) {
-                List<LinearExpr> weeklyHours = new ArrayList<>();
                 int numOfDays = d + 7 < input.numberOfDays() ? 7 : input.numberOfDays() - d;
-                for (int weekDay = 0; weekDay < numOfDays; weekDay++) {
-                    for (int s = 0; s < input.shiftTypes().size(); s++) {
-                        LinearExpr shiftHours =
-                                LinearExpr.term(shifts[n][d + weekDay][s], input.shiftTypes().get(s).duration());
-                        weeklyHours.add(shiftHours);
-                    }
-                }
-                LinearExpr totalWeeklyHours = LinearExpr.sum(weeklyHours.toArray(new LinearExpr[0]));
-                model.addLessOrEqual(LinearExpr.term(totalWeeklyHours, numOfDays), maxHoursPerWeek * 7L);
-            }
-        }
-
-        // Holidays - Employees do not work on holidays
-        for (int n = 0; n < input.employees().size(); n++) {
-            Set<Integer> holidays = input.employees().get(n).holidays();
-            for (int d = 0; d < input.numberOfDays(); d++) {
-                boolean isHoliday = holidays.contains(d);
-                for (int s = 0; s < input.shiftTypes().size(); s++) {
-                    if (isHoliday) model.addEquality(shifts[n][d][s], 0);
-                }
+                LinearExpr totalWeeklyHours = sumOfHours(input, shifts, n, d, d + numOfDays);
+                model.addLessOrEqual(LinearExpr.term(totalWeeklyHours, numOfDays), maxHoursPerWeek * 7L)
+                        .onlyEnforceIf(guards.get(ScheduleRule.WEEKLY_HOURS, n, null, d));
             }
         }
+        size.record(ModelSize.WEEKLY_HOURS);
 
         // Staffing Level Per Day/Nighttime - There have to always be at least day/nighttimeRequiredPeople present
         addRequiredPeopleConstraint(
                 input,
                 model,
                 shifts,
-                input.numberOfDays(),
-                input.shiftTypes(),
-                input.daytimeRequiredPeople(),
-                input.nighttimeRequiredPeople(),
-                IntStream.range(0, input.employees().size()).boxed().collect(Collectors.toCollection(TreeSet::new))
+                input.input().daytimeRequiredPeople(),
+                input.input().nighttimeRequiredPeople(),
+                input.employees(),
+                guards,
+                null
         );
 
         // Staffing Level Per Day/Nighttime Per Role
-        for (int r = 0; r < input.roles().size(); r++) {
-            RoleInfo roleInfo = input.roles().get(r);
+        for (int r = 0; r < input.input().roles().size(); r++) {
+            RoleInfo roleInfo = input.input().roles().get(r);
             if (roleInfo.daytimeRequiredPeople() == 0 && roleInfo.nighttimeRequiredPeople() == 0) continue;
 
-            int finalR = r;
-            TreeSet<Integer> employeesWithRole = IntStream.range(0, input.employees().size())
-                    .boxed()
-                    .filter(employeeIndex -> input.employees().get(employeeIndex).role() == finalR)
-                    .collect(Collectors.toCollection(TreeSet::new));
-
             addRequiredPeopleConstraint(
                     input,
                     model,
                     shifts,
-                    input.numberOfDays(),
-                    input.shiftTypes(),
                     roleInfo.daytimeRequiredPeople(),
                     roleInfo.nighttimeRequiredPeople(),
-                    employeesWithRole
+                    input.employeesOfRole(r),
+                    guards,
+                    r
             );
         }
+        size.record(ModelSize.STAFFING);
 
-        // NightShift/DayShift change - Employees working a NightShift cannot work a DayShift next
-        List<Integer> dayShifts = new ArrayList<>();
-        List<Integer> nightShifts = new ArrayList<>();
-        for (int s = 0; s < input.shiftTypes().size(); s++) {
-            LocalTime startTime = input.shiftTypes().get(s).startTime();
-            if (!startTime.isBefore(LocalTime.of(8, 0))
-                    && startTime.isBefore(LocalTime.of(20, 0))) {
-                dayShifts.add(s);
-            } else {
-                nightShifts.add(s);
-            }
-        }
+        // NightShift/DayShift change, 12h between shifts and Maximum Consecutive Shifts are rules about the
+        // sequence of shifts of an employee. They are enforced by an automaton per employee.
+        addTransitionConstraints(model, input, shifts, guards);
+        size.record(ModelSize.TRANSITIONS);
 
-        var lastDayOfPrevMonth = input.dayToEmployeeToShiftTypeMapping().lastEntry();
-        for (int nightShift : nightShifts) {
-            for (int n = 0; n < input.employees().size(); n++) {
-                // Handle carry over from last month on first day.
-                if (lastDayOfPrevMonth != null && lastDayOfPrevMonth.getValue().get(n) != null) {
-                    ShiftTypeInfo shiftTypeInfo = input.shiftTypes().get(lastDayOfPrevMonth.getValue().get(n));
-                    boolean isNightShift = timeToSlotIndex(shiftTypeInfo.startTime()) >= 24;
-                    for (int dayShift : dayShifts) {
-                        if (isNightShift) model.addEquality(shifts[n][0][dayShift], 0);
-                    }
-                }
+        // 2 shifts - Employees should never work only 1 shift with the day before and after free
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            if (input.isPooled(n)) continue;
+            for (int d = 0; d < input.numberOfDays(); d++) {
+                BoolVar[] shiftsOnDay = shifts.onDay(n, d);
+                // the employee can not work on this day
+                if (shiftsOnDay.length == 0) continue;
 
-                for (int d = 1; d < input.numberOfDays(); d++) {
-                    for (int dayShift : dayShifts) {
-                        model.addEquality(shifts[n][d][dayShift], 0).onlyEnforceIf(shifts[n][d - 1][nightShift]);
-                    }
+                LinearExprBuilder numOfShiftsInWindow = LinearExpr.newBuilder();
+                if (d > 0) {
+                    numOfShiftsInWindow.addSum(shifts.onDay(n, d - 1));
+                } else if (input.carryOver(n, 0) != CompiledInput.FREE) {
+                    numOfShiftsInWindow.add(1);
                 }
-            }
-        }
+                numOfShiftsInWindow.addSum(shiftsOnDay);
+                if (d < input.numberOfDays() - 1) numOfShiftsInWindow.addSum(shifts.onDay(n, d + 1));
 
-        // Maximum Consecutive Shifts - Employees cannot work more than maxConsecutiveShifts in a row
-        Integer lastDay = input.dayToEmployeeToShiftTypeMapping().isEmpty()
-                ? -1
-                : input.dayToEmployeeToShiftTypeMapping().lastKey();
-        for (int n = 0; n < input.employees().size(); n++) {
-            int maxConsecutiveShifts = input.roles().get(input.employees().get(n).role()).maxConsecutiveShifts();
-            for (int d = -maxConsecutiveShifts; d < input.numberOfDays() - maxConsecutiveShifts; d++) {
-                // use a sliding window to sum up all shifts in that
-                List<LinearExpr> shiftsInWindow = new ArrayList<>();
-                for (int u = 0; u < maxConsecutiveShifts + 1; u++) {
-
-                    // Handle carry over from last month.
-                    if (d + u < 0) {
-                        if (lastDay == -1) continue;
-                        if (input.workedAtDayPrevMonth(lastDay + 1 + d + u, n)) {
-                            shiftsInWindow.add(LinearExpr.constant(1));
-                        }
-                        continue;
-                    }
+                BoolVar worksOnDay = model.newBoolVar("2_shifts_" + n + "_" + d);
+                // an employee can either have 0 or 1 shift on a day
+                model.addEquality(worksOnDay, LinearExpr.sum(shiftsOnDay));
 
-                    for (int s = 0; s < input.shiftTypes().size(); s++) {
-                        shiftsInWindow.add(LinearExpr.term(shifts[n][d + u][s], 1));
-                    }
-                }
-                LinearExpr numOfShiftsInWindow = LinearExpr.sum(shiftsInWindow.toArray(LinearExpr[]::new));
-                model.addLessOrEqual(numOfShiftsInWindow, maxConsecutiveShifts);
+                Literal[] guard = guards.get(ScheduleRule.TWO_SHIFTS, n, null, null);
+                Literal[] enforcement = Arrays.copyOf(guard, guard.length + 1);
+                enforcement[guard.length] = worksOnDay;
+                model.addGreaterOrEqual(numOfShiftsInWindow, 2).onlyEnforceIf(enforcement);
             }
         }
+        size.record(ModelSize.TWO_SHIFTS);
+    }
 
-        // 2 shifts - Employees should never work only 1 shift with the day before and after free
-        for (int n = 0; n < input.employees().size(); n++) {
-            for (int d = 0; d < input.numberOfDays(); d++) {
-                List<LinearExpr> shiftsInWindow = new ArrayList<>();
-                List<LinearExpr> shiftsOnDay = new ArrayList<>();
-                for (int s = 0; s < input.shiftTypes().size(); s++) {
-                    if (d > 0) {
-                        shiftsInWindow.add(LinearExpr.term(shifts[n][d - 1][s], 1));
-                    } else if (!input.dayToEmployeeToShiftTypeMapping().isEmpty()
-                            && input.workedAtDayPrevMonth(input.dayToEmployeeToShiftTypeMapping().lastKey(), n)) {
-                        shiftsInWindow.add(LinearExpr.constant(1));
-                    }
-                    shiftsInWindow.add(LinearExpr.term(shifts[n][d][s], 1));
-                    if (d < input.numberOfDays() - 1) shiftsInWindow.add(LinearExpr.term(shifts[n][d + 1][s], 1));
+    private static void addTransitionConstraints(CpModel model, CompiledInput input, ShiftVariables shifts,
+                                                 RuleGuards guards) {
+        boolean[][] forbiddenTransitions = ShiftRules.forbiddenTransitions(input.input().shiftTypes());
+        // the automaton only depends on the max consecutive shifts of the role
+        Map<Integer, ShiftTransitionAutomaton> automatons = new HashMap<>();
+        IntVar free = model.newConstant(ShiftTransitionAutomaton.FREE);
+        // without a limit of consecutive shifts within the month, only the transitions are checked
+        ShiftTransitionAutomaton restAutomaton = guards.isEnabled()
+                ? new ShiftTransitionAutomaton(forbiddenTransitions, input.numberOfDays() + 1)
+                : null;
 
-                    shiftsOnDay.add(LinearExpr.term(shifts[n][d][s], 1));
-                }
-                LinearExpr numOfShiftsOnDay = LinearExpr.sum(shiftsOnDay.toArray(LinearExpr[]::new));
-                BoolVar worksOnDay = model.newBoolVar("2_shifts_" + n + "_" + d);
-                // an employee can either have 0 or 1 shift on a day
-                model.addEquality(worksOnDay, numOfShiftsOnDay);
-
-                LinearExpr numOfShiftsInWindow = LinearExpr.sum(shiftsInWindow.toArray(LinearExpr[]::new));
-                model.addGreaterOrEqual(numOfShiftsInWindow, 2).onlyEnforceIf(worksOnDay);
-            }
-        }
-
-        // 12h between shifts - Employees should always have 12 hours of between shifts
-        Map<Integer, Set<Integer>> notOkForNextShifts = new TreeMap<>();
-        for (int s1 = 0; s1 < input.shiftTypes().size(); s1++) {
-            for (int s2 = 0; s2 < input.shiftTypes().size(); s2++) {
-                ShiftTypeInfo shiftTypeInfo1 = input.shiftTypes().get(s1);
-                ShiftTypeInfo shiftTypeInfo2 = input.shiftTypes().get(s2);
-                int slot1Start = timeToSlotIndex(shiftTypeInfo1.startTime());
-                int slot1End = timeToSlotIndex(shiftTypeInfo1.endTime());
-                int slot2Start = timeToSlotIndex(shiftTypeInfo2.startTime());
-
-                int slotsBetween;
-                if (slot1Start < slot1End) {
-                    // normal case, no carry over to next day -> calc time to next day + starttime
-                    slotsBetween = (48 - slot1End + slot2Start);
-                } else if (slot1End >= slot2Start) {
-                    // endtime of prev shift is after starttime of current shift
-                    slotsBetween = -Integer.MAX_VALUE;
-                } else {
-                    // endtime of prev shift is before starttime of current shift
-                    slotsBetween = slot2Start - slot1End;
-                }
-                if (slotsBetween < 24) {
-                    int finalS = s2;
-                    notOkForNextShifts.compute(s1, (key, value) -> {
-                        if (value == null) value = new TreeSet<>();
-                        value.add(finalS);
-                        return value;
-                    });
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            int maxConsecutiveShifts = input.maxConsecutiveShifts(n);
+            // transitions and consecutive shifts are separate rules for the diagnosis, so they get separate automatons
+            boolean[][] transitions = guards.isEnabled()
+                    ? new boolean[forbiddenTransitions.length][forbiddenTransitions.length]
+                    : forbiddenTransitions;
+            ShiftTransitionAutomaton automaton = automatons.computeIfAbsent(maxConsecutiveShifts,
+                    max -> new ShiftTransitionAutomaton(transitions, max));
+
+            // Handle carry over from last month.
+            long startingState = ShiftTransitionAutomaton.FREE;
+            long restStartingState = ShiftTransitionAutomaton.FREE;
+            int lastShiftType = input.carryOver(n, 0);
+            if (lastShiftType != CompiledInput.FREE) {
+                int consecutive = 0;
+                while (consecutive < maxConsecutiveShifts && input.carryOver(n, consecutive) != CompiledInput.FREE) {
+                    consecutive++;
                 }
+                startingState = automaton.state(lastShiftType, consecutive);
+                if (restAutomaton != null) restStartingState = restAutomaton.state(lastShiftType, 1);
+            }
+
+            if (restAutomaton == null) {
+                automaton.addTo(model, dayLabels(model, input, shifts, n, free, new Literal[0]), startingState);
+            } else {
+                automaton.addTo(model, dayLabels(model, input, shifts, n, free,
+                        guards.get(ScheduleRule.CONSECUTIVE_SHIFTS, n, null, null)), startingState);
+                restAutomaton.addTo(model, dayLabels(model, input, shifts, n, free,
+                        guards.get(ScheduleRule.REST, n, null, null)), restStartingState);
             }
         }
-        for (int n = 0; n < input.employees().size(); n++) {
-            // Handle carry over from last month.
-            if (!input.dayToEmployeeToShiftTypeMapping().isEmpty()
-                    && input.workedAtDayPrevMonth(input.dayToEmployeeToShiftTypeMapping().lastKey(), n)) {
-                Integer shift = input.dayToEmployeeToShiftTypeMapping().lastEntry().getValue().get(n);
-                for (Integer s1 : notOkForNextShifts.keySet()) {
-                    if (shift.intValue() != s1) continue;
-                    for (Integer s2 : notOkForNextShifts.get(s1)) {
-                        model.addEquality(shifts[n][0][s2], 0);
-                    }
-                }
+    }
+
+    /**
+     * The label of a day is 0 if the employee is free, otherwise the shift type + 1.
+     * If the labels are guarded, they are only linked to the shifts if the guard is true, otherwise the automaton
+     * can choose any labels and the rule is relaxed.
+     *
+     * @param model  the model the labels are added to
+     * @param input  the compiled input of the team
+     * @param shifts the shift variables of the team
+     * @param n      the employee
+     * @param free   the constant label of a free day
+     * @param guard  the guard of the rule; empty if the rule always holds
+     * @return the label of every day of the month
+     */
+    private static IntVar[] dayLabels(CpModel model, CompiledInput input, ShiftVariables shifts, int n, IntVar free,
+                                      Literal[] guard) {
+        IntVar[] days = new IntVar[input.numberOfDays()];
+        for (int d = 0; d < input.numberOfDays(); d++) {
+            BoolVar[] varsOnDay = shifts.onDay(n, d);
+            if (varsOnDay.length == 0) {
+                days[d] = free;
+                continue;
             }
+            int[] shiftTypesOnDay = shifts.shiftTypesOnDay(n, d);
+            LinearExprBuilder label = LinearExpr.newBuilder();
+            for (int i = 0; i < varsOnDay.length; i++) {
+                label.addTerm(varsOnDay[i], shiftTypesOnDay[i] + 1);
+            }
+            days[d] = model.newIntVar(0, input.numberOfShiftTypes(), "shift_sequence_n" + n + "d" + d);
+            model.addEquality(days[d], label).onlyEnforceIf(guard);
+        }
+        return days;
+    }
 
-            for (int d = 1; d < input.numberOfDays(); d++) {
-                for (Integer s1 : notOkForNextShifts.keySet()) {
-                    for (Integer s2 : notOkForNextShifts.get(s1)) {
-                        model.addEquality(shifts[n][d][s2], 0).onlyEnforceIf(shifts[n][d - 1][s1]);
-                    }
-                }
+    /**
+     * @param input    the compiled input of the team
+     * @param shifts   the shift variables of the team
+     * @param employee the employee
+     * @param fromDay  the first day
+     * @param toDay    the day after the last day
+     * @return the hours the employee works between fromDay (inclusive) and toDay (exclusive)
+     */
+    private static LinearExpr sumOfHours(CompiledInput input, ShiftVariables shifts, int employee, int fromDay,
+                                         int toDay) {
+        LinearExprBuilder hours = LinearExpr.newBuilder();
+        for (int d = fromDay; d < toDay; d++) {
+            BoolVar[] varsOnDay = shifts.onDay(employee, d);
+            int[] shiftTypesOnDay = shifts.shiftTypesOnDay(employee, d);
+            for (int i = 0; i < varsOnDay.length; i++) {
+                hours.addTerm(varsOnDay[i], input.duration(shiftTypesOnDay[i]));
             }
         }
+        return hours.build();
     }
 
+    /**
+     * Makes sure that enough employees are present at every time of every day.
+     * Days are split into 48 slots (see {@link #timeToSlotIndex}). Since the number of present employees only changes
+     * where a shift starts or ends, a constraint is only added at these event points and not for every slot.
+     * The event points are the same on every day except the first one, so they are only computed twice.
+     *
+     * @param input                   the compiled input of the team
+     * @param model                   the model the constraints are added to
+     * @param shifts                  the shift variables of the team
+     * @param daytimeRequiredPeople   the number of employees that have to be present during the day
+     * @param nighttimeRequiredPeople the number of employees that have to be present during the night
+     * @param employees               the employees that count for the requirement
+     * @param guards                  the guards of the rules; {@link RuleGuards#NONE} if the rules always hold
+     * @param role                    the role of the requirement; null for the whole team
+     */
     private static void addRequiredPeopleConstraint(
-            AlgorithmInput input,
+            CompiledInput input,
             CpModel model,
-            BoolVar[][][] shifts,
-            int numberOfDays,
-            List<ShiftTypeInfo> shiftTypes,
+            ShiftVariables shifts,
             int daytimeRequiredPeople,
             int nighttimeRequiredPeople,
-            TreeSet<Integer> employees
+            int[] employees,
+            RuleGuards guards,
+            Integer role
     ) {
-        List<LinearExpr[]> timeSlotsPerDay = new ArrayList<>();
-        for (int d = 0; d < numberOfDays; d++) {
-            // 1 slot for every half hour
-            LinearExpr[] timeSlots = IntStream.range(0, 48)
-                    .mapToObj(i -> LinearExpr.constant(0))
-                    .toArray(LinearExpr[]::new);
-            timeSlotsPerDay.add(timeSlots);
-        }
-        for (int d = 0; d < numberOfDays; d++) {
-            LinearExpr[] timeSlots = timeSlotsPerDay.get(d);
-            for (int s = 0; s < shiftTypes.size(); s++) {
-                List<LinearExpr> employeesWorkingShift = new ArrayList<>();
-                for (Integer n : employees) {
-                    employeesWorkingShift.add(LinearExpr.term(shifts[n][d][s], 1));
-                }
-                LinearExpr numOfEmployeesWorkingShift =
-                        LinearExpr.sum(employeesWorkingShift.toArray(LinearExpr[]::new));
-
-                ShiftTypeInfo shiftTypeInfo = shiftTypes.get(s);
-                int startIndex = timeToSlotIndex(shiftTypeInfo.startTime());
-                for (int slot = startIndex; slot - startIndex <= shiftTypeInfo.duration() * 2; slot++) {
-                    if (slot < timeSlots.length) {
-                        timeSlots[slot] = LinearExpr.sum(
-                                new LinearArgument[] {timeSlots[slot], numOfEmployeesWorkingShift}
-                        );
-                        continue;
-                    }
-                    // we have carry over i.e. a shift starts on the current day and ends on the next day
-                    if (d + 1 >= numberOfDays) {
-                        // carry over to next month -> ignored
-                        break;
+        if (daytimeRequiredPeople <= 0 && nighttimeRequiredPeople <= 0) return;
+
+        Map<List<Integer>, Integer> firstDay =
+                requiredPeoplePerCoverage(input, daytimeRequiredPeople, nighttimeRequiredPeople, true);
+        Map<List<Integer>, Integer> otherDays =
+                requiredPeoplePerCoverage(input, daytimeRequiredPeople, nighttimeRequiredPeople, false);
+        for (int d = 0; d < input.numberOfDays(); d++) {
+            for (var entry : (d == 0 ? firstDay : otherDays).entrySet()) {
+                if (entry.getValue() <= 0) continue;
+                LinearExprBuilder presentPeople = LinearExpr.newBuilder();
+                for (int coveringShift : entry.getKey()) {
+                    int day = coveringShift >= 0 ? d : d - 1;
+                    int s = coveringShift >= 0 ? coveringShift : -1 - coveringShift;
+                    for (int n : employees) {
+                        BoolVar var = shifts.get(n, day, s);
+                        if (var != null) presentPeople.add(var);
                     }
-                    LinearExpr[] timeSlotsNextDay = timeSlotsPerDay.get(d + 1);
-                    int slotNextDay = slot % timeSlots.length;
-                    timeSlotsNextDay[slotNextDay] = LinearExpr.sum(
-                            new LinearArgument[] {timeSlotsNextDay[slotNextDay], numOfEmployeesWorkingShift}
-                    );
-                    break;
                 }
+                model.addGreaterOrEqual(presentPeople, entry.getValue())
+                        .onlyEnforceIf(guards.get(ScheduleRule.STAFFING, null, role, d));
             }
+        }
+    }
 
-            // Handle carry over from last month on first day.
-            if (d == 0 && !input.dayToEmployeeToShiftTypeMapping().isEmpty()) {
-                Map<Integer, Integer> employeeShifts = input.dayToEmployeeToShiftTypeMapping().lastEntry().getValue();
-                for (var entry : employeeShifts.entrySet()) {
-                    ShiftTypeInfo shiftTypeInfo = input.shiftTypes().get(entry.getValue());
-                    int startSlot = timeToSlotIndex(shiftTypeInfo.startTime());
-                    int endSlot = timeToSlotIndex(shiftTypeInfo.endTime());
-                    boolean isNightShift = startSlot >= 24;
-                    boolean hasCarryOverToDayShift = endSlot < 24;
-                    if (isNightShift && hasCarryOverToDayShift) {
-                        for (int slot = 0; slot <= endSlot; slot++) {
-                            timeSlots[slot] =
-                                    LinearExpr.sum(new LinearArgument[] {timeSlots[slot], LinearExpr.constant(1)});
-                        }
-                    }
-                }
+    /**
+     * @param input                   the compiled input of the team
+     * @param daytimeRequiredPeople   the number of employees that have to be present during the day
+     * @param nighttimeRequiredPeople the number of employees that have to be present during the night
+     * @param firstDay                true for the first day of the month, which is also covered by the previous month
+     * @return the required people per set of covering shifts of a day. Shift types of the current day are stored as
+     *     is, shift types of the previous day as -1 - shift type. Slots that are covered by the same shifts only
+     *     need the highest requirement.
+     */
+    private static Map<List<Integer>, Integer> requiredPeoplePerCoverage(
+            CompiledInput input, int daytimeRequiredPeople, int nighttimeRequiredPeople, boolean firstDay) {
+        int[] carryOverLastSlots = input.carryOverLastSlots();
+        // the number of present employees can only change at these slots
+        TreeSet<Integer> eventPoints = new TreeSet<>(List.of(0, 1, 24));
+        for (int s = 0; s < input.numberOfShiftTypes(); s++) {
+            eventPoints.add(input.firstSlot(s));
+            eventPoints.add(input.lastSlot(s) + 1);
+        }
+        if (firstDay) {
+            for (int endSlot : carryOverLastSlots) {
+                eventPoints.add(endSlot + 1);
             }
+        }
 
-            for (int slot = 0; slot < 24; slot++) {
-                model.addGreaterOrEqual(timeSlots[slot], daytimeRequiredPeople);
+        Map<List<Integer>, Integer> requiredPeoplePerCoverage = new HashMap<>();
+        for (int slot : eventPoints) {
+            if (slot >= ShiftRules.SLOTS_PER_DAY) continue;
+            int requiredPeople = slot < 24 ? daytimeRequiredPeople : nighttimeRequiredPeople;
+            if (requiredPeople <= 0) continue;
+
+            List<Integer> coveringShifts = new ArrayList<>();
+            for (int s = 0; s < input.numberOfShiftTypes(); s++) {
+                if (input.firstSlot(s) <= slot && slot <= input.lastSlot(s)) coveringShifts.add(s);
+            }
+            if (slot == 0 && !firstDay) {
+                for (int s = 0; s < input.numberOfShiftTypes(); s++) {
+                    if (input.coversNextDay(s)) coveringShifts.add(-1 - s);
+                }
             }
-            for (int slot = 24; slot < 48; slot++) {
-                model.addGreaterOrEqual(timeSlots[slot], nighttimeRequiredPeople);
+            if (firstDay) {
+                // the carry over is constant, so it is part of the requirement
+                for (int endSlot : carryOverLastSlots) {
+                    if (slot <= endSlot) requiredPeople--;
+                }
             }
+            requiredPeoplePerCoverage.merge(coveringShifts, requiredPeople, Math::max);
+        }
+        return requiredPeoplePerCoverage;
+    }
+
+    private static Map<ObjectiveStage, LinearExprBuilder> newObjective() {
+        Map<ObjectiveStage, LinearExprBuilder> objective = new EnumMap<>(ObjectiveStage.class);
+        for (ObjectiveStage stage : ObjectiveStage.values()) {
+            objective.put(stage, LinearExpr.newBuilder());
         }
+        return objective;
+    }
+
+    private static LinearExpr weightedSum(Map<ObjectiveStage, LinearExprBuilder> objective) {
+        LinearExprBuilder sum = LinearExpr.newBuilder();
+        objective.values().forEach(stage -> sum.add(stage.build()));
+        return sum.build();
     }
 
     /**
-     * Converts the time to a slot. Days are split into 30min slots, where 8:00-8:30 is slot 0, 8:30-9:00 is slot 2, ...
-     *
-     * @param time
-     * @return the index of the slot. int between 0 and 47 (since 24h per day; times 2 for 30min)
+     * @param input    the compiled input of the team
+     * @param shifts   the shift variables of the team
+     * @param employee the employee
+     * @param fromDay  the first day
+     * @param toDay    the day after the last day
+     * @return the most hours the employee can work between fromDay (inclusive) and toDay (exclusive)
      */
-    private static int timeToSlotIndex(LocalTime time) {
-        if (!time.isBefore(LocalTime.of(8, 0))) {
-            int slots = time.minusHours(8).getHour() * 2;
-            if (time.getMinute() >= 30) slots++;
-            return slots;
+    private static long maxHours(CompiledInput input, ShiftVariables shifts, int employee, int fromDay, int toDay) {
+        long hours = 0;
+        for (int d = fromDay; d < toDay; d++) {
+            int maxDuration = 0;
+            for (int shiftType : shifts.shiftTypesOnDay(employee, d)) {
+                maxDuration = Math.max(maxDuration, input.duration(shiftType));
+            }
+            hours += maxDuration;
         }
-        // Time 0:00 - 8:00 loops around and is at the end
-        int slots = 31 + time.getHour() * 2;
-        if (time.getMinute() >= 30) slots++;
-        return slots;
+        return hours;
     }
 
-    private static void addOptimization(CpModel model, AlgorithmInput input, BoolVar[][][] shifts) {
-        LinearExprBuilder objective = LinearExpr.newBuilder();
-
+    /**
+     * Adds the soft rules of a team to the goals of the objective. The working time of members of a pool is part of
+     * the objective of the pool.
+     * The domains of the helper variables are derived from the hours an employee can work, instead of being
+     * unbounded, so the solver can prove tighter bounds of the objective.
+     *
+     * @param model     the model the helper variables are added to
+     * @param input     the compiled input of the team
+     * @param shifts    the shift variables of the team
+     * @param stability the existing plan that should be kept; null if there is none
+     * @param objective the goals of the objective per stage
+     */
+    private static void addObjective(CpModel model, CompiledInput input, ShiftVariables shifts,
+                                     StabilityTarget stability, Map<ObjectiveStage, LinearExprBuilder> objective) {
         // compute totalHours worked
         List<LinearExpr> totalMonthlyHoursPerEmployee = new ArrayList<>();
-        for (int n = 0; n < input.employees().size(); n++) {
-            List<LinearExpr> monthlyHours = new ArrayList<>();
-            for (int d = 0; d < input.numberOfDays() - 1; d++) {
-                for (int s = 0; s < input.shiftTypes().size(); s++) {
-                    LinearExpr shiftHours = LinearExpr.term(shifts[n][d][s], input.shiftTypes().get(s).duration());
-                    monthlyHours.add(shiftHours);
-                }
-            }
-            LinearExpr totalMonthlyHours = LinearExpr.sum(monthlyHours.toArray(new LinearExpr[0]));
+        long[] maxMonthlyHours = new long[input.numberOfEmployees()];
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            LinearExpr totalMonthlyHours = sumOfHours(input, shifts, n, 0, input.numberOfDays());
             totalMonthlyHoursPerEmployee.add(totalMonthlyHours);
+            maxMonthlyHours[n] = maxHours(input, shifts, n, 0, input.numberOfDays());
+            if (!input.isPooled(n)) {
+                maxMonthlyHours[n] = Math.min(maxMonthlyHours[n],
+                        input.input().employees().get(n).maxWorkingHoursPerMonth());
+            }
         }
 
         // Make sure employees work hours close to their working time
-        for (int n = 0; n < input.employees().size(); n++) {
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            if (input.isPooled(n)) continue;
             LinearExpr totalMonthlyHours = totalMonthlyHoursPerEmployee.get(n);
-            LinearExpr optimalHours = LinearExpr.constant(input.employees().get(n).optimalWorkingHoursPerMonth());
-            IntVar deviation = model.newIntVar(0, Integer.MAX_VALUE, "deviation_workingHours_" + n);
+            int optimalWorkingHours = input.input().employees().get(n).optimalWorkingHoursPerMonth();
+            LinearExpr optimalHours = LinearExpr.constant(optimalWorkingHours);
+            IntVar deviation = model.newIntVar(0, Math.max(optimalWorkingHours,
+                    maxMonthlyHours[n] - optimalWorkingHours), "deviation_workingHours_" + n);
 
             // Add constraints to link the deviation with the actual and optimal hours
             model.addAbsEquality(deviation,
                     LinearExpr.sum(new LinearArgument[] {totalMonthlyHours, LinearExpr.term(optimalHours, -1)}));
 
             // Add the deviation to the objective
-            objective.add(deviation);
+            objective.get(ObjectiveStage.WORKING_HOURS).add(deviation);
         }
 
 
         // Make sure employees work about the same hours every week
-        for (int n = 0; n < input.employees().size(); n++) {
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            if (input.isPooled(n)) continue;
             LinearExpr totalMonthlyHours = totalMonthlyHoursPerEmployee.get(n);
             for (int d = 0; d < input.numberOfDays(); d += 7) {
-                List<LinearExpr> weeklyHours = new ArrayList<>();
                 int daysPerWeek = d + 7 < input.numberOfDays() ? 7 : input.numberOfDays() - d;
-                for (int weekDay = 0; weekDay < daysPerWeek; weekDay++) {
-                    for (int s = 0; s < input.shiftTypes().size(); s++) {
-                        LinearExpr shiftHours =
-                                LinearExpr.term(shifts[n][d + weekDay][s], input.shiftTypes().get(s).duration());
-                        weeklyHours.add(shiftHours);
-                    }
-                }
-                LinearExpr totalWeeklyHours = LinearExpr.sum(weeklyHours.toArray(new LinearExpr[0]));
+                LinearExpr totalWeeklyHours = sumOfHours(input, shifts, n, d, d + daysPerWeek);
+                long maxWeeklyHours = maxHours(input, shifts, n, d, d + daysPerWeek);
 
-                IntVar deviation = model.newIntVar(0, Integer.MAX_VALUE, "deviation_workingHoursPerWeek_" + n);
+                IntVar deviation = model.newIntVar(0, Math.max(maxMonthlyHours[n] * daysPerWeek,
+                        maxWeeklyHours * input.numberOfDays()), "deviation_workingHoursPerWeek_" + n);
                 // convert formula:
                 //   ´hoursPerMonth / daysPerMonth = hoursPerWeek / daysPerWeek´ ->
                 //   ´hoursPerMonth * daysPerWeek = hoursPerWeek * daysPerMonth´
@@ -512,19 +1175,29 @@ public final class SchedulingSolver {
                         LinearExpr.term(totalMonthlyHours, daysPerWeek),
                         LinearExpr.term(totalWeeklyHours, -input.numberOfDays())
                 }));
-                objective.add(deviation);
+                objective.get(ObjectiveStage.WEEKLY_BALANCE).add(deviation);
             }
         }
 
         // Make sure employees work the same shift type as much as possible
-        for (int n = 0; n < input.employees().size(); n++) {
-            LinearExpr[] shiftTypeCounts = new LinearExpr[input.shiftTypes().size()];
-            for (int s = 0; s < input.shiftTypes().size(); s++) {
-                int finalS = s;
-                shiftTypeCounts[s] = LinearExpr.sum(Arrays.stream(shifts[n])
-                        .map(el -> el[finalS])
-                        .toArray(BoolVar[]::new));
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            LinearExprBuilder[] shiftTypeCountBuilders = new LinearExprBuilder[input.numberOfShiftTypes()];
+            for (int s = 0; s < input.numberOfShiftTypes(); s++) {
+                shiftTypeCountBuilders[s] = LinearExpr.newBuilder();
+            }
+            // the employee works at most one shift on every day they can work
+            int workableDays = 0;
+            for (int d = 0; d < input.numberOfDays(); d++) {
+                BoolVar[] varsOnDay = shifts.onDay(n, d);
+                int[] shiftTypesOnDay = shifts.shiftTypesOnDay(n, d);
+                for (int i = 0; i < varsOnDay.length; i++) {
+                    shiftTypeCountBuilders[shiftTypesOnDay[i]].add(varsOnDay[i]);
+                }
+                if (varsOnDay.length > 0) workableDays++;
             }
+            LinearExpr[] shiftTypeCounts = Arrays.stream(shiftTypeCountBuilders)
+                    .map(LinearExprBuilder::build)
+                    .toArray(LinearExpr[]::new);
 
             // Make sure that shiftTypeCounts is shifted towards 1 value. I.e [10,0,0] is good; [4,3,3] is bad.
 
@@ -532,17 +1205,18 @@ public final class SchedulingSolver {
             // addDivisionEquality doesn't work since we use IntVars and the result might be a float.
             // So the below is more or less rounding.
             LinearExpr totalShifts = LinearExpr.sum(shiftTypeCounts);
-            IntVar avgShiftCount = model.newIntVar(0, Integer.MAX_VALUE, "avgShiftCount_" + n);
-            LinearExpr useToCalcAverage = LinearExpr.term(avgShiftCount, input.shiftTypes().size());
+            IntVar avgShiftCount = model.newIntVar(0, workableDays, "avgShiftCount_" + n);
+            LinearExpr useToCalcAverage = LinearExpr.term(avgShiftCount, input.numberOfShiftTypes());
             model.addGreaterOrEqual(totalShifts, useToCalcAverage);
             model.addLessOrEqual(totalShifts, LinearExpr.sum(
-                    new LinearArgument[] {useToCalcAverage, LinearExpr.constant(input.shiftTypes().size())}));
+                    new LinearArgument[] {useToCalcAverage, LinearExpr.constant(input.numberOfShiftTypes())}));
 
             int finalN = n;
-            LinearExpr[] deviationFromShift = IntStream.range(0, input.shiftTypes().size())
+            int maxDeviation = workableDays;
+            LinearExpr[] deviationFromShift = IntStream.range(0, input.numberOfShiftTypes())
                     .mapToObj(s -> {
                         IntVar deviationFromAverage =
-                                model.newIntVar(0, Integer.MAX_VALUE,
+                                model.newIntVar(0, maxDeviation,
                                         "deviation_sameShift_" + finalN + "_" + s);
                         model.addAbsEquality(deviationFromAverage,
                                 LinearExpr.sum(
@@ -553,38 +1227,58 @@ public final class SchedulingSolver {
                     })
                     .toArray(LinearExpr[]::new);
 
-            objective.addSum(deviationFromShift);
+            objective.get(ObjectiveStage.SAME_SHIFT_TYPE).addSum(deviationFromShift);
         }
 
         // OffDays - Employees should not have to work on off days
-        for (int n = 0; n < input.employees().size(); n++) {
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
             List<LinearExpr> workingOnOffDays = new ArrayList<>();
-            for (Integer offDay : input.employees().get(n).offDays()) {
-                for (int s = 0; s < input.shiftTypes().size(); s++) {
+            BitSet offDays = input.offDays(n);
+            for (int offDay = offDays.nextSetBit(0); offDay >= 0; offDay = offDays.nextSetBit(offDay + 1)) {
+                for (BoolVar var : shifts.onDay(n, offDay)) {
                     // high coeff means high importance for this optimization
-                    workingOnOffDays.add(LinearExpr.term(shifts[n][offDay][s], 100));
+                    workingOnOffDays.add(LinearExpr.term(var, 100));
                 }
             }
-            objective.addSum(workingOnOffDays.toArray(LinearExpr[]::new));
+            objective.get(ObjectiveStage.OFF_DAYS).addSum(workingOnOffDays.toArray(LinearExpr[]::new));
         }
 
         // Preferred shifts - Employees should work their preferred shifts
-        for (int n = 0; n < input.employees().size(); n++) {
-            List<Integer> nonPreferredShifts =
-                    IntStream.range(0, input.shiftTypes().size()).boxed().collect(Collectors.toList());
-            nonPreferredShifts.removeAll(input.employees().get(n).preferredShiftTypes());
-
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
             // Sum up all non-preferred shifts the employee works
             List<LinearExpr> worksNonPreferred = new ArrayList<>();
-            for (int s : nonPreferredShifts) {
+            for (int s = 0; s < input.numberOfShiftTypes(); s++) {
+                if (input.isPreferred(n, s) || !input.isWorkable(n, s)) continue;
                 for (int d = 0; d < input.numberOfDays(); d++) {
-                    worksNonPreferred.add(LinearExpr.term(shifts[n][d][s], 5));
+                    BoolVar var = shifts.get(n, d, s);
+                    if (var != null) worksNonPreferred.add(LinearExpr.term(var, 5));
                 }
             }
             // minimize non-preferred shifts
-            objective.addSum(worksNonPreferred.toArray(LinearExpr[]::new));
+            objective.get(ObjectiveStage.PREFERRED_SHIFTS).addSum(worksNonPreferred.toArray(LinearExpr[]::new));
         }
 
-        model.minimize(objective);
+        // Stability - A regenerated plan should change as few shifts of the existing plan as possible
+        if (stability != null && stability.weight() > 0) {
+            LinearExprBuilder changes = objective.get(ObjectiveStage.STABILITY);
+            for (int n = 0; n < input.numberOfEmployees(); n++) {
+                int[] current = toShiftTypePerDay(stability.current().getOrDefault(n, List.of()),
+                        input.numberOfDays());
+                for (int d = 0; d < input.numberOfDays(); d++) {
+                    if (current[d] < 0) {
+                        // the employee was free, so every shift on the day is a change
+                        for (BoolVar var : shifts.onDay(n, d)) {
+                            changes.addTerm(var, stability.weight());
+                        }
+                    } else {
+                        // the employee works at most one shift per day, so the day changes unless the current shift
+                        // type is kept
+                        changes.add(stability.weight());
+                        BoolVar kept = shifts.get(n, d, current[d]);
+                        if (kept != null) changes.addTerm(kept, -stability.weight());
+                    }
+                }
+            }
+        }
     }
 }
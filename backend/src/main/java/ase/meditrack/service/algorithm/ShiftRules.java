@@ -0,0 +1,69 @@
+package ase.meditrack.service.algorithm;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Rules about the times of shifts that are shared by the schedulers.
+ */
+final class ShiftRules {
+    static final int SLOTS_PER_DAY = 48;
+
+    private ShiftRules() {
+    }
+
+    /**
+     * @param shiftTypes the shift types of the team
+     * @return [s1][s2] is true if shift type s2 can not be worked the day after shift type s1
+     */
+    static boolean[][] forbiddenTransitions(List<ShiftTypeInfo> shiftTypes) {
+        boolean[][] forbidden = new boolean[shiftTypes.size()][shiftTypes.size()];
+        for (int s1 = 0; s1 < shiftTypes.size(); s1++) {
+            for (int s2 = 0; s2 < shiftTypes.size(); s2++) {
+                ShiftTypeInfo shiftTypeInfo1 = shiftTypes.get(s1);
+                ShiftTypeInfo shiftTypeInfo2 = shiftTypes.get(s2);
+                int slot1Start = timeToSlotIndex(shiftTypeInfo1.startTime());
+                int slot1End = timeToSlotIndex(shiftTypeInfo1.endTime());
+                int slot2Start = timeToSlotIndex(shiftTypeInfo2.startTime());
+
+                // NightShift/DayShift change - Employees working a NightShift cannot work a DayShift next
+                boolean isNightShift = slot1Start >= 24;
+                boolean isDayShift = slot2Start < 24;
+                if (isNightShift && isDayShift) forbidden[s1][s2] = true;
+
+                // 12h between shifts - Employees should always have 12 hours of between shifts
+                int slotsBetween;
+                if (slot1Start < slot1End) {
+                    // normal case, no carry over to next day -> calc time to next day + starttime
+                    slotsBetween = (48 - slot1End + slot2Start);
+                } else if (slot1End >= slot2Start) {
+                    // endtime of prev shift is after starttime of current shift
+                    slotsBetween = -Integer.MAX_VALUE;
+                } else {
+                    // endtime of prev shift is before starttime of current shift
+                    slotsBetween = slot2Start - slot1End;
+                }
+                if (slotsBetween < 24) forbidden[s1][s2] = true;
+            }
+        }
+        return forbidden;
+    }
+
+    /**
+     * Converts the time to a slot. Days are split into 30min slots, where 8:00-8:30 is slot 0, 8:30-9:00 is slot 2, ...
+     *
+     * @param time
+     * @return the index of the slot. int between 0 and 47 (since 24h per day; times 2 for 30min)
+     */
+    static int timeToSlotIndex(LocalTime time) {
+        if (!time.isBefore(LocalTime.of(8, 0))) {
+            int slots = time.minusHours(8).getHour() * 2;
+            if (time.getMinute() >= 30) slots++;
+            return slots;
+        }
+        // Time 0:00 - 8:00 loops around and is at the end
+        int slots = 31 + time.getHour() * 2;
+        if (time.getMinute() >= 30) slots++;
+        return slots;
+    }
+}
@@ -0,0 +1,85 @@
+package ase.meditrack.service.algorithm;
+
+import com.google.ortools.sat.AutomatonConstraintProto;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.IntVar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Transition rules between the shifts of consecutive days as an automaton over the daily shift sequence of an
+ * employee. The label of a day is 0 if the employee is free and shift type + 1 otherwise.
+ * A state stores the shift type of the previous day and the number of consecutive shifts up to the previous day.
+ * State 0 is free, state 1 + s * maxConsecutiveShifts + (c - 1) means shift type s was the c-th shift in a row.
+ */
+final class ShiftTransitionAutomaton {
+    static final int FREE = 0;
+
+    private final int numberOfShiftTypes;
+    private final int maxConsecutiveShifts;
+    private final List<Long> tails = new ArrayList<>();
+    private final List<Long> heads = new ArrayList<>();
+    private final List<Long> labels = new ArrayList<>();
+
+    /**
+     * Compiles the transitions. This only has to be done once per team and maximum of consecutive shifts.
+     *
+     * @param forbiddenTransitions [s1][s2] is true if shift type s2 can not be worked the day after shift type s1
+     * @param maxConsecutiveShifts the max number of consecutive shifts an employee can work
+     */
+    ShiftTransitionAutomaton(boolean[][] forbiddenTransitions, int maxConsecutiveShifts) {
+        this.numberOfShiftTypes = forbiddenTransitions.length;
+        this.maxConsecutiveShifts = Math.max(maxConsecutiveShifts, 0);
+
+        addTransition(FREE, FREE, FREE);
+        for (int s = 0; s < numberOfShiftTypes && this.maxConsecutiveShifts > 0; s++) {
+            addTransition(FREE, state(s, 1), s + 1);
+        }
+        for (int previous = 0; previous < numberOfShiftTypes; previous++) {
+            for (int consecutive = 1; consecutive <= this.maxConsecutiveShifts; consecutive++) {
+                long from = state(previous, consecutive);
+                addTransition(from, FREE, FREE);
+                if (consecutive == this.maxConsecutiveShifts) continue;
+                for (int s = 0; s < numberOfShiftTypes; s++) {
+                    if (forbiddenTransitions[previous][s]) continue;
+                    addTransition(from, state(s, consecutive + 1), s + 1);
+                }
+            }
+        }
+    }
+
+    private void addTransition(long from, long to, long label) {
+        tails.add(from);
+        heads.add(to);
+        labels.add(label);
+    }
+
+    /**
+     * @param shiftType   the shift type of the previous day
+     * @param consecutive the number of shifts in a row up to and including the previous day
+     * @return the state of the automaton
+     */
+    long state(int shiftType, int consecutive) {
+        if (consecutive <= 0) return FREE;
+        return 1 + (long) shiftType * maxConsecutiveShifts + Math.min(consecutive, maxConsecutiveShifts) - 1;
+    }
+
+    /**
+     * Adds the automaton for the daily shift sequence of an employee to the model.
+     *
+     * @param model         the model the constraint is added to
+     * @param days          the label of every day
+     * @param startingState the state at the end of the previous month
+     */
+    void addTo(CpModel model, IntVar[] days, long startingState) {
+        long[] finalStates = LongStream.range(0, 1 + (long) numberOfShiftTypes * maxConsecutiveShifts).toArray();
+        AutomatonConstraintProto.Builder automaton = model.addAutomaton(days, startingState, finalStates)
+                .getBuilder()
+                .getAutomatonBuilder();
+        automaton.addAllTransitionTail(tails);
+        automaton.addAllTransitionHead(heads);
+        automaton.addAllTransitionLabel(labels);
+    }
+}
@@ -0,0 +1,160 @@
+package ase.meditrack.service.algorithm;
+
+import com.google.ortools.sat.BoolVar;
+import com.google.ortools.sat.CpModel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The decision variables of the solver. A variable is only created for an assignment that can happen, i.e. for
+ * shift types the employee can work on days the employee is not on holiday. Assignments without a variable are
+ * always 0.
+ * A repair only creates the variables of its neighbourhood. Outside of it, a day gets a single variable for the
+ * shift that is kept, and no variable at all if the employee stays free.
+ */
+final class ShiftVariables {
+    private static final BoolVar[] NO_VARS = new BoolVar[0];
+    private static final int[] NO_SHIFT_TYPES = new int[0];
+
+    private final int numberOfDays;
+    private final int numberOfShiftTypes;
+    // index is employee * numberOfDays + day; the variables of a day are sorted by shift type
+    private final BoolVar[][] vars;
+    private final int[][] shiftTypes;
+    private int size = 0;
+
+    private ShiftVariables(int numberOfEmployees, int numberOfDays, int numberOfShiftTypes) {
+        this.numberOfDays = numberOfDays;
+        this.numberOfShiftTypes = numberOfShiftTypes;
+        this.vars = new BoolVar[numberOfEmployees * numberOfDays][];
+        this.shiftTypes = new int[numberOfEmployees * numberOfDays][];
+    }
+
+    /**
+     * Creates the variables for all possible assignments of the input.
+     *
+     * @param model the model the variables are added to
+     * @param input the compiled input of the solver
+     * @return the created variables
+     */
+    static ShiftVariables create(CpModel model, CompiledInput input) {
+        return create(model, input, null);
+    }
+
+    /**
+     * Creates the variables for the assignments of the input that a repair can still change or has to keep.
+     * The kept shifts are fixed by the repair scope of the solver.
+     *
+     * @param model  the model the variables are added to
+     * @param input  the compiled input of the solver
+     * @param repair the neighbourhood of a repair; null creates the variables for all possible assignments
+     * @return the created variables
+     */
+    static ShiftVariables create(CpModel model, CompiledInput input, RepairScope repair) {
+        ShiftVariables variables = new ShiftVariables(input.numberOfEmployees(), input.numberOfDays(),
+                input.numberOfShiftTypes());
+        for (int n = 0; n < input.numberOfEmployees(); n++) {
+            // the array is shared by all days of the employee, it is never modified
+            int[] workableShiftTypes = input.workableShiftTypes(n);
+            int[][] shiftTypesPerDay = repair == null ? null : shiftTypesPerDay(input, repair, n, workableShiftTypes);
+            for (int d = 0; d < input.numberOfDays(); d++) {
+                int index = n * input.numberOfDays() + d;
+                int[] shiftTypesOnDay = shiftTypesPerDay == null ? workableShiftTypes : shiftTypesPerDay[d];
+                if (input.isHoliday(n, d) || shiftTypesOnDay.length == 0) {
+                    variables.vars[index] = NO_VARS;
+                    variables.shiftTypes[index] = NO_SHIFT_TYPES;
+                    continue;
+                }
+                BoolVar[] varsOnDay = new BoolVar[shiftTypesOnDay.length];
+                for (int i = 0; i < shiftTypesOnDay.length; i++) {
+                    varsOnDay[i] = model.newBoolVar("shifts_n" + n + "d" + d + "s" + shiftTypesOnDay[i]);
+                }
+                variables.vars[index] = varsOnDay;
+                variables.shiftTypes[index] = shiftTypesOnDay;
+                variables.size += varsOnDay.length;
+            }
+        }
+        return variables;
+    }
+
+    /**
+     * @param input              the compiled input of the solver
+     * @param repair             the neighbourhood of the repair
+     * @param employee           the index of the employee
+     * @param workableShiftTypes the shift types the employee can work
+     * @return the shift types that get a variable, per day of the employee
+     */
+    private static int[][] shiftTypesPerDay(CompiledInput input, RepairScope repair, int employee,
+                                            int[] workableShiftTypes) {
+        int[] kept = new int[input.numberOfDays()];
+        Arrays.fill(kept, -1);
+        boolean[] locked = new boolean[input.numberOfDays()];
+        for (AlgorithmOutput.ShiftTypeDayPair shift : repair.current().getOrDefault(employee, List.of())) {
+            if (shift.day() >= 0 && shift.day() < kept.length) kept[shift.day()] = shift.shiftType();
+        }
+        for (AlgorithmOutput.ShiftTypeDayPair shift : repair.locked().getOrDefault(employee, List.of())) {
+            if (shift.day() < 0 || shift.day() >= kept.length) continue;
+            kept[shift.day()] = shift.shiftType();
+            locked[shift.day()] = true;
+        }
+        Set<Integer> unavailable = repair.unavailable().getOrDefault(employee, Set.of());
+
+        int[][] shiftTypesPerDay = new int[input.numberOfDays()][];
+        for (int d = 0; d < input.numberOfDays(); d++) {
+            if (unavailable.contains(d)) {
+                shiftTypesPerDay[d] = NO_SHIFT_TYPES;
+            } else if (!locked[d] && repair.isFree(employee, d)) {
+                shiftTypesPerDay[d] = workableShiftTypes;
+            } else if (kept[d] < 0) {
+                // the employee stays free on the day
+                shiftTypesPerDay[d] = NO_SHIFT_TYPES;
+            } else if (Arrays.binarySearch(workableShiftTypes, kept[d]) < 0) {
+                // the shift can not be kept, so the solver decides the day
+                shiftTypesPerDay[d] = workableShiftTypes;
+            } else {
+                shiftTypesPerDay[d] = new int[] {kept[d]};
+            }
+        }
+        return shiftTypesPerDay;
+    }
+
+    /**
+     * @param employee  the index of the employee
+     * @param day       the day of the month, starting at 0
+     * @param shiftType the index of the shift type
+     * @return the variable of the assignment; null if the assignment can not happen
+     */
+    BoolVar get(int employee, int day, int shiftType) {
+        if (day < 0 || day >= numberOfDays || shiftType < 0 || shiftType >= numberOfShiftTypes) return null;
+        int index = employee * numberOfDays + day;
+        int position = Arrays.binarySearch(shiftTypes[index], shiftType);
+        return position < 0 ? null : vars[index][position];
+    }
+
+    /**
+     * @param employee the index of the employee
+     * @param day      the day of the month, starting at 0
+     * @return the variables of all shift types the employee can work on the day
+     */
+    BoolVar[] onDay(int employee, int day) {
+        return vars[employee * numberOfDays + day];
+    }
+
+    /**
+     * @param employee the index of the employee
+     * @param day      the day of the month, starting at 0
+     * @return the shift types of the variables returned by {@link #onDay}, in the same order
+     */
+    int[] shiftTypesOnDay(int employee, int day) {
+        return shiftTypes[employee * numberOfDays + day];
+    }
+
+    /**
+     * @return the number of created variables
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,139 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.ortools.sat.CpModelProto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Writes every solve to the configured directory, so slow solves can be replayed and tuned outside the application.
+ * Every solve gets its own directory with the anonymized input and the options as JSON, and the model of the solver
+ * as protocol buffer. The input only contains indices, the names of the roles are replaced as well.
+ */
+@Component
+@Slf4j
+public class SolveExporter {
+    public static final String INPUT_FILE = "input.json";
+    public static final String MODEL_FILE = "model.pb";
+    private static final DateTimeFormatter DIRECTORY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final SolverProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong counter = new AtomicLong();
+
+    public SolveExporter(SolverProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return true if solves are exported at all
+     */
+    public boolean isEnabled() {
+        return properties.getExportDirectory() != null && !properties.getExportDirectory().isBlank();
+    }
+
+    /**
+     * Exports a solve if the export is enabled. Failures are only logged, so they never fail the solve.
+     *
+     * @param input   the input of the solve
+     * @param options the options of the solve
+     */
+    public void export(AlgorithmInput input, SolverOptions options) {
+        if (!isEnabled()) return;
+        String name = LocalDateTime.now().format(DIRECTORY_FORMAT) + "-" + counter.incrementAndGet() + "-"
+                + input.employees().size() + "-employees";
+        Path directory = Path.of(properties.getExportDirectory()).resolve(name);
+        try {
+            write(directory, new ExportedSolve(anonymize(input), options), SchedulingSolver.exportModel(input, options),
+                    objectMapper);
+            log.info("Exported solve to {}", directory);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not export solve to {}", directory, e);
+        }
+    }
+
+    /**
+     * Writes a solve to a directory.
+     *
+     * @param directory    the directory of the solve, it is created if it does not exist
+     * @param solve        the input and the options of the solve
+     * @param model        the model of the solve
+     * @param objectMapper writes the input
+     * @throws IOException if the files can not be written
+     */
+    public static void write(Path directory, ExportedSolve solve, CpModelProto model, ObjectMapper objectMapper)
+            throws IOException {
+        Files.createDirectories(directory);
+        objectMapper.writeValue(directory.resolve(INPUT_FILE).toFile(), solve);
+        try (OutputStream out = Files.newOutputStream(directory.resolve(MODEL_FILE))) {
+            model.writeTo(out);
+        }
+    }
+
+    /**
+     * @param directory    the directory of a solve
+     * @param objectMapper reads the input
+     * @return the input and the options of the solve
+     * @throws IOException if the file can not be read
+     */
+    public static ExportedSolve readSolve(Path directory, ObjectMapper objectMapper) throws IOException {
+        return objectMapper.readValue(directory.resolve(INPUT_FILE).toFile(), ExportedSolve.class);
+    }
+
+    /**
+     * @param directory the directory of a solve
+     * @return the model of the solve
+     * @throws IOException if the file can not be read
+     */
+    public static CpModelProto readModel(Path directory) throws IOException {
+        try (InputStream in = Files.newInputStream(directory.resolve(MODEL_FILE))) {
+            return CpModelProto.parseFrom(in);
+        }
+    }
+
+    /**
+     * @param corpus a directory with exported solves
+     * @return the directories of all solves in the corpus, sorted by name
+     * @throws IOException if the directory can not be read
+     */
+    public static List<Path> listSolves(Path corpus) throws IOException {
+        try (Stream<Path> directories = Files.list(corpus)) {
+            return new ArrayList<>(directories.filter(directory -> Files.exists(directory.resolve(MODEL_FILE)))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private static AlgorithmInput anonymize(AlgorithmInput input) {
+        List<RoleInfo> roles = new ArrayList<>();
+        for (int i = 0; i < input.roles().size(); i++) {
+            RoleInfo role = input.roles().get(i);
+            roles.add(new RoleInfo("Role " + i, role.daytimeRequiredPeople(), role.nighttimeRequiredPeople(),
+                    role.maxHoursPerWeek(), role.maxConsecutiveShifts()));
+        }
+        return new AlgorithmInput(input.numberOfDays(), input.employees(), input.shiftTypes(), roles,
+                input.daytimeRequiredPeople(), input.nighttimeRequiredPeople(),
+                input.dayToEmployeeToShiftTypeMapping());
+    }
+
+    /**
+     * @param input   the anonymized input of the solve
+     * @param options the options of the solve
+     */
+    public record ExportedSolve(AlgorithmInput input, SolverOptions options) {
+    }
+}
@@ -0,0 +1,42 @@
+package ase.meditrack.service.algorithm;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports whether the solver is ready to create plans. It is out of service while the warm-up runs, see
+ * {@link SolverWarmUp}, and down if the native libraries could not be loaded or no worker process is running.
+ */
+@Component
+public class SolverHealthIndicator implements HealthIndicator {
+    private final SolverWarmUp warmUp;
+    private final SolverWorkerPool workerPool;
+
+    public SolverHealthIndicator(SolverWarmUp warmUp, SolverWorkerPool workerPool) {
+        this.warmUp = warmUp;
+        this.workerPool = workerPool;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = switch (warmUp.getState()) {
+            case DISABLED, READY -> Health.up();
+            case PENDING, RUNNING -> Health.outOfService();
+            case FAILED -> Health.down().withDetail("error", String.valueOf(warmUp.getFailure()));
+        };
+        health.withDetail("warmUp", warmUp.getState());
+        if (warmUp.getLoadTime() != null) health.withDetail("nativeLoadMillis", warmUp.getLoadTime().toMillis());
+        if (warmUp.getSolveTime() != null) {
+            health.withDetail("warmUpSolveMillis", warmUp.getSolveTime().toMillis())
+                    .withDetail("warmUpSolveStatus", warmUp.getSolveStatus());
+        }
+        if (workerPool.isEnabled()) {
+            long aliveWorkers = workerPool.aliveWorkers();
+            health.withDetail("workerProcesses", aliveWorkers);
+            // the solves of the application can not run without a worker process
+            if (aliveWorkers == 0 && warmUp.getState() != SolverWarmUp.State.FAILED) health.down();
+        }
+        return health.build();
+    }
+}
@@ -0,0 +1,154 @@
+package ase.meditrack.service.algorithm;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Records the metrics of the solver. All meters are tagged with the size of the team, so slow solves can be told
+ * apart from solves that are slow because of the size of the team. The sizes are bucketed to keep the number of
+ * time series small.
+ */
+@Component
+@Slf4j
+public class SolverMetrics {
+    private final MeterRegistry meterRegistry;
+
+    public SolverMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param employees the number of employees of a team
+     * @return the bucket of the team size the metrics are tagged with
+     */
+    public static String teamSize(int employees) {
+        if (employees <= 10) return "1-10";
+        if (employees <= 50) return "11-50";
+        if (employees <= 150) return "51-150";
+        return "151+";
+    }
+
+    /**
+     * Records the time it took to map the entities of a team to the input of the solver.
+     *
+     * @param employees the number of employees of the team
+     * @param duration  the time it took to map the input
+     */
+    public void recordMapping(int employees, Duration duration) {
+        timer("meditrack.solver.mapping", "Time to map the entities of a team to the input of the solver",
+                employees).record(duration);
+    }
+
+    /**
+     * Records a solve and the model it solved.
+     *
+     * @param employees the number of employees of the input
+     * @param output    the output of the solve; empty if no solution was found
+     * @param workers   the number of search workers of the solve
+     * @param duration  the time the solve took
+     */
+    public void recordSolve(int employees, Optional<AlgorithmOutput> output, int workers, Duration duration) {
+        String teamSize = teamSize(employees);
+        SolverStatistics statistics = output.map(AlgorithmOutput::statistics).orElse(null);
+        String status = statistics == null ? "NO_SOLUTION" : statistics.status();
+        Timer.builder("meditrack.solver.solve")
+                .description("Duration of a solve")
+                .tag("status", status)
+                .tag("teamSize", teamSize)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(duration);
+        summary("meditrack.solver.workers", "Number of search workers used by a solve", employees)
+                .record(workers);
+        if (statistics == null) {
+            log.info("Solve of {} employees finished without solution using {} workers in {}ms", employees,
+                    workers, duration.toMillis());
+            return;
+        }
+
+        if (statistics.timeToFirstSolutionSeconds() != null) {
+            timer("meditrack.solver.first.solution", "Time until the first feasible solution was found", employees)
+                    .record(seconds(statistics.timeToFirstSolutionSeconds()));
+        }
+        if (statistics.gap() != null) {
+            summary("meditrack.solver.gap", "Relative gap between the objective and the best bound", employees)
+                    .record(statistics.gap());
+        }
+        ModelStatistics model = statistics.model();
+        if (model != null) {
+            timer("meditrack.solver.build", "Time to build the model of a solve", employees)
+                    .record(seconds(model.buildSeconds()));
+            if (model.presolveSeconds() != null) {
+                timer("meditrack.solver.presolve", "Time the solver spent in the presolve", employees)
+                        .record(seconds(model.presolveSeconds()));
+            }
+            for (Map.Entry<String, Integer> rule : model.variablesPerRule().entrySet()) {
+                DistributionSummary.builder("meditrack.solver.model.variables")
+                        .description("Number of variables of a rule family in the model of a solve")
+                        .tag("rule", rule.getKey())
+                        .tag("teamSize", teamSize)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(rule.getValue());
+            }
+            for (Map.Entry<String, Integer> rule : model.constraintsPerRule().entrySet()) {
+                DistributionSummary.builder("meditrack.solver.model.constraints")
+                        .description("Number of constraints of a rule family in the model of a solve")
+                        .tag("rule", rule.getKey())
+                        .tag("teamSize", teamSize)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(rule.getValue());
+            }
+        }
+        log.info("Solve of {} employees finished with status {} using {} workers in {}ms, objective {}, bound {},"
+                        + " model {}", employees, status, workers, duration.toMillis(), statistics.objective(),
+                statistics.bestBound(), model);
+    }
+
+    /**
+     * Records the diagnosis of an infeasible input.
+     *
+     * @param employees the number of employees of the input
+     * @param diagnosis the conflicting rules that were found
+     * @param duration  the time the diagnosis took
+     */
+    public void recordDiagnosis(int employees, Diagnosis diagnosis, Duration duration) {
+        int conflicts = diagnosis.conflicts().size();
+        Timer.builder("meditrack.solver.diagnosis")
+                .description("Duration of finding the conflicting rules of an infeasible input")
+                .tag("result", conflicts == 0 ? "none" : diagnosis.minimal() ? "conflict" : "unminimized")
+                .tag("teamSize", teamSize(employees))
+                .register(meterRegistry)
+                .record(duration);
+        log.info("Diagnosis found {} conflicting rules in {}ms, minimal: {}", conflicts, duration.toMillis(),
+                diagnosis.minimal());
+    }
+
+    private Timer timer(String name, String description, int employees) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("teamSize", teamSize(employees))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String name, String description, int employees) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("teamSize", teamSize(employees))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Duration seconds(double seconds) {
+        return Duration.ofNanos(Math.round(seconds * 1e9));
+    }
+}
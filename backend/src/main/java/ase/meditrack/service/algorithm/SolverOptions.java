@@ -0,0 +1,56 @@
+package ase.meditrack.service.algorithm;
+
+import lombok.Builder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parameters for a single run of the solver.
+ *
+ * @param maxTimeInSeconds the time limit of the solver
+ * @param numWorkers       number of parallel search workers; 0 lets the solver decide
+ * @param randomSeed       seed of the solver, so runs with the same input are reproducible
+ * @param subsolvers       the portfolio of subsolvers; empty uses the default portfolio of the solver
+ * @param symmetryBreaking whether the solver only searches one order of interchangeable employees
+ * @param relativeGapLimit the solver stops once the relative gap to the best bound is below it; 0 disables it
+ * @param lnsOnly          whether all workers only improve the current solution by large neighbourhood search
+ * @param lexicographic    whether the goals of the objective are optimized one after the other in the order of
+ *                         {@link ObjectiveStage} instead of as weighted sum. The time limit is shared by the stages
+ * @param objectiveTolerance the relative amount by which a goal of a lexicographic solve may get worse in the later
+ *                         stages
+ * @param logSearch        whether the solver logs its search, which is needed to report the time of the presolve.
+ *                         The log slows down short solves, so it is off by default
+ * @param profile          name of the solve profile the options were taken from; null if none
+ * @param hint             assignment the solver starts its search from; key is employee, value is their shifts.
+ *                         Employees that are not contained get a hint to not work at all
+ * @param repair           restricts the solve to a neighbourhood of an existing plan; null solves the whole month
+ * @param stability        penalizes changes to an existing plan; null if the plan is generated from scratch
+ */
+@Builder(toBuilder = true)
+public record SolverOptions(
+        double maxTimeInSeconds,
+        int numWorkers,
+        int randomSeed,
+        List<String> subsolvers,
+        boolean symmetryBreaking,
+        double relativeGapLimit,
+        boolean lnsOnly,
+        boolean lexicographic,
+        double objectiveTolerance,
+        boolean logSearch,
+        String profile,
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint,
+        RepairScope repair,
+        StabilityTarget stability
+) {
+    public static final int DEFAULT_MAX_TIME_IN_SECONDS = 30;
+
+    /**
+     * @return the options the solver uses if nothing else is configured
+     */
+    public static SolverOptions defaults() {
+        return new SolverOptions(DEFAULT_MAX_TIME_IN_SECONDS, 0, 1, List.of(), true, 0, false, false, 0, false, null,
+                Map.of(), null, null);
+    }
+}
@@ -0,0 +1,15 @@
+package ase.meditrack.service.algorithm;
+
+/**
+ * @param solutions      number of solutions the solver found so far
+ * @param objective      objective value of the best solution found so far
+ * @param bestBound      best proven bound of the objective
+ * @param elapsedSeconds wall time since the solver started
+ */
+public record SolverProgress(
+        int solutions,
+        double objective,
+        double bestBound,
+        double elapsedSeconds
+) {
+}
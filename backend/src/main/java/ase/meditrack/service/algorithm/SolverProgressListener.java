@@ -0,0 +1,15 @@
+package ase.meditrack.service.algorithm;
+
+/**
+ * Gets notified every time the solver finds a better solution.
+ * Is called from the solver threads, so implementations should return quickly.
+ */
+@FunctionalInterface
+public interface SolverProgressListener {
+    SolverProgressListener NONE = progress -> { };
+
+    /**
+     * @param progress the state of the solver after finding a new solution
+     */
+    void onProgress(SolverProgress progress);
+}
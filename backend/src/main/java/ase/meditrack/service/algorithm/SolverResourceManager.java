@@ -0,0 +1,94 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits the cores of the machine between the solves that run at the same time.
+ * Every solve gets an equal share of the cores for the configured number of concurrent solves. Solves that exceed
+ * this number get the cores that are left, but always at least one worker.
+ */
+@Component
+@Slf4j
+public class SolverResourceManager {
+    private final SolverProperties properties;
+    private final int totalWorkers;
+    private int activeSolves = 0;
+    private int reservedWorkers = 0;
+
+    public SolverResourceManager(SolverProperties properties) {
+        this.properties = properties;
+        this.totalWorkers = properties.getTotalWorkers() > 0
+                ? properties.getTotalWorkers()
+                : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Reserves search workers for a solve. The lease has to be closed when the solve is done.
+     *
+     * @return the reserved workers
+     */
+    public WorkerLease acquire() {
+        return acquire(0);
+    }
+
+    /**
+     * Reserves at most the given number of search workers for a solve. The lease has to be closed when the solve
+     * is done.
+     *
+     * @param maxWorkers upper limit of the workers; 0 reserves as many as the solve would get without a limit
+     * @return the reserved workers
+     */
+    public synchronized WorkerLease acquire(int maxWorkers) {
+        activeSolves++;
+        int fairShare = totalWorkers / Math.max(activeSolves, Math.max(properties.getPoolSize(), 1));
+        int freeWorkers = totalWorkers - reservedWorkers;
+        int workers = Math.max(1, Math.min(Math.min(fairShare, freeWorkers), properties.getMaxWorkersPerSolve()));
+        if (maxWorkers > 0) workers = Math.min(workers, maxWorkers);
+        reservedWorkers += workers;
+        log.debug("Leased {} workers, {} of {} workers in use by {} solves", workers, reservedWorkers, totalWorkers,
+                activeSolves);
+        return new WorkerLease(workers);
+    }
+
+    /**
+     * @return the number of solves that currently hold a lease
+     */
+    public synchronized int getActiveSolves() {
+        return activeSolves;
+    }
+
+    private synchronized void release(WorkerLease lease) {
+        activeSolves--;
+        reservedWorkers -= lease.workers();
+    }
+
+    /**
+     * Search workers that are reserved for a single solve.
+     */
+    public final class WorkerLease implements AutoCloseable {
+        private final int workers;
+        private boolean released = false;
+
+        private WorkerLease(int workers) {
+            this.workers = workers;
+        }
+
+        /**
+         * @return the number of search workers of the solve
+         */
+        public int workers() {
+            return workers;
+        }
+
+        @Override
+        public void close() {
+            synchronized (SolverResourceManager.this) {
+                if (released) return;
+                released = true;
+                release(this);
+            }
+        }
+    }
+}
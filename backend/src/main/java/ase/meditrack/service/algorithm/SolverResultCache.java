@@ -0,0 +1,118 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.model.entity.SolverResult;
+import ase.meditrack.repository.SolverResultRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps the outputs of the latest solves by the fingerprint of their input, so regenerating a plan without any
+ * changes does not run the solver again. The least recently used outputs are evicted first.
+ * If configured, the outputs are also stored in the database, so they survive a restart.
+ */
+@Component
+@Slf4j
+public class SolverResultCache {
+    private final SolverProperties properties;
+    private final SolverResultRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<String, AlgorithmOutput> outputs;
+
+    public SolverResultCache(SolverProperties properties, SolverResultRepository repository,
+                             ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("meditrack.solver.cache")
+                .description("Number of solves that were looked up in the result cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("meditrack.solver.cache")
+                .description("Number of solves that were looked up in the result cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        int maxSize = properties.getResultCacheSize();
+        this.outputs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AlgorithmOutput> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return true if outputs are cached at all
+     */
+    public boolean isEnabled() {
+        return properties.getResultCacheSize() > 0;
+    }
+
+    /**
+     * Looks up the output of a previous solve with the same fingerprint.
+     *
+     * @param fingerprint the fingerprint of the solve, see {@link AlgorithmInputFingerprint}
+     * @return the cached output, marked as cached; empty if the solve was not cached
+     */
+    public Optional<AlgorithmOutput> get(String fingerprint) {
+        AlgorithmOutput output;
+        synchronized (outputs) {
+            output = outputs.get(fingerprint);
+        }
+        if (output == null && properties.isPersistentResultCache()) {
+            output = repository.findById(fingerprint).map(this::deserialize).orElse(null);
+            if (output != null) {
+                synchronized (outputs) {
+                    outputs.put(fingerprint, output);
+                }
+            }
+        }
+        if (output == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        SolverStatistics statistics = output.statistics() == null ? null : output.statistics().asCached();
+        return Optional.of(new AlgorithmOutput(output.assignmentOfEmployeesToShifts(), output.isOptimal(),
+                statistics));
+    }
+
+    /**
+     * Stores the output of a solve.
+     *
+     * @param fingerprint the fingerprint of the solve, see {@link AlgorithmInputFingerprint}
+     * @param output      the output of the solve
+     */
+    public void put(String fingerprint, AlgorithmOutput output) {
+        synchronized (outputs) {
+            outputs.put(fingerprint, output);
+        }
+        if (!properties.isPersistentResultCache()) return;
+        try {
+            repository.save(new SolverResult(fingerprint, objectMapper.writeValueAsString(output), Instant.now()));
+            repository.deleteAllButNewest(properties.getResultCacheSize());
+        } catch (JsonProcessingException e) {
+            log.warn("Could not store solver result {}", fingerprint, e);
+        }
+    }
+
+    private AlgorithmOutput deserialize(SolverResult result) {
+        try {
+            return objectMapper.readValue(result.getOutput(), AlgorithmOutput.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not read solver result {}", result.getFingerprint(), e);
+            return null;
+        }
+    }
+}
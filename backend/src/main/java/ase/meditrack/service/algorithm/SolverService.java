@@ -0,0 +1,187 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs the solver with the resources that are available to it and records metrics about every solve.
+ * The solves run inside the application, or in the worker processes of the {@link SolverWorkerPool} if it is enabled.
+ */
+@Service
+@Slf4j
+public class SolverService {
+    private final SolverResourceManager resourceManager;
+    private final SolverResultCache resultCache;
+    private final SolverProperties properties;
+    private final SolverMetrics metrics;
+    private final SolveExporter exporter;
+    private final SolverWorkerPool workerPool;
+
+    public SolverService(SolverResourceManager resourceManager, SolverResultCache resultCache,
+                         SolverProperties properties, SolverMetrics metrics, SolveExporter exporter,
+                         SolverWorkerPool workerPool, MeterRegistry meterRegistry) {
+        this.resourceManager = resourceManager;
+        this.resultCache = resultCache;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.exporter = exporter;
+        this.workerPool = workerPool;
+        Gauge.builder("meditrack.solver.active", resourceManager, SolverResourceManager::getActiveSolves)
+                .description("Number of solves that are currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Solves the input with the configured default options.
+     *
+     * @param input    the input of the solver
+     * @param listener gets notified about every improving solution
+     * @return the output if a valid assignment was found; empty otherwise
+     */
+    public Optional<AlgorithmOutput> solve(AlgorithmInput input, SolverProgressListener listener) {
+        return solve(input, defaultOptions(), listener);
+    }
+
+    /**
+     * Solves the input. The number of workers is always decided by the resource manager, the number of workers of
+     * the options is only an upper limit.
+     * If the same input was solved before with the same options, the cached output is returned instead.
+     * Repairs and regenerations of an existing plan are never cached, since they depend on the current plan.
+     *
+     * @param input    the input of the solver
+     * @param options  the options of the solve
+     * @param listener gets notified about every improving solution
+     * @return the output if a valid assignment was found; empty otherwise
+     */
+    public Optional<AlgorithmOutput> solve(AlgorithmInput input, SolverOptions options,
+                                           SolverProgressListener listener) {
+        String fingerprint = null;
+        if (resultCache.isEnabled() && options.repair() == null && options.stability() == null) {
+            fingerprint = AlgorithmInputFingerprint.of(input, options);
+            Optional<AlgorithmOutput> cached = resultCache.get(fingerprint);
+            if (cached.isPresent()) {
+                log.info("Returning cached solver result {}", fingerprint);
+                return cached;
+            }
+        }
+
+        try (SolverResourceManager.WorkerLease lease = resourceManager.acquire(options.numWorkers())) {
+            SolverOptions leasedOptions = options.toBuilder().numWorkers(lease.workers()).build();
+            exporter.export(input, leasedOptions);
+            long start = System.nanoTime();
+            Scheduler scheduler = workerPool.isEnabled() ? workerPool : Scheduler.CP_SAT;
+            Optional<AlgorithmOutput> output = scheduler.solve(input, leasedOptions, listener);
+            metrics.recordSolve(input.employees().size(), output, lease.workers(),
+                    Duration.ofNanos(System.nanoTime() - start));
+            // a plan of the heuristic fallback should be replaced by the solver the next time
+            if (fingerprint != null && output.isPresent() && !isHeuristic(output.get())) {
+                resultCache.put(fingerprint, output.get());
+            }
+            return output;
+        }
+    }
+
+    /**
+     * Solves several teams that share a float pool of employees, see {@link SchedulingSolver#solvePool}.
+     * Solves of a pool are neither cached nor run in the worker processes, since both only know single teams.
+     *
+     * @param input    the teams and the members of the pool
+     * @param options  the options of the solve
+     * @param listener gets notified about every improving solution
+     * @return an output per team if a valid assignment was found; empty otherwise
+     */
+    public Optional<List<AlgorithmOutput>> solvePool(FloatPoolInput input, SolverOptions options,
+                                                     SolverProgressListener listener) {
+        try (SolverResourceManager.WorkerLease lease = resourceManager.acquire(options.numWorkers())) {
+            SolverOptions leasedOptions = options.toBuilder().numWorkers(lease.workers()).build();
+            long start = System.nanoTime();
+            Optional<List<AlgorithmOutput>> outputs = SchedulingSolver.solvePool(input, leasedOptions, listener);
+            int employees = input.teams().stream().mapToInt(team -> team.employees().size()).sum();
+            metrics.recordSolve(employees, outputs.map(teams -> teams.get(0)), lease.workers(),
+                    Duration.ofNanos(System.nanoTime() - start));
+            return outputs;
+        }
+    }
+
+    /**
+     * Finds the rules that make an input infeasible, see {@link SchedulingSolver#diagnose}.
+     *
+     * @param input the input of the solver
+     * @return the conflicting rules; no rules if the diagnosis is disabled or found no conflict in time
+     */
+    public Diagnosis diagnose(AlgorithmInput input) {
+        if (properties.getDiagnosisMaxTimeInSeconds() <= 0) return Diagnosis.NONE;
+        try (SolverResourceManager.WorkerLease lease = resourceManager.acquire()) {
+            SolverOptions options = defaultOptions().toBuilder()
+                    .maxTimeInSeconds(properties.getDiagnosisMaxTimeInSeconds())
+                    .numWorkers(lease.workers())
+                    .build();
+            long start = System.nanoTime();
+            Diagnosis diagnosis = SchedulingSolver.diagnose(input, options);
+            metrics.recordDiagnosis(input.employees().size(), diagnosis,
+                    Duration.ofNanos(System.nanoTime() - start));
+            return diagnosis;
+        }
+    }
+
+    /**
+     * @return the options of the default profile
+     */
+    public SolverOptions defaultOptions() {
+        return options(null);
+    }
+
+    /**
+     * @param profileName the name of a configured solve profile; null or blank selects the default profile
+     * @return the options of the profile
+     * @throws ValidationException if no profile with this name is configured
+     */
+    public SolverOptions options(String profileName) {
+        String name = profileName(profileName);
+        SolverProperties.SolveProfile profile = profile(name);
+        return SolverOptions.builder()
+                .maxTimeInSeconds(profile.getMaxTimeInSeconds())
+                .numWorkers(profile.getWorkers())
+                .randomSeed(properties.getRandomSeed())
+                .subsolvers(List.copyOf(properties.getSubsolvers()))
+                .symmetryBreaking(properties.isSymmetryBreaking())
+                .relativeGapLimit(profile.getRelativeGapLimit())
+                .lnsOnly(profile.isLnsOnly())
+                .lexicographic(profile.isLexicographic())
+                .objectiveTolerance(profile.getObjectiveTolerance())
+                .logSearch(properties.isLogSearch() || exporter.isEnabled())
+                .profile(name)
+                .build();
+    }
+
+    /**
+     * @param profileName the name of a configured solve profile; null or blank selects the default profile
+     * @return the settings of the profile
+     * @throws ValidationException if no profile with this name is configured
+     */
+    public SolverProperties.SolveProfile profile(String profileName) {
+        String name = profileName(profileName);
+        SolverProperties.SolveProfile profile = properties.getProfiles().get(name);
+        if (profile == null) {
+            throw new ValidationException("Unknown solve profile '" + name + "', available profiles are "
+                    + properties.getProfiles().keySet());
+        }
+        return profile;
+    }
+
+    private String profileName(String profileName) {
+        return profileName == null || profileName.isBlank() ? properties.getDefaultProfile() : profileName;
+    }
+
+    private static boolean isHeuristic(AlgorithmOutput output) {
+        return output.statistics() != null && GreedyScheduler.STATUS.equals(output.statistics().status());
+    }
+}
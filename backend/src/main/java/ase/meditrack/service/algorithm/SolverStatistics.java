@@ -0,0 +1,42 @@
+package ase.meditrack.service.algorithm;
+
+/**
+ * @param status                     the final status of the solver
+ * @param workers                    number of search workers the solver used
+ * @param timeToFirstSolutionSeconds wall time until the first feasible solution; null if none was found
+ * @param wallTimeSeconds            total wall time of the solver
+ * @param objective                  objective value of the returned solution; null if the scheduler does not compute
+ *                                   the objective of the solver
+ * @param bestBound                  best proven bound of the objective; null if the scheduler proves no bound
+ * @param cached                     true if the result was taken from the result cache instead of being solved
+ * @param model                      size of the model and time to build it; null if no model was solved
+ * @param profile                    name of the solve profile; null if the solve did not use one
+ */
+public record SolverStatistics(
+        String status,
+        int workers,
+        Double timeToFirstSolutionSeconds,
+        double wallTimeSeconds,
+        Double objective,
+        Double bestBound,
+        boolean cached,
+        ModelStatistics model,
+        String profile
+) {
+    /**
+     * @return the same statistics marked as taken from the result cache
+     */
+    public SolverStatistics asCached() {
+        return new SolverStatistics(status, workers, timeToFirstSolutionSeconds, wallTimeSeconds, objective,
+                bestBound, true, model, profile);
+    }
+
+    /**
+     * @return the relative distance between the objective and the best bound; 0 if the solution is optimal, null if
+     *     there is no objective or bound
+     */
+    public Double gap() {
+        if (objective == null || bestBound == null) return null;
+        return Math.abs(objective - bestBound) / Math.max(1, Math.abs(objective));
+    }
+}
@@ -0,0 +1,155 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import com.google.ortools.Loader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Loads the native libraries of the solver and solves a small synthetic team once the application has started.
+ * Without it, the first plan after a deploy pays for extracting and loading the libraries and for the cold JIT of
+ * the model building. The warm-up runs in the background; until it is done, {@link SolverHealthIndicator} reports
+ * the solver as out of service, so the instance gets no traffic during a rolling deploy.
+ * If the solves run in worker processes, the application does not load the libraries itself, the synthetic team is
+ * solved by a worker instead, which waits for the warm-up of the worker.
+ */
+@Component
+@Slf4j
+public class SolverWarmUp {
+    /**
+     * The state of the warm-up.
+     */
+    public enum State {
+        DISABLED,
+        PENDING,
+        RUNNING,
+        READY,
+        FAILED
+    }
+
+    private final SolverProperties properties;
+    private final SolverWorkerPool workerPool;
+    private volatile State state;
+    private volatile Duration loadTime;
+    private volatile Duration solveTime;
+    private volatile String solveStatus;
+    private volatile Throwable failure;
+
+    public SolverWarmUp(SolverProperties properties, SolverWorkerPool workerPool) {
+        this.properties = properties;
+        this.workerPool = workerPool;
+        this.state = properties.isWarmUp() ? State.PENDING : State.DISABLED;
+    }
+
+    /**
+     * Starts the warm-up in a background thread, so the startup of the application is not delayed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (state != State.PENDING) return;
+        Thread thread = new Thread(this::run, "solver-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Loads the native libraries and solves the synthetic team in the calling thread.
+     */
+    public void run() {
+        if (state == State.DISABLED) return;
+        state = State.RUNNING;
+        try {
+            Scheduler scheduler = workerPool.isEnabled() ? workerPool : Scheduler.CP_SAT;
+            if (!workerPool.isEnabled()) {
+                long start = System.nanoTime();
+                Loader.loadNativeLibraries();
+                loadTime = Duration.ofNanos(System.nanoTime() - start);
+            }
+
+            long start = System.nanoTime();
+            SolverOptions options = SolverOptions.defaults().toBuilder()
+                    .maxTimeInSeconds(properties.getWarmUpMaxTimeInSeconds())
+                    .numWorkers(1)
+                    .randomSeed(properties.getRandomSeed())
+                    .subsolvers(List.copyOf(properties.getSubsolvers()))
+                    .symmetryBreaking(properties.isSymmetryBreaking())
+                    .build();
+            solveStatus = scheduler.solve(syntheticInput(), options, SolverProgressListener.NONE)
+                    .map(output -> output.statistics().status())
+                    .orElse("NO_SOLUTION");
+            solveTime = Duration.ofNanos(System.nanoTime() - start);
+            state = State.READY;
+            log.info("Solver warmed up, loaded native libraries in {}ms, solved synthetic team with status {} in {}ms",
+                    loadTime == null ? null : loadTime.toMillis(), solveStatus, solveTime.toMillis());
+        } catch (RuntimeException | LinkageError e) {
+            failure = e;
+            state = State.FAILED;
+            log.error("Warm-up of the solver failed", e);
+        }
+    }
+
+    /**
+     * A team with day and night shifts, off days and preferred shift types, so the warm-up builds every rule family
+     * of the model.
+     *
+     * @return the input of the warm-up solve
+     */
+    static AlgorithmInput syntheticInput() {
+        List<ShiftTypeInfo> shiftTypes = List.of(
+                new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12),
+                new ShiftTypeInfo(LocalTime.of(20, 0), LocalTime.of(8, 0), 12)
+        );
+        List<RoleInfo> roles = List.of(new RoleInfo("Warm-up", 0, 0, 60, 5));
+        List<EmployeeInfo> employees = new ArrayList<>();
+        for (int n = 0; n < 6; n++) {
+            employees.add(new EmployeeInfo(List.of(0, 1), List.of(n % 2), 0, 28 * 12, 28 * 4, Set.of(),
+                    Set.of(n, n + 7), 0));
+        }
+        return new AlgorithmInput(28, employees, shiftTypes, roles, 1, 1, new TreeMap<>());
+    }
+
+    /**
+     * @return the state of the warm-up
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return the time it took to load the native libraries; null if they are not loaded yet or only loaded by the
+     *     worker processes
+     */
+    public Duration getLoadTime() {
+        return loadTime;
+    }
+
+    /**
+     * @return the time of the synthetic solve; null if it is not done yet
+     */
+    public Duration getSolveTime() {
+        return solveTime;
+    }
+
+    /**
+     * @return the status of the synthetic solve; null if it is not done yet
+     */
+    public String getSolveStatus() {
+        return solveStatus;
+    }
+
+    /**
+     * @return the reason the warm-up failed; null if it did not fail
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+}
@@ -0,0 +1,112 @@
+package ase.meditrack.service.algorithm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Entry point of a worker process of the {@link SolverWorkerPool}. Reads one {@link SolverWorkerMessage} per line
+ * from the standard input, solves it with CP-SAT and writes the answers to the standard output. The worker solves
+ * one request at a time and exits when the application closes its standard input.
+ */
+public final class SolverWorker {
+    private final ObjectMapper objectMapper = SolverWorkerMessage.objectMapper();
+    private final Writer out;
+
+    private SolverWorker(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Reads one message per line from the standard input and writes the answers to the standard output, until the
+     * application closes the standard input.
+     *
+     * @param args not used
+     * @throws IOException if the messages can not be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        // only messages may be written to the standard output, everything else is logged to the standard error
+        PrintStream protocol = System.out;
+        System.setOut(System.err);
+        SolverWorker worker = new SolverWorker(new OutputStreamWriter(protocol, StandardCharsets.UTF_8));
+        warmUp();
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) continue;
+            worker.handle(worker.objectMapper.readValue(line, SolverWorkerMessage.class));
+        }
+        // the solver may leave native threads behind
+        System.exit(0);
+    }
+
+    /**
+     * Solves a small synthetic team, so the first request does not pay for loading the native libraries and for the
+     * cold JIT of the model building, see {@link SolverWarmUp}.
+     */
+    private static void warmUp() {
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(1).numWorkers(1).build();
+        try {
+            SchedulingSolver.solve(SolverWarmUp.syntheticInput(), options, SolverProgressListener.NONE);
+        } catch (RuntimeException e) {
+            // the first request reports the error if the solver does not work at all
+            System.err.println("Warm-up of the solver worker failed: " + e);
+        }
+    }
+
+    private void handle(SolverWorkerMessage request) throws IOException {
+        switch (request.type()) {
+            case PING -> write(SolverWorkerMessage.of(SolverWorkerMessage.Type.PONG));
+            case SOLVE -> {
+                try {
+                    Optional<AlgorithmOutput> output = Scheduler.CP_SAT.solve(request.input(), request.options(),
+                            listener(request.incumbents()));
+                    write(SolverWorkerMessage.result(output.orElse(null)));
+                } catch (RuntimeException e) {
+                    write(SolverWorkerMessage.error(e.toString()));
+                }
+            }
+            default -> write(SolverWorkerMessage.error("Unexpected request " + request.type()));
+        }
+    }
+
+    private SolverProgressListener listener(boolean incumbents) {
+        if (!incumbents) {
+            return progress -> write(SolverWorkerMessage.progress(progress));
+        }
+        return new IncumbentListener() {
+            @Override
+            public void onProgress(SolverProgress progress) {
+                write(SolverWorkerMessage.progress(progress));
+            }
+
+            @Override
+            public void onIncumbent(AlgorithmOutput incumbent) {
+                write(SolverWorkerMessage.incumbent(incumbent));
+            }
+        };
+    }
+
+    /**
+     * Called from the solver threads as well, so the lines of two messages never interleave.
+     *
+     * @param message the message to send to the application
+     */
+    private synchronized void write(SolverWorkerMessage message) {
+        try {
+            out.write(objectMapper.writeValueAsString(message));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
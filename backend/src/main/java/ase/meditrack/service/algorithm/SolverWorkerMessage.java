@@ -0,0 +1,116 @@
+package ase.meditrack.service.algorithm;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A message between the application and a {@link SolverWorker} process. Every message is written as one line of
+ * JSON, the application writes to the standard input of the worker and reads its standard output.
+ *
+ * @param type       the kind of the message
+ * @param input      the input of a {@link Type#SOLVE} request
+ * @param options    the options of a {@link Type#SOLVE} request
+ * @param incumbents whether the worker sends every improving solution of a {@link Type#SOLVE} request
+ * @param progress   the progress of a {@link Type#PROGRESS} message
+ * @param output     the solution of an {@link Type#INCUMBENT} or a {@link Type#RESULT}; null if no solution was found
+ * @param error      the message of an {@link Type#ERROR}
+ */
+public record SolverWorkerMessage(
+        Type type,
+        AlgorithmInput input,
+        SolverOptions options,
+        boolean incumbents,
+        SolverProgress progress,
+        AlgorithmOutput output,
+        String error
+) {
+    public enum Type {
+        /**
+         * Health check, sent by the application.
+         */
+        PING,
+        /**
+         * Answer to a health check.
+         */
+        PONG,
+        /**
+         * Solves an input, sent by the application.
+         */
+        SOLVE,
+        /**
+         * The solver found a better solution.
+         */
+        PROGRESS,
+        /**
+         * The better solution itself, only sent if the request asked for it.
+         */
+        INCUMBENT,
+        /**
+         * The solve is done.
+         */
+        RESULT,
+        /**
+         * The solve failed.
+         */
+        ERROR
+    }
+
+    /**
+     * @return the mapper that reads and writes the messages in both processes
+     */
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * @param type PING or PONG
+     * @return a message without content
+     */
+    public static SolverWorkerMessage of(Type type) {
+        return new SolverWorkerMessage(type, null, null, false, null, null, null);
+    }
+
+    /**
+     * @param input      the input to solve
+     * @param options    the options of the solve
+     * @param incumbents true if every better solution should be sent, not only its progress
+     * @return the request of a solve
+     */
+    public static SolverWorkerMessage solve(AlgorithmInput input, SolverOptions options, boolean incumbents) {
+        return new SolverWorkerMessage(Type.SOLVE, input, options, incumbents, null, null, null);
+    }
+
+    /**
+     * @param progress the progress of the solver
+     * @return the message of a better solution
+     */
+    public static SolverWorkerMessage progress(SolverProgress progress) {
+        return new SolverWorkerMessage(Type.PROGRESS, null, null, false, progress, null, null);
+    }
+
+    /**
+     * @param output the better solution
+     * @return the message of the better solution itself
+     */
+    public static SolverWorkerMessage incumbent(AlgorithmOutput output) {
+        return new SolverWorkerMessage(Type.INCUMBENT, null, null, false, null, output, null);
+    }
+
+    /**
+     * @param output the output of the solve; null if no solution was found
+     * @return the message of a finished solve
+     */
+    public static SolverWorkerMessage result(AlgorithmOutput output) {
+        return new SolverWorkerMessage(Type.RESULT, null, null, false, null, output, null);
+    }
+
+    /**
+     * @param error the reason of the failure
+     * @return the message of a failed solve
+     */
+    public static SolverWorkerMessage error(String error) {
+        return new SolverWorkerMessage(Type.ERROR, null, null, false, null, null, error);
+    }
+}
@@ -0,0 +1,338 @@
+package ase.meditrack.service.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarFile;
+
+/**
+ * Runs the solves in separate worker processes instead of the application, see {@link SolverWorker}. A heavy solve
+ * then does not compete with the requests of the application for its heap, and a crash of the native solver only
+ * ends the worker. Workers that crash, exceed the time limit of their solve or fail a health check are replaced.
+ */
+@Component
+@Slf4j
+public class SolverWorkerPool implements Scheduler {
+    private static final String EXECUTABLE_JAR_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+    private static final Duration POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final SolverProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper = SolverWorkerMessage.objectMapper();
+    private final Set<WorkerProcess> workers = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<WorkerProcess> idleWorkers = new LinkedBlockingQueue<>();
+    private final AtomicInteger waitingSolves = new AtomicInteger();
+    private final AtomicLong workerIds = new AtomicLong();
+    private ScheduledExecutorService watchdog;
+    private volatile boolean stopped = false;
+
+    public SolverWorkerPool(SolverProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("meditrack.solver.processes.queue", waitingSolves, AtomicInteger::get)
+                .description("Number of solves that wait for a free worker process")
+                .register(meterRegistry);
+        Gauge.builder("meditrack.solver.processes.busy", this, pool -> pool.workers.size() - pool.idleWorkers.size())
+                .description("Number of worker processes that are solving")
+                .register(meterRegistry);
+        Gauge.builder("meditrack.solver.processes.alive", this, SolverWorkerPool::aliveWorkers)
+                .description("Number of worker processes that are running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true if the solves run in worker processes
+     */
+    public boolean isEnabled() {
+        return properties.getWorkerProcesses() > 0;
+    }
+
+    /**
+     * @return the number of worker processes that are running
+     */
+    public long aliveWorkers() {
+        return workers.stream().filter(WorkerProcess::isAlive).count();
+    }
+
+    /**
+     * Starts the workers, so the first solve does not wait for a new JVM.
+     */
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) return;
+        // one thread kills hanging workers while the other one may wait for the answer to a health check
+        watchdog = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "solver-worker-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        startMissingWorkers();
+        long interval = properties.getWorkerHealthCheckInterval().toMillis();
+        watchdog.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops all workers, solves that are still running fail.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        if (watchdog != null) watchdog.shutdownNow();
+        workers.forEach(WorkerProcess::kill);
+        workers.clear();
+        idleWorkers.clear();
+    }
+
+    /**
+     * Solves the input in the next free worker. Waits until a worker is free. If the worker stops before it answers,
+     * e.g. because it crashed while it was idle, the input is solved once more in another worker.
+     *
+     * @param input    the information the algorithm uses
+     * @param options  the parameters of the scheduler
+     * @param listener gets notified about every improving solution
+     * @return the output if a valid assignment was found; empty otherwise
+     * @throws IllegalStateException if no worker is running or the worker failed while solving
+     */
+    @Override
+    public Optional<AlgorithmOutput> solve(AlgorithmInput input, SolverOptions options,
+                                           SolverProgressListener listener) {
+        boolean incumbents = listener instanceof IncumbentListener;
+        long timeout = Math.round(options.maxTimeInSeconds() * 1000) + properties.getWorkerTimeout().toMillis();
+        for (int attempt = 0; ; attempt++) {
+            WorkerProcess worker = takeWorker();
+            ScheduledFuture<?> kill = watchdog.schedule(worker::timeOut, timeout, TimeUnit.MILLISECONDS);
+            boolean answered = false;
+            boolean finished = false;
+            try {
+                worker.send(SolverWorkerMessage.solve(input, options, incumbents));
+                while (true) {
+                    SolverWorkerMessage message = worker.receive();
+                    answered = true;
+                    switch (message.type()) {
+                        case PROGRESS -> listener.onProgress(message.progress());
+                        case INCUMBENT -> {
+                            if (incumbents) ((IncumbentListener) listener).onIncumbent(message.output());
+                        }
+                        case RESULT -> {
+                            finished = true;
+                            return Optional.ofNullable(message.output());
+                        }
+                        case ERROR -> {
+                            finished = true;
+                            throw new IllegalStateException("Solver worker " + worker.id + " failed: "
+                                    + message.error());
+                        }
+                        default -> log.warn("Ignoring message {} of solver worker {}", message.type(), worker.id);
+                    }
+                }
+            } catch (IOException e) {
+                if (!answered && attempt == 0 && !worker.timedOut) {
+                    log.warn("Solver worker {} stopped before it answered, solving in another worker", worker.id);
+                    continue;
+                }
+                throw new IllegalStateException("Solver worker " + worker.id + " stopped while solving", e);
+            } finally {
+                kill.cancel(false);
+                if (finished) {
+                    idleWorkers.add(worker);
+                } else {
+                    // the worker may still send messages of this solve, so it can not solve anything else
+                    replace(worker, worker.failureReason());
+                }
+            }
+        }
+    }
+
+    private WorkerProcess takeWorker() {
+        waitingSolves.incrementAndGet();
+        try {
+            while (true) {
+                WorkerProcess worker = idleWorkers.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                if (worker == null) {
+                    startMissingWorkers();
+                    if (workers.isEmpty()) throw new IllegalStateException("No solver worker process is running");
+                } else if (!worker.isAlive()) {
+                    replace(worker, "crash");
+                } else {
+                    return worker;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a solver worker", e);
+        } finally {
+            waitingSolves.decrementAndGet();
+        }
+    }
+
+    /**
+     * Pings every idle worker. Busy workers are watched by their solve.
+     */
+    private void checkHealth() {
+        try {
+            for (int i = idleWorkers.size(); i > 0; i--) {
+                WorkerProcess worker = idleWorkers.poll();
+                if (worker == null) break;
+                if (ping(worker)) {
+                    idleWorkers.add(worker);
+                } else {
+                    replace(worker, worker.isAlive() ? "health" : "crash");
+                }
+            }
+            startMissingWorkers();
+        } catch (RuntimeException e) {
+            // an exception would cancel all further health checks
+            log.error("Health check of the solver workers failed", e);
+        }
+    }
+
+    private boolean ping(WorkerProcess worker) {
+        ScheduledFuture<?> kill = watchdog.schedule(worker::timeOut, properties.getWorkerTimeout().toMillis(),
+                TimeUnit.MILLISECONDS);
+        try {
+            worker.send(SolverWorkerMessage.of(SolverWorkerMessage.Type.PING));
+            return worker.receive().type() == SolverWorkerMessage.Type.PONG;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            kill.cancel(false);
+        }
+    }
+
+    private void replace(WorkerProcess worker, String reason) {
+        log.warn("Replacing solver worker {} after {}", worker.id, reason);
+        worker.kill();
+        workers.remove(worker);
+        idleWorkers.remove(worker);
+        Counter.builder("meditrack.solver.processes.restarts")
+                .description("Number of worker processes that were replaced")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        startMissingWorkers();
+    }
+
+    private synchronized void startMissingWorkers() {
+        while (!stopped && workers.size() < properties.getWorkerProcesses()) {
+            try {
+                WorkerProcess worker = new WorkerProcess(workerIds.incrementAndGet(),
+                        new ProcessBuilder(command()).redirectError(ProcessBuilder.Redirect.INHERIT).start());
+                log.info("Started solver worker {} with pid {}", worker.id, worker.process.pid());
+                workers.add(worker);
+                idleWorkers.add(worker);
+            } catch (IOException e) {
+                log.error("Could not start a solver worker", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the command that starts a worker with the class path of the application. Inside the executable jar of
+     * Spring Boot the classes are not on the class path, so the launcher of the jar starts the worker.
+     */
+    private List<String> command() {
+        String classPath = System.getProperty("java.class.path");
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(properties.getWorkerJvmOptions());
+        if (isExecutableJar(classPath)) {
+            command.add("-Dloader.main=" + SolverWorker.class.getName());
+            command.addAll(List.of("-cp", classPath, EXECUTABLE_JAR_LAUNCHER));
+        } else {
+            command.addAll(List.of("-cp", classPath, SolverWorker.class.getName()));
+        }
+        return command;
+    }
+
+    private static boolean isExecutableJar(String classPath) {
+        if (!classPath.endsWith(".jar") || classPath.contains(File.pathSeparator)) return false;
+        try (JarFile jar = new JarFile(classPath)) {
+            return jar.getEntry("BOOT-INF/classes/") != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A running worker and the pipes to it.
+     */
+    private final class WorkerProcess {
+        private final long id;
+        private final Process process;
+        private final BufferedWriter in;
+        private final BufferedReader out;
+        private volatile boolean timedOut = false;
+
+        private WorkerProcess(long id, Process process) {
+            this.id = id;
+            this.process = process;
+            this.in = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        }
+
+        private void send(SolverWorkerMessage message) throws IOException {
+            in.write(objectMapper.writeValueAsString(message));
+            in.newLine();
+            in.flush();
+        }
+
+        private SolverWorkerMessage receive() throws IOException {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.startsWith("{")) return objectMapper.readValue(line, SolverWorkerMessage.class);
+                // the native solver may write to the standard output as well
+                log.debug("Solver worker {}: {}", id, line);
+            }
+            throw new EOFException("Solver worker " + id + " closed its output");
+        }
+
+        private void timeOut() {
+            timedOut = true;
+            kill();
+        }
+
+        private void kill() {
+            process.destroyForcibly();
+        }
+
+        private boolean isAlive() {
+            return process.isAlive();
+        }
+
+        private String failureReason() {
+            if (timedOut) return "timeout";
+            return isAlive() ? "aborted" : "crash";
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a regenerated plan close to an existing plan. Every day on which an employee works another shift type than
+ * in the existing plan, or works although they were free or the other way round, adds the weight to the objective.
+ *
+ * @param current the existing plan; key is employee, value are the shifts of the employee
+ * @param weight  the penalty of every changed day of an employee
+ */
+public record StabilityTarget(
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> current,
+        int weight
+) {
+}
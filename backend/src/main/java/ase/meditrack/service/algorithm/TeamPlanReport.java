@@ -0,0 +1,27 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.UUID;
+
+/**
+ * @param team           the id of the team
+ * @param teamName       the name of the team
+ * @param status         the outcome of the planning
+ * @param monthlyPlan    the id of the created plan; null if no plan was created
+ * @param subModels      number of models that were solved for the team, more than one if the team was split by role
+ * @param prepareSeconds time to load the input from the database
+ * @param solveSeconds   time to solve the input
+ * @param saveSeconds    time to store the plan
+ * @param error          the reason the planning failed; null if it did not fail
+ */
+public record TeamPlanReport(
+        UUID team,
+        String teamName,
+        TeamPlanStatus status,
+        UUID monthlyPlan,
+        int subModels,
+        double prepareSeconds,
+        double solveSeconds,
+        double saveSeconds,
+        String error
+) {
+}
@@ -0,0 +1,8 @@
+package ase.meditrack.service.algorithm;
+
+public enum TeamPlanStatus {
+    CREATED,
+    SKIPPED,
+    NO_SOLUTION,
+    FAILED
+}
@@ -0,0 +1,115 @@
+package ase.meditrack.service.algorithm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds the assignment the solver starts its search from.
+ * A good starting point lets the solver find a first solution much faster, especially for large teams.
+ */
+public final class WarmStartHints {
+    // shift plans usually repeat every four weeks
+    static final int ROTATION_DAYS = 28;
+
+    private WarmStartHints() {
+    }
+
+    /**
+     * Continues the rotation of the previous month, so employees keep working the same weekly pattern.
+     *
+     * @param previousMonth   the shifts of the previous month; key is employee, day is the day of the previous month
+     * @param daysPrevMonth   number of days of the previous month
+     * @param numberOfDays    number of days of the planned month
+     * @return key is employee, value are the shifts the employee works in the planned month
+     */
+    public static HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> fromPreviousMonth(
+            Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> previousMonth, int daysPrevMonth, int numberOfDays) {
+        HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint = new HashMap<>();
+        if (daysPrevMonth < ROTATION_DAYS) return hint;
+        // the last rotation of the previous month is repeated
+        int rotationStart = daysPrevMonth - ROTATION_DAYS;
+        for (var entry : previousMonth.entrySet()) {
+            Map<Integer, Integer> dayToShiftType = new HashMap<>();
+            for (AlgorithmOutput.ShiftTypeDayPair pair : entry.getValue()) {
+                dayToShiftType.put(pair.day(), pair.shiftType());
+            }
+            List<AlgorithmOutput.ShiftTypeDayPair> shifts = new ArrayList<>();
+            for (int d = 0; d < numberOfDays; d++) {
+                Integer shiftType = dayToShiftType.get(rotationStart + d % ROTATION_DAYS);
+                if (shiftType != null) shifts.add(new AlgorithmOutput.ShiftTypeDayPair(shiftType, d));
+            }
+            if (!shifts.isEmpty()) hint.put(entry.getKey(), shifts);
+        }
+        return hint;
+    }
+
+    /**
+     * Creates a simple draft where every employee works shifts they are allowed to work, evenly spread over the
+     * month until they reach their optimal working hours. Does not consider the required people.
+     *
+     * @param input the input of the solver
+     * @return key is employee, value are the shifts of the employee
+     */
+    public static HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> greedyDraft(AlgorithmInput input) {
+        HashMap<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint = new HashMap<>();
+        for (int n = 0; n < input.employees().size(); n++) {
+            EmployeeInfo employee = input.employees().get(n);
+            if (employee.worksShiftTypes().isEmpty()) continue;
+            int shiftType = employee.preferredShiftTypes().stream()
+                    .filter(employee.worksShiftTypes()::contains)
+                    .findFirst()
+                    .orElse(employee.worksShiftTypes().get(0));
+            int duration = Math.max(input.shiftTypes().get(shiftType).duration(), 1);
+            int shiftCount = Math.min(employee.optimalWorkingHoursPerMonth() / duration, input.numberOfDays());
+            if (shiftCount <= 0) continue;
+
+            List<AlgorithmOutput.ShiftTypeDayPair> shifts = new ArrayList<>();
+            // offset the start per employee, so not everybody works on the same days
+            double step = (double) input.numberOfDays() / shiftCount;
+            for (int i = 0; i < shiftCount; i++) {
+                int day = ((int) (i * step) + n) % input.numberOfDays();
+                if (employee.holidays().contains(day) || employee.offDays().contains(day)) continue;
+                shifts.add(new AlgorithmOutput.ShiftTypeDayPair(shiftType, day));
+            }
+            hint.put(n, shifts);
+        }
+        return hint;
+    }
+
+    /**
+     * Merges hints per employee. For every employee the first source that contains shifts for them is used.
+     * Shifts an employee can not work because of their shift types or holidays are removed.
+     *
+     * @param input   the input of the solver
+     * @param sources the hints, ordered from highest to lowest priority
+     * @return key is employee, value are the shifts of the employee
+     */
+    @SafeVarargs
+    public static Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> merge(
+            AlgorithmInput input, Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>>... sources) {
+        Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> hint = new HashMap<>();
+        for (int n = 0; n < input.employees().size(); n++) {
+            EmployeeInfo employee = input.employees().get(n);
+            for (Map<Integer, List<AlgorithmOutput.ShiftTypeDayPair>> source : sources) {
+                List<AlgorithmOutput.ShiftTypeDayPair> shifts = source.get(n);
+                if (shifts == null || shifts.isEmpty()) continue;
+                // at most one shift per day
+                TreeMap<Integer, Integer> dayToShiftType = new TreeMap<>();
+                for (AlgorithmOutput.ShiftTypeDayPair pair : shifts) {
+                    if (pair.day() < 0 || pair.day() >= input.numberOfDays()) continue;
+                    if (!employee.worksShiftTypes().contains(pair.shiftType())) continue;
+                    if (employee.holidays().contains(pair.day())) continue;
+                    dayToShiftType.putIfAbsent(pair.day(), pair.shiftType());
+                }
+                hint.put(n, dayToShiftType.entrySet().stream()
+                        .map(e -> new AlgorithmOutput.ShiftTypeDayPair(e.getValue(), e.getKey()))
+                        .toList());
+                break;
+            }
+        }
+        return hint;
+    }
+}
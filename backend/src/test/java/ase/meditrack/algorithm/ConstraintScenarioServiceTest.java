@@ -0,0 +1,112 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.exception.NotFoundException;
+import ase.meditrack.model.dto.ConstraintScenarioDto;
+import ase.meditrack.model.dto.RoleConstraintScenarioDto;
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmMapper;
+import ase.meditrack.service.algorithm.ConstraintScenarioService;
+import ase.meditrack.service.algorithm.MonthlyPlanCreator;
+import ase.meditrack.service.algorithm.PlanningContext;
+import ase.meditrack.service.algorithm.ScenarioComparison;
+import ase.meditrack.service.algorithm.ScenarioResult;
+import ase.meditrack.service.algorithm.SchedulingSolver;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+import ase.meditrack.service.algorithm.SolverService;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConstraintScenarioServiceTest {
+    private final Principal principal = mock(Principal.class);
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private MonthlyPlanCreator creator;
+    private SolverService solverService;
+    private ConstraintScenarioService service;
+    private SyntheticTeam team;
+
+    @BeforeEach
+    void setUp() {
+        creator = mock(MonthlyPlanCreator.class);
+        solverService = mock(SolverService.class);
+        SolverProperties properties = new SolverProperties();
+        properties.setScenarioMaxTimeInSeconds(2);
+        properties.setScenarioMaxCount(2);
+        service = new ConstraintScenarioService(creator, solverService, properties, pool);
+
+        team = SyntheticTeam.generate(10, 2, 2, 0, false, 1);
+        AlgorithmMapper mapper = new AlgorithmMapper();
+        AlgorithmInput input = team.toAlgorithmInput(mapper);
+        PlanningContext context = new PlanningContext(6, 2024, team.team(), team.employees(), team.shiftTypes(),
+                mapper, input, Map.of());
+        when(creator.prepareMonthlyPlan(6, 2024, principal)).thenReturn(context);
+        when(solverService.defaultOptions()).thenReturn(SolverOptions.defaults());
+        when(solverService.solve(any(), any(), any())).thenAnswer(invocation -> SchedulingSolver.solve(
+                invocation.getArgument(0), invocation.getArgument(1), SolverProgressListener.NONE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testComparesScenariosWithTheCurrentRules() {
+        UUID doctors = team.roles().get(0).getId();
+        ConstraintScenarioDto understaffed = new ConstraintScenarioDto("Everybody at day", 100, null, null);
+        ConstraintScenarioDto longerWeeks = new ConstraintScenarioDto(null, null, null,
+                List.of(new RoleConstraintScenarioDto(doctors, null, null, 70, 6)));
+
+        ScenarioComparison comparison = service.compare(6, 2024, principal, List.of(understaffed, longerWeeks));
+
+        assertEquals(ConstraintScenarioService.CURRENT, comparison.current().name());
+        assertTrue(comparison.current().feasible());
+        assertNotNull(comparison.current().hoursDeviation());
+        assertEquals(2, comparison.scenarios().size());
+
+        ScenarioResult first = comparison.scenarios().get(0);
+        assertEquals("Everybody at day", first.name());
+        assertFalse(first.feasible());
+        assertEquals(ConstraintScenarioService.NO_SOLUTION, first.status());
+
+        ScenarioResult second = comparison.scenarios().get(1);
+        assertEquals("Scenario 2", second.name());
+        assertTrue(second.feasible());
+        verify(solverService).solve(argThat(input -> input.roles().get(0).maxHoursPerWeek() == 70
+                && input.roles().get(0).maxConsecutiveShifts() == 6), any(), any());
+        verify(creator, never()).saveMonthlyPlan(any(), any());
+    }
+
+    @Test
+    void testRejectsUnknownRolesAndTooManyScenarios() {
+        ConstraintScenarioDto unknownRole = new ConstraintScenarioDto(null, null, null,
+                List.of(new RoleConstraintScenarioDto(UUID.randomUUID(), 1, null, null, null)));
+        ConstraintScenarioDto empty = new ConstraintScenarioDto(null, null, null, null);
+
+        assertThrows(NotFoundException.class, () -> service.compare(6, 2024, principal, List.of(unknownRole)));
+        assertThrows(ValidationException.class, () -> service.compare(6, 2024, principal,
+                List.of(empty, empty, empty)));
+        verify(solverService, never()).solve(any(), any(), any());
+    }
+}
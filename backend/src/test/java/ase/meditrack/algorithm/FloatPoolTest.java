@@ -0,0 +1,107 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.AlgorithmOutput.ShiftTypeDayPair;
+import ase.meditrack.service.algorithm.EmployeeInfo;
+import ase.meditrack.service.algorithm.FloatPoolInput;
+import ase.meditrack.service.algorithm.PoolMember;
+import ase.meditrack.service.algorithm.RoleInfo;
+import ase.meditrack.service.algorithm.SchedulingSolver;
+import ase.meditrack.service.algorithm.ShiftTypeInfo;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloatPoolTest {
+    private static final int MAX_CONSECUTIVE_SHIFTS = 5;
+    private static final int POOL_MAX_HOURS = 12 * 12;
+
+    private final List<ShiftTypeInfo> shiftTypes =
+            List.of(new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12));
+    private final List<RoleInfo> roles =
+            List.of(new RoleInfo("Nurse", 0, 0, Integer.MAX_VALUE, MAX_CONSECUTIVE_SHIFTS));
+
+    private EmployeeInfo employee(int maxHours) {
+        return new EmployeeInfo(List.of(0), List.of(), 0, maxHours, 0, Set.of(), Set.of(), 0);
+    }
+
+    private Set<Integer> workingDays(AlgorithmOutput output, int employee) {
+        return output.assignmentOfEmployeesToShifts().getOrDefault(employee, List.of()).stream()
+                .map(ShiftTypeDayPair::day)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Team A has two employees, team B one. Nobody can cover a team alone because of the consecutive shifts, so the
+     * second employee of team A has to float to team B.
+     */
+    private FloatPoolInput createInput() {
+        EmployeeInfo floating = employee(POOL_MAX_HOURS);
+        AlgorithmInput teamA = new AlgorithmInput(28, List.of(employee(28 * 12), floating), shiftTypes, roles, 1, 0,
+                new TreeMap<>());
+        AlgorithmInput teamB = new AlgorithmInput(28, List.of(employee(28 * 12)), shiftTypes, roles, 1, 0,
+                new TreeMap<>());
+        EmployeeInfo guest = FloatPoolInput.guest(floating, teamA, teamB).orElseThrow();
+        teamB = new AlgorithmInput(28, List.of(teamB.employees().get(0), guest), shiftTypes, roles, 1, 0,
+                new TreeMap<>());
+        PoolMember member = new PoolMember(List.of(1, 1), 0, POOL_MAX_HOURS, 0, Integer.MAX_VALUE,
+                MAX_CONSECUTIVE_SHIFTS);
+        return new FloatPoolInput(List.of(teamA, teamB), List.of(member));
+    }
+
+    @Test
+    void testPoolMemberCoversBothTeamsWithoutDoubleBooking() {
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(10).build();
+        List<AlgorithmOutput> outputs =
+                SchedulingSolver.solvePool(createInput(), options, SolverProgressListener.NONE).orElseThrow();
+        assertEquals(2, outputs.size());
+
+        for (AlgorithmOutput output : outputs) {
+            for (int d = 0; d < 28; d++) {
+                assertTrue(workingDays(output, 0).contains(d) || workingDays(output, 1).contains(d),
+                        "day " + d + " is not covered");
+            }
+        }
+
+        Set<Integer> inTeamA = workingDays(outputs.get(0), 1);
+        Set<Integer> inTeamB = workingDays(outputs.get(1), 1);
+        assertFalse(inTeamB.isEmpty());
+        assertTrue(inTeamA.stream().noneMatch(inTeamB::contains), "pool member works twice on a day");
+
+        TreeSet<Integer> days = new TreeSet<>(inTeamA);
+        days.addAll(inTeamB);
+        assertTrue(days.size() * 12 <= POOL_MAX_HOURS);
+        int consecutive = 0;
+        for (int d = 0; d < 28; d++) {
+            consecutive = days.contains(d) ? consecutive + 1 : 0;
+            assertTrue(consecutive <= MAX_CONSECUTIVE_SHIFTS, "too many consecutive shifts over both teams");
+        }
+    }
+
+    @Test
+    void testGuestNeedsMatchingRoleAndShiftType() {
+        AlgorithmInput home = new AlgorithmInput(28, List.of(employee(100)), shiftTypes, roles, 1, 0,
+                new TreeMap<>());
+        AlgorithmInput otherRole = new AlgorithmInput(28, List.of(), shiftTypes,
+                List.of(new RoleInfo("Doctor", 0, 0, 40, 5)), 1, 0, new TreeMap<>());
+        AlgorithmInput otherShiftTypes = new AlgorithmInput(28, List.of(),
+                List.of(new ShiftTypeInfo(LocalTime.of(20, 0), LocalTime.of(8, 0), 12)), roles, 1, 0,
+                new TreeMap<>());
+
+        assertTrue(FloatPoolInput.guest(home.employees().get(0), home, home).isPresent());
+        assertTrue(FloatPoolInput.guest(home.employees().get(0), home, otherRole).isEmpty());
+        assertTrue(FloatPoolInput.guest(home.employees().get(0), home, otherShiftTypes).isEmpty());
+    }
+}
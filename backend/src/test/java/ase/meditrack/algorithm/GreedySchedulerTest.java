@@ -0,0 +1,84 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.EmployeeInfo;
+import ase.meditrack.service.algorithm.GreedyScheduler;
+import ase.meditrack.service.algorithm.RoleInfo;
+import ase.meditrack.service.algorithm.Scheduler;
+import ase.meditrack.service.algorithm.ShiftTypeInfo;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GreedySchedulerTest {
+    private static final List<ShiftTypeInfo> SHIFT_TYPES = List.of(
+            new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12),
+            new ShiftTypeInfo(LocalTime.of(20, 0), LocalTime.of(8, 0), 12),
+            new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(16, 0), 8)
+    );
+
+    private AlgorithmInput createInput(int numberOfEmployees, int daytimeRequiredPeople, int nighttimeRequiredPeople) {
+        List<RoleInfo> roles = List.of(
+                new RoleInfo("Doctor", 1, 1, 84, 5),
+                new RoleInfo("Nurse", 0, 0, 48, 4)
+        );
+        List<EmployeeInfo> employees = new ArrayList<>();
+        for (int n = 0; n < numberOfEmployees; n++) {
+            int role = n % 2 == 0 ? 0 : 1;
+            List<Integer> worksShiftTypes = n % 4 == 3 ? List.of(0, 2) : List.of(0, 1, 2);
+            employees.add(new EmployeeInfo(worksShiftTypes, List.of(n % 3), 60, 200, 150, Set.of(n % 28),
+                    Set.of((n + 7) % 28), role));
+        }
+        // the first employee worked the night shift on the last two days of the previous month
+        TreeMap<Integer, TreeMap<Integer, Integer>> carryOver = new TreeMap<>();
+        carryOver.put(30, new TreeMap<>(Map.of(0, 1)));
+        carryOver.put(31, new TreeMap<>(Map.of(0, 1)));
+        return new AlgorithmInput(30, employees, SHIFT_TYPES, roles, daytimeRequiredPeople, nighttimeRequiredPeople,
+                carryOver);
+    }
+
+    @Test
+    void testCreatesPlanThatSatisfiesHardConstraints() {
+        AlgorithmInput input = createInput(12, 3, 1);
+
+        AlgorithmOutput output = Scheduler.GREEDY.solve(input, SolverOptions.defaults(), SolverProgressListener.NONE)
+                .orElseThrow();
+
+        assertEquals(GreedyScheduler.STATUS, output.statistics().status());
+        // the heuristic has neither an objective of the solver nor a bound
+        assertNull(output.statistics().objective());
+        assertNull(output.statistics().gap());
+        assertFalse(output.isOptimal());
+        assertTrue(TestInputs.isAcceptedBySolver(input, output, 5));
+    }
+
+    @Test
+    void testCreatesPlanForLargeTeam() {
+        AlgorithmInput input = createInput(150, 20, 8);
+
+        AlgorithmOutput output = Scheduler.GREEDY.solve(input, SolverOptions.defaults(), SolverProgressListener.NONE)
+                .orElseThrow();
+
+        assertTrue(TestInputs.isAcceptedBySolver(input, output, 5));
+    }
+
+    @Test
+    void testFindsNoPlanIfNotEnoughEmployees() {
+        AlgorithmInput input = createInput(3, 5, 0);
+
+        assertTrue(Scheduler.GREEDY.solve(input, SolverOptions.defaults(), SolverProgressListener.NONE).isEmpty());
+    }
+}
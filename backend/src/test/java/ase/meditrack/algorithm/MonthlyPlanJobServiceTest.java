@@ -0,0 +1,193 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.exception.NoSolutionException;
+import ase.meditrack.exception.ResourceConflictException;
+import ase.meditrack.model.dto.RuleConflictDto;
+import ase.meditrack.model.entity.MonthlyPlan;
+import ase.meditrack.model.entity.Team;
+import ase.meditrack.model.mapper.MonthlyPlanJobMapper;
+import ase.meditrack.service.UserService;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.AlgorithmOutput.ShiftTypeDayPair;
+import ase.meditrack.service.algorithm.IncumbentListener;
+import ase.meditrack.service.algorithm.MonthlyPlanCreator;
+import ase.meditrack.service.algorithm.MonthlyPlanJob;
+import ase.meditrack.service.algorithm.MonthlyPlanJobService;
+import ase.meditrack.service.algorithm.MonthlyPlanJobStatus;
+import ase.meditrack.service.algorithm.PlanningContext;
+import ase.meditrack.service.algorithm.ScheduleRule;
+import ase.meditrack.service.algorithm.SolverProgress;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+import ase.meditrack.service.algorithm.SolverStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.security.Principal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MonthlyPlanJobServiceTest {
+    private MonthlyPlanCreator creator;
+    private ThreadPoolTaskExecutor executor;
+    private MonthlyPlanJobService jobService;
+    private PlanningContext context;
+    private final Principal principal = () -> UUID.randomUUID().toString();
+
+    @BeforeEach
+    void setUp() {
+        creator = mock(MonthlyPlanCreator.class);
+        executor = mock(ThreadPoolTaskExecutor.class);
+        // the first draft is stored right away, the periodic updates of the draft never run
+        ScheduledExecutorService draftWriter = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(draftWriter).execute(any());
+        jobService = new MonthlyPlanJobService(creator, executor, draftWriter, mock(UserService.class),
+                new MonthlyPlanJobMapper() { }, new SolverProperties());
+
+        Team team = new Team();
+        team.setId(UUID.randomUUID());
+        context = new PlanningContext(5, 2024, team, List.of(), List.of(), null, null, Map.of());
+        when(creator.prepareMonthlyPlan(5, 2024, principal)).thenReturn(context);
+    }
+
+    @Test
+    void testSubmitRunsSolverAndStoresPlan() {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any());
+        AlgorithmOutput output = new AlgorithmOutput(new HashMap<>(), true);
+        when(creator.solve(eq(context), any())).thenAnswer(invocation -> {
+            SolverProgressListener listener = invocation.getArgument(1);
+            listener.onProgress(new SolverProgress(1, 10, 5, 0.5));
+            return output;
+        });
+        MonthlyPlan plan = new MonthlyPlan();
+        plan.setId(UUID.randomUUID());
+        when(creator.saveMonthlyPlan(context, output)).thenReturn(plan);
+
+        MonthlyPlanJob job = jobService.submit(5, 2024, principal);
+
+        assertEquals(MonthlyPlanJobStatus.COMPLETED, job.getStatus());
+        assertEquals(plan.getId(), job.getMonthlyPlanId());
+        assertNotNull(job.getProgress());
+        assertEquals(10, job.getProgress().objective());
+        assertEquals(job, jobService.findById(job.getId()));
+    }
+
+    @Test
+    void testSubmitWithoutSolutionFailsJob() {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any());
+        List<RuleConflictDto> conflicts = List.of(
+                new RuleConflictDto(ScheduleRule.STAFFING, null, "Doctor", LocalDate.of(2024, 5, 3)));
+        when(creator.solve(eq(context), any())).thenThrow(new NoSolutionException("no solution", conflicts));
+
+        MonthlyPlanJob job = jobService.submit(5, 2024, principal);
+
+        assertEquals(MonthlyPlanJobStatus.FAILED, job.getStatus());
+        assertEquals("no solution", job.getError());
+        assertEquals(conflicts, job.getConflicts());
+    }
+
+    @Test
+    void testSubmitAnytimeStoresFirstSolutionAndUpgradesDraft() {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any());
+        AlgorithmOutput first = createOutput(0, 10);
+        AlgorithmOutput better = createOutput(1, 5);
+        AlgorithmOutput best = createOutput(2, 3);
+        when(creator.solve(eq(context), any())).thenAnswer(invocation -> {
+            IncumbentListener listener = invocation.getArgument(1);
+            listener.onIncumbent(first);
+            listener.onIncumbent(better);
+            return best;
+        });
+        MonthlyPlan plan = new MonthlyPlan();
+        plan.setId(UUID.randomUUID());
+        when(creator.saveMonthlyPlan(context, first)).thenReturn(plan);
+
+        MonthlyPlanJob job = jobService.submitAnytime(5, 2024, principal);
+
+        assertEquals(MonthlyPlanJobStatus.COMPLETED, job.getStatus());
+        assertEquals(plan.getId(), job.getMonthlyPlanId());
+        // the second solution arrives before the next update of the draft, so only the final output is written
+        verify(creator, never()).updateMonthlyPlan(plan.getId(), context, better);
+        verify(creator).updateMonthlyPlan(plan.getId(), context, best);
+    }
+
+    @Test
+    void testSubmitAnytimeKeepsDraftIfSolverFails() {
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(any());
+        AlgorithmOutput first = createOutput(0, 10);
+        AlgorithmOutput better = createOutput(1, 5);
+        when(creator.solve(eq(context), any())).thenAnswer(invocation -> {
+            IncumbentListener listener = invocation.getArgument(1);
+            listener.onIncumbent(first);
+            listener.onIncumbent(better);
+            throw new IllegalStateException("solver crashed");
+        });
+        MonthlyPlan plan = new MonthlyPlan();
+        plan.setId(UUID.randomUUID());
+        when(creator.saveMonthlyPlan(context, first)).thenReturn(plan);
+
+        MonthlyPlanJob job = jobService.submitAnytime(5, 2024, principal);
+
+        assertEquals(MonthlyPlanJobStatus.COMPLETED, job.getStatus());
+        assertEquals(plan.getId(), job.getMonthlyPlanId());
+        verify(creator).updateMonthlyPlan(plan.getId(), context, better);
+    }
+
+    @Test
+    void testSubmitOfMonthThatIsBeingGeneratedReturnsRunningJob() {
+        MonthlyPlanJob job = jobService.submit(5, 2024, principal);
+
+        assertSame(job, jobService.submit(5, 2024, principal));
+        assertSame(job, jobService.submitAnytime(5, 2024, principal));
+        verify(executor, times(1)).execute(any());
+    }
+
+    @Test
+    void testSubmitWithFullQueueIsRejected() {
+        doThrow(new TaskRejectedException("full")).when(executor).execute(any());
+
+        assertThrows(ResourceConflictException.class, () -> jobService.submit(5, 2024, principal));
+    }
+
+    private AlgorithmOutput createOutput(int day, double objective) {
+        HashMap<Integer, List<ShiftTypeDayPair>> assignment = new HashMap<>();
+        assignment.put(0, List.of(new ShiftTypeDayPair(0, day)));
+        return new AlgorithmOutput(assignment, false,
+                new SolverStatistics("FEASIBLE", 1, 0.1, 0.5, objective, 1.0, false, null, null));
+    }
+}
@@ -0,0 +1,159 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.AlgorithmOutput.ShiftTypeDayPair;
+import ase.meditrack.service.algorithm.EmployeeInfo;
+import ase.meditrack.service.algorithm.ModelStatistics;
+import ase.meditrack.service.algorithm.RepairScope;
+import ase.meditrack.service.algorithm.SchedulingSolver;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+import ase.meditrack.service.algorithm.StabilityTarget;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RepairTest {
+
+    private AlgorithmInput createInput() {
+        EmployeeInfo employee = TestInputs.employee(List.of(0), List.of(), Set.of());
+        return TestInputs.createInput(List.of(employee, employee, employee), List.of(TestInputs.DAY_SHIFT), 1);
+    }
+
+    private Set<Integer> workingDays(AlgorithmOutput output, int employee) {
+        return output.assignmentOfEmployeesToShifts().getOrDefault(employee, List.of()).stream()
+                .map(ShiftTypeDayPair::day)
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void testReplacesSickEmployeeAndKeepsPlanOutsideOfNeighbourhood() {
+        AlgorithmInput input = createInput();
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+        AlgorithmOutput plan = SchedulingSolver.solve(input, options, SolverProgressListener.NONE).orElseThrow();
+        int sickEmployee = IntStream.range(0, 3).filter(n -> workingDays(plan, n).contains(10)).findFirst()
+                .orElseThrow();
+
+        Set<Integer> days = Set.of(8, 9, 10, 11, 12);
+        RepairScope scope = new RepairScope(plan.assignmentOfEmployeesToShifts(), Set.of(0, 1, 2), days, Map.of(),
+                Map.of(sickEmployee, Set.of(10)));
+        AlgorithmOutput repaired = SchedulingSolver.solve(input,
+                options.toBuilder().maxTimeInSeconds(1).hint(plan.assignmentOfEmployeesToShifts()).repair(scope)
+                        .build(),
+                SolverProgressListener.NONE).orElseThrow();
+
+        assertFalse(workingDays(repaired, sickEmployee).contains(10));
+        assertTrue(IntStream.range(0, 3).anyMatch(n -> workingDays(repaired, n).contains(10)));
+        for (int n = 0; n < 3; n++) {
+            Set<Integer> before = workingDays(plan, n);
+            Set<Integer> after = workingDays(repaired, n);
+            before.removeAll(days);
+            after.removeAll(days);
+            assertEquals(before, after);
+        }
+    }
+
+    @Test
+    void testKeepsLockedShifts() {
+        AlgorithmInput input = createInput();
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+        AlgorithmOutput plan = SchedulingSolver.solve(input, options, SolverProgressListener.NONE).orElseThrow();
+        int employee = IntStream.range(0, 3).filter(n -> !workingDays(plan, n).contains(14)).findFirst()
+                .orElseThrow();
+
+        RepairScope scope = new RepairScope(plan.assignmentOfEmployeesToShifts(), Set.of(0, 1, 2),
+                Set.of(12, 13, 14, 15, 16), Map.of(employee, List.of(new ShiftTypeDayPair(0, 14))), Map.of());
+        AlgorithmOutput repaired = SchedulingSolver.solve(input, options.toBuilder().repair(scope).build(),
+                SolverProgressListener.NONE).orElseThrow();
+
+        assertTrue(workingDays(repaired, employee).contains(14));
+    }
+
+    @Test
+    void testRegenerationChangesFewDaysOfTheExistingPlan() {
+        AlgorithmInput input = createInput();
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+        AlgorithmOutput plan = SchedulingSolver.solve(input, options, SolverProgressListener.NONE).orElseThrow();
+        int sickEmployee = IntStream.range(0, 3).filter(n -> workingDays(plan, n).contains(10)).findFirst()
+                .orElseThrow();
+
+        Set<Integer> allDays = IntStream.range(0, 28).boxed().collect(Collectors.toSet());
+        RepairScope scope = new RepairScope(plan.assignmentOfEmployeesToShifts(), Set.of(0, 1, 2), allDays,
+                Map.of(), Map.of(sickEmployee, Set.of(10)));
+        AlgorithmOutput regenerated = SchedulingSolver.solve(input, options.toBuilder()
+                        .hint(plan.assignmentOfEmployeesToShifts())
+                        .repair(scope)
+                        .stability(new StabilityTarget(plan.assignmentOfEmployeesToShifts(), 20))
+                        .build(),
+                SolverProgressListener.NONE).orElseThrow();
+
+        assertFalse(workingDays(regenerated, sickEmployee).contains(10));
+        assertTrue(IntStream.range(0, 3).anyMatch(n -> workingDays(regenerated, n).contains(10)));
+        int changedDays = 0;
+        for (int n = 0; n < 3; n++) {
+            Set<Integer> before = workingDays(plan, n);
+            Set<Integer> after = workingDays(regenerated, n);
+            for (int d = 0; d < 28; d++) {
+                if (before.contains(d) != after.contains(d)) changedDays++;
+            }
+        }
+        // the sick day and a few days around it, not a reshuffled month
+        assertTrue(changedDays <= 8, "changed days: " + changedDays);
+    }
+
+    @Test
+    void testShiftThatCanNotBeKeptLeavesTheDayToTheSolver() {
+        // only the first employee can cover day 5
+        List<EmployeeInfo> employees = List.of(
+                TestInputs.employee(List.of(0), List.of(), Set.of()),
+                TestInputs.employee(List.of(0, 1), List.of(), Set.of(5)),
+                TestInputs.employee(List.of(0, 1), List.of(), Set.of(5)));
+        AlgorithmInput input = TestInputs.createInput(employees, List.of(TestInputs.DAY_SHIFT, TestInputs.NIGHT_SHIFT),
+                1);
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+        AlgorithmOutput plan = SchedulingSolver.solve(input, options, SolverProgressListener.NONE).orElseThrow();
+
+        // the existing plan has the first employee on a night shift, which they no longer work
+        Map<Integer, List<ShiftTypeDayPair>> current = new HashMap<>(plan.assignmentOfEmployeesToShifts());
+        List<ShiftTypeDayPair> shifts = new ArrayList<>(current.get(0));
+        shifts.removeIf(pair -> pair.day() == 5);
+        shifts.add(new ShiftTypeDayPair(1, 5));
+        current.put(0, shifts);
+        RepairScope scope = new RepairScope(current, Set.of(), Set.of(), Map.of(), Map.of());
+        AlgorithmOutput repaired = SchedulingSolver.solve(input, options.toBuilder().repair(scope).build(),
+                SolverProgressListener.NONE).orElseThrow();
+
+        assertTrue(repaired.assignmentOfEmployeesToShifts().get(0).contains(new ShiftTypeDayPair(0, 5)));
+    }
+
+    @Test
+    void testModelOnlyHasVariablesForTheNeighbourhoodAndKeptShifts() {
+        AlgorithmInput input = createInput();
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+        AlgorithmOutput plan = SchedulingSolver.solve(input, options, SolverProgressListener.NONE).orElseThrow();
+
+        Set<Integer> days = Set.of(8, 9, 10, 11, 12);
+        RepairScope scope = new RepairScope(plan.assignmentOfEmployeesToShifts(), Set.of(0), days, Map.of(),
+                Map.of());
+        ModelStatistics model = SchedulingSolver.buildModel(input, options.toBuilder().repair(scope).build());
+
+        // one variable per free day of the employee and one per kept shift, the free days of the others get none
+        long keptShifts = plan.assignmentOfEmployeesToShifts().entrySet().stream()
+                .mapToLong(entry -> entry.getValue().stream()
+                        .filter(shift -> entry.getKey() != 0 || !days.contains(shift.day()))
+                        .count())
+                .sum();
+        assertEquals(days.size() + keptShifts, (long) model.variablesPerRule().get("shift_variables"));
+    }
+}
@@ -0,0 +1,90 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.EmployeeInfo;
+import ase.meditrack.service.algorithm.RoleDecomposition;
+import ase.meditrack.service.algorithm.RoleInfo;
+import ase.meditrack.service.algorithm.SchedulingSolver;
+import ase.meditrack.service.algorithm.ShiftTypeInfo;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoleDecompositionTest {
+
+    private AlgorithmInput createInput(int daytimeRequiredPeople) {
+        EmployeeInfo doctor = new EmployeeInfo(List.of(0), List.of(), 0, 28 * 12, 28 * 4, Set.of(), Set.of(), 0);
+        EmployeeInfo nurse = new EmployeeInfo(List.of(0), List.of(), 0, 28 * 12, 28 * 4, Set.of(), Set.of(), 1);
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12));
+        List<RoleInfo> roles = List.of(
+                new RoleInfo("Doctor", 1, 0, Integer.MAX_VALUE, 5),
+                new RoleInfo("Nurse", 1, 0, Integer.MAX_VALUE, 5)
+        );
+        TreeMap<Integer, TreeMap<Integer, Integer>> carryOver = new TreeMap<>();
+        carryOver.put(-1, new TreeMap<>());
+        carryOver.get(-1).put(1, 0);
+        carryOver.get(-1).put(2, 0);
+        return new AlgorithmInput(28, List.of(doctor, nurse, nurse, doctor, doctor, nurse), shiftTypeInfos, roles,
+                daytimeRequiredPeople, 0, carryOver);
+    }
+
+    @Test
+    void testSplitsByRoleAndRemapsCarryOver() {
+        List<RoleDecomposition.SubProblem> subProblems = RoleDecomposition.split(createInput(2));
+
+        assertEquals(2, subProblems.size());
+        assertArrayEquals(new int[]{0, 3, 4}, subProblems.get(0).employees());
+        assertArrayEquals(new int[]{1, 2, 5}, subProblems.get(1).employees());
+        assertEquals(0, subProblems.get(0).input().daytimeRequiredPeople());
+        assertEquals(1, subProblems.get(0).input().roles().get(0).daytimeRequiredPeople());
+        assertEquals(0, subProblems.get(0).input().roles().get(1).daytimeRequiredPeople());
+        // the previous day is kept for both roles, but only contains the employees of the role
+        assertTrue(subProblems.get(0).input().dayToEmployeeToShiftTypeMapping().get(-1).isEmpty());
+        assertEquals(Set.of(0, 1), subProblems.get(1).input().dayToEmployeeToShiftTypeMapping().get(-1).keySet());
+    }
+
+    @Test
+    void testTeamCoverageIsImpliedIfRolesNeedEnoughPeople() {
+        assertTrue(RoleDecomposition.isTeamCoverageImplied(createInput(2)));
+        assertFalse(RoleDecomposition.isTeamCoverageImplied(createInput(3)));
+    }
+
+    @Test
+    void testMergedSolutionOfRolesCoversTeam() {
+        AlgorithmInput input = createInput(2);
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+        List<RoleDecomposition.SubProblem> subProblems = RoleDecomposition.split(input);
+        List<AlgorithmOutput> outputs = new ArrayList<>();
+        for (RoleDecomposition.SubProblem subProblem : subProblems) {
+            outputs.add(SchedulingSolver.solve(subProblem.input(), options, SolverProgressListener.NONE)
+                    .orElseThrow());
+        }
+
+        AlgorithmOutput merged = RoleDecomposition.merge(subProblems, outputs);
+
+        for (int d = 0; d < input.numberOfDays(); d++) {
+            int day = d;
+            long doctors = merged.assignmentOfEmployeesToShifts().entrySet().stream()
+                    .filter(e -> input.employees().get(e.getKey()).role() == 0)
+                    .filter(e -> e.getValue().stream().anyMatch(pair -> pair.day() == day))
+                    .count();
+            long working = merged.assignmentOfEmployeesToShifts().values().stream()
+                    .filter(shifts -> shifts.stream().anyMatch(pair -> pair.day() == day))
+                    .count();
+            assertTrue(doctors >= 1);
+            assertTrue(working >= input.daytimeRequiredPeople());
+        }
+    }
+}
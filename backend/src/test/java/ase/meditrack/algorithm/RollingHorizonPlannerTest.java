@@ -0,0 +1,120 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.exception.NoSolutionException;
+import ase.meditrack.model.entity.MonthlyPlan;
+import ase.meditrack.model.entity.Team;
+import ase.meditrack.repository.MonthlyPlanRepository;
+import ase.meditrack.repository.TeamRepository;
+import ase.meditrack.service.UserService;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.HorizonMonthReport;
+import ase.meditrack.service.algorithm.HorizonPlanReport;
+import ase.meditrack.service.algorithm.MonthlyPlanCreator;
+import ase.meditrack.service.algorithm.PlanningContext;
+import ase.meditrack.service.algorithm.RollingHorizonPlanner;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverService;
+import ase.meditrack.service.algorithm.TeamPlanStatus;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RollingHorizonPlannerTest {
+    private MonthlyPlanCreator creator;
+    private MonthlyPlanRepository monthlyPlanRepository;
+    private RollingHorizonPlanner planner;
+    private Team team;
+    private final Map<Integer, PlanningContext> contexts = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        creator = mock(MonthlyPlanCreator.class);
+        monthlyPlanRepository = mock(MonthlyPlanRepository.class);
+        TeamRepository teamRepository = mock(TeamRepository.class);
+        SolverService solverService = mock(SolverService.class);
+        SolverProperties properties = new SolverProperties();
+        properties.setHorizonMaxTimeInSeconds(30);
+        planner = new RollingHorizonPlanner(creator, monthlyPlanRepository, teamRepository, mock(UserService.class),
+                solverService, properties);
+
+        team = new Team();
+        team.setId(UUID.randomUUID());
+        when(teamRepository.findById(team.getId())).thenReturn(Optional.of(team));
+        when(solverService.defaultOptions()).thenReturn(SolverOptions.defaults());
+        for (int month = 1; month <= 12; month++) {
+            PlanningContext context = new PlanningContext(month, 2024, team, List.of(), List.of(), null, null,
+                    Map.of());
+            contexts.put(month, context);
+            when(creator.prepareMonthlyPlan(month, 2024, team.getId())).thenReturn(context);
+            when(creator.solve(eq(context), any(SolverOptions.class), any()))
+                    .thenReturn(new AlgorithmOutput(new HashMap<>(), true));
+            MonthlyPlan plan = new MonthlyPlan();
+            plan.setId(UUID.randomUUID());
+            when(creator.saveMonthlyPlan(eq(context), any())).thenReturn(plan);
+        }
+    }
+
+    @Test
+    void testPlansMonthsInOrderAndSharesTheTimeLimit() {
+        HorizonPlanReport report = planner.plan(1, 2024, 3, team.getId());
+
+        assertEquals(3, report.months().size());
+        assertTrue(report.months().stream().allMatch(month -> month.status() == TeamPlanStatus.CREATED));
+        // every month is stored before the next one is prepared, so it is carried over
+        InOrder inOrder = inOrder(creator);
+        for (int month = 1; month <= 3; month++) {
+            inOrder.verify(creator).prepareMonthlyPlan(month, 2024, team.getId());
+            inOrder.verify(creator).saveMonthlyPlan(eq(contexts.get(month)), any());
+        }
+        ArgumentCaptor<SolverOptions> options = ArgumentCaptor.forClass(SolverOptions.class);
+        verify(creator, times(3)).solve(any(), options.capture(), any());
+        assertEquals(10, options.getAllValues().get(0).maxTimeInSeconds(), 0.001);
+        // the first month did not need its time, so it goes to the remaining months
+        assertTrue(options.getAllValues().get(1).maxTimeInSeconds() > 14);
+    }
+
+    @Test
+    void testKeepsExistingMonthsAndStopsAfterFailure() {
+        MonthlyPlan existing = new MonthlyPlan();
+        existing.setId(UUID.randomUUID());
+        when(monthlyPlanRepository.findMonthlyPlanByTeamAndMonthAndYear(team, 1, 2024)).thenReturn(existing);
+        when(creator.solve(eq(contexts.get(3)), any(SolverOptions.class), any()))
+                .thenThrow(new NoSolutionException("no solution"));
+
+        List<HorizonMonthReport> months = planner.plan(1, 2024, 4, team.getId()).months();
+
+        assertEquals(TeamPlanStatus.SKIPPED, months.get(0).status());
+        assertEquals(existing.getId(), months.get(0).monthlyPlan());
+        assertEquals(TeamPlanStatus.CREATED, months.get(1).status());
+        assertEquals(TeamPlanStatus.NO_SOLUTION, months.get(2).status());
+        assertEquals(TeamPlanStatus.SKIPPED, months.get(3).status());
+        verify(creator, never()).prepareMonthlyPlan(1, 2024, team.getId());
+        verify(creator, never()).prepareMonthlyPlan(4, 2024, team.getId());
+    }
+
+    @Test
+    void testRejectsTooManyMonths() {
+        assertThrows(ValidationException.class, () -> planner.plan(1, 2024, 13, team.getId()));
+    }
+}
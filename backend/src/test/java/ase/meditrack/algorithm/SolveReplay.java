@@ -0,0 +1,107 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.SolveExporter;
+import com.google.ortools.Loader;
+import com.google.ortools.sat.CpModel;
+import com.google.ortools.sat.CpSolver;
+import com.google.ortools.sat.CpSolverSolutionCallback;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.SatParameters;
+import com.google.protobuf.TextFormat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Solves exported models again with other parameters of the solver, so search strategies can be tuned against real
+ * workloads. See {@link SolveExporter} for the format of a corpus.
+ *
+ * <p>Run it with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ase.meditrack.algorithm.SolveReplay -Dexec.args="<corpus> <parameters>"}, where the parameters
+ * are in the text format of the parameters of CP-SAT, e.g. {@code "max_time_in_seconds:10 num_workers:8"}.
+ */
+public final class SolveReplay {
+
+    private SolveReplay() {
+    }
+
+    /**
+     * @param status                     the final status of the solver
+     * @param timeToFirstSolutionSeconds wall time until the first solution; null if none was found
+     * @param wallTimeSeconds            total wall time of the solver
+     * @param objective                  objective of the best solution
+     * @param bestBound                  best proven bound of the objective
+     */
+    public record Result(
+            CpSolverStatus status,
+            Double timeToFirstSolutionSeconds,
+            double wallTimeSeconds,
+            double objective,
+            double bestBound
+    ) {
+    }
+
+    /**
+     * Solves an exported model.
+     *
+     * @param solve      the directory of the exported solve
+     * @param parameters the parameters of the solver
+     * @return the result of the solve
+     * @throws IOException if the model can not be read
+     */
+    public static Result replay(Path solve, SatParameters parameters) throws IOException {
+        Loader.loadNativeLibraries();
+        CpModel model = new CpModel();
+        model.getBuilder().mergeFrom(SolveExporter.readModel(solve));
+        CpSolver solver = new CpSolver();
+        solver.getParameters().mergeFrom(parameters);
+
+        FirstSolution firstSolution = new FirstSolution();
+        CpSolverStatus status = solver.solve(model, firstSolution);
+        return new Result(status, firstSolution.seconds, solver.wallTime(), solver.objectiveValue(),
+                solver.bestObjectiveBound());
+    }
+
+    /**
+     * Solves every exported model of a corpus and prints one line per solve.
+     *
+     * @param args the directory of the corpus, followed by the parameters of the solver in text format
+     * @throws IOException if the corpus can not be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: SolveReplay <corpus> [parameters]");
+            System.exit(1);
+        }
+        SatParameters.Builder parameters = SatParameters.newBuilder();
+        TextFormat.merge(String.join(" ", Arrays.copyOfRange(args, 1, args.length)), parameters);
+
+        List<Result> results = new ArrayList<>();
+        System.out.printf("%-48s %-10s %12s %10s %14s %14s%n", "solve", "status", "first [s]", "wall [s]",
+                "objective", "bound");
+        for (Path solve : SolveExporter.listSolves(Path.of(args[0]))) {
+            Result result = replay(solve, parameters.build());
+            results.add(result);
+            System.out.printf(Locale.ROOT, "%-48s %-10s %12s %10.2f %14.1f %14.1f%n", solve.getFileName(),
+                    result.status(), result.timeToFirstSolutionSeconds() == null ? "-"
+                            : String.format(Locale.ROOT, "%.2f", result.timeToFirstSolutionSeconds()),
+                    result.wallTimeSeconds(), result.objective(), result.bestBound());
+        }
+        System.out.printf(Locale.ROOT, "%d solves, %d feasible, %.2fs wall time in total%n", results.size(),
+                results.stream().filter(result -> result.timeToFirstSolutionSeconds() != null).count(),
+                results.stream().mapToDouble(Result::wallTimeSeconds).sum());
+    }
+
+    private static final class FirstSolution extends CpSolverSolutionCallback {
+        private Double seconds;
+
+        @Override
+        public void onSolutionCallback() {
+            if (seconds == null) seconds = wallTime();
+        }
+    }
+}
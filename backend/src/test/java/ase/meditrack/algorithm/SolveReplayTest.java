@@ -0,0 +1,55 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.SolveExporter;
+import ase.meditrack.service.algorithm.SolverOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.ortools.sat.CpSolverStatus;
+import com.google.ortools.sat.SatParameters;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolveReplayTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void testExportedSolveCanBeReplayed(@TempDir Path corpus) throws Exception {
+        SolverProperties properties = new SolverProperties();
+        properties.setExportDirectory(corpus.toString());
+        SolveExporter exporter = new SolveExporter(properties, objectMapper);
+        AlgorithmInput input = SyntheticTeam.generate(8, 2, 1, 0, true, 1).toAlgorithmInput();
+        SolverOptions options = SolverOptions.defaults().toBuilder().randomSeed(3).build();
+
+        exporter.export(input, options);
+
+        List<Path> solves = SolveExporter.listSolves(corpus);
+        assertEquals(1, solves.size());
+        SolveExporter.ExportedSolve exported = SolveExporter.readSolve(solves.get(0), objectMapper);
+        assertEquals(input.employees(), exported.input().employees());
+        assertEquals(input.dayToEmployeeToShiftTypeMapping(), exported.input().dayToEmployeeToShiftTypeMapping());
+        assertEquals(options, exported.options());
+        // the names of the roles are not exported
+        assertNotEquals(input.roles().get(0).name(), exported.input().roles().get(0).name());
+
+        SolveReplay.Result result = SolveReplay.replay(solves.get(0),
+                SatParameters.newBuilder().setMaxTimeInSeconds(10).setNumWorkers(2).build());
+        assertTrue(result.status() == CpSolverStatus.OPTIMAL || result.status() == CpSolverStatus.FEASIBLE);
+    }
+
+    @Test
+    void testNothingIsExportedIfDisabled(@TempDir Path corpus) throws Exception {
+        SolveExporter exporter = new SolveExporter(new SolverProperties(), objectMapper);
+
+        exporter.export(SyntheticTeam.generate(8, 2, 1, 0, true, 1).toAlgorithmInput(), SolverOptions.defaults());
+
+        assertTrue(SolveExporter.listSolves(corpus).isEmpty());
+    }
+}
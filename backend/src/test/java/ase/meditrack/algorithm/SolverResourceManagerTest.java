@@ -0,0 +1,67 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.service.algorithm.SolverResourceManager;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SolverResourceManagerTest {
+
+    private SolverResourceManager createManager(int totalWorkers, int poolSize, int maxWorkersPerSolve) {
+        SolverProperties properties = new SolverProperties();
+        properties.setTotalWorkers(totalWorkers);
+        properties.setPoolSize(poolSize);
+        properties.setMaxWorkersPerSolve(maxWorkersPerSolve);
+        return new SolverResourceManager(properties);
+    }
+
+    @Test
+    void testSplitsCoresBetweenConcurrentSolves() {
+        SolverResourceManager manager = createManager(8, 2, 8);
+        try (var first = manager.acquire(); var second = manager.acquire()) {
+            assertEquals(4, first.workers());
+            assertEquals(4, second.workers());
+            assertEquals(2, manager.getActiveSolves());
+        }
+        assertEquals(0, manager.getActiveSolves());
+    }
+
+    @Test
+    void testAdditionalSolvesGetAtLeastOneWorker() {
+        SolverResourceManager manager = createManager(4, 2, 8);
+        try (var first = manager.acquire(); var second = manager.acquire(); var third = manager.acquire()) {
+            assertEquals(2, first.workers());
+            assertEquals(2, second.workers());
+            assertEquals(1, third.workers());
+        }
+    }
+
+    @Test
+    void testRespectsMaxWorkersPerSolve() {
+        SolverResourceManager manager = createManager(32, 1, 8);
+        try (var lease = manager.acquire()) {
+            assertEquals(8, lease.workers());
+        }
+    }
+
+    @Test
+    void testRespectsWorkerLimitOfSolve() {
+        SolverResourceManager manager = createManager(8, 1, 8);
+        try (var limited = manager.acquire(2)) {
+            assertEquals(2, limited.workers());
+        }
+        try (var unlimited = manager.acquire(0)) {
+            assertEquals(8, unlimited.workers());
+        }
+    }
+
+    @Test
+    void testReleasedWorkersCanBeReused() {
+        SolverResourceManager manager = createManager(4, 1, 8);
+        manager.acquire().close();
+        try (var lease = manager.acquire()) {
+            assertEquals(4, lease.workers());
+        }
+    }
+}
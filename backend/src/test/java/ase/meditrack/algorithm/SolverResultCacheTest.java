@@ -0,0 +1,112 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.model.entity.SolverResult;
+import ase.meditrack.repository.SolverResultRepository;
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmInputFingerprint;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.AlgorithmOutput.ShiftTypeDayPair;
+import ase.meditrack.service.algorithm.EmployeeInfo;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverResultCache;
+import ase.meditrack.service.algorithm.SolverStatistics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SolverResultCacheTest {
+
+    private AlgorithmInput createInput(Set<Integer> holidays, int daytimeRequiredPeople) {
+        EmployeeInfo employee = TestInputs.employee(List.of(1, 0), List.of(), holidays);
+        return TestInputs.createInput(List.of(employee, employee),
+                List.of(TestInputs.DAY_SHIFT, TestInputs.NIGHT_SHIFT), daytimeRequiredPeople);
+    }
+
+    private AlgorithmOutput createOutput() {
+        HashMap<Integer, List<ShiftTypeDayPair>> assignment = new HashMap<>();
+        assignment.put(0, List.of(new ShiftTypeDayPair(0, 1), new ShiftTypeDayPair(1, 2)));
+        return new AlgorithmOutput(assignment, true,
+                new SolverStatistics("OPTIMAL", 2, 0.1, 1.5, 10.0, 10.0, false, null, "standard"));
+    }
+
+    @Test
+    void testFingerprintIgnoresOrderOfSetsAndHint() {
+        Set<Integer> holidays = new LinkedHashSet<>(List.of(3, 1, 2));
+        Set<Integer> reorderedHolidays = new LinkedHashSet<>(List.of(2, 3, 1));
+        SolverOptions options = SolverOptions.defaults();
+        SolverOptions hinted = options.toBuilder().hint(Map.of(0, List.of(new ShiftTypeDayPair(0, 0)))).build();
+
+        assertEquals(AlgorithmInputFingerprint.of(createInput(holidays, 1), options),
+                AlgorithmInputFingerprint.of(createInput(reorderedHolidays, 1), hinted));
+        assertNotEquals(AlgorithmInputFingerprint.of(createInput(holidays, 1), options),
+                AlgorithmInputFingerprint.of(createInput(holidays, 2), options));
+        assertNotEquals(AlgorithmInputFingerprint.of(createInput(holidays, 1), options),
+                AlgorithmInputFingerprint.of(createInput(holidays, 1), options.toBuilder().randomSeed(2).build()));
+    }
+
+    @Test
+    void testReturnsCachedOutputAndEvictsLeastRecentlyUsed() {
+        SolverProperties properties = new SolverProperties();
+        properties.setResultCacheSize(2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SolverResultCache cache = new SolverResultCache(properties, null, new ObjectMapper(), meterRegistry);
+
+        assertTrue(cache.get("a").isEmpty());
+        cache.put("a", createOutput());
+        cache.put("b", createOutput());
+        AlgorithmOutput cached = cache.get("a").orElseThrow();
+        cache.put("c", createOutput());
+
+        assertTrue(cached.statistics().cached());
+        assertEquals(createOutput().assignmentOfEmployeesToShifts(), cached.assignmentOfEmployeesToShifts());
+        assertTrue(cache.get("a").isPresent());
+        assertFalse(cache.get("b").isPresent());
+        assertEquals(2, meterRegistry.get("meditrack.solver.cache").tag("result", "hit").counter().count());
+        assertEquals(2, meterRegistry.get("meditrack.solver.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testPersistentCacheIsTrimmedToItsSize() {
+        SolverProperties properties = new SolverProperties();
+        properties.setResultCacheSize(2);
+        properties.setPersistentResultCache(true);
+        SolverResultRepository repository = mock(SolverResultRepository.class);
+        SolverResultCache cache = new SolverResultCache(properties, repository, new ObjectMapper(),
+                new SimpleMeterRegistry());
+
+        cache.put("a", createOutput());
+        cache.put("b", createOutput());
+
+        verify(repository, times(2)).save(any(SolverResult.class));
+        // every put trims the table, even if it grew beyond the size before
+        verify(repository, times(2)).deleteAllButNewest(2);
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void testOutputCanBeStoredAsJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        AlgorithmOutput output = createOutput();
+
+        AlgorithmOutput read = objectMapper.readValue(objectMapper.writeValueAsString(output), AlgorithmOutput.class);
+
+        assertEquals(output, read);
+    }
+}
@@ -0,0 +1,65 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.service.algorithm.SolveExporter;
+import ase.meditrack.service.algorithm.SolverMetrics;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverResourceManager;
+import ase.meditrack.service.algorithm.SolverResultCache;
+import ase.meditrack.service.algorithm.SolverService;
+import ase.meditrack.service.algorithm.SolverWorkerPool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverServiceTest {
+
+    private SolverService createService(SolverProperties properties) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper();
+        return new SolverService(new SolverResourceManager(properties),
+                new SolverResultCache(properties, null, objectMapper, meterRegistry), properties,
+                new SolverMetrics(meterRegistry), new SolveExporter(properties, objectMapper),
+                new SolverWorkerPool(properties, meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void testOptionsAreTakenFromTheSelectedProfile() {
+        SolverProperties properties = new SolverProperties();
+        properties.getProfiles().put("overnight",
+                new SolverProperties.SolveProfile(600, 4, 0.01, true, false, false, 0));
+        SolverService service = createService(properties);
+
+        SolverOptions options = service.options("overnight");
+
+        assertEquals(600, options.maxTimeInSeconds());
+        assertEquals(4, options.numWorkers());
+        assertEquals(0.01, options.relativeGapLimit());
+        assertTrue(options.lnsOnly());
+        assertEquals("overnight", options.profile());
+        assertFalse(service.profile("overnight").isWarmStart());
+    }
+
+    @Test
+    void testDefaultProfileIsUsedIfNoneIsSelected() {
+        SolverProperties properties = new SolverProperties();
+        properties.setDefaultProfile("preview");
+        SolverService service = createService(properties);
+
+        assertEquals("preview", service.defaultOptions().profile());
+        assertEquals(5, service.options(" ").maxTimeInSeconds());
+    }
+
+    @Test
+    void testUnknownProfileIsRejected() {
+        SolverService service = createService(new SolverProperties());
+
+        assertThrows(ValidationException.class, () -> service.options("fastest"));
+    }
+}
@@ -2,18 +2,35 @@ package ase.meditrack.algorithm;
 
 
 import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.AlgorithmOutput.ShiftTypeDayPair;
+import ase.meditrack.service.algorithm.Diagnosis;
 import ase.meditrack.service.algorithm.EmployeeInfo;
+import ase.meditrack.service.algorithm.IncumbentListener;
+import ase.meditrack.service.algorithm.ModelStatistics;
 import ase.meditrack.service.algorithm.RoleInfo;
+import ase.meditrack.service.algorithm.RuleConflict;
+import ase.meditrack.service.algorithm.ScheduleRule;
 import ase.meditrack.service.algorithm.SchedulingSolver;
 import ase.meditrack.service.algorithm.ShiftTypeInfo;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgress;
+import ase.meditrack.service.algorithm.SolverProgressListener;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SolverTest {
@@ -157,4 +174,284 @@ class SolverTest {
         assertTrue(SchedulingSolver.solve(input).isPresent());
     }
 
+    @Test
+    void testNoShiftsOnHolidaysOrUnworkableShiftTypes() {
+        List<EmployeeInfo> employeeInfos = List.of(
+                new EmployeeInfo(List.of(0), List.of(), 0, 28 * 8, 14 * 8, Set.of(3, 4, 5, 6), Set.of(30), 0),
+                new EmployeeInfo(List.of(0, 1), List.of(), 0, 28 * 8, 14 * 8, Set.of(), Set.of(), 0)
+        );
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(
+                new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(16, 0), 8),
+                new ShiftTypeInfo(LocalTime.of(16, 0), LocalTime.of(0, 0), 8)
+        );
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 28));
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 0, 0, new TreeMap<>());
+        var options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+        var output = SchedulingSolver.solve(input, options, SolverProgressListener.NONE);
+        assertTrue(output.isPresent());
+        assertTrue(output.get().assignmentOfEmployeesToShifts().getOrDefault(0, List.of()).stream()
+                .noneMatch(pair -> pair.shiftType() == 1 || (pair.day() >= 3 && pair.day() <= 6)));
+    }
+
+    @Test
+    void testCarryOverOfConsecutiveShifts() {
+        // employee has to work every day
+        List<EmployeeInfo> employeeInfos =
+                List.of(new EmployeeInfo(List.of(0), List.of(), 28 * 12, 28 * 12, 28 * 12, Set.of(), Set.of(), 0));
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12));
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 28));
+
+        TreeMap<Integer, TreeMap<Integer, Integer>> prevMonth = new TreeMap<>();
+        prevMonth.put(31, new TreeMap<>(Map.of(0, 0)));
+        // worked on the last day of the previous month -> 29 shifts in a row -> no solution
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 0, 0, prevMonth);
+        assertTrue(SchedulingSolver.solve(input).isEmpty());
+
+        // free on the last day of the previous month -> solution
+        prevMonth = new TreeMap<>();
+        prevMonth.put(30, new TreeMap<>(Map.of(0, 0)));
+        prevMonth.put(31, new TreeMap<>());
+        input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 0, 0, prevMonth);
+        assertTrue(SchedulingSolver.solve(input).isPresent());
+    }
+
+    @Test
+    void testCarryOverOfNightShift() {
+        List<EmployeeInfo> employeeInfos =
+                List.of(new EmployeeInfo(List.of(0), List.of(), 28 * 12, 28 * 12, 28 * 12, Set.of(), Set.of(), 0));
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(
+                new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12),
+                new ShiftTypeInfo(LocalTime.of(20, 0), LocalTime.of(8, 0), 12)
+        );
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 28));
+
+        // night shift on the last day of the previous month -> no day shift on the first day -> no solution
+        TreeMap<Integer, TreeMap<Integer, Integer>> prevMonth = new TreeMap<>();
+        prevMonth.put(31, new TreeMap<>(Map.of(0, 1)));
+        prevMonth.put(30, new TreeMap<>());
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 0, 0, prevMonth);
+        assertTrue(SchedulingSolver.solve(input).isEmpty());
+    }
+
+    @Test
+    void testRequiredPeopleWithShiftsOverMidnight() {
+        // 8:00-8:30 is only covered by the night shift of the previous day
+        EmployeeInfo employee = new EmployeeInfo(List.of(0, 1), List.of(), 0, 28 * 12, 14 * 12, Set.of(), Set.of(), 0);
+        List<EmployeeInfo> employeeInfos = List.of(employee, employee, employee);
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(
+                new ShiftTypeInfo(LocalTime.of(8, 30), LocalTime.of(19, 30), 11),
+                new ShiftTypeInfo(LocalTime.of(20, 0), LocalTime.of(8, 0), 12)
+        );
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 28));
+        var options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+
+        // nobody is present on the first day at 8:00 -> no solution
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 1, 0, new TreeMap<>());
+        assertTrue(SchedulingSolver.solve(input, options, SolverProgressListener.NONE).isEmpty());
+
+        // night shift of the previous month covers the first day -> solution
+        TreeMap<Integer, TreeMap<Integer, Integer>> prevMonth = new TreeMap<>();
+        prevMonth.put(31, new TreeMap<>(Map.of(2, 1)));
+        input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 1, 0, prevMonth);
+        assertTrue(SchedulingSolver.solve(input, options, SolverProgressListener.NONE).isPresent());
+    }
+
+    @Test
+    void testIncumbentsAreReported() {
+        List<EmployeeInfo> employeeInfos = new ArrayList<>();
+        for (int n = 0; n < 4; n++) {
+            employeeInfos.add(new EmployeeInfo(List.of(0, 1), List.of(n % 2), 28 * 4, 28 * 8, 28 * 6, Set.of(),
+                    Set.of(), 0));
+        }
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(
+                new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(16, 0), 8),
+                new ShiftTypeInfo(LocalTime.of(16, 0), LocalTime.of(0, 0), 8)
+        );
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 5));
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 1, 0, new TreeMap<>());
+        List<AlgorithmOutput> incumbents = new ArrayList<>();
+        IncumbentListener listener = new IncumbentListener() {
+            @Override
+            public void onProgress(SolverProgress progress) {
+            }
+
+            @Override
+            public void onIncumbent(AlgorithmOutput incumbent) {
+                incumbents.add(incumbent);
+            }
+        };
+
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(2).build();
+
+        AlgorithmOutput output = SchedulingSolver.solve(input, options, listener).orElseThrow();
+
+        assertFalse(incumbents.isEmpty());
+        AlgorithmOutput last = incumbents.get(incumbents.size() - 1);
+        assertFalse(last.isOptimal());
+        assertEquals(output.statistics().objective(), last.statistics().objective());
+    }
+
+    @Test
+    void testDiagnoseFindsSeededConflict() {
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(10).build();
+
+        Diagnosis diagnosis = SchedulingSolver.diagnose(createDiagnosisInput(200, 40), options);
+
+        // weeks with at most 5 shifts leave less than the 25 shifts of the minimum working time
+        List<RuleConflict> conflicts = diagnosis.conflicts();
+        assertTrue(conflicts.contains(new RuleConflict(ScheduleRule.MIN_MONTHLY_HOURS, 0, null, null)));
+        assertTrue(conflicts.stream().filter(conflict -> conflict.rule() == ScheduleRule.WEEKLY_HOURS).count() >= 2);
+        // without either of the conflicting rules a plan exists
+        assertTrue(SchedulingSolver.solve(createDiagnosisInput(0, 40)).isPresent());
+        assertTrue(SchedulingSolver.solve(createDiagnosisInput(200, 7 * 8)).isPresent());
+    }
+
+    @Test
+    void testDiagnoseFindsNoConflictIfFeasible() {
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(10).build();
+
+        Diagnosis diagnosis = SchedulingSolver.diagnose(createDiagnosisInput(100, 40), options);
+
+        assertTrue(diagnosis.conflicts().isEmpty());
+    }
+
+    private static AlgorithmInput createDiagnosisInput(int minWorkingHours, int maxWeeklyHours) {
+        List<EmployeeInfo> employeeInfos = List.of(new EmployeeInfo(List.of(0), List.of(), minWorkingHours, 220,
+                Math.max(minWorkingHours, 150), Set.of(), Set.of(), 0));
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(16, 0), 8));
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, maxWeeklyHours, 28));
+        return new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 0, 0, new TreeMap<>());
+    }
+
+    @Test
+    void testModelStatisticsAreReported() {
+        List<EmployeeInfo> employeeInfos = List.of(
+                new EmployeeInfo(List.of(0, 1), List.of(), 0, 28 * 12, 28 * 4, Set.of(), Set.of(), 0),
+                new EmployeeInfo(List.of(0, 1), List.of(), 0, 28 * 12, 28 * 4, Set.of(), Set.of(), 0));
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(
+                new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12),
+                new ShiftTypeInfo(LocalTime.of(20, 0), LocalTime.of(8, 0), 12)
+        );
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 5));
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 1, 0, new TreeMap<>());
+
+        SolverOptions options = SolverOptions.defaults().toBuilder().logSearch(true).build();
+
+        ModelStatistics model = SchedulingSolver.solve(input, options, SolverProgressListener.NONE).orElseThrow()
+                .statistics().model();
+
+        assertEquals(2 * 2 * 28, model.variablesPerRule().get("shift_variables"));
+        assertTrue(model.constraintsPerRule().get("staffing") > 0);
+        assertEquals(model.constraints(),
+                model.constraintsPerRule().values().stream().mapToInt(Integer::intValue).sum());
+        assertNotNull(model.presolveSeconds());
+        // without the search log the presolve time is not known
+        assertNull(SchedulingSolver.solve(input).orElseThrow().statistics().model().presolveSeconds());
+    }
+
+    @Test
+    void testLexicographicSolveOptimizesOffDaysFirst() {
+        List<EmployeeInfo> employeeInfos = List.of(
+                new EmployeeInfo(List.of(0), List.of(), 0, 28 * 12, 28 * 4, Set.of(), Set.of(0, 1, 2, 3, 4, 5, 6), 0),
+                new EmployeeInfo(List.of(0), List.of(), 0, 28 * 12, 28 * 4, Set.of(), Set.of(), 0),
+                new EmployeeInfo(List.of(0), List.of(), 0, 28 * 12, 28 * 4, Set.of(), Set.of(), 0));
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12));
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 5));
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 1, 0, new TreeMap<>());
+        SolverOptions options = SolverOptions.defaults().toBuilder()
+                .maxTimeInSeconds(10)
+                .lexicographic(true)
+                .objectiveTolerance(0.05)
+                .build();
+
+        AlgorithmOutput output = SchedulingSolver.solve(input, options, SolverProgressListener.NONE).orElseThrow();
+
+        // the off days can be kept free, so no later goal may trade them in
+        assertTrue(output.assignmentOfEmployeesToShifts().getOrDefault(0, List.of()).stream()
+                .allMatch(shift -> shift.day() > 6));
+        for (int d = 0; d < 28; d++) {
+            int day = d;
+            assertTrue(output.assignmentOfEmployeesToShifts().values().stream()
+                    .anyMatch(shifts -> shifts.stream().anyMatch(shift -> shift.day() == day)));
+        }
+    }
+
+    @Test
+    void testInterchangeableEmployeesAreOrdered() {
+        List<EmployeeInfo> employeeInfos = new ArrayList<>();
+        for (int n = 0; n < 6; n++) {
+            employeeInfos.add(new EmployeeInfo(List.of(0, 1), List.of(0), 100, 220, 150, Set.of(), Set.of(), 0));
+        }
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(
+                new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12),
+                new ShiftTypeInfo(LocalTime.of(20, 0), LocalTime.of(8, 0), 12)
+        );
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, 60, 5));
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 1, 1, new TreeMap<>());
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+
+        AlgorithmOutput output = SchedulingSolver.solve(input, options, SolverProgressListener.NONE).orElseThrow();
+
+        // per day the worked shift type, a day off is last; the shifts of every employee are ordered day by day
+        List<int[]> shiftTypePerDay = new ArrayList<>();
+        for (int n = 0; n < 6; n++) {
+            int[] days = new int[28];
+            Arrays.fill(days, Integer.MAX_VALUE);
+            for (AlgorithmOutput.ShiftTypeDayPair pair : output.assignmentOfEmployeesToShifts().getOrDefault(n,
+                    List.of())) {
+                days[pair.day()] = pair.shiftType();
+            }
+            shiftTypePerDay.add(days);
+        }
+        for (int n = 0; n + 1 < 6; n++) {
+            assertTrue(Arrays.compare(shiftTypePerDay.get(n), shiftTypePerDay.get(n + 1)) <= 0);
+        }
+        assertTrue(output.statistics().model().constraintsPerRule().get("symmetry") > 0);
+    }
+
+    @Test
+    void testRelativeGapLimitStopsTheSearch() {
+        List<EmployeeInfo> employeeInfos = new ArrayList<>();
+        for (int n = 0; n < 8; n++) {
+            employeeInfos.add(new EmployeeInfo(List.of(0, 1), List.of(n % 2), 100, 220, 150, Set.of(), Set.of(), 0));
+        }
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(
+                new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12),
+                new ShiftTypeInfo(LocalTime.of(20, 0), LocalTime.of(8, 0), 12)
+        );
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, 60, 5));
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 2, 1, new TreeMap<>());
+        SolverOptions options = SolverOptions.defaults().toBuilder()
+                .maxTimeInSeconds(30)
+                .relativeGapLimit(2)
+                .profile("preview")
+                .build();
+
+        AlgorithmOutput output = SchedulingSolver.solve(input, options, SolverProgressListener.NONE).orElseThrow();
+
+        assertTrue(output.statistics().gap() <= 2);
+        assertTrue(output.statistics().wallTimeSeconds() < 30);
+        assertEquals("preview", output.statistics().profile());
+    }
+
+    @Test
+    void testLastDayCountsTowardsTheWorkingHours() {
+        // the employee can only work on the last two days of every week
+        Set<Integer> holidays = new HashSet<>();
+        for (int d = 0; d < 28; d++) {
+            if (d % 7 < 5) holidays.add(d);
+        }
+        List<EmployeeInfo> employeeInfos =
+                List.of(new EmployeeInfo(List.of(0), List.of(), 0, 8 * 12, 8 * 12, holidays, Set.of(), 0));
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12));
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 5));
+        AlgorithmInput input = new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 0, 0, new TreeMap<>());
+
+        AlgorithmOutput output = SchedulingSolver.solve(input).orElseThrow();
+
+        // the optimal working time is only reached if the shift on the last day of the month counts
+        assertEquals(List.of(5, 6, 12, 13, 19, 20, 26, 27),
+                output.assignmentOfEmployeesToShifts().getOrDefault(0, List.of()).stream()
+                        .map(ShiftTypeDayPair::day).toList());
+    }
 }
@@ -0,0 +1,49 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.service.algorithm.SolverHealthIndicator;
+import ase.meditrack.service.algorithm.SolverWarmUp;
+import ase.meditrack.service.algorithm.SolverWorkerPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class SolverWarmUpTest {
+
+    private SolverWorkerPool createWorkerPool(SolverProperties properties) {
+        return new SolverWorkerPool(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testIsOutOfServiceUntilWarmedUp() {
+        SolverProperties properties = new SolverProperties();
+        properties.setWarmUpMaxTimeInSeconds(1);
+        SolverWorkerPool workerPool = createWorkerPool(properties);
+        SolverWarmUp warmUp = new SolverWarmUp(properties, workerPool);
+        SolverHealthIndicator indicator = new SolverHealthIndicator(warmUp, workerPool);
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        warmUp.run();
+
+        Health health = indicator.health();
+        assertEquals(SolverWarmUp.State.READY, warmUp.getState());
+        assertEquals(Status.UP, health.getStatus());
+        assertNotNull(health.getDetails().get("warmUpSolveStatus"));
+    }
+
+    @Test
+    void testIsUpIfWarmUpIsDisabled() {
+        SolverProperties properties = new SolverProperties();
+        properties.setWarmUp(false);
+        SolverWorkerPool workerPool = createWorkerPool(properties);
+        SolverWarmUp warmUp = new SolverWarmUp(properties, workerPool);
+        warmUp.run();
+
+        assertEquals(SolverWarmUp.State.DISABLED, warmUp.getState());
+        assertEquals(Status.UP, new SolverHealthIndicator(warmUp, workerPool).health().getStatus());
+    }
+}
@@ -0,0 +1,58 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.config.SolverProperties;
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.EmployeeInfo;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgress;
+import ase.meditrack.service.algorithm.SolverWorkerPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverWorkerPoolTest {
+
+    private AlgorithmInput createInput() {
+        List<EmployeeInfo> employeeInfos = List.of(
+                TestInputs.employee(List.of(0, 1), List.of(0), Set.of()),
+                TestInputs.employee(List.of(0, 1), List.of(1), Set.of()));
+        return TestInputs.createInput(employeeInfos, List.of(TestInputs.DAY_SHIFT, TestInputs.NIGHT_SHIFT), 1);
+    }
+
+    @Test
+    void testSolvesInWorkerAndReplacesCrashedWorker() {
+        SolverProperties properties = new SolverProperties();
+        properties.setWorkerProcesses(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SolverWorkerPool pool = new SolverWorkerPool(properties, meterRegistry);
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).build();
+        pool.start();
+        try {
+            List<SolverProgress> progress = new ArrayList<>();
+            AlgorithmOutput output = pool.solve(createInput(), options, progress::add).orElseThrow();
+
+            assertFalse(output.assignmentOfEmployeesToShifts().isEmpty());
+            assertFalse(progress.isEmpty());
+
+            ProcessHandle.current().children().forEach(worker -> {
+                worker.destroyForcibly();
+                worker.onExit().join();
+            });
+
+            assertTrue(pool.solve(createInput(), options, progress::add).isPresent());
+            assertEquals(1, meterRegistry.get("meditrack.solver.processes.restarts").tag("reason", "crash")
+                    .counter().count());
+            assertEquals(1, meterRegistry.get("meditrack.solver.processes.alive").gauge().value());
+        } finally {
+            pool.stop();
+        }
+    }
+}
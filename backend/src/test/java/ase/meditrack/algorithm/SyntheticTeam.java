@@ -0,0 +1,195 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.model.entity.Holiday;
+import ase.meditrack.model.entity.Preferences;
+import ase.meditrack.model.entity.Role;
+import ase.meditrack.model.entity.Shift;
+import ase.meditrack.model.entity.ShiftType;
+import ase.meditrack.model.entity.Team;
+import ase.meditrack.model.entity.User;
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmMapper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates a team with random but reproducible employees, holidays and shifts of the previous month, so the
+ * scheduling engine can be tested and benchmarked with teams of any size. The staffing levels grow with the team,
+ * so every generated team can be planned.
+ *
+ * @param month           the month that is planned
+ * @param team            the team
+ * @param employees       the employees of the team
+ * @param holidaysPerUser the holidays of every employee
+ * @param shiftTypes      the shift types of the team
+ * @param roles           the roles of the team
+ * @param prevMonthShifts the shifts of the last days of the previous month
+ */
+public record SyntheticTeam(
+        YearMonth month,
+        Team team,
+        List<User> employees,
+        Map<UUID, List<Holiday>> holidaysPerUser,
+        List<ShiftType> shiftTypes,
+        List<Role> roles,
+        List<Shift> prevMonthShifts
+) {
+    private static final String[] ROLE_NAMES = {"Doctor", "Nurse", "Assistant", "Trainee", "Paramedic"};
+    // day and night are always the first two shift types, so every team can staff the day and the night
+    private static final LocalTime[][] SHIFT_TIMES = {
+            {LocalTime.of(8, 0), LocalTime.of(20, 0)},
+            {LocalTime.of(20, 0), LocalTime.of(8, 0)},
+            {LocalTime.of(6, 0), LocalTime.of(14, 0)},
+            {LocalTime.of(14, 0), LocalTime.of(22, 0)},
+            {LocalTime.of(10, 0), LocalTime.of(18, 0)},
+            {LocalTime.of(22, 0), LocalTime.of(6, 0)}
+    };
+    private static final int CARRY_OVER_DAYS = 3;
+
+    /**
+     * @param employees      number of employees
+     * @param shiftTypes     number of shift types, between 2 and 6
+     * @param roles          number of roles, between 1 and 5
+     * @param holidayDensity share of the working days the employees are on holiday, between 0 and 1
+     * @param carryOver      true if the employees worked on the last days of the previous month
+     * @param seed           seed of the random generator, the same seed generates the same team
+     * @return the generated team
+     */
+    public static SyntheticTeam generate(int employees, int shiftTypes, int roles, double holidayDensity,
+                                         boolean carryOver, long seed) {
+        if (shiftTypes < 2 || shiftTypes > SHIFT_TIMES.length) {
+            throw new IllegalArgumentException("Number of shift types must be between 2 and " + SHIFT_TIMES.length);
+        }
+        if (roles < 1 || roles > ROLE_NAMES.length) {
+            throw new IllegalArgumentException("Number of roles must be between 1 and " + ROLE_NAMES.length);
+        }
+        Random random = new Random(seed);
+        YearMonth month = YearMonth.of(2024, 6);
+
+        Team team = new Team();
+        team.setId(new UUID(seed, 0));
+        team.setName("Synthetic team " + employees);
+        team.setDaytimeRequiredPeople(Math.max(1, employees / 5));
+        team.setNighttimeRequiredPeople(Math.max(1, employees / 10));
+
+        List<ShiftType> shiftTypeList = new ArrayList<>();
+        for (int i = 0; i < shiftTypes; i++) {
+            ShiftType shiftType = new ShiftType();
+            shiftType.setId(new UUID(seed, 100 + i));
+            shiftType.setName("Shift " + i);
+            shiftType.setStartTime(SHIFT_TIMES[i][0]);
+            shiftType.setEndTime(SHIFT_TIMES[i][1]);
+            shiftType.setTeam(team);
+            shiftTypeList.add(shiftType);
+        }
+
+        List<Role> roleList = new ArrayList<>();
+        for (int i = 0; i < roles; i++) {
+            Role role = new Role();
+            role.setId(new UUID(seed, 200 + i));
+            role.setName(ROLE_NAMES[i]);
+            // only the first role has its own staffing level, like doctors that must always be present
+            role.setDaytimeRequiredPeople(i == 0 ? Math.max(1, employees / roles / 8) : 0);
+            role.setNighttimeRequiredPeople(i == 0 ? Math.max(1, employees / roles / 16) : 0);
+            role.setWorkingHours(40);
+            role.setAllowedFlextimeTotal(40);
+            role.setAllowedFlextimePerMonth(20);
+            role.setMaxWeeklyHours(60);
+            role.setMaxConsecutiveShifts(5);
+            role.setTeam(team);
+            roleList.add(role);
+        }
+
+        List<User> users = new ArrayList<>();
+        Map<UUID, List<Holiday>> holidaysPerUser = new HashMap<>();
+        for (int i = 0; i < employees; i++) {
+            User user = new User();
+            user.setId(new UUID(seed, 1000 + i));
+            user.setTeam(team);
+            user.setRole(roleList.get(i % roles));
+            user.setWorkingHoursPercentage(i % 4 == 3 ? 50f : 100f);
+            user.setCurrentOverTime(random.nextInt(21) - 10);
+            // every fifth employee does not work at night
+            user.setCanWorkShiftTypes(i % 5 == 4
+                    ? shiftTypeList.stream().filter(type -> type.getStartTime().isBefore(type.getEndTime())).toList()
+                    : List.of());
+            user.setPreferredShiftTypes(List.of(user.getCanWorkShiftTypes().isEmpty()
+                    ? shiftTypeList.get(random.nextInt(shiftTypes))
+                    : user.getCanWorkShiftTypes().get(0)));
+
+            Preferences preferences = new Preferences();
+            preferences.setOffDays(List.of(month.atDay(1 + random.nextInt(month.lengthOfMonth())),
+                    month.atDay(1 + random.nextInt(month.lengthOfMonth()))));
+            user.setPreferences(preferences);
+
+            List<Holiday> holidays = new ArrayList<>();
+            int holidayDays = (int) Math.round(holidayDensity * month.lengthOfMonth());
+            if (holidayDays > 0) {
+                int start = 1 + random.nextInt(month.lengthOfMonth() - holidayDays + 1);
+                Holiday holiday = new Holiday();
+                holiday.setId(new UUID(seed, 100_000 + i));
+                holiday.setStartDate(month.atDay(start));
+                holiday.setEndDate(month.atDay(start + holidayDays - 1));
+                holiday.setUser(user);
+                holidays.add(holiday);
+            }
+            user.setHolidays(holidays);
+            holidaysPerUser.put(user.getId(), holidays);
+            users.add(user);
+        }
+
+        List<Shift> prevMonthShifts = new ArrayList<>();
+        if (carryOver) {
+            LocalDate endOfPrevMonth = month.minusMonths(1).atEndOfMonth();
+            for (int day = CARRY_OVER_DAYS - 1; day >= 0; day--) {
+                LocalDate date = endOfPrevMonth.minusDays(day);
+                for (int type = 0; type < 2; type++) {
+                    int required = type == 0 ? team.getDaytimeRequiredPeople() : team.getNighttimeRequiredPeople();
+                    int first = type == 0 ? 0 : team.getDaytimeRequiredPeople();
+                    // the same employees work on consecutive days, so the consecutive shifts are carried over
+                    List<User> shiftUsers = new ArrayList<>();
+                    for (int n = 0; n < required; n++) {
+                        User user = users.get((first + n) % employees);
+                        if (!shiftUsers.contains(user) && (type == 0 || user.getCanWorkShiftTypes().isEmpty())) {
+                            shiftUsers.add(user);
+                        }
+                    }
+                    Shift shift = new Shift();
+                    shift.setId(UUID.randomUUID());
+                    shift.setDate(date);
+                    shift.setShiftType(shiftTypeList.get(type));
+                    shift.setUsers(shiftUsers);
+                    prevMonthShifts.add(shift);
+                }
+            }
+        }
+
+        return new SyntheticTeam(month, team, users, holidaysPerUser, shiftTypeList, roleList, prevMonthShifts);
+    }
+
+    /**
+     * Maps the team like the monthly plan creator does.
+     *
+     * @param mapper the mapper to use, it keeps the mapping of the indices
+     * @return the input of the scheduling engine
+     */
+    public AlgorithmInput toAlgorithmInput(AlgorithmMapper mapper) {
+        return mapper.mapToAlgorithmInput(month.getMonthValue(), month.getYear(), employees, holidaysPerUser,
+                shiftTypes, roles, team, prevMonthShifts);
+    }
+
+    /**
+     * @return the input of the scheduling engine
+     */
+    public AlgorithmInput toAlgorithmInput() {
+        return toAlgorithmInput(new AlgorithmMapper());
+    }
+}
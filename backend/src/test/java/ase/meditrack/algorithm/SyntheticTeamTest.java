@@ -0,0 +1,34 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.Scheduler;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticTeamTest {
+
+    @Test
+    void testSameSeedGeneratesSameInput() {
+        assertEquals(SyntheticTeam.generate(20, 4, 3, 0.1, true, 7).toAlgorithmInput(),
+                SyntheticTeam.generate(20, 4, 3, 0.1, true, 7).toAlgorithmInput());
+    }
+
+    @Test
+    void testGeneratedTeamCanBePlanned() {
+        AlgorithmInput input = SyntheticTeam.generate(50, 4, 3, 0.1, true, 1).toAlgorithmInput();
+
+        AlgorithmOutput output = Scheduler.GREEDY.solve(input, SolverOptions.defaults(), SolverProgressListener.NONE)
+                .orElseThrow();
+
+        assertEquals(50, input.employees().size());
+        assertFalse(input.dayToEmployeeToShiftTypeMapping().isEmpty());
+        // the plan of the heuristic must satisfy all hard constraints of the solver
+        assertTrue(TestInputs.isAcceptedBySolver(input, output, 10));
+    }
+}
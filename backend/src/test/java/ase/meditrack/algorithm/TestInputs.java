@@ -0,0 +1,68 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmOutput;
+import ase.meditrack.service.algorithm.EmployeeInfo;
+import ase.meditrack.service.algorithm.RepairScope;
+import ase.meditrack.service.algorithm.RoleInfo;
+import ase.meditrack.service.algorithm.Scheduler;
+import ase.meditrack.service.algorithm.ShiftTypeInfo;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inputs and checks that are shared by the tests of the scheduling engine.
+ */
+final class TestInputs {
+    static final ShiftTypeInfo DAY_SHIFT = new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(20, 0), 12);
+    static final ShiftTypeInfo NIGHT_SHIFT = new ShiftTypeInfo(LocalTime.of(20, 0), LocalTime.of(8, 0), 12);
+
+    private TestInputs() {
+    }
+
+    /**
+     * @param worksShiftTypes     the shift types the employee can work
+     * @param preferredShiftTypes the shift types the employee prefers
+     * @param holidays            the holidays of the employee
+     * @return an employee of the first role that can work up to 12 hours every day
+     */
+    static EmployeeInfo employee(List<Integer> worksShiftTypes, List<Integer> preferredShiftTypes,
+                                 Set<Integer> holidays) {
+        return new EmployeeInfo(worksShiftTypes, preferredShiftTypes, 0, 28 * 12, 28 * 4, holidays, Set.of(), 0);
+    }
+
+    /**
+     * @param employees             the employees of the team
+     * @param shiftTypes            the shift types of the team
+     * @param daytimeRequiredPeople the number of employees that have to work during the day
+     * @return a month of 28 days with a single role without a limit of the weekly hours
+     */
+    static AlgorithmInput createInput(List<EmployeeInfo> employees, List<ShiftTypeInfo> shiftTypes,
+                                      int daytimeRequiredPeople) {
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 5));
+        return new AlgorithmInput(28, employees, shiftTypes, roles, daytimeRequiredPeople, 0, new TreeMap<>());
+    }
+
+    /**
+     * Fixes every shift of the output in the model of the solver, so the solver only finds a solution if the output
+     * satisfies all hard constraints.
+     *
+     * @param input            the input the output was created for
+     * @param output           the output to check
+     * @param maxTimeInSeconds the time limit of the solver
+     * @return true if the output satisfies all hard constraints
+     */
+    static boolean isAcceptedBySolver(AlgorithmInput input, AlgorithmOutput output, double maxTimeInSeconds) {
+        RepairScope fixed = new RepairScope(output.assignmentOfEmployeesToShifts(), Set.of(), Set.of(), Map.of(),
+                Map.of());
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(maxTimeInSeconds)
+                .repair(fixed).build();
+        return Scheduler.CP_SAT.solve(input, options, SolverProgressListener.NONE).isPresent();
+    }
+}
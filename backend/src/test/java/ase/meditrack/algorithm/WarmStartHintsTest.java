@@ -0,0 +1,68 @@
+package ase.meditrack.algorithm;
+
+import ase.meditrack.service.algorithm.AlgorithmInput;
+import ase.meditrack.service.algorithm.AlgorithmOutput.ShiftTypeDayPair;
+import ase.meditrack.service.algorithm.EmployeeInfo;
+import ase.meditrack.service.algorithm.RoleInfo;
+import ase.meditrack.service.algorithm.SchedulingSolver;
+import ase.meditrack.service.algorithm.ShiftTypeInfo;
+import ase.meditrack.service.algorithm.SolverOptions;
+import ase.meditrack.service.algorithm.SolverProgressListener;
+import ase.meditrack.service.algorithm.WarmStartHints;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WarmStartHintsTest {
+
+    private AlgorithmInput createInput() {
+        List<EmployeeInfo> employeeInfos = List.of(
+                new EmployeeInfo(List.of(0), List.of(), 14 * 8 - 20, 14 * 8 + 20, 14 * 8, Set.of(3), Set.of(), 0),
+                new EmployeeInfo(List.of(0), List.of(), 14 * 8 - 20, 14 * 8 + 20, 14 * 8, Set.of(), Set.of(), 0)
+        );
+        List<ShiftTypeInfo> shiftTypeInfos = List.of(new ShiftTypeInfo(LocalTime.of(8, 0), LocalTime.of(16, 0), 8));
+        List<RoleInfo> roles = List.of(new RoleInfo("Rolename", 0, 0, Integer.MAX_VALUE, 28));
+        return new AlgorithmInput(28, employeeInfos, shiftTypeInfos, roles, 0, 0, new TreeMap<>());
+    }
+
+    @Test
+    void testContinuesRotationOfPreviousMonth() {
+        // previous month has 31 days, so the last rotation starts at day 3
+        var hint = WarmStartHints.fromPreviousMonth(
+                Map.of(0, List.of(new ShiftTypeDayPair(0, 3), new ShiftTypeDayPair(0, 10), new ShiftTypeDayPair(0, 2))),
+                31, 30);
+
+        assertEquals(List.of(new ShiftTypeDayPair(0, 0), new ShiftTypeDayPair(0, 7), new ShiftTypeDayPair(0, 28)),
+                hint.get(0));
+    }
+
+    @Test
+    void testMergeUsesFirstSourceAndRemovesInvalidShifts() {
+        AlgorithmInput input = createInput();
+        var hint = WarmStartHints.merge(input,
+                Map.of(0, List.of(new ShiftTypeDayPair(0, 3), new ShiftTypeDayPair(0, 4), new ShiftTypeDayPair(1, 5))),
+                Map.of(0, List.of(new ShiftTypeDayPair(0, 6)), 1, List.of(new ShiftTypeDayPair(0, 7))));
+
+        // day 3 is a holiday and shift type 1 can not be worked
+        assertEquals(List.of(new ShiftTypeDayPair(0, 4)), hint.get(0));
+        assertEquals(List.of(new ShiftTypeDayPair(0, 7)), hint.get(1));
+    }
+
+    @Test
+    void testSolverFindsSolutionFromGreedyDraft() {
+        AlgorithmInput input = createInput();
+        var hint = WarmStartHints.merge(input, WarmStartHints.greedyDraft(input));
+        assertEquals(2, hint.size());
+        assertTrue(hint.get(0).stream().noneMatch(pair -> pair.day() == 3));
+
+        SolverOptions options = SolverOptions.defaults().toBuilder().maxTimeInSeconds(5).hint(hint).build();
+        assertTrue(SchedulingSolver.solve(input, options, SolverProgressListener.NONE).isPresent());
+    }
+}
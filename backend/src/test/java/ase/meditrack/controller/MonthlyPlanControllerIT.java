@@ -255,6 +255,7 @@ class MonthlyPlanControllerIT {
                 true,
                 team.getId(),
                 shifts,
+                null,
                 null
         );
 
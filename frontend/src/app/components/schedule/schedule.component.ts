@@ -121,12 +121,33 @@ export class ScheduleComponent implements OnInit {
         this.updateData();
       },
       error => {
-        this.messageService.add({severity: 'error', summary: 'Error creating schedule: ' + JSON.stringify(error.error).replaceAll('"', '')});
+        const message = error.error?.message ?? JSON.stringify(error.error).replaceAll('"', '');
+        const conflicts = (error.error?.conflicts ?? [])
+          .map((conflict: { rule: string, user?: string, role?: string, date?: string }) =>
+            [conflict.rule, this.getUserName(conflict.user), conflict.role, conflict.date]
+              .filter(part => part != null).join(' '))
+          .join(', ');
+        this.messageService.add({
+          severity: 'error',
+          summary: 'Error creating schedule: ' + message,
+          detail: conflicts
+            ? 'Conflicting rules: ' + conflicts
+              + (error.error?.conflictsMinimal === false ? ' (not all of them may be needed for the conflict)' : '')
+            : undefined
+        });
         this.loading = false;
 
       });
   }
 
+  getUserName(userId?: string): string | undefined {
+    if (userId == null) {
+      return undefined;
+    }
+    const user = this.users.find(user => user.id === userId);
+    return user ? user.firstName + ' ' + user.lastName : userId;
+  }
+
   async fetchMonthSchedule(date: Date): Promise<void> {
     const month = format(date, 'MMMM');
     const year = getYear(date);